@@ -1,64 +1,110 @@
 package com.starlingbank;
 
 import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
 
+import com.starlingbank.backfill.BackfillResult;
+import com.starlingbank.backfill.BackfillSettings;
+import com.starlingbank.backfill.HistoricalBackfill;
 import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.ledger.LedgerSweeper;
+import com.starlingbank.ledger.SweepReport;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
 import com.starlingbank.model.Account;
 import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
 import com.starlingbank.model.SavingGoal;
 import com.starlingbank.model.Transaction;
+import com.starlingbank.model.TransferResult;
+import com.starlingbank.server.RoundUpEndpoints;
+import com.starlingbank.server.RoundUpServer;
+import com.starlingbank.server.ServerSettings;
 import com.starlingbank.service.AccountService;
+import com.starlingbank.service.RoundUpService;
 import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.SavingsGoalTransferService;
 import com.starlingbank.service.TransactionService;
+import com.starlingbank.shard.ShardCoordinator;
+import com.starlingbank.shard.ShardQueue;
+import com.starlingbank.shard.ShardReport;
+import com.starlingbank.shard.ShardRoundUp;
+import com.starlingbank.shard.ShardSettings;
+import com.starlingbank.shard.ShardWorker;
+import com.starlingbank.simulation.RoundUpSimulator;
+import com.starlingbank.simulation.RoundUpStrategy;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpAllocator;
 import com.starlingbank.util.RoundUpCalculator;
 import com.starlingbank.util.UserInputHandler;
+import com.starlingbank.webhook.AccumulatorSweeper;
+import com.starlingbank.webhook.RoundUpAccumulator;
+import com.starlingbank.webhook.WebhookServer;
+import com.starlingbank.webhook.Webhooks;
 
 /**
  * The ApplicationRunner class is responsible for running the application.
- * It fetches account details, gets start and end dates from the user, gets transactions between specific timestamps,
- * calculates the total round-up amount, and manages savings goals.
+ * It fetches every account, gets start and end dates from the user, gets the transactions of each account between
+ * specific timestamps, calculates its round-up amount, and splits it across the account's savings goals.
  * @author Cesar Goncalves
  */
 public class ApplicationRunner {
-    private static final int POUNDS_TO_MINOR_UNITS = 100;
-
     private final AccountService accountService;
     private final TransactionService transactionService;
     private final SavingsGoalService savingsGoalService;
     private final RoundUpCalculator calculator;
     private final UserInputHandler userInputHandler;
+    private final RoundUpAllocator allocator;
+    private final SavingsGoalTransferService transferService;
+    // Calculates the round-ups of every account in parallel
+    private final RoundUpService roundUpService;
+    // Log of the progress, written by a background thread
+    private final EventLog log = EventLog.get();
+    // Accrues the round-ups in the ledger and sweeps them, or null to transfer them as soon as found
+    private final LedgerSweeper ledgerSweeper;
 
     /**
      * Constructor for ApplicationRunner.
-     * Initializes the services, calculator, and user input handler.
+     * Initializes the services, calculator, user input handler, the allocator splitting the round-up across the
+     * savings goals, the service rounding up the accounts in parallel, and the ledger sweeper accruing the shares
+     * until they are due to be swept.
+     * Without a ledger sweeper, the shares are transferred by the transfer service as soon as they are found.
      */
+    @SuppressWarnings("checkstyle:ParameterNumber")
     public ApplicationRunner(AccountService accountService, TransactionService transactionService,
-        SavingsGoalService savingsGoalService, RoundUpCalculator calculator, UserInputHandler userInputHandler) {
+        SavingsGoalService savingsGoalService, RoundUpCalculator calculator, UserInputHandler userInputHandler,
+        RoundUpAllocator allocator, SavingsGoalTransferService transferService, RoundUpService roundUpService,
+        LedgerSweeper ledgerSweeper) {
 
         this.accountService = accountService;
         this.transactionService = transactionService;
         this.savingsGoalService = savingsGoalService;
         this.calculator = calculator;
         this.userInputHandler = userInputHandler;
+        this.allocator = allocator;
+        this.transferService = transferService;
+        this.roundUpService = roundUpService;
+        this.ledgerSweeper = ledgerSweeper;
     }
 
     /**
      * Runs the application.
-     * Fetches account details, gets start and end dates from the user,
-     * retrieves transactions between specific timestamps,
-     * calculates the total round-up amount, and manages savings goals.
+     * Fetches every account, gets start and end dates from the user,
+     * retrieves the transactions of the accounts between specific timestamps and calculates their round-up amounts
+     * in parallel, then manages the savings goals of each account.
      * @throws IOException if an I/O error occurs.
      * @throws ApiException if an API error occurs.
      */
     public void runApplication() throws IOException, ApiException {
-        // Fetch account details
-        Account account = accountService.getAccountDetails();
+        // Fetch every account
+        List<Account> accounts = accountService.requireAccounts();
 
         // Get the start and end dates from the user
         LocalDate startDate = userInputHandler.readDate("Enter the start date (YYYY-MM-DD): ");
@@ -66,59 +112,221 @@ public class ApplicationRunner {
 
         // Validate that the start date is before the end date
         if (!startDate.isBefore(endDate)) {
-            System.out.println("Invalid date range. The start date must be before the end date.");
+            log.warning("input", "Invalid date range. The start date must be before the end date.");
             return; // Or loop back to ask for the dates again
         }
 
-        // Convert LocalDate to ZonedDateTime at the start of the day in UTC
-        ZonedDateTime startDateTime = startDate.atStartOfDay(ZoneOffset.UTC);
-        ZonedDateTime endDateTime = endDate.atStartOfDay(ZoneOffset.UTC);
+        // Get the transactions of every account between specific timestamps and calculate their round-ups in parallel
+        Map<Account, PendingRoundUp> roundUps = roundUpService.calculateRoundUps(accounts, startDate, endDate);
 
-        // Format to the desired string representation
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
-        String formattedStartDate = startDateTime.format(formatter);
-        String formattedEndDate = endDateTime.format(formatter);
+        // Manage the savings goals of one account at a time, as creating a savings goal prompts the user
+        roundUps.forEach(this::manageSavingsGoals);
+    }
 
-        // Get transactions between specific timestamps
-        List<Transaction> transactions = transactionService.getTransactions(account.getAccountUid(),
-                                        account.getCategoryUid(), formattedStartDate, formattedEndDate);
+    /**
+     * Simulates what each strategy of the standard grid would have saved over the last year of transactions
+     * and prints the comparison table, without transferring anything.
+     * @throws IOException if an I/O error occurs.
+     * @throws ApiException if an API error occurs.
+     */
+    public void runSimulation() throws IOException, ApiException {
+        Account account = accountService.getAccountDetails();
+        LocalDate endDate = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        List<Transaction> transactions = transactionService.getTransactions(account, endDate.minusYears(1), endDate);
 
-        // Calculate the total round-up amount
-        int totalRoundUpMinorUnits = calculator.calculateTotalRoundUp(transactions);
+        RoundUpSimulator simulator = new RoundUpSimulator(calculator, RoundUpStrategy.standardGrid());
+        // The table is the output of the command rather than progress, so it is printed after the progress logged
+        log.flush();
+        System.out.println("Round-up savings over " + transactions.size() + " transactions since "
+            + endDate.minusYears(1) + ":");
+        simulator.simulate(transactions).writeTable(System.out);
+    }
 
-        // Manage savings goals
-        manageSavingsGoals(account, totalRoundUpMinorUnits);
+    /**
+     * Backfills the round-up of a long range of history entered by the user, chunk by chunk, resuming from the
+     * checkpoint of an interrupted backfill of the same range, and manages the savings goals once every chunk
+     * is completed.
+     * @param settings The checkpoint file, chunk size and concurrency of the backfill.
+     * @throws IOException if an I/O error occurs, including when the checkpoint cannot be read or saved.
+     * @throws ApiException if an API error occurs.
+     */
+    public void runBackfill(BackfillSettings settings) throws IOException, ApiException {
+        Account account = accountService.getAccountDetails();
+        LocalDate startDate = userInputHandler.readDate("Enter the start date of the backfill (YYYY-MM-DD): ");
+        LocalDate endDate = userInputHandler.readDate("Enter the end date of the backfill (YYYY-MM-DD): ");
+        if (!startDate.isBefore(endDate)) {
+            log.warning("input", "Invalid date range. The start date must be before the end date.");
+            return;
+        }
+
+        BackfillResult result = new HistoricalBackfill(transactionService, calculator, settings)
+            .run(account, startDate, endDate);
+        log.log(LogEvent.of(Level.INFO, "backfill", "Backfilled " + result.getCompletedChunks() + " of "
+            + result.getTotalChunks() + " chunks (" + result.getResumedChunks() + " resumed from the checkpoint).")
+            .account(account.getAccountUid()).amount(result.getRoundUpMinorUnits()));
+        if (!result.isComplete()) {
+            log.warning("backfill", "The backfill is incomplete; run it again over the same range to resume it.");
+            return;
+        }
+        manageSavingsGoals(account, result.getRoundUp());
+    }
+
+    /**
+     * Runs the round-up of every account over a range entered by the user across worker processes, resuming the
+     * queue of an interrupted run over the same range, and prints the merged report of the shards.
+     * @param settings The queue directory and the number of workers and shards.
+     * @param workerCommand The command starting a worker process.
+     * @throws IOException if an I/O error occurs, including when the queue cannot be written.
+     */
+    public void runShardCoordinator(ShardSettings settings, List<String> workerCommand) throws IOException {
+        List<Account> accounts = accountService.getAccounts();
+        LocalDate startDate = userInputHandler.readDate("Enter the start date (YYYY-MM-DD): ");
+        LocalDate endDate = userInputHandler.readDate("Enter the end date (YYYY-MM-DD): ");
+        if (!startDate.isBefore(endDate)) {
+            log.warning("input", "Invalid date range. The start date must be before the end date.");
+            return;
+        }
+
+        try {
+            ShardReport report = new ShardCoordinator(settings, workerCommand).run(accounts, startDate, endDate);
+            log.log(LogEvent.of(Level.INFO, "shard", "Rounded up " + report.getAccounts() + " of " + accounts.size()
+                + " accounts across " + settings.getWorkers() + " workers: " + report.getRoundUpMinorUnits()
+                + " minor units found, " + report.getTransferredMinorUnits() + " transferred, "
+                + report.getFailedAccounts() + " accounts failed.")
+                .amount(report.getTransferredMinorUnits()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warning("shard", "Interrupted while waiting for the workers; run again over the same range to resume.");
+        }
+    }
+
+    /**
+     * Runs a worker process of the sharded round-up until every shard of the queue is done, transferring the
+     * round-up of each account into its savings goals.
+     * @param settings The queue directory, the poll interval and the account timeout of the worker.
+     * @throws IOException if an I/O error occurs, including when the queue cannot be read or written.
+     */
+    public void runShardWorker(ShardSettings settings) throws IOException {
+        ShardWorker worker = new ShardWorker(ShardQueue.open(settings.getQueueDirectory()),
+            new ShardRoundUp(transactionService, savingsGoalService, calculator, allocator, transferService),
+            settings.getPollInterval(), settings.getAccountTimeout());
+        try {
+            log.info("shard", "Completed " + worker.run() + " shards.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serves the round-up over HTTP to other systems, through the services of this runner, until the application
+     * is stopped.
+     * @param settings The address to listen on, the timeout of a request and the token of the callers.
+     * @throws IOException if the address cannot be bound.
+     */
+    public void runServer(ServerSettings settings) throws IOException {
+        RoundUpServer server = new RoundUpServer(settings,
+            new RoundUpEndpoints(transactionService, savingsGoalService, calculator));
+        server.start();
+        log.info("server", "Serving the round-ups on " + settings.getHost() + ":" + server.getPort());
+    }
+
+    /**
+     * Listens for the feed item webhooks until the application is stopped, accumulating their round-ups, and
+     * sweeps the accumulated round-ups into the savings goals of their accounts at the interval of the
+     * environment, through the ledger if there is one.
+     * @param environment The environment variables configuring the webhook server and the sweeps.
+     * @param jsonCodec Decodes the events.
+     * @throws IOException if the port cannot be bound or the journal of the round-ups cannot be opened.
+     * @throws GeneralSecurityException if the public key of the webhooks is missing or invalid.
+     */
+    public void runWebhooks(Map<String, String> environment, JsonCodec jsonCodec)
+        throws IOException, GeneralSecurityException {
+        RoundUpAccumulator accumulator = Webhooks.accumulatorFromEnvironment(environment,
+            calculator.getProcessedItems());
+        WebhookServer server = Webhooks.serverFromEnvironment(environment, jsonCodec, accumulator);
+        new AccumulatorSweeper(accumulator, savingsGoalService, allocator, transferService, ledgerSweeper)
+            .start(Webhooks.sweepIntervalFromEnvironment(environment));
+        server.start();
+        log.info("webhooks", "Listening for feed item webhooks on port " + server.getPort());
     }
 
     /**
      * Manages savings goals.
      * If there are no savings goals, it prompts the user to create one.
-     * If there is a round-up amount, it adds it to the savings goal.
+     * If there is a round-up amount, it splits it across the savings goals and transfers the shares in parallel.
      * @param account The account object.
-     * @param totalRoundUpMinorUnits The total round-up amount in minor units.
+     * @param roundUp The total round-up, whose feed items are recorded as processed once it is transferred.
      */
-    private void manageSavingsGoals(Account account, int totalRoundUpMinorUnits) {
+    private void manageSavingsGoals(Account account, PendingRoundUp roundUp) {
+        long totalRoundUpMinorUnits = roundUp.getMinorUnits();
         List<SavingGoal> savingsGoals = savingsGoalService.getSavingsGoals(account.getAccountUid());
-        SavingGoal targetSavingGoal;
 
         if (savingsGoals.isEmpty()) {
-            String goalName = userInputHandler.readString("Enter a name for your savings goal: ");
-            double targetAmountPounds = userInputHandler.readDouble("Enter your target amount in pounds: ");
-            Amount targetAmount = new Amount((int) (targetAmountPounds * POUNDS_TO_MINOR_UNITS),
-                                "GBP"); // Assuming the currency is always GBP
+            savingsGoals = List.of(createSavingsGoal(account));
+        }
 
-            targetSavingGoal = savingsGoalService.createSavingsGoal(account, goalName, targetAmount);
+        if (totalRoundUpMinorUnits > 0) {
+            Amount roundUpAmount = new Amount(totalRoundUpMinorUnits, CurrencyUnit.GBP);
+            log.log(LogEvent.of(Level.INFO, "transfer", "Total round-up amount to transfer: "
+                + roundUpAmount.format(Locale.UK)).account(account.getAccountUid()).amount(totalRoundUpMinorUnits));
+            Map<SavingGoal, Amount> allocations = allocator.allocate(totalRoundUpMinorUnits, CurrencyUnit.GBP, savingsGoals);
+            transferOrAccrue(account, allocations, roundUp);
         } else {
-            targetSavingGoal = savingsGoals.getFirst(); // Assuming you want to use the first savings goal
+            log.info("transfer", "No round-up amount to transfer.");
+            roundUp.markProcessed();
+        }
+    }
+
+    /**
+     * Transfers the shares of the round-up into the savings goals, or accrues them in the ledger and sweeps the
+     * balances that are due. The feed items of the round-up are recorded as processed once every share is
+     * transferred or accrued.
+     * @param account The account object.
+     * @param allocations The share of each savings goal.
+     * @param roundUp The round-up split across the savings goals.
+     */
+    private void transferOrAccrue(Account account, Map<SavingGoal, Amount> allocations, PendingRoundUp roundUp) {
+        if (ledgerSweeper == null) {
+            transferService.transfer(account, allocations, roundUp).forEach(this::reportTransfer);
+            return;
         }
+        ledgerSweeper.accrue(account, allocations);
+        roundUp.markProcessed();
+        SweepReport report = ledgerSweeper.sweep();
+        log.log(LogEvent.of(Level.INFO, "sweep", "Swept "
+            + new Amount(report.getSweptMinorUnits(), CurrencyUnit.GBP).format(Locale.UK) + " into "
+            + report.getSweptEntries() + " savings goals; " + report.getFailedEntries() + " failed, "
+            + report.getDeferredEntries() + " left for the next sweep, "
+            + ledgerSweeper.getLedger().entries().size() + " balances still accruing.")
+            .account(account.getAccountUid()).amount(report.getSweptMinorUnits()));
+    }
 
-        if (totalRoundUpMinorUnits > 0) {
-            Amount roundUpAmount = new Amount(totalRoundUpMinorUnits, "GBP");
-            System.out.println("Total round-up amount to transfer: " + roundUpAmount.format(Locale.UK));
-            savingsGoalService.addMoneyToSavingsGoal(account, targetSavingGoal, roundUpAmount);
+    /**
+     * Prompts the user for the name and target of a new savings goal and creates it.
+     * @param account The account object.
+     * @return The created savings goal.
+     */
+    private SavingGoal createSavingsGoal(Account account) {
+        String goalName = userInputHandler.readString("Enter a name for your savings goal: ");
+        Amount targetAmount = userInputHandler.readAmount("Enter your target amount in pounds: ",
+            CurrencyUnit.GBP); // Assuming the currency is always GBP
 
+        return savingsGoalService.createSavingsGoal(account, goalName, targetAmount);
+    }
+
+    /**
+     * Reports the outcome of a transfer into a savings goal.
+     * @param result The outcome of the transfer.
+     */
+    private void reportTransfer(TransferResult result) {
+        String amount = result.getAmount().format(Locale.UK);
+        String goalName = result.getSavingGoal().getName();
+        if (result.isSuccessful()) {
+            log.log(LogEvent.of(Level.INFO, "transfer", "Transferred " + amount + " to savings goal " + goalName)
+                .amount(result.getAmount().getMinorUnits()));
         } else {
-            System.out.println("No round-up amount to transfer.");
+            log.log(LogEvent.of(Level.WARNING, "transfer", "Failed to transfer " + amount + " to savings goal "
+                + goalName + ": " + result.getFailure().getMessage()).amount(result.getAmount().getMinorUnits()));
         }
     }
 }
@@ -1,15 +1,38 @@
 package com.starlingbank;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
+import com.starlingbank.api.Deadline;
+import com.starlingbank.api.DeadlineSettings;
 import com.starlingbank.api.StarlingClient;
+import com.starlingbank.api.StarlingClientRegistry;
+import com.starlingbank.backfill.BackfillSettings;
 import com.starlingbank.config.ConfigManager;
+import com.starlingbank.config.ConfigWatcher;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.dedup.ProcessedItemSets;
 import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.json.JsonCodecs;
+import com.starlingbank.ledger.Ledgers;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.server.ServerSettings;
 import com.starlingbank.service.AccountService;
+import com.starlingbank.service.RoundUpService;
 import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.SavingsGoalTransferService;
 import com.starlingbank.service.TransactionService;
+import com.starlingbank.shard.ShardSettings;
+import com.starlingbank.transport.Transports;
+import com.starlingbank.util.AllocationStrategy;
+import com.starlingbank.util.RoundUpAllocator;
 import com.starlingbank.util.RoundUpCalculator;
 import com.starlingbank.util.UserInputHandler;
 
@@ -19,8 +42,23 @@ import com.starlingbank.util.UserInputHandler;
  */
 public final class Main {
 
-    // Logger for logging any errors or exceptions
-    private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+    // The command line argument running the round-up simulation instead of the round-up
+    private static final String SIMULATE_COMMAND = "simulate";
+    // The command line argument backfilling the round-up of a long range of history instead of running the round-up
+    private static final String BACKFILL_COMMAND = "backfill";
+    // The command line argument running the round-up of every account across worker processes
+    private static final String SHARD_COMMAND = "shard";
+    // The command line argument running a worker process of the sharded round-up
+    private static final String SHARD_WORKER_COMMAND = "shard-worker";
+    // The command line argument serving the round-up over HTTP to other systems instead of running it
+    private static final String SERVE_COMMAND = "serve";
+    // The command line argument listening for the feed item webhooks instead of running the round-up
+    private static final String WEBHOOKS_COMMAND = "webhooks";
+    // The environment variable selecting the JsonCodec
+    private static final String JSON_CODEC_VARIABLE = "STARLING_JSON_CODEC";
+
+    // Log of any errors or exceptions
+    private static final EventLog LOG = EventLog.get();
 
     private Main() {
         // Private constructor to prevent instantiation
@@ -29,52 +67,135 @@ public final class Main {
     /**
      * Main method of the application.
      *
-     * @param args the command line arguments
+     * @param args the command line arguments; "simulate" compares the savings of the rounding strategies,
+     * "backfill" backfills the round-up of a long range of history, "shard" runs the round-up of every account
+     * across worker processes started with "shard-worker", "serve" serves the round-up over HTTP, "webhooks"
+     * accumulates the round-ups of the feed item webhooks and sweeps them into the savings goals
      */
     public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "";
         try {
             // Attempt to set up the application runner with the access token from the config
             ApplicationRunner appRunner = setupServices();
 
             if (appRunner == null) {
-                LOGGER.log(Level.SEVERE, "Please update the configuration file with a valid access token.");
+                LOG.log(LogEvent.of(Level.SEVERE, "startup", "Please update the configuration file with a valid access token."));
                 return; // Exit the application
             }
 
-            // Run the application
-            appRunner.runApplication();
+            if (WEBHOOKS_COMMAND.equals(command)) {
+                // The accumulated round-ups are swept into the savings goals through the services of the runner
+                serveWebhooks(appRunner);
+                return;
+            }
+            if (SERVE_COMMAND.equals(command)) {
+                // The server outlives any run; each of its requests gets a deadline of its own
+                appRunner.runServer(ServerSettings.fromEnvironment(System.getenv()));
+                return;
+            }
+            // The calls of every service, on whichever thread, get their share of the time left to the run
+            Deadline.Scope deadline = Deadline.within(DeadlineSettings.fromEnvironment(System.getenv()).getRunTimeout());
+            try {
+                run(appRunner, command);
+            } finally {
+                deadline.close();
+            }
         } catch (IOException | ApiException e) {
-            LOGGER.log(Level.SEVERE, "An error occurred: ", e);
+            LOG.severe("run", "An error occurred", e);
+        }
+    }
+
+    // Method to run the application, the simulation of the rounding strategies, the backfill or the sharded round-up
+    private static void run(ApplicationRunner appRunner, String command) throws IOException, ApiException {
+        if (SIMULATE_COMMAND.equals(command)) {
+            appRunner.runSimulation();
+        } else if (BACKFILL_COMMAND.equals(command)) {
+            appRunner.runBackfill(BackfillSettings.fromEnvironment(System.getenv()));
+        } else if (SHARD_COMMAND.equals(command)) {
+            appRunner.runShardCoordinator(ShardSettings.fromEnvironment(System.getenv()), shardWorkerCommand());
+        } else if (SHARD_WORKER_COMMAND.equals(command)) {
+            appRunner.runShardWorker(ShardSettings.fromEnvironment(System.getenv()));
+        } else {
+            appRunner.runApplication();
         }
     }
 
     // Method to set up services for the application
     private static ApplicationRunner setupServices() {
-        ConfigManager configManager = new ConfigManager();
+        Map<String, String> environment = System.getenv();
+        ConfigManager configManager = new ConfigManager(environment);
         String accessToken = configManager.getAccessToken();
 
-        if (accessToken == null || accessToken.trim().isEmpty()) {
-            LOGGER.log(Level.SEVERE, "Access token is not set or invalid in the properties file.");
+        // A replayed recording needs no access token
+        if (!Transports.isReplaying(environment) && (accessToken == null || accessToken.trim().isEmpty())) {
+            LOG.log(LogEvent.of(Level.SEVERE, "startup", "Access token is not set or invalid in the properties file."));
             return null; // Token is not set or is empty
         }
 
         try {
-            StarlingClient client = new StarlingClient(accessToken);
+            StarlingClientRegistry clientRegistry = new StarlingClientRegistry(Transports.fromEnvironment(environment));
+            configManager.addListener(clientRegistry);
+            watchConfiguration(configManager);
+
+            StarlingClient client = clientRegistry.clientFor(defaultTenant(configManager));
+            // Fills the connection pool while the token is validated and the user enters the amounts
+            client.warmUp();
             client.getAccountDetails(); // Validate the token by attempting an API call
 
             // If the token is valid, set up the rest of the services
-            AccountService accountService = new AccountService(client);
-            TransactionService transactionService = new TransactionService(client);
-            SavingsGoalService savingsGoalService = new SavingsGoalService(client);
-            RoundUpCalculator calculator = new RoundUpCalculator();
+            JsonCodec jsonCodec = JsonCodecs.byName(System.getenv(JSON_CODEC_VARIABLE));
+            AccountService accountService = new AccountService(client, jsonCodec);
+            TransactionService transactionService = new TransactionService(client, jsonCodec);
+            SavingsGoalService savingsGoalService = new SavingsGoalService(client, jsonCodec);
+            RoundUpCalculator calculator = new RoundUpCalculator(ProcessedItemSets.fromEnvironment(environment));
             UserInputHandler userInputHandler = new UserInputHandler();
+            RoundUpAllocator allocator = new RoundUpAllocator(AllocationStrategy.remainingTarget());
+            int maxConcurrentRequests = client.getTenantConfig().getMaxConcurrentRequests();
+            SavingsGoalTransferService transferService = new SavingsGoalTransferService(savingsGoalService,
+                maxConcurrentRequests);
+            RoundUpService roundUpService = new RoundUpService(transactionService, calculator, maxConcurrentRequests,
+                DeadlineSettings.fromEnvironment(environment).getAccountTimeout());
 
-            return new ApplicationRunner(accountService, transactionService,
-                savingsGoalService, calculator, userInputHandler);
+            return new ApplicationRunner(accountService, transactionService, savingsGoalService, calculator,
+                userInputHandler, allocator, transferService, roundUpService,
+                Ledgers.sweeperFromEnvironment(environment, savingsGoalService, maxConcurrentRequests));
 
         } catch (IOException | ApiException e) {
-            LOGGER.log(Level.SEVERE, "The provided access token is not valid: {0}", e.getMessage());
+            LOG.log(LogEvent.of(Level.SEVERE, "startup", "The provided access token is not valid: " + e.getMessage()));
             return null; // Token validation failed
         }
     }
+
+    // Method to listen for the feed item webhooks until the application is stopped
+    private static void serveWebhooks(ApplicationRunner appRunner) {
+        try {
+            appRunner.runWebhooks(System.getenv(), JsonCodecs.byName(System.getenv(JSON_CODEC_VARIABLE)));
+        } catch (IOException | GeneralSecurityException e) {
+            LOG.severe("webhooks", "Cannot listen for the webhooks", e);
+        }
+    }
+
+    // Method to get the command starting a worker process with the same JVM and class path as this one
+    private static List<String> shardWorkerCommand() {
+        return List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-cp",
+            System.getProperty("java.class.path"), Main.class.getName(), SHARD_WORKER_COMMAND);
+    }
+
+    // Method to get the configuration of the default tenant, which may be left unconfigured when replaying
+    private static TenantConfig defaultTenant(ConfigManager configManager) {
+        return Objects.requireNonNullElse(configManager.getTenant(TenantConfig.DEFAULT_TENANT),
+            TenantConfig.ofAccessToken(""));
+    }
+
+    // Method to reload the configuration whenever its file changes, so token rotations need no restart
+    private static void watchConfiguration(ConfigManager configManager) {
+        if (configManager.getConfigFile() == null) {
+            return; // The classpath configuration cannot change at runtime
+        }
+        try {
+            new ConfigWatcher(configManager).start();
+        } catch (IOException e) {
+            LOG.warning("config", "Cannot watch the configuration file for changes: " + e.getMessage());
+        }
+    }
 }
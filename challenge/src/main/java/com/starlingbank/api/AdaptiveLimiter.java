@@ -0,0 +1,165 @@
+package com.starlingbank.api;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A bulkhead whose number of concurrent calls adapts to the latency of the endpoint (AIMD).
+ * While the responses stay close to the smoothed latency and the calls fill the limit, the limit grows by one
+ * per limit's worth of responses; a dropped call (I/O error, throttling or server error) or a response slower
+ * than LATENCY_TOLERANCE times the smoothed latency multiplies it by BACKOFF_RATIO, at most once per round trip.
+ * A caller waits at most maxWait for the calls in flight to fall below the limit.
+ * @author Cesar Goncalves
+ */
+public final class AdaptiveLimiter {
+    private static final int MIN_LIMIT = 1;
+    // The limit is multiplied by this ratio when the endpoint shows signs of overload
+    private static final double BACKOFF_RATIO = 0.9;
+    // A response slower than this multiple of the smoothed latency is a sign of overload
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // Weight of each response in the smoothed latency
+    private static final double SMOOTHING = 0.05;
+
+    private final int maxLimit;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+    // Guards the limit, the calls in flight and the latency statistics
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition belowLimit = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    // Exponentially weighted average of the latency of the calls that were not dropped, 0 before the first one
+    private double smoothedLatencyNanos;
+    // Calls started before the last decrease cannot decrease the limit again, so a burst of slow responses
+    // backs off once instead of once per response
+    private long lastDecreaseNanos;
+
+    /**
+     * Constructor for AdaptiveLimiter.
+     * @param initialLimit The number of concurrent calls allowed before any latency is observed.
+     * @param maxLimit The number of concurrent calls the limit never grows beyond.
+     * @param maxWait How long a caller waits for the calls in flight to fall below the limit before being rejected.
+     * @param nanoClock The source of the current time in nanoseconds.
+     */
+    public AdaptiveLimiter(int initialLimit, int maxLimit, Duration maxWait, LongSupplier nanoClock) {
+        this.limit = Math.max(MIN_LIMIT, Math.min(initialLimit, maxLimit));
+        this.maxLimit = maxLimit;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Waits at most maxWait for the calls in flight to fall below the limit. Every acquired slot must be released.
+     * @return true if a slot was acquired, false if the calls in flight stayed at the limit.
+     * @throws InterruptedException If the caller is interrupted while waiting.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long remainingNanos = maxWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = belowLimit.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquires a slot if the calls in flight are below the limit, without waiting. Every acquired slot must be
+     * released.
+     * @return true if a slot was acquired, false if the calls in flight are at the limit.
+     */
+    public boolean tryAcquireNow() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adapts the limit to the outcome of a call, before its slot is released.
+     * @param startNanos When the call started, read from the limiter's clock.
+     * @param latencyNanos The latency of the call, in nanoseconds.
+     * @param dropped Whether the call failed in a way that signals overload.
+     */
+    public void onSample(long startNanos, long latencyNanos, boolean dropped) {
+        lock.lock();
+        try {
+            boolean overloaded = dropped || isSlow(latencyNanos);
+            if (overloaded) {
+                decreaseLimit(startNanos);
+            } else if (inFlight * 2 >= limit) {
+                increaseLimit();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot acquired with tryAcquire or tryAcquireNow.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            belowLimit.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current number of concurrent calls allowed.
+     * @return The current limit.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Compares the latency with the smoothed latency, then folds it in
+    private boolean isSlow(long latencyNanos) {
+        if (smoothedLatencyNanos == 0) {
+            smoothedLatencyNanos = latencyNanos;
+        }
+        boolean slow = latencyNanos > smoothedLatencyNanos * LATENCY_TOLERANCE;
+        smoothedLatencyNanos += (latencyNanos - smoothedLatencyNanos) * SMOOTHING;
+        return slow;
+    }
+
+    private void decreaseLimit(long startNanos) {
+        if (startNanos - lastDecreaseNanos > 0) {
+            limit = Math.max(MIN_LIMIT, limit * BACKOFF_RATIO);
+            lastDecreaseNanos = nanoClock.getAsLong();
+        }
+    }
+
+    private void increaseLimit() {
+        int before = (int) limit;
+        limit = Math.min(maxLimit, limit + 1 / limit);
+        if ((int) limit > before) {
+            // The slot gained is not released by any call, so a waiting caller is woken up here
+            belowLimit.signal();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.starlingbank.api;
+
+import java.io.IOException;
+
+import com.starlingbank.exceptions.ApiException;
+
+/**
+ * A call to the Starling Bank API.
+ * @param <T> The type of the result of the call.
+ * @author Cesar Goncalves
+ */
+@FunctionalInterface
+interface ApiCall<T> {
+
+    /**
+     * Makes the call.
+     * @return The result of the call.
+     * @throws IOException If an input or output exception occurred.
+     * @throws ApiException If an API exception occurred.
+     */
+    T call() throws IOException, ApiException;
+}
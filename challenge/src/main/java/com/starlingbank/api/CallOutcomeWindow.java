@@ -0,0 +1,76 @@
+package com.starlingbank.api;
+
+/**
+ * A count-based sliding window over the outcomes of the most recent calls to an endpoint.
+ * It keeps running counts of the failed and slow calls, so the rates are available in constant time.
+ * This class is not thread-safe: the CircuitBreaker owning it synchronizes the access.
+ * @author Cesar Goncalves
+ */
+final class CallOutcomeWindow {
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+    private static final int PERCENT = 100;
+
+    private final byte[] outcomes;
+    private int next;
+    private int size;
+    private int failedCalls;
+    private int slowCalls;
+
+    /**
+     * Constructor for CallOutcomeWindow.
+     * @param capacity The number of most recent calls kept in the window.
+     */
+    CallOutcomeWindow(int capacity) {
+        this.outcomes = new byte[capacity];
+    }
+
+    /**
+     * Records the outcome of a call, evicting the oldest outcome once the window is full.
+     * @param failed Whether the call failed.
+     * @param slow Whether the call was slow.
+     */
+    void record(boolean failed, boolean slow) {
+        if (size == outcomes.length) {
+            count(outcomes[next], -1);
+        } else {
+            size++;
+        }
+        outcomes[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        count(outcomes[next], 1);
+        next = (next + 1) % outcomes.length;
+    }
+
+    /**
+     * Returns the number of outcomes in the window.
+     * @return The number of outcomes.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the failure rate or the slow-call rate reached its threshold.
+     * @param failureRatePercent The failure rate threshold, in percent.
+     * @param slowCallRatePercent The slow-call rate threshold, in percent.
+     * @return true if either rate is at or above its threshold.
+     */
+    boolean exceeds(int failureRatePercent, int slowCallRatePercent) {
+        return failedCalls * PERCENT >= failureRatePercent * size || slowCalls * PERCENT >= slowCallRatePercent * size;
+    }
+
+    /**
+     * Discards every outcome.
+     */
+    void reset() {
+        next = 0;
+        size = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+    }
+
+    private void count(byte outcome, int delta) {
+        failedCalls += (outcome & FAILED) * delta;
+        slowCalls += (outcome & SLOW) / SLOW * delta;
+    }
+}
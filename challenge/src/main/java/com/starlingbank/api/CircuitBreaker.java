@@ -0,0 +1,114 @@
+package com.starlingbank.api;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker protecting the callers of an endpoint from waiting on it while it is unhealthy.
+ * The breaker is CLOSED while the endpoint is healthy. It OPENS when the failure rate or the slow-call rate
+ * over the most recent calls reaches its threshold, and then rejects every call. Once the open duration has
+ * elapsed it becomes HALF_OPEN and lets a few trial calls through: it closes again if they are healthy,
+ * and opens again otherwise.
+ * @author Cesar Goncalves
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        /** Calls are permitted and their outcomes recorded. */
+        CLOSED,
+        /** Calls are rejected. */
+        OPEN,
+        /** A limited number of trial calls are permitted. */
+        HALF_OPEN
+    }
+
+    private final CircuitBreakerConfig config;
+    private final LongSupplier nanoClock;
+    private final CallOutcomeWindow window;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int trialCallsPermitted;
+
+    /**
+     * Constructor for CircuitBreaker.
+     * @param config The thresholds of the breaker.
+     * @param nanoClock The source of the current time in nanoseconds, usually System::nanoTime.
+     */
+    public CircuitBreaker(CircuitBreakerConfig config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.window = new CallOutcomeWindow(config.getWindowSize());
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     * @return The state.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Checks whether a call may go through. Every permitted call must be followed by a call to onResult.
+     * @return true if the call is permitted, false if it must be rejected.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return tryHalfOpen();
+            default:
+                return acquireTrialCall();
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted call and updates the state of the breaker.
+     * @param failed Whether the call failed.
+     * @param durationNanos How long the call took, in nanoseconds.
+     */
+    public synchronized void onResult(boolean failed, long durationNanos) {
+        window.record(failed, durationNanos >= config.getSlowCallDuration().toNanos());
+        if (state != State.OPEN && window.size() >= requiredCalls()) {
+            evaluate();
+        }
+    }
+
+    private boolean tryHalfOpen() {
+        if (nanoClock.getAsLong() - openedAtNanos < config.getOpenDuration().toNanos()) {
+            return false;
+        }
+        transitionTo(State.HALF_OPEN);
+        return acquireTrialCall();
+    }
+
+    private boolean acquireTrialCall() {
+        if (trialCallsPermitted >= config.getHalfOpenCalls()) {
+            return false;
+        }
+        trialCallsPermitted++;
+        return true;
+    }
+
+    private int requiredCalls() {
+        return state == State.HALF_OPEN ? config.getHalfOpenCalls() : config.getMinimumCalls();
+    }
+
+    private void evaluate() {
+        if (window.exceeds(config.getFailureRatePercent(), config.getSlowCallRatePercent())) {
+            transitionTo(State.OPEN);
+        } else if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        openedAtNanos = nanoClock.getAsLong();
+        trialCallsPermitted = 0;
+        window.reset();
+    }
+}
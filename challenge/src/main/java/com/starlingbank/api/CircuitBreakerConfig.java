@@ -0,0 +1,121 @@
+package com.starlingbank.api;
+
+import java.time.Duration;
+
+/**
+ * The thresholds of a CircuitBreaker.
+ * @author Cesar Goncalves
+ */
+public class CircuitBreakerConfig {
+    private static final int DEFAULT_WINDOW_SIZE = 20;
+    private static final int DEFAULT_MINIMUM_CALLS = 10;
+    private static final int DEFAULT_FAILURE_RATE_PERCENT = 50;
+    private static final int DEFAULT_SLOW_CALL_RATE_PERCENT = 80;
+    private static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    private static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final int slowCallRatePercent;
+    private final Duration slowCallDuration;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+
+    /**
+     * Constructs a CircuitBreakerConfig.
+     *
+     * @param windowSize the number of most recent calls the failure and slow-call rates are computed over
+     * @param minimumCalls the number of calls recorded before the breaker can open
+     * @param failureRatePercent the failure rate, in percent, at or above which the breaker opens
+     * @param slowCallRatePercent the slow-call rate, in percent, at or above which the breaker opens
+     * @param slowCallDuration the duration above which a call counts as slow
+     * @param openDuration how long the breaker stays open before letting trial calls through
+     * @param halfOpenCalls the number of trial calls deciding whether the breaker closes again
+     */
+    public CircuitBreakerConfig(int windowSize, int minimumCalls, int failureRatePercent, int slowCallRatePercent,
+        Duration slowCallDuration, Duration openDuration, int halfOpenCalls) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallRatePercent = slowCallRatePercent;
+        this.slowCallDuration = slowCallDuration;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Returns the default thresholds: the breaker opens when half of the last 20 calls failed or 80% of them
+     * took 5 seconds or more, and lets 3 trial calls through after 30 seconds.
+     *
+     * @return the default configuration
+     */
+    public static CircuitBreakerConfig defaults() {
+        return new CircuitBreakerConfig(DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS, DEFAULT_FAILURE_RATE_PERCENT,
+            DEFAULT_SLOW_CALL_RATE_PERCENT, DEFAULT_SLOW_CALL_DURATION, DEFAULT_OPEN_DURATION, DEFAULT_HALF_OPEN_CALLS);
+    }
+
+    /**
+     * Returns the number of most recent calls the rates are computed over.
+     *
+     * @return the windowSize
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Returns the number of calls recorded before the breaker can open.
+     *
+     * @return the minimumCalls
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * Returns the failure rate, in percent, at or above which the breaker opens.
+     *
+     * @return the failureRatePercent
+     */
+    public int getFailureRatePercent() {
+        return failureRatePercent;
+    }
+
+    /**
+     * Returns the slow-call rate, in percent, at or above which the breaker opens.
+     *
+     * @return the slowCallRatePercent
+     */
+    public int getSlowCallRatePercent() {
+        return slowCallRatePercent;
+    }
+
+    /**
+     * Returns the duration above which a call counts as slow.
+     *
+     * @return the slowCallDuration
+     */
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * Returns how long the breaker stays open before letting trial calls through.
+     *
+     * @return the openDuration
+     */
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Returns the number of trial calls deciding whether the breaker closes again.
+     *
+     * @return the halfOpenCalls
+     */
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+}
@@ -0,0 +1,51 @@
+package com.starlingbank.api;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The metrics of the calls made by a StarlingClient, per endpoint.
+ * @author Cesar Goncalves
+ */
+public final class ClientMetrics {
+    private final Map<Endpoint, EndpointMetrics> endpoints = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Constructor for ClientMetrics.
+     */
+    public ClientMetrics() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpoints.put(endpoint, new EndpointMetrics());
+        }
+    }
+
+    /**
+     * Returns the metrics of an endpoint.
+     * @param endpoint The endpoint.
+     * @return The metrics of the endpoint.
+     */
+    public EndpointMetrics forEndpoint(Endpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * Returns the metrics of every endpoint.
+     * @return An unmodifiable map of metrics keyed by endpoint.
+     */
+    public Map<Endpoint, EndpointMetrics> getEndpoints() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * Returns the number of calls to every endpoint that shared the outcome of an identical call in flight.
+     * @return The number of requests saved by coalescing the calls.
+     */
+    public long getCoalescedCalls() {
+        long coalescedCalls = 0;
+        for (EndpointMetrics metrics : endpoints.values()) {
+            coalescedCalls += metrics.getCoalescedCalls();
+        }
+        return coalescedCalls;
+    }
+}
@@ -0,0 +1,112 @@
+package com.starlingbank.api;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * The time by which a run, or the round-up of an account, must be done.
+ * A deadline is bound to the thread doing the work and inherited by the virtual threads it starts, so the services
+ * pass it down to the StarlingClient without a parameter of their own. Each HTTP call gets the time left, capped by
+ * the timeout of a single call, as its connect and read timeouts; a call made once the deadline has passed fails
+ * straight away, so the work gives up instead of waiting for ever on a stuck socket.
+ * @author Cesar Goncalves
+ */
+public final class Deadline {
+    // The deadline bound to each thread, inherited by the threads it starts
+    private static final InheritableThreadLocal<Deadline> CURRENT = new InheritableThreadLocal<>();
+    // The scope of a missing timeout, which binds nothing
+    private static final Scope UNBOUND = () -> { };
+
+    private final long expiresAtNanos;
+    private final LongSupplier nanoClock;
+
+    private Deadline(long expiresAtNanos, LongSupplier nanoClock) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Creates the deadline a timeout from now.
+     * @param timeout The timeout.
+     * @return The deadline.
+     */
+    public static Deadline after(Duration timeout) {
+        return after(timeout, System::nanoTime);
+    }
+
+    /**
+     * Creates the deadline a timeout from now, according to a clock.
+     * @param timeout The timeout.
+     * @param nanoClock The source of the current time in nanoseconds.
+     * @return The deadline.
+     */
+    public static Deadline after(Duration timeout, LongSupplier nanoClock) {
+        return new Deadline(nanoClock.getAsLong() + timeout.toNanos(), nanoClock);
+    }
+
+    /**
+     * Returns the deadline bound to the current thread.
+     * @return The deadline, or null if the thread has none.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the deadline a timeout from now to the current thread, see {@link #bind()}.
+     * @param timeout The timeout, or null for no deadline.
+     * @return The scope of the deadline, which must be closed by the same thread.
+     */
+    public static Scope within(Duration timeout) {
+        return timeout == null ? UNBOUND : after(timeout).bind();
+    }
+
+    /**
+     * Returns the time left to a call, capped by the timeout of a single call.
+     * @param maxCallNanos The timeout of a single call, in nanoseconds.
+     * @return The time left to the call in nanoseconds, not positive if the deadline of the thread has passed.
+     */
+    static long callTimeoutNanos(long maxCallNanos) {
+        Deadline deadline = CURRENT.get();
+        return deadline == null ? maxCallNanos : Math.min(maxCallNanos, deadline.remainingNanos());
+    }
+
+    /**
+     * Returns the time left before the deadline.
+     * @return The time left in nanoseconds, negative once the deadline has passed.
+     */
+    public long remainingNanos() {
+        return expiresAtNanos - nanoClock.getAsLong();
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     * @return true if no time is left.
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Binds the deadline to the current thread until the scope is closed, e.g. for the round-up of an account.
+     * Work under an earlier deadline, e.g. that of the run, keeps the earlier one.
+     * @return The scope of the deadline, which must be closed by the same thread.
+     */
+    public Scope bind() {
+        Deadline previous = CURRENT.get();
+        if (previous == null || previous.remainingNanos() > remainingNanos()) {
+            CURRENT.set(this);
+        }
+        return () -> CURRENT.set(previous);
+    }
+
+    /**
+     * The scope a deadline is bound to the thread in, restoring the previous deadline once closed. It is closed in
+     * a finally block rather than declared as a try-with-resources resource, which the body would never reference.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.starlingbank.api;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The deadlines of the work calling the API, read from the environment as ISO-8601 durations:
+ * STARLING_RUN_TIMEOUT bounds a whole run (no deadline by default, as the round-up prompts for the savings goals)
+ * and STARLING_ACCOUNT_TIMEOUT the round-up of each account (two minutes by default), so an account whose calls
+ * hang is given up on instead of holding its worker for ever.
+ * @author Cesar Goncalves
+ */
+public final class DeadlineSettings {
+    /** The environment variable holding the timeout of a run. */
+    public static final String RUN_TIMEOUT = "STARLING_RUN_TIMEOUT";
+    /** The environment variable holding the timeout of the round-up of an account. */
+    public static final String ACCOUNT_TIMEOUT = "STARLING_ACCOUNT_TIMEOUT";
+    /** The timeout of the round-up of an account when none is configured. */
+    public static final Duration DEFAULT_ACCOUNT_TIMEOUT = Duration.ofMinutes(2);
+
+    // The timeout of a run, null if a run has no deadline
+    private final Duration runTimeout;
+    // The timeout of the round-up of an account
+    private final Duration accountTimeout;
+
+    /**
+     * Constructor for DeadlineSettings.
+     * @param runTimeout The timeout of a run, or null for no deadline.
+     * @param accountTimeout The timeout of the round-up of an account.
+     * @throws IllegalArgumentException If a timeout is not positive.
+     */
+    public DeadlineSettings(Duration runTimeout, Duration accountTimeout) {
+        if (runTimeout != null && !runTimeout.isPositive() || !accountTimeout.isPositive()) {
+            throw new IllegalArgumentException("The run and account timeouts must be positive");
+        }
+        this.runTimeout = runTimeout;
+        this.accountTimeout = accountTimeout;
+    }
+
+    /**
+     * Reads the settings from the environment.
+     * @param environment The environment variables.
+     * @return The settings.
+     * @throws java.time.format.DateTimeParseException If a timeout is not an ISO-8601 duration, e.g. PT30S.
+     */
+    public static DeadlineSettings fromEnvironment(Map<String, String> environment) {
+        String runTimeout = environment.get(RUN_TIMEOUT);
+        String accountTimeout = environment.get(ACCOUNT_TIMEOUT);
+        return new DeadlineSettings(runTimeout == null ? null : Duration.parse(runTimeout),
+            accountTimeout == null ? DEFAULT_ACCOUNT_TIMEOUT : Duration.parse(accountTimeout));
+    }
+
+    /**
+     * Returns the timeout of a run.
+     * @return The timeout, or null if a run has no deadline.
+     */
+    public Duration getRunTimeout() {
+        return runTimeout;
+    }
+
+    /**
+     * Returns the timeout of the round-up of an account.
+     * @return The timeout.
+     */
+    public Duration getAccountTimeout() {
+        return accountTimeout;
+    }
+}
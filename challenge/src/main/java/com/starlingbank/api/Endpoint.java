@@ -0,0 +1,19 @@
+package com.starlingbank.api;
+
+/**
+ * The Starling Bank API endpoints called by the StarlingClient.
+ * Each endpoint is isolated behind its own circuit breaker and bulkhead.
+ * @author Cesar Goncalves
+ */
+public enum Endpoint {
+    /** GET /api/v2/accounts. */
+    ACCOUNTS,
+    /** GET /api/v2/feed/account/{accountUid}/category/{categoryUid}/transactions-between. */
+    TRANSACTIONS,
+    /** GET /api/v2/account/{accountUid}/savings-goals. */
+    SAVINGS_GOALS,
+    /** PUT /api/v2/account/{accountUid}/savings-goals. */
+    CREATE_SAVINGS_GOAL,
+    /** PUT /api/v2/account/{accountUid}/savings-goals/{savingsGoalUid}/add-money/{transferUid}. */
+    ADD_MONEY
+}
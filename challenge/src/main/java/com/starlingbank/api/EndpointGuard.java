@@ -0,0 +1,122 @@
+package com.starlingbank.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.exceptions.BulkheadFullException;
+import com.starlingbank.exceptions.CircuitBreakerOpenException;
+
+/**
+ * Guards the calls to an endpoint with an adaptive concurrency limit and a circuit breaker.
+ * I/O errors, throttling (429) and server errors (5xx) count as failures of the endpoint; other API errors
+ * mean the endpoint is responsive and count as successes.
+ * @author Cesar Goncalves
+ */
+final class EndpointGuard {
+    // The concurrency limit grows up to this multiple of the configured limit
+    static final int MAX_LIMIT_FACTOR = 4;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+    // How long a caller waits for a free call slot before being rejected
+    private static final Duration BULKHEAD_MAX_WAIT = Duration.ofMillis(500);
+
+    private final Endpoint endpoint;
+    private final AdaptiveLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final EndpointMetrics metrics;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Constructor for EndpointGuard.
+     * @param endpoint The endpoint guarded.
+     * @param maxConcurrentCalls The number of calls to the endpoint in flight at the same time the limit starts at.
+     * @param metrics The metrics of the endpoint, which receive its concurrency limit and queueing delay.
+     * @param nanoClock The source of the current time in nanoseconds.
+     */
+    EndpointGuard(Endpoint endpoint, int maxConcurrentCalls, EndpointMetrics metrics, LongSupplier nanoClock) {
+        this.endpoint = endpoint;
+        this.limiter = new AdaptiveLimiter(maxConcurrentCalls, maxConcurrentCalls * MAX_LIMIT_FACTOR,
+            BULKHEAD_MAX_WAIT, nanoClock);
+        this.circuitBreaker = new CircuitBreaker(CircuitBreakerConfig.defaults(), nanoClock);
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+        metrics.recordConcurrencyLimit(limiter.getLimit());
+    }
+
+    /**
+     * Returns the circuit breaker of the endpoint.
+     * @return The circuit breaker.
+     */
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Returns the concurrency limit of the endpoint.
+     * @return The limiter.
+     */
+    AdaptiveLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Makes a call to the endpoint if both the concurrency limit and the circuit breaker permit it.
+     * @param call The call to make.
+     * @param <T> The type of the result of the call.
+     * @return The result of the call.
+     * @throws BulkheadFullException If the endpoint stayed at its concurrency limit for the maximum wait.
+     * @throws CircuitBreakerOpenException If the circuit breaker of the endpoint is open.
+     * @throws IOException If an input or output exception occurred.
+     * @throws ApiException If an API exception occurred.
+     */
+    <T> T execute(ApiCall<T> call) throws IOException, ApiException {
+        acquireCallSlot();
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw new CircuitBreakerOpenException(endpoint.name());
+            }
+            return callThroughBreaker(call);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private <T> T callThroughBreaker(ApiCall<T> call) throws IOException, ApiException {
+        long start = nanoClock.getAsLong();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = false;
+            return result;
+        } catch (ApiException e) {
+            failed = isEndpointFailure(e);
+            throw e;
+        } finally {
+            long latency = nanoClock.getAsLong() - start;
+            circuitBreaker.onResult(failed, latency);
+            limiter.onSample(start, latency, failed);
+            metrics.recordConcurrencyLimit(limiter.getLimit());
+        }
+    }
+
+    private void acquireCallSlot() throws IOException, ApiException {
+        long queuedAt = nanoClock.getAsLong();
+        try {
+            boolean acquired = limiter.tryAcquire();
+            metrics.recordQueueingDelay(nanoClock.getAsLong() - queuedAt);
+            if (!acquired) {
+                throw new BulkheadFullException(endpoint.name());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a call slot to " + endpoint.name());
+        }
+    }
+
+    private static boolean isEndpointFailure(ApiException e) {
+        return e.getStatusCode() == TOO_MANY_REQUESTS || e.getStatusCode() >= SERVER_ERROR;
+    }
+}
@@ -0,0 +1,154 @@
+package com.starlingbank.api;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the calls to one endpoint: response latency, hedging activity, the latency the calls
+ * would have had without hedging, the calls coalesced into an identical one in flight, and the adaptive
+ * concurrency limit with the time spent queueing for it.
+ * @author Cesar Goncalves
+ */
+public final class EndpointMetrics {
+    private static final double P99 = 0.99;
+
+    private final LatencyHistogram responseLatency = new LatencyHistogram();
+    private final LatencyHistogram unhedgedLatency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+    private final LatencyHistogram queueingDelay = new LatencyHistogram();
+    // The concurrency limit of the endpoint after the last call
+    private volatile int concurrencyLimit;
+
+    /**
+     * Returns the latency of the responses, as seen by the callers.
+     * @return The response latency histogram.
+     */
+    public LatencyHistogram getResponseLatency() {
+        return responseLatency;
+    }
+
+    /**
+     * Returns the latency the calls would have had without hedging. When a hedge wins, the primary request is
+     * cancelled, so this histogram is estimated from the primary requests left to complete on a sample of the
+     * hedge wins.
+     * @return The unhedged latency histogram.
+     */
+    public LatencyHistogram getUnhedgedLatency() {
+        return unhedgedLatency;
+    }
+
+    /**
+     * Returns the number of requests made.
+     * @return The number of requests.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of hedges sent.
+     * @return The number of hedges.
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the number of hedges whose response arrived before the primary one.
+     * @return The number of hedge wins.
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * Returns the number of calls that shared the outcome of an identical call in flight instead of being made,
+     * i.e. the requests saved by coalescing them.
+     * @return The number of coalesced calls.
+     */
+    public long getCoalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    /**
+     * Returns the fraction of the requests that were hedged.
+     * @return The hedge rate, between 0 and 1.
+     */
+    public double getHedgeRate() {
+        long requestCount = requests.sum();
+        return requestCount == 0 ? 0 : (double) hedges.sum() / requestCount;
+    }
+
+    /**
+     * Returns how much hedging reduced the 99th percentile of the latency.
+     * @return The p99 of the unhedged latency minus the p99 of the response latency, in nanoseconds.
+     */
+    public long getP99ImprovementNanos() {
+        return unhedgedLatency.percentileNanos(P99) - responseLatency.percentileNanos(P99);
+    }
+
+    /**
+     * Returns the time the calls waited for the calls in flight to fall below the concurrency limit, including the
+     * calls rejected after waiting the maximum time.
+     * @return The queueing delay histogram.
+     */
+    public LatencyHistogram getQueueingDelay() {
+        return queueingDelay;
+    }
+
+    /**
+     * Returns the number of concurrent calls currently allowed, as adapted to the latency of the endpoint.
+     * @return The concurrency limit.
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Records a response.
+     * @param latencyNanos The latency of the response, in nanoseconds.
+     */
+    void recordResponse(long latencyNanos) {
+        requests.increment();
+        responseLatency.record(latencyNanos);
+    }
+
+    /**
+     * Records that a hedge was sent.
+     */
+    void recordHedge() {
+        hedges.increment();
+    }
+
+    /**
+     * Records that a hedge won.
+     */
+    void recordHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    /**
+     * Records that a call shared the outcome of an identical call in flight.
+     */
+    void recordCoalesced() {
+        coalescedCalls.increment();
+    }
+
+    /**
+     * Records the time a call waited for a slot under the concurrency limit.
+     * @param nanos The queueing delay, in nanoseconds.
+     */
+    void recordQueueingDelay(long nanos) {
+        queueingDelay.record(nanos);
+    }
+
+    /**
+     * Records the current concurrency limit.
+     * @param limit The concurrency limit.
+     */
+    void recordConcurrencyLimit(int limit) {
+        concurrencyLimit = limit;
+    }
+}
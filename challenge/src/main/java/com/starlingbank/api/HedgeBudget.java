@@ -0,0 +1,39 @@
+package com.starlingbank.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket capping the hedges to a percentage of the requests.
+ * Every request adds its budget percentage, in hundredths of a token, and every hedge spends a whole token.
+ * The balance is capped so that a long quiet period cannot be followed by a burst of hedges.
+ * @author Cesar Goncalves
+ */
+final class HedgeBudget {
+    private static final long TOKEN = 100;
+    private static final long MAX_BALANCE = 10 * TOKEN;
+
+    private final AtomicLong balance = new AtomicLong();
+
+    /**
+     * Credits the budget for a request.
+     * @param budgetPercent The percentage of requests that may be hedged.
+     */
+    void onRequest(int budgetPercent) {
+        balance.accumulateAndGet(budgetPercent, (current, credit) -> Math.min(current + credit, MAX_BALANCE));
+    }
+
+    /**
+     * Spends a token for a hedge, if the budget allows it.
+     * @return true if the hedge may be sent.
+     */
+    boolean tryAcquire() {
+        long current = balance.get();
+        while (current >= TOKEN) {
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+            current = balance.get();
+        }
+        return false;
+    }
+}
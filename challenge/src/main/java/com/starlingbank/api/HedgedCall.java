@@ -0,0 +1,162 @@
+package com.starlingbank.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.exceptions.DeadlineExceededException;
+
+/**
+ * One call made of a primary request and, possibly, a hedge of it. The first successful response wins; the call
+ * fails only once every request has failed.
+ * @author Cesar Goncalves
+ */
+final class HedgedCall {
+    private static final int PRIMARY = 0;
+
+    private final RequestSender sender;
+    private final Executor executor;
+    private final LongSupplier nanoClock;
+    private final List<HttpRequestBase> attempts = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<String> response = new CompletableFuture<>();
+    private final CompletableFuture<Long> primaryLatency = new CompletableFuture<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger winner = new AtomicInteger(-1);
+
+    /**
+     * Constructor for HedgedCall.
+     * @param sender Sends the requests.
+     * @param executor Runs the requests.
+     * @param nanoClock The source of the current time in nanoseconds.
+     */
+    HedgedCall(RequestSender sender, Executor executor, LongSupplier nanoClock) {
+        this.sender = sender;
+        this.executor = executor;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Sends a request in the background: the first one launched is the primary, the next ones are hedges.
+     * @param request The request to send.
+     * @return true if the request was sent, false if the call had already completed, e.g. as its primary request
+     * failed after the hedge was decided on.
+     */
+    boolean launch(HttpRequestBase request) {
+        if (response.isDone()) {
+            return false;
+        }
+        int attempt = attempts.size();
+        attempts.add(request);
+        pending.incrementAndGet();
+        long start = nanoClock.getAsLong();
+        executor.execute(() -> run(attempt, request, start));
+        return true;
+    }
+
+    /**
+     * Waits for the call to complete, at most for the given time.
+     * @param timeoutNanos How long to wait, in nanoseconds.
+     * @return true if the call completed, false if it is still running.
+     * @throws InterruptedIOException If the caller is interrupted while waiting.
+     */
+    boolean awaitDone(long timeoutNanos) throws InterruptedIOException {
+        try {
+            response.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the API response");
+        }
+    }
+
+    /**
+     * Waits for the first successful response, or for every request to fail, at most until the deadline of the
+     * caller.
+     * @param endpoint The endpoint called.
+     * @return The response body as a string.
+     * @throws IOException If every request failed and the last one failed with an input or output exception.
+     * @throws ApiException If every request failed and the last one failed with an API exception, or if the
+     * deadline of the caller passed first.
+     */
+    String await(Endpoint endpoint) throws IOException, ApiException {
+        try {
+            return response.get(Deadline.callTimeoutNanos(Long.MAX_VALUE), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(endpoint.name());
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the API response");
+        }
+    }
+
+    /**
+     * Returns whether a hedge, rather than the primary request, won the call.
+     * @return true if a hedge won.
+     */
+    boolean hedgeWon() {
+        return winner.get() > PRIMARY;
+    }
+
+    /**
+     * Returns the latency of the primary request, completed when the primary request completes.
+     * @return The latency of the primary request, in nanoseconds.
+     */
+    CompletableFuture<Long> primaryLatency() {
+        return primaryLatency;
+    }
+
+    /**
+     * Aborts the requests that did not win, optionally leaving the primary request running.
+     * @param keepPrimary Whether to leave the primary request running, e.g. to measure its latency.
+     */
+    void cancelLosers(boolean keepPrimary) {
+        for (int attempt = keepPrimary ? PRIMARY + 1 : PRIMARY; attempt < attempts.size(); attempt++) {
+            if (attempt != winner.get()) {
+                attempts.get(attempt).abort();
+            }
+        }
+    }
+
+    // An unexpected exception fails the attempt too, so the caller is not left waiting for the response
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void run(int attempt, HttpRequestBase request, long start) {
+        try {
+            String body = sender.send(request);
+            if (winner.compareAndSet(-1, attempt)) {
+                response.complete(body);
+            }
+        } catch (IOException | ApiException | RuntimeException e) {
+            if (pending.decrementAndGet() == 0) {
+                response.completeExceptionally(e);
+            }
+        } finally {
+            if (attempt == PRIMARY) {
+                primaryLatency.complete(nanoClock.getAsLong() - start);
+            }
+        }
+    }
+
+    private static IOException rethrow(Throwable cause) throws ApiException {
+        if (cause instanceof ApiException) {
+            throw (ApiException) cause;
+        }
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+}
@@ -0,0 +1,95 @@
+package com.starlingbank.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies with log-linear buckets: every power of two of microseconds is split into
+ * eight buckets, so percentiles are accurate to within 12.5% from one microsecond to hours.
+ * To follow recent behaviour, the counts are halved whenever the histogram reaches DECAY_THRESHOLD samples.
+ * @author Cesar Goncalves
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long DECAY_THRESHOLD = 16_384;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Records a latency.
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        record(nanos, 1);
+    }
+
+    /**
+     * Records a latency standing for several samples.
+     * @param nanos The latency in nanoseconds.
+     * @param weight The number of samples the latency stands for.
+     */
+    public void record(long nanos, long weight) {
+        counts.addAndGet(indexOf(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1)), weight);
+        if (count.addAndGet(weight) >= DECAY_THRESHOLD) {
+            decay();
+        }
+    }
+
+    /**
+     * Returns the number of samples in the histogram.
+     * @return The number of samples.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns a percentile of the recorded latencies.
+     * @param percentile The percentile, between 0 and 1 (e.g. 0.99).
+     * @return The upper bound of the bucket holding the percentile, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long percentileNanos(double percentile) {
+        long rank = (long) Math.ceil(percentile * count.get());
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return TimeUnit.MICROSECONDS.toNanos(upperBoundMicros(i));
+            }
+        }
+        return 0;
+    }
+
+    // Halves every count, keeping the shape of the distribution while making room for recent samples
+    private synchronized void decay() {
+        if (count.get() < DECAY_THRESHOLD) {
+            return;
+        }
+        long remaining = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            remaining += counts.updateAndGet(i, bucketCount -> bucketCount / 2);
+        }
+        count.set(remaining);
+    }
+
+    private static int indexOf(long micros) {
+        int power = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        if (power < SUB_BUCKET_BITS) {
+            return (int) micros;
+        }
+        int subBucket = (int) (micros >>> (power - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (power - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return ((long) (SUB_BUCKETS + index % SUB_BUCKETS + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,220 @@
+package com.starlingbank.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.exceptions.DeadlineExceededException;
+import com.starlingbank.profiling.ApiCallEvent;
+import com.starlingbank.transport.ApiResponse;
+import com.starlingbank.transport.Transport;
+import com.starlingbank.util.JsonBodyWriter;
+
+/**
+ * Executes the HTTP requests of a StarlingClient.
+ * Each endpoint is called through its own adaptive concurrency limit and circuit breaker, so a slow or failing endpoint
+ * cannot tie up the threads calling the other endpoints. GETs are idempotent: concurrent GETs of the same URL with
+ * the same credentials share a single call through SingleFlight, which is hedged according to the tenant's
+ * HedgingPolicy; PUTs are sent once, with bodies written by pooled JsonBodyWriters. Every request waits
+ * for a connection, connects and reads at most for the time left to the Deadline of the caller, capped by
+ * MAX_CALL_NANOS, and is not sent at all once the deadline has passed; a warm-up, run in the background, waits at
+ * most MAX_CALL_NANOS. Each call is recorded as an ApiCallEvent
+ * when Flight Recorder is running.
+ * @author Cesar Goncalves
+ */
+final class RequestExecutor {
+    private static final int HTTP_STATUS_OK = 200;
+    // The longest a single call may wait, whatever the time left to the caller, so no socket is waited on for ever
+    private static final long MAX_CALL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Transport transport;
+    // Supplies the current URL templates and credentials of the tenant, which may be swapped on reload
+    private final Supplier<RequestTemplates> templates;
+    // Writers of the PUT bodies, reused once the request they wrote has been sent
+    private final BlockingQueue<JsonBodyWriter> bodyWriters;
+    // Concurrency limiter and circuit breaker of each endpoint, the limit starting from the tenant's when the
+    // executor is created
+    private final Map<Endpoint, EndpointGuard> endpointGuards = new EnumMap<>(Endpoint.class);
+    private final ClientMetrics metrics = new ClientMetrics();
+    private final RequestHedger hedger;
+    // Coalesces the identical GETs in flight
+    private final SingleFlight singleFlight = new SingleFlight(metrics);
+
+    /**
+     * Constructor for RequestExecutor.
+     * @param transport The transport carrying the requests.
+     * @param templates Supplies the current URL templates and credentials of the tenant.
+     * @param nanoClock The source of the current time in nanoseconds.
+     */
+    RequestExecutor(Transport transport, Supplier<RequestTemplates> templates, LongSupplier nanoClock) {
+        int maxConcurrentRequests = templates.get().getTenantConfig().getMaxConcurrentRequests();
+        this.transport = transport;
+        this.templates = templates;
+        this.bodyWriters = new ArrayBlockingQueue<>(maxConcurrentRequests);
+        this.hedger = new RequestHedger(metrics, nanoClock);
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpointGuards.put(endpoint, new EndpointGuard(endpoint, maxConcurrentRequests,
+                metrics.forEndpoint(endpoint), nanoClock));
+        }
+    }
+
+    /**
+     * Returns the metrics of the requests executed.
+     * @return The metrics.
+     */
+    ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the circuit breaker of an endpoint.
+     * @param endpoint The endpoint.
+     * @return The circuit breaker.
+     */
+    CircuitBreaker getCircuitBreaker(Endpoint endpoint) {
+        return endpointGuards.get(endpoint).getCircuitBreaker();
+    }
+
+    /**
+     * Sends a GET request to an endpoint, hedging it according to the tenant's hedging policy, or waits for the
+     * response of the identical GET in flight.
+     * @param endpoint The endpoint the request is sent to.
+     * @param accountUid The account the request is about, or null.
+     * @param url The URL of the request.
+     * @return The response body as a string.
+     * @throws IOException If an input or output exception occurred.
+     * @throws ApiException If an API exception occurred, including when the call is rejected because the
+     * endpoint's bulkhead is full, its circuit breaker is open or the deadline of the caller has passed.
+     */
+    String get(Endpoint endpoint, UUID accountUid, String url) throws IOException, ApiException {
+        // Parsed once, as every attempt of a hedged GET needs its own request
+        URI uri = URI.create(url);
+        RequestConfig timeouts = callTimeouts(endpoint);
+        RequestTemplates current = templates.get();
+        // The digest of the credentials is part of the key, so a GET is never answered with the response of another
+        // token, and the token itself is not kept in the map of the calls in flight
+        String key = current.getCredentialsKey() + ' ' + url;
+        AdaptiveLimiter limiter = endpointGuards.get(endpoint).getLimiter();
+        return singleFlight.execute(endpoint, key, () -> call(endpoint, accountUid, () -> hedger.sendIdempotent(endpoint,
+            current.getTenantConfig().getHedgingPolicy(), () -> newGet(uri, timeouts), this::send, limiter)));
+    }
+
+    /**
+     * Sends a PUT request with a JSON body to an endpoint, without hedging.
+     * @param endpoint The endpoint the request is sent to.
+     * @param accountUid The account the request is about.
+     * @param url The URL of the request.
+     * @param body Writes the JSON body of the request.
+     * @return The response body as a string.
+     * @throws IOException If an input or output exception occurred.
+     * @throws ApiException If an API exception occurred, including when the call is rejected because the
+     * endpoint's bulkhead is full, its circuit breaker is open or the deadline of the caller has passed.
+     */
+    String put(Endpoint endpoint, UUID accountUid, String url, Consumer<JsonBodyWriter> body)
+        throws IOException, ApiException {
+        RequestConfig timeouts = callTimeouts(endpoint);
+        JsonBodyWriter writer = acquireBodyWriter();
+        try {
+            body.accept(writer);
+            HttpPut request = new HttpPut(url);
+            request.setConfig(timeouts);
+            request.setEntity(new ByteArrayEntity(writer.buffer(), 0, writer.size(), ContentType.APPLICATION_JSON));
+            return call(endpoint, accountUid, () -> hedger.send(endpoint, request, this::send));
+        } finally {
+            // The entity is fully sent once the response is read, so the buffer can be reused
+            bodyWriters.offer(writer.reset());
+        }
+    }
+
+    /**
+     * Opens a connection to the origin of the API ahead of the first call, through the transport.
+     * @param origin The origin of the API.
+     * @throws IOException If the connection cannot be opened within MAX_CALL_NANOS.
+     */
+    void warmUp(URI origin) throws IOException {
+        HttpHead request = new HttpHead(origin);
+        request.setConfig(timeouts(MAX_CALL_NANOS));
+        transport.warmUp(request);
+    }
+
+    // Makes a call through the guard of its endpoint, recording it for Flight Recorder
+    private String call(Endpoint endpoint, UUID accountUid, ApiCall<String> call) throws IOException, ApiException {
+        ApiCallEvent event = new ApiCallEvent();
+        event.begin();
+        int statusCode = ApiCallEvent.NO_RESPONSE;
+        String body = null;
+        try {
+            body = endpointGuards.get(endpoint).execute(call);
+            statusCode = HTTP_STATUS_OK;
+            return body;
+        } catch (ApiException e) {
+            statusCode = e.getStatusCode();
+            throw e;
+        } finally {
+            event.commit(endpoint.name(), accountUid, statusCode, body);
+        }
+    }
+
+    // The timeouts of a call, from the time left to the caller, read on its thread before any attempt is sent
+    private static RequestConfig callTimeouts(Endpoint endpoint) throws DeadlineExceededException {
+        long timeoutNanos = Deadline.callTimeoutNanos(MAX_CALL_NANOS);
+        if (timeoutNanos <= 0) {
+            throw new DeadlineExceededException(endpoint.name());
+        }
+        return timeouts(timeoutNanos);
+    }
+
+    // Waits for a connection, connects and reads for at most the timeout each
+    private static RequestConfig timeouts(long timeoutNanos) {
+        // At least a millisecond, as a timeout of zero means none
+        int timeoutMillis = (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        return RequestConfig.custom().setConnectionRequestTimeout(timeoutMillis).setConnectTimeout(timeoutMillis)
+            .setSocketTimeout(timeoutMillis).build();
+    }
+
+    private static HttpGet newGet(URI uri, RequestConfig timeouts) {
+        HttpGet request = new HttpGet(uri);
+        request.setConfig(timeouts);
+        return request;
+    }
+
+    private JsonBodyWriter acquireBodyWriter() {
+        return Objects.requireNonNullElseGet(bodyWriters.poll(), JsonBodyWriter::new);
+    }
+
+    /**
+     * This method sends the HTTP request and returns the response.
+     * @param request The HTTP request to be sent.
+     * @return The response body as a string.
+     * @throws IOException If an input or output exception occurred.
+     * @throws ApiException If an API exception occurred.
+     */
+    private String send(HttpRequestBase request) throws IOException, ApiException {
+        request.setHeader(templates.get().getAuthorization());
+        request.setHeader(RequestTemplates.ACCEPT_JSON);
+
+        ApiResponse response = transport.execute(request);
+        if (response.getStatusCode() != HTTP_STATUS_OK) {
+            throw new ApiException(response.getStatusCode(), "API Error", response.getBodyAsString());
+        }
+        return response.getBodyAsString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.starlingbank.api;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+import com.starlingbank.config.HedgingPolicy;
+import com.starlingbank.exceptions.ApiException;
+
+/**
+ * Sends requests and records their metrics, hedging the idempotent ones according to a HedgingPolicy.
+ * When a request is still running after the policy's delay and the hedge budget allows it, a duplicate request
+ * is sent and the first successful response is used; the other request is then aborted. A primary request left
+ * running to measure the unhedged latency holds a slot of the endpoint's concurrency limit until it completes.
+ * Each request runs on a virtual thread of its own, so the hedger holds no thread pool to shut down.
+ * @author Cesar Goncalves
+ */
+final class RequestHedger {
+    // A call sends its primary request and at most one hedge
+    static final int MAX_REQUESTS_PER_CALL = 2;
+    // One in SHADOW_SAMPLING hedge wins leaves the primary request running to measure the unhedged latency, if the
+    // endpoint has a free call slot for it
+    private static final long SHADOW_SAMPLING = 16;
+    // Number of observed latencies required before a percentile-based delay is trusted
+    private static final long MIN_SAMPLES = 20;
+
+    private final ClientMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final HedgeBudget budget = new HedgeBudget();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    // Starts a virtual thread per request, which ends with the request
+    private final Executor executor = Thread::startVirtualThread;
+
+    /**
+     * Constructor for RequestHedger.
+     * @param metrics The metrics the calls are recorded in.
+     * @param nanoClock The source of the current time in nanoseconds.
+     */
+    RequestHedger(ClientMetrics metrics, LongSupplier nanoClock) {
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Sends an idempotent request, hedging it according to the policy.
+     * @param endpoint The endpoint the request is sent to.
+     * @param policy The hedging policy.
+     * @param requests Creates a new copy of the request for every attempt.
+     * @param sender Sends the requests.
+     * @param limiter The concurrency limit of the endpoint, which counts a primary request left running.
+     * @return The response body as a string.
+     * @throws IOException If an input or output exception occurred.
+     * @throws ApiException If an API exception occurred.
+     */
+    String sendIdempotent(Endpoint endpoint, HedgingPolicy policy, Supplier<HttpRequestBase> requests,
+        RequestSender sender, AdaptiveLimiter limiter) throws IOException, ApiException {
+        EndpointMetrics endpointMetrics = metrics.forEndpoint(endpoint);
+        long delayNanos = hedgeDelayNanos(policy, endpointMetrics.getResponseLatency());
+        budget.onRequest(policy.getBudgetPercent());
+        if (delayNanos < 0) {
+            return send(endpoint, requests.get(), sender);
+        }
+        return sendHedged(endpoint, delayNanos, requests, sender, limiter);
+    }
+
+    /**
+     * Sends a request once, without hedging.
+     * @param endpoint The endpoint the request is sent to.
+     * @param request The request to send.
+     * @param sender Sends the request.
+     * @return The response body as a string.
+     * @throws IOException If an input or output exception occurred.
+     * @throws ApiException If an API exception occurred.
+     */
+    String send(Endpoint endpoint, HttpRequestBase request, RequestSender sender) throws IOException, ApiException {
+        long start = nanoClock.getAsLong();
+        try {
+            return sender.send(request);
+        } finally {
+            long latency = nanoClock.getAsLong() - start;
+            metrics.forEndpoint(endpoint).recordResponse(latency);
+            metrics.forEndpoint(endpoint).getUnhedgedLatency().record(latency);
+        }
+    }
+
+    // Returns how long to wait for the primary response before hedging, or -1 if the request must not be hedged
+    private static long hedgeDelayNanos(HedgingPolicy policy, LatencyHistogram observedLatency) {
+        if (policy.getPercentile() <= 0) {
+            return policy.getFixedDelayNanos();
+        }
+        return observedLatency.getCount() < MIN_SAMPLES ? -1 : observedLatency.percentileNanos(policy.getPercentile());
+    }
+
+    private String sendHedged(Endpoint endpoint, long delayNanos, Supplier<HttpRequestBase> requests,
+        RequestSender sender, AdaptiveLimiter limiter) throws IOException, ApiException {
+        EndpointMetrics endpointMetrics = metrics.forEndpoint(endpoint);
+        HedgedCall call = new HedgedCall(sender, executor, nanoClock);
+        long start = nanoClock.getAsLong();
+        call.launch(requests.get());
+        // Not sent if the primary request completed after the delay, though the budget was spent on it
+        if (!call.awaitDone(delayNanos) && budget.tryAcquire() && call.launch(requests.get())) {
+            endpointMetrics.recordHedge();
+        }
+        try {
+            return call.await(endpoint);
+        } finally {
+            endpointMetrics.recordResponse(nanoClock.getAsLong() - start);
+            recordUnhedgedLatency(endpointMetrics, call, limiter);
+        }
+    }
+
+    private void recordUnhedgedLatency(EndpointMetrics endpointMetrics, HedgedCall call, AdaptiveLimiter limiter) {
+        if (!call.hedgeWon()) {
+            call.cancelLosers(false);
+            recordPrimaryLatency(endpointMetrics, call, 1);
+            return;
+        }
+        endpointMetrics.recordHedgeWin();
+        // The call releases its own slot as it returns, so the primary request left running takes another one
+        boolean shadow = hedgeWins.incrementAndGet() % SHADOW_SAMPLING == 0 && limiter.tryAcquireNow();
+        call.cancelLosers(shadow);
+        if (shadow) {
+            call.primaryLatency().thenRun(limiter::release);
+            recordPrimaryLatency(endpointMetrics, call, SHADOW_SAMPLING);
+        }
+    }
+
+    private static void recordPrimaryLatency(EndpointMetrics endpointMetrics, HedgedCall call, long weight) {
+        call.primaryLatency().thenAccept(latency -> endpointMetrics.getUnhedgedLatency().record(latency, weight));
+    }
+}
@@ -0,0 +1,24 @@
+package com.starlingbank.api;
+
+import java.io.IOException;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+import com.starlingbank.exceptions.ApiException;
+
+/**
+ * Sends an HTTP request to the Starling Bank API.
+ * @author Cesar Goncalves
+ */
+@FunctionalInterface
+interface RequestSender {
+
+    /**
+     * Sends the request and returns the body of a successful response.
+     * @param request The HTTP request to be sent.
+     * @return The response body as a string.
+     * @throws IOException If an input or output exception occurred, including when the request is aborted.
+     * @throws ApiException If the API returned an error response.
+     */
+    String send(HttpRequestBase request) throws IOException, ApiException;
+}
@@ -0,0 +1,126 @@
+package com.starlingbank.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.message.BasicHeader;
+
+import com.starlingbank.config.TenantConfig;
+
+/**
+ * The URL templates and headers of a tenant's requests, built once per tenant configuration.
+ * The constant part of every URL, base URL included, is prebuilt, so expanding a template is a single
+ * concatenation; the authorization header is built once instead of on every request. The unique identifiers are
+ * formatted back into strings here only, as the URLs are built.
+ * @author Cesar Goncalves
+ */
+final class RequestTemplates {
+    /** The header asking for a JSON response, shared by every request. */
+    static final Header ACCEPT_JSON = new BasicHeader(HttpHeaders.ACCEPT, "application/json");
+
+    private final TenantConfig tenantConfig;
+    private final Header authorization;
+    // Identifies the credentials of the tenant without revealing its access token, e.g. in the keys of the calls
+    private final String credentialsKey;
+    // GET /api/v2/accounts
+    private final String accountsUrl;
+    // Prefix of /api/v2/account/{accountUid}/...
+    private final String accountPrefix;
+    // Prefix of /api/v2/feed/account/{accountUid}/...
+    private final String feedPrefix;
+
+    /**
+     * Constructor for RequestTemplates.
+     * @param tenantConfig The configuration of the tenant the requests are made for.
+     */
+    RequestTemplates(TenantConfig tenantConfig) {
+        this.tenantConfig = tenantConfig;
+        this.authorization = new BasicHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tenantConfig.getAccessToken());
+        this.credentialsKey = sha256(tenantConfig.getAccessToken());
+        this.accountsUrl = tenantConfig.getBaseUrl() + "/api/v2/accounts";
+        this.accountPrefix = tenantConfig.getBaseUrl() + "/api/v2/account/";
+        this.feedPrefix = tenantConfig.getBaseUrl() + "/api/v2/feed/account/";
+    }
+
+    /**
+     * Returns the configuration of the tenant the templates were built for.
+     * @return The tenant configuration.
+     */
+    TenantConfig getTenantConfig() {
+        return tenantConfig;
+    }
+
+    /**
+     * Returns the authorization header of the tenant.
+     * @return The header carrying the tenant's access token.
+     */
+    Header getAuthorization() {
+        return authorization;
+    }
+
+    /**
+     * Returns a key identifying the credentials of the tenant: the SHA-256 digest of its access token, so the token
+     * is not kept in longer-lived structures than the header.
+     * @return The key, in Base64.
+     */
+    String getCredentialsKey() {
+        return credentialsKey;
+    }
+
+    /**
+     * Returns the URL of GET /api/v2/accounts.
+     * @return The URL.
+     */
+    String accounts() {
+        return accountsUrl;
+    }
+
+    /**
+     * Returns the URL of GET /api/v2/feed/account/{accountUid}/category/{categoryUid}/transactions-between.
+     * @param accountUid The unique identifier of the account.
+     * @param categoryUid The unique identifier of the category.
+     * @param minTransactionTimestamp The minimum transaction timestamp.
+     * @param maxTransactionTimestamp The maximum transaction timestamp.
+     * @return The URL.
+     */
+    String transactions(UUID accountUid, UUID categoryUid, String minTransactionTimestamp,
+                        String maxTransactionTimestamp) {
+        return feedPrefix + accountUid + "/category/" + categoryUid + "/transactions-between?minTransactionTimestamp="
+            + minTransactionTimestamp + "&maxTransactionTimestamp=" + maxTransactionTimestamp;
+    }
+
+    /**
+     * Returns the URL of GET and PUT /api/v2/account/{accountUid}/savings-goals.
+     * @param accountUid The unique identifier of the account.
+     * @return The URL.
+     */
+    String savingsGoals(UUID accountUid) {
+        return accountPrefix + accountUid + "/savings-goals";
+    }
+
+    /**
+     * Returns the URL of PUT /api/v2/account/{accountUid}/savings-goals/{savingsGoalUid}/add-money/{transferUid}.
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     * @param transferUid The unique identifier of the transfer.
+     * @return The URL.
+     */
+    String addMoney(UUID accountUid, UUID savingsGoalUid, UUID transferUid) {
+        return accountPrefix + accountUid + "/savings-goals/" + savingsGoalUid + "/add-money/" + transferUid;
+    }
+
+    private static String sha256(String accessToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.starlingbank.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.exceptions.DeadlineExceededException;
+
+/**
+ * Coalesces identical idempotent calls made concurrently: the first caller of a key makes the call, and the callers
+ * arriving while it is in flight wait for its outcome instead of making their own, so they take no slot under the
+ * concurrency limit of the endpoint. The outcome, failure included, is shared only while the call is in flight; the
+ * next caller once it completes makes a new call. A failure is reported to each waiting caller as an exception of
+ * its own, of the same class where it can be, caused by the failure of the call. A call cut short by the deadline
+ * of its caller, or timed out, is not shared: the waiting callers make the call again, under their own deadlines.
+ * Each coalesced call is counted in the metrics of its endpoint.
+ * @author Cesar Goncalves
+ */
+final class SingleFlight {
+    // The outcome of each call in flight, by key
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final ClientMetrics metrics;
+
+    /**
+     * Constructor for SingleFlight.
+     * @param metrics The metrics the coalesced calls are counted in.
+     */
+    SingleFlight(ClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Makes a call, or waits for the outcome of the identical call in flight, at most until the deadline of the
+     * caller.
+     * @param endpoint The endpoint called.
+     * @param key Identifies the calls that have the same outcome, e.g. their credentials and URL.
+     * @param call Makes the call.
+     * @return The response body as a string.
+     * @throws IOException If the call failed with an input or output exception.
+     * @throws ApiException If the call failed with an API exception, or if the deadline of the caller passed while
+     * waiting for the call in flight.
+     */
+    String execute(Endpoint endpoint, String key, ApiCall<String> call) throws IOException, ApiException {
+        String body = null;
+        while (body == null) {
+            CompletableFuture<String> flight = new CompletableFuture<>();
+            CompletableFuture<String> leader = inFlight.putIfAbsent(key, flight);
+            if (leader == null) {
+                return lead(key, call, flight);
+            }
+            metrics.forEndpoint(endpoint).recordCoalesced();
+            body = await(endpoint, leader);
+            // Removed by this caller too, so it does not wait again for the call it is about to make again
+            inFlight.remove(key, leader);
+        }
+        return body;
+    }
+
+    // Makes the call, sharing its outcome with the waiting callers, or null if they should make the call again
+    private String lead(String key, ApiCall<String> call, CompletableFuture<String> flight)
+        throws IOException, ApiException {
+        try {
+            String body = call.call();
+            flight.complete(body);
+            return body;
+        } catch (IOException | ApiException e) {
+            if (!isBoundToCaller(e)) {
+                flight.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            // Not left pending for the waiting callers if the call failed with an unexpected exception
+            flight.complete(null);
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // Whether the failure depends on the deadline or timeouts of the caller, rather than on the endpoint
+    private static boolean isBoundToCaller(Exception failure) {
+        return failure instanceof DeadlineExceededException || failure instanceof InterruptedIOException;
+    }
+
+    // The response of the call, or null if it must be made again
+    private static String await(Endpoint endpoint, CompletableFuture<String> leader) throws IOException, ApiException {
+        try {
+            return leader.get(Deadline.callTimeoutNanos(Long.MAX_VALUE), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(endpoint.name());
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the API response");
+        }
+    }
+
+    // A failure of its own for each waiting caller, as an exception is not thread-safe once thrown
+    private static IOException rethrow(Throwable cause) throws ApiException {
+        if (cause instanceof ApiException) {
+            throw new ApiException((ApiException) cause);
+        }
+        return cause instanceof IOException ? copyOf((IOException) cause) : new IOException(cause.getMessage(), cause);
+    }
+
+    // Of the class of the failure, so the callers handle e.g. a ConnectException of a shared call as their own
+    private static IOException copyOf(IOException failure) {
+        try {
+            IOException copy = failure.getClass().getConstructor(String.class).newInstance(failure.getMessage());
+            copy.initCause(failure);
+            return copy;
+        } catch (ReflectiveOperationException | IllegalStateException e) {
+            // No public constructor taking the message alone, or one that sets a cause of its own
+            return new IOException(failure.getMessage(), failure);
+        }
+    }
+}
@@ -1,78 +1,129 @@
 package com.starlingbank.api;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
-import org.apache.http.HttpHeaders;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPut;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-import org.json.JSONObject;
 
+import com.starlingbank.config.TenantConfig;
 // Importing necessary libraries for handling exceptions
 import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.transport.HttpClientTransport;
+import com.starlingbank.transport.Transport;
 
 /**
  * This class is responsible for handling all the API calls to the Starling Bank.
  * It includes methods to get account details, transactions
  * savings goals, and also to create savings goals and add money to them.
+ * Each endpoint is called through its own bulkhead and circuit breaker, so a slow or failing endpoint
+ * cannot tie up the threads calling the other endpoints. GETs are hedged according to the tenant's
+ * HedgingPolicy to cut their tail latency.
  * @author Cesar Goncalves
  */
 public class StarlingClient {
-    private static final String APPLICATION_JSON = "application/json";
-    private static final int HTTP_STATUS_OK = 200;
+    // Log of the connections that could not be warmed up
+    private static final EventLog LOG = EventLog.get();
 
-    private final String baseUrl;
-    private final CloseableHttpClient httpClient;
-    private final String accessToken;
+    // Sends the requests through the endpoints' bulkheads and circuit breakers, hedging the GETs
+    private final RequestExecutor executor;
+    // URL templates and credentials of the tenant, rebuilt as a whole when the configuration is reloaded
+    private volatile RequestTemplates templates;
 
     /**
      * Constructor for the StarlingClient class.
      * @param accessToken The access token to authenticate the API calls.
      */
     public StarlingClient(String accessToken) {
-        this.baseUrl = "https://api-sandbox.starlingbank.com";
-        this.accessToken = accessToken;
-        this.httpClient = HttpClients.createDefault();
+        this(TenantConfig.ofAccessToken(accessToken), HttpClients.createDefault());
     }
 
     /**
-     * This method sends the HTTP request and returns the response.
-     * @param request The HTTP request to be sent.
-     * @return The response body as a string.
-     * @throws IOException If an input or output exception occurred.
-     * @throws ApiException If an API exception occurred.
+     * Constructor for the StarlingClient class.
+     * @param tenantConfig The configuration of the tenant the API calls are made for.
+     * @param httpClient The HTTP client used to send the requests, which may be shared between tenants.
      */
+    public StarlingClient(TenantConfig tenantConfig, CloseableHttpClient httpClient) {
+        this(tenantConfig, new HttpClientTransport(httpClient));
+    }
 
-    private String sendRequest(HttpUriRequest request) throws IOException, ApiException {
-        request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
-        request.setHeader(HttpHeaders.ACCEPT, APPLICATION_JSON);
-
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            int statusCode = response.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils.toString(response.getEntity());
-            if (statusCode == HTTP_STATUS_OK) {
-                return responseBody;
-            } else {
-                handleErrorResponse(responseBody, statusCode);
-                return null; // unreachable
-            }
-        }
+    /**
+     * Constructor for the StarlingClient class.
+     * @param tenantConfig The configuration of the tenant the API calls are made for.
+     * @param transport The transport carrying the requests, e.g. to record or replay the API traffic.
+     */
+    public StarlingClient(TenantConfig tenantConfig, Transport transport) {
+        this.templates = new RequestTemplates(tenantConfig);
+        this.executor = new RequestExecutor(transport, this::getTemplates, System::nanoTime);
     }
 
     /**
-     * This method handles the error response from the API.
-     * @param responseBody The body of the response.
-     * @param statusCode The status code of the response.
-     * @throws ApiException If an API exception occurred.
+     * Returns the configuration of the tenant the API calls are made for.
+     * @return The tenant configuration.
+     */
+    public TenantConfig getTenantConfig() {
+        return templates.getTenantConfig();
+    }
+
+    /**
+     * Swaps the credentials, base URL and hedging policy of the tenant.
+     * Requests already in flight complete with the previous credentials, while the HTTP client and its
+     * pooled connections are kept.
+     * @param updatedTenantConfig The new configuration of the tenant.
+     */
+    public void updateTenantConfig(TenantConfig updatedTenantConfig) {
+        this.templates = new RequestTemplates(updatedTenantConfig);
+    }
+
+    /**
+     * Returns the state of the circuit breaker of an endpoint.
+     * @param endpoint The endpoint.
+     * @return The state of the circuit breaker.
+     */
+    public CircuitBreaker.State getCircuitBreakerState(Endpoint endpoint) {
+        return executor.getCircuitBreaker(endpoint).getState();
+    }
+
+    /**
+     * Returns the latency and hedging metrics of the API calls, per endpoint.
+     * @return The metrics.
      */
-    private void handleErrorResponse(String responseBody, int statusCode) throws ApiException {
-        throw new ApiException(statusCode, "API Error", responseBody);
+    public ClientMetrics getMetrics() {
+        return executor.getMetrics();
+    }
+
+    /**
+     * Opens in the background as many connections to the API as the tenant's maximum number of concurrent
+     * requests, so the name resolution and the TCP and TLS handshakes overlap with the loading of the
+     * configuration and the user's input instead of delaying the first calls.
+     * A connection that cannot be opened is logged and left to the first call that needs it.
+     * @return A future completed once every connection is open or has failed.
+     */
+    public CompletableFuture<Void> warmUp() {
+        URI origin = URI.create(getTenantConfig().getBaseUrl() + "/");
+        CompletableFuture<?>[] connections = new CompletableFuture<?>[getTenantConfig().getMaxConcurrentRequests()];
+        for (int connection = 0; connection < connections.length; connection++) {
+            // Concurrent, so that each warm-up holds a connection of its own while it is opened
+            connections[connection] = CompletableFuture.runAsync(() -> warmUp(origin), Thread::startVirtualThread);
+        }
+        return CompletableFuture.allOf(connections);
+    }
+
+    private void warmUp(URI origin) {
+        try {
+            executor.warmUp(origin);
+        } catch (IOException e) {
+            LOG.log(LogEvent.of(Level.FINE, "warm-up", "Cannot open a connection to " + origin).thrown(e));
+        }
+    }
+
+    private RequestTemplates getTemplates() {
+        return templates;
     }
 
     /**
@@ -83,8 +134,7 @@ public class StarlingClient {
      * @throws ApiException If an API exception occurred.
      */
     public String getAccountDetails() throws IOException, ApiException {
-        HttpGet request = new HttpGet(baseUrl + "/api/v2/accounts");
-        return sendRequest(request);
+        return executor.get(Endpoint.ACCOUNTS, null, templates.accounts());
     }
 
     /**
@@ -98,14 +148,11 @@ public class StarlingClient {
      * @throws IOException If an input or output exception occurred.
      * @throws ApiException If an API exception occurred.
      */
-    public String getTransactions(String accountUid, String categoryUid,
+    public String getTransactions(UUID accountUid, UUID categoryUid,
                                 String minTransactionTimestamp, String maxTransactionTimestamp)
                                 throws IOException, ApiException {
-        String url = baseUrl + "/api/v2/feed/account/" + accountUid + "/category/" + categoryUid
-                + "/transactions-between?minTransactionTimestamp=" + minTransactionTimestamp
-                + "&maxTransactionTimestamp=" + maxTransactionTimestamp;
-        HttpGet request = new HttpGet(url);
-        return sendRequest(request);
+        String url = templates.transactions(accountUid, categoryUid, minTransactionTimestamp, maxTransactionTimestamp);
+        return executor.get(Endpoint.TRANSACTIONS, accountUid, url);
     }
 
     /**
@@ -116,9 +163,8 @@ public class StarlingClient {
      * @throws IOException If an input or output exception occurred.
      * @throws ApiException If an API exception occurred.
      */
-    public String getSavingsGoals(String accountUid) throws IOException, ApiException {
-        HttpGet request = new HttpGet(baseUrl + "/api/v2/account/" + accountUid + "/savings-goals");
-        return sendRequest(request);
+    public String getSavingsGoals(UUID accountUid) throws IOException, ApiException {
+        return executor.get(Endpoint.SAVINGS_GOALS, accountUid, templates.savingsGoals(accountUid));
     }
 
     /**
@@ -132,23 +178,17 @@ public class StarlingClient {
      * @throws IOException If an input or output exception occurred.
      * @throws ApiException If an API exception occurred.
      */
-    public String createSavingsGoal(String accountUid, String name,
-                                    String currency, int targetMinorUnits) throws IOException, ApiException {
-        HttpPut request = new HttpPut(baseUrl + "/api/v2/account/" + accountUid + "/savings-goals");
-        JSONObject target = new JSONObject();
-        target.put("currency", currency);
-        target.put("minorUnits", targetMinorUnits);
-
-        JSONObject savingsGoalRequest = new JSONObject();
-        savingsGoalRequest.put("name", name);
-        savingsGoalRequest.put("currency", currency);
-        savingsGoalRequest.put("target", target);
-
-        StringEntity entity = new StringEntity(savingsGoalRequest.toString());
-        request.setEntity(entity);
-        request.setHeader("Content-Type", APPLICATION_JSON);
-
-        return sendRequest(request);
+    public String createSavingsGoal(UUID accountUid, String name,
+                                    String currency, long targetMinorUnits) throws IOException, ApiException {
+        return executor.put(Endpoint.CREATE_SAVINGS_GOAL, accountUid, templates.savingsGoals(accountUid), json -> json
+            .beginObject()
+            .name("name").value(name)
+            .name("currency").value(currency)
+            .name("target").beginObject()
+                .name("currency").value(currency)
+                .name("minorUnits").value(targetMinorUnits)
+            .endObject()
+            .endObject());
     }
 
     /**
@@ -156,30 +196,21 @@ public class StarlingClient {
      * This method adds money to a savings goal.
      * @param accountUid The unique identifier of the account.
      * @param savingsGoalUid The unique identifier of the savings goal.
+     * @param transferUid The unique identifier of the transfer: the API makes a transfer once per transferUid, so
+     * retrying a transfer with the same one does not pay it twice.
      * @param amount The amount to be added.
      * @param currency The currency of the amount.
      * @throws IOException If an input or output exception occurred.
      * @throws ApiException If an API exception occurred.
      */
-    public void addMoneyToSavingsGoal(String accountUid, String savingsGoalUid,
-                                        int amount, String currency) throws IOException, ApiException {
-        UUID transferUid = UUID.randomUUID();
-
-        String url = baseUrl + "/api/v2/account/" + accountUid + "/savings-goals/"
-                    + savingsGoalUid + "/add-money/" + transferUid;
-
-        HttpPut request = new HttpPut(url);
-        JSONObject amountJson = new JSONObject();
-        amountJson.put("currency", currency);
-        amountJson.put("minorUnits", amount);
-
-        JSONObject addMoneyRequest = new JSONObject();
-        addMoneyRequest.put("amount", amountJson);
-
-        StringEntity entity = new StringEntity(addMoneyRequest.toString());
-        request.setEntity(entity);
-        request.setHeader("Content-Type", APPLICATION_JSON);
-
-        sendRequest(request);
+    public void addMoneyToSavingsGoal(UUID accountUid, UUID savingsGoalUid, UUID transferUid,
+                                        long amount, String currency) throws IOException, ApiException {
+        executor.put(Endpoint.ADD_MONEY, accountUid, templates.addMoney(accountUid, savingsGoalUid, transferUid), json -> json
+            .beginObject()
+            .name("amount").beginObject()
+                .name("currency").value(currency)
+                .name("minorUnits").value(amount)
+            .endObject()
+            .endObject());
     }
 }
@@ -0,0 +1,106 @@
+package com.starlingbank.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.config.TenantConfigListener;
+import com.starlingbank.transport.HttpClientTransport;
+import com.starlingbank.transport.Transport;
+
+/**
+ * This class keeps one StarlingClient per tenant, all sharing a single pooled HTTP client.
+ * Registered as a listener of the ConfigManager, it swaps the credentials of the affected tenant's client
+ * on reload, so the pooled connections stay alive across configuration changes, and drops the client of a tenant
+ * removed from the configuration.
+ * @author Cesar Goncalves
+ */
+public class StarlingClientRegistry implements TenantConfigListener, Closeable {
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    // The transport of the tenants' clients, built over the shared HTTP client
+    private final Transport transport;
+    private final Map<String, StarlingClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for the StarlingClientRegistry class.
+     * Creates the pooled HTTP client shared by the tenants' clients.
+     */
+    public StarlingClientRegistry() {
+        this(HttpClientTransport::new);
+    }
+
+    /**
+     * Constructor for the StarlingClientRegistry class.
+     * Creates the pooled HTTP client shared by the tenants' clients, and the transport carrying their requests.
+     * @param transportFactory Builds the transport over the shared HTTP client, e.g. to record the API traffic.
+     */
+    public StarlingClientRegistry(Function<CloseableHttpClient, Transport> transportFactory) {
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+        this.transport = transportFactory.apply(httpClient);
+    }
+
+    /**
+     * Returns the client of a tenant, creating it on first use.
+     * @param tenantConfig The configuration of the tenant.
+     * @return The client of the tenant.
+     */
+    public StarlingClient clientFor(TenantConfig tenantConfig) {
+        StarlingClient client = clients.computeIfAbsent(tenantConfig.getName(),
+            name -> new StarlingClient(tenantConfig, transport));
+        resizePool();
+        return client;
+    }
+
+    /**
+     * Swaps the configuration of the tenant's client, if the client was already created.
+     * @param tenantConfig The new configuration of the tenant.
+     */
+    @Override
+    public void tenantUpdated(TenantConfig tenantConfig) {
+        StarlingClient client = clients.get(tenantConfig.getName());
+        if (client != null) {
+            client.updateTenantConfig(tenantConfig);
+            resizePool();
+        }
+    }
+
+    /**
+     * Drops the client of a tenant no longer configured, and shrinks the pool to the remaining tenants.
+     * @param name The name of the tenant removed.
+     */
+    @Override
+    public void tenantRemoved(String name) {
+        if (clients.remove(name) != null) {
+            resizePool();
+        }
+    }
+
+    /**
+     * Closes the shared HTTP client and its pooled connections.
+     * @throws IOException If the HTTP client cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    // Sizes the pool so that every tenant can reach the highest concurrency limit of every endpoint, each call with
+    // its hedge, leaving the bulkheads, not the pool, to decide which calls wait
+    private void resizePool() {
+        int maxConnections = clients.values().stream()
+            .mapToInt(client -> client.getTenantConfig().getMaxConcurrentRequests() * EndpointGuard.MAX_LIMIT_FACTOR
+                * RequestHedger.MAX_REQUESTS_PER_CALL * Endpoint.values().length)
+            .sum();
+        connectionManager.setMaxTotal(Math.max(maxConnections, 1));
+        connectionManager.setDefaultMaxPerRoute(Math.max(maxConnections, 1));
+    }
+}
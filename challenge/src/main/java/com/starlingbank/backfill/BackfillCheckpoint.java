@@ -0,0 +1,191 @@
+package com.starlingbank.backfill;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * The progress of a HistoricalBackfill: the range and chunking of the backfill, the round-up of every chunk
+ * completed so far, and the length of the report that covers exactly those chunks. The checkpoint is rewritten
+ * atomically after each chunk, so a crash leaves the last complete checkpoint on disk, and a backfill resumed over
+ * the same range skips the chunks it records.
+ * @author Cesar Goncalves
+ */
+final class BackfillCheckpoint {
+    // Names the account, range and chunking of the backfill, as account/from/to/chunkDays
+    private static final String BACKFILL = "backfill";
+    private static final String CHUNK_PREFIX = "chunk.";
+    private static final String REPORT_BYTES = "report.bytes";
+
+    private final Path file;
+    private final UUID accountUid;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int chunkDays;
+    // The round-up of each completed chunk, by index, guarded by this
+    private final Map<Integer, Long> completedRoundUps = new TreeMap<>();
+    // The length of the report synced with the last completed chunk, 0 without a report, guarded by this
+    private long reportBytes;
+
+    private BackfillCheckpoint(Path file, UUID accountUid, LocalDate from, LocalDate to, int chunkDays) {
+        this.file = file;
+        this.accountUid = accountUid;
+        this.from = from;
+        this.to = to;
+        this.chunkDays = chunkDays;
+    }
+
+    /**
+     * Loads the checkpoint of a backfill, or starts a new one if the file records no progress of the same backfill.
+     * @param file The checkpoint file.
+     * @param accountUid The unique identifier of the account backfilled.
+     * @param from The first day of the backfill.
+     * @param to The day after the last day of the backfill.
+     * @param chunkDays The days of history per chunk.
+     * @return The checkpoint.
+     * @throws IOException If the file cannot be read.
+     */
+    static BackfillCheckpoint loadOrCreate(Path file, UUID accountUid, LocalDate from, LocalDate to, int chunkDays)
+        throws IOException {
+        BackfillCheckpoint checkpoint = new BackfillCheckpoint(file, accountUid, from, to, chunkDays);
+        if (Files.exists(file)) {
+            Properties saved = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                saved.load(reader);
+            }
+            checkpoint.restore(saved);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Returns the number of chunks of the backfill.
+     * @return The number of chunks.
+     */
+    int chunkCount() {
+        return (int) Math.ceilDiv(Math.max(0, to.toEpochDay() - from.toEpochDay()), chunkDays);
+    }
+
+    /**
+     * Returns the first day of a chunk.
+     * @param index The index of the chunk.
+     * @return The first day.
+     */
+    LocalDate chunkStart(int index) {
+        return from.plusDays((long) index * chunkDays);
+    }
+
+    /**
+     * Returns the day after the last day of a chunk.
+     * @param index The index of the chunk.
+     * @return The end of the chunk.
+     */
+    LocalDate chunkEnd(int index) {
+        LocalDate end = chunkStart(index + 1);
+        return end.isAfter(to) ? to : end;
+    }
+
+    /**
+     * Checks whether a chunk is completed.
+     * @param index The index of the chunk.
+     * @return true if the round-up of the chunk is recorded.
+     */
+    synchronized boolean isCompleted(int index) {
+        return completedRoundUps.containsKey(index);
+    }
+
+    /**
+     * Records the round-up of a completed chunk and saves the checkpoint.
+     * @param index The index of the chunk.
+     * @param roundUpMinorUnits The round-up of the chunk, in minor units.
+     * @param syncedReportBytes The length of the report synced once the chunk was written to it, 0 without a report.
+     * @throws IOException If the checkpoint cannot be saved, in which case the chunk is not recorded.
+     */
+    synchronized void complete(int index, long roundUpMinorUnits, long syncedReportBytes) throws IOException {
+        long previousReportBytes = reportBytes;
+        completedRoundUps.put(index, roundUpMinorUnits);
+        reportBytes = syncedReportBytes;
+        try {
+            save();
+        } catch (IOException e) {
+            completedRoundUps.remove(index);
+            reportBytes = previousReportBytes;
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the length of the report that covers the completed chunks, at which a resumed backfill continues it.
+     * @return The length in bytes, 0 if no chunk was reported.
+     */
+    synchronized long reportBytes() {
+        return reportBytes;
+    }
+
+    /**
+     * Returns the number of completed chunks.
+     * @return The number of chunks.
+     */
+    synchronized int completedCount() {
+        return completedRoundUps.size();
+    }
+
+    /**
+     * Returns the round-up of the completed chunks.
+     * @return The round-up, in minor units.
+     */
+    synchronized long totalRoundUpMinorUnits() {
+        return completedRoundUps.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Deletes the checkpoint file, once the backfill is complete.
+     * @throws IOException If the file cannot be deleted.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private void restore(Properties saved) {
+        if (!description().equals(saved.getProperty(BACKFILL))) {
+            return; // The checkpoint of another backfill, which this one overwrites
+        }
+        reportBytes = Long.parseLong(saved.getProperty(REPORT_BYTES, "0"));
+        for (String name : saved.stringPropertyNames()) {
+            if (name.startsWith(CHUNK_PREFIX)) {
+                completedRoundUps.put(Integer.valueOf(name.substring(CHUNK_PREFIX.length())),
+                    Long.valueOf(saved.getProperty(name)));
+            }
+        }
+    }
+
+    /**
+     * Describes the backfill: its account, range and chunking.
+     * @return The description, as account/from/to/chunkDays.
+     */
+    String description() {
+        return accountUid + "/" + from + '/' + to + '/' + chunkDays;
+    }
+
+    private void save() throws IOException {
+        Properties saved = new Properties();
+        saved.setProperty(BACKFILL, description());
+        saved.setProperty(REPORT_BYTES, Long.toString(reportBytes));
+        completedRoundUps.forEach((index, roundUp) -> saved.setProperty(CHUNK_PREFIX + index, Long.toString(roundUp)));
+
+        Path saving = file.resolveSibling(file.getFileName() + ".saving");
+        try (Writer writer = Files.newBufferedWriter(saving, StandardCharsets.UTF_8)) {
+            saved.store(writer, "Round-up backfill checkpoint");
+        }
+        Files.move(saving, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,82 @@
+package com.starlingbank.backfill;
+
+import com.starlingbank.util.PendingRoundUp;
+
+/**
+ * The outcome of a run of a HistoricalBackfill.
+ * @author Cesar Goncalves
+ */
+public final class BackfillResult {
+    // Chunks the range of the backfill is split into
+    private final int totalChunks;
+    // Chunks completed, including those completed by earlier runs
+    private final int completedChunks;
+    // Chunks completed by earlier runs and skipped by this one
+    private final int resumedChunks;
+    // The round-up of the completed chunks, whose checkpoint is deleted once the round-up is transferred
+    private final PendingRoundUp roundUp;
+
+    /**
+     * Constructor for BackfillResult.
+     * @param totalChunks The number of chunks of the backfill.
+     * @param completedChunks The number of chunks completed, including those completed by earlier runs.
+     * @param resumedChunks The number of chunks completed by earlier runs.
+     * @param roundUp The round-up of the completed chunks, whose checkpoint is deleted once it is transferred.
+     */
+    public BackfillResult(int totalChunks, int completedChunks, int resumedChunks, PendingRoundUp roundUp) {
+        this.totalChunks = totalChunks;
+        this.completedChunks = completedChunks;
+        this.resumedChunks = resumedChunks;
+        this.roundUp = roundUp;
+    }
+
+    /**
+     * Checks whether every chunk is completed, in which case the round-up covers the whole range.
+     * @return true if the backfill is complete.
+     */
+    public boolean isComplete() {
+        return completedChunks == totalChunks;
+    }
+
+    /**
+     * Returns the number of chunks of the backfill.
+     * @return The number of chunks.
+     */
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    /**
+     * Returns the number of chunks completed, including those completed by earlier runs.
+     * @return The number of chunks completed.
+     */
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    /**
+     * Returns the number of chunks completed by earlier runs and skipped by this one.
+     * @return The number of chunks resumed.
+     */
+    public int getResumedChunks() {
+        return resumedChunks;
+    }
+
+    /**
+     * Returns the round-up of the completed chunks.
+     * @return The round-up in minor units.
+     */
+    public long getRoundUpMinorUnits() {
+        return roundUp.getMinorUnits();
+    }
+
+    /**
+     * Returns the round-up of the completed chunks, to transfer once the backfill is complete. The checkpoint is
+     * kept until the round-up is durable, so a transfer that fails is made again, under the same transferUids, by
+     * the next run over the same range.
+     * @return The round-up.
+     */
+    public PendingRoundUp getRoundUp() {
+        return roundUp;
+    }
+}
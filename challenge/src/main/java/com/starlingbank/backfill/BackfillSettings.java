@@ -0,0 +1,95 @@
+package com.starlingbank.backfill;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.starlingbank.report.ReportSettings;
+
+/**
+ * The settings of a HistoricalBackfill, read from the environment: STARLING_BACKFILL_CHECKPOINT names the
+ * checkpoint file (backfill.checkpoint by default), STARLING_BACKFILL_CHUNK_DAYS the days of history per chunk
+ * (30 by default) and STARLING_BACKFILL_CONCURRENCY the chunks fetched at the same time (4 by default, the
+ * default limit of concurrent requests per endpoint). The round-ups are exported as they are fetched to the report
+ * configured by ReportSettings, if any.
+ * @author Cesar Goncalves
+ */
+public final class BackfillSettings {
+    /** The environment variable naming the checkpoint file. */
+    public static final String CHECKPOINT_FILE = "STARLING_BACKFILL_CHECKPOINT";
+    /** The environment variable holding the days of history per chunk. */
+    public static final String CHUNK_DAYS = "STARLING_BACKFILL_CHUNK_DAYS";
+    /** The environment variable holding the number of chunks fetched at the same time. */
+    public static final String CONCURRENCY = "STARLING_BACKFILL_CONCURRENCY";
+
+    private static final String DEFAULT_CHECKPOINT_FILE = "backfill.checkpoint";
+    private static final String DEFAULT_CHUNK_DAYS = "30";
+    private static final String DEFAULT_CONCURRENCY = "4";
+
+    private final Path checkpointFile;
+    private final int chunkDays;
+    private final int maxConcurrentChunks;
+    // The report the round-ups are exported to, null if none
+    private final ReportSettings report;
+
+    /**
+     * Constructor for BackfillSettings, without a report.
+     * @param checkpointFile The file the progress is checkpointed to.
+     * @param chunkDays The days of history per chunk.
+     * @param maxConcurrentChunks The maximum number of chunks fetched at the same time.
+     * @throws IllegalArgumentException If the chunk days or the concurrency is not positive.
+     */
+    public BackfillSettings(Path checkpointFile, int chunkDays, int maxConcurrentChunks) {
+        this(checkpointFile, chunkDays, maxConcurrentChunks, null);
+    }
+
+    /**
+     * Constructor for BackfillSettings.
+     * @param checkpointFile The file the progress is checkpointed to.
+     * @param chunkDays The days of history per chunk.
+     * @param maxConcurrentChunks The maximum number of chunks fetched at the same time.
+     * @param report The report the round-ups are exported to, or null if none.
+     * @throws IllegalArgumentException If the chunk days or the concurrency is not positive.
+     */
+    public BackfillSettings(Path checkpointFile, int chunkDays, int maxConcurrentChunks, ReportSettings report) {
+        if (chunkDays <= 0 || maxConcurrentChunks <= 0) {
+            throw new IllegalArgumentException("The chunk days and the backfill concurrency must be positive");
+        }
+        this.checkpointFile = checkpointFile;
+        this.chunkDays = chunkDays;
+        this.maxConcurrentChunks = maxConcurrentChunks;
+        this.report = report;
+    }
+
+    /**
+     * Reads the settings from the environment.
+     * @param environment The environment variables.
+     * @return The settings.
+     * @throws IllegalArgumentException If a setting is invalid.
+     */
+    public static BackfillSettings fromEnvironment(Map<String, String> environment) {
+        return new BackfillSettings(Path.of(environment.getOrDefault(CHECKPOINT_FILE, DEFAULT_CHECKPOINT_FILE)),
+            Integer.parseInt(environment.getOrDefault(CHUNK_DAYS, DEFAULT_CHUNK_DAYS)),
+            Integer.parseInt(environment.getOrDefault(CONCURRENCY, DEFAULT_CONCURRENCY)),
+            ReportSettings.fromEnvironment(environment));
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public int getChunkDays() {
+        return chunkDays;
+    }
+
+    public int getMaxConcurrentChunks() {
+        return maxConcurrentChunks;
+    }
+
+    /**
+     * Returns the settings of the report the round-ups are exported to.
+     * @return The settings, or null if there is no report.
+     */
+    public ReportSettings getReport() {
+        return report;
+    }
+}
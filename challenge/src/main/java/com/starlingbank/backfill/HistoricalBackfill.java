@@ -0,0 +1,139 @@
+package com.starlingbank.backfill;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.report.RoundUpReport;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Calculates the round-up of a long range of history chunk by chunk.
+ * The chunks are fetched on virtual threads, at most maxConcurrentChunks at a time, so the backfill stays within
+ * the limit of concurrent requests of the transactions endpoint. The round-up of each chunk is checkpointed as
+ * soon as it is calculated, and only then are its feed items recorded as processed; a chunk that fails is left for
+ * the next run, which resumes from the checkpoint instead of fetching the history again. The transactions of each
+ * chunk are exported to the report of the settings, if any, which is forced to disk before the chunk is checkpointed
+ * with the length of the report; a resumed backfill continues the report at that length, dropping the rows of the
+ * chunks the interrupted run did not checkpoint, as they are exported again.
+ * @author Cesar Goncalves
+ */
+public class HistoricalBackfill {
+    // Log of the chunks backfilled and of those that fail
+    private static final EventLog LOG = EventLog.get();
+
+    private final TransactionService transactionService;
+    private final RoundUpCalculator calculator;
+    private final BackfillSettings settings;
+
+    /**
+     * Constructor for HistoricalBackfill.
+     * @param transactionService Service fetching the transactions of each chunk.
+     * @param calculator Calculator of the round-up of each chunk.
+     * @param settings The checkpoint file, chunk size and concurrency of the backfill.
+     */
+    public HistoricalBackfill(TransactionService transactionService, RoundUpCalculator calculator,
+                              BackfillSettings settings) {
+        this.transactionService = transactionService;
+        this.calculator = calculator;
+        this.settings = settings;
+    }
+
+    /**
+     * Calculates the round-up of the chunks of a range not completed yet, resuming from the checkpoint.
+     * The checkpoint is deleted only once the caller records the round-up of the result as processed, after
+     * transferring or accruing it; until then a run over the same range finds every chunk completed and returns
+     * the same round-up, whose shares keep their transferUids, so a failed transfer is made again without paying
+     * the shares that went through twice.
+     * @param account The account backfilled.
+     * @param from The first day of the range.
+     * @param to The day after the last day of the range.
+     * @return The outcome of the run.
+     * @throws IOException If the checkpoint cannot be read or saved.
+     */
+    public BackfillResult run(Account account, LocalDate from, LocalDate to) throws IOException {
+        BackfillCheckpoint checkpoint = BackfillCheckpoint.loadOrCreate(settings.getCheckpointFile(),
+            account.getAccountUid(), from, to, settings.getChunkDays());
+        int resumedChunks = checkpoint.completedCount();
+        Semaphore chunkPermits = new Semaphore(settings.getMaxConcurrentChunks());
+        // Closed once every chunk is done, as the executor is closed first
+        try (RoundUpReport report = RoundUpReport.open(settings.getReport(), calculator, checkpoint.reportBytes());
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int index = 0; index < checkpoint.chunkCount(); index++) {
+                int chunk = index;
+                if (!checkpoint.isCompleted(chunk)) {
+                    executor.execute(() -> backfillChunk(account, checkpoint, chunk, chunkPermits, report));
+                }
+            }
+        }
+        long roundUpMinorUnits = checkpoint.totalRoundUpMinorUnits();
+        // The same backfill with the same round-up is transferred under the same transferUids
+        return new BackfillResult(checkpoint.chunkCount(), checkpoint.completedCount(), resumedChunks,
+            PendingRoundUp.of(roundUpMinorUnits, checkpoint.description() + '/' + roundUpMinorUnits,
+                () -> delete(checkpoint)));
+    }
+
+    private static void delete(BackfillCheckpoint checkpoint) {
+        try {
+            checkpoint.delete();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void backfillChunk(Account account, BackfillCheckpoint checkpoint, int index, Semaphore chunkPermits,
+                               RoundUpReport report) {
+        try {
+            chunkPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // Left for the next run
+        }
+        try {
+            long started = System.nanoTime();
+            List<Transaction> transactions = transactionService.getTransactions(account, checkpoint.chunkStart(index),
+                checkpoint.chunkEnd(index));
+            PendingRoundUp roundUp = calculator.calculatePendingRoundUp(transactions);
+            reportAndComplete(account, transactions, checkpoint, index, roundUp, report);
+            roundUp.markProcessed();
+            LOG.log(LogEvent.of(Level.FINE, "backfill", "Backfilled from " + checkpoint.chunkStart(index) + " to "
+                + checkpoint.chunkEnd(index)).account(account.getAccountUid()).amount(roundUp.getMinorUnits())
+                .latency(System.nanoTime() - started));
+        } catch (ServiceException e) {
+            LOG.log(LogEvent.of(Level.WARNING, "backfill", "Cannot backfill from " + checkpoint.chunkStart(index)
+                + " to " + checkpoint.chunkEnd(index) + ", left for the next run: " + e.getMessage())
+                .account(account.getAccountUid()));
+        } catch (IOException e) {
+            LOG.severe("backfill", "Cannot report or checkpoint the chunk, it is left for the next run", e);
+        } finally {
+            chunkPermits.release();
+        }
+    }
+
+    // Writes the chunk to the report and checkpoints it as one step, so the length of the report checkpointed covers
+    // the completed chunks and no other
+    private static void reportAndComplete(Account account, List<Transaction> transactions,
+                                          BackfillCheckpoint checkpoint, int index, PendingRoundUp roundUp,
+                                          RoundUpReport report) throws IOException {
+        if (report == null) {
+            checkpoint.complete(index, roundUp.getMinorUnits(), 0);
+            return;
+        }
+        synchronized (report) {
+            report.write(account, transactions);
+            checkpoint.complete(index, roundUp.getMinorUnits(), report.sync());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.starlingbank.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Loads the configuration properties of the application.
+ * The properties are read from the file named by the STARLING_CONFIG_FILE environment variable, or from
+ * config.properties on the classpath when it is not set. Environment variables prefixed with STARLING_
+ * override the loaded properties: STARLING_ACCESS_TOKEN sets ACCESS_TOKEN, and STARLING_ALPHA__ACCESS_TOKEN
+ * sets alpha.ACCESS_TOKEN.
+ * @author Cesar Goncalves
+ */
+final class ConfigLoader {
+    // The name of the configuration file on the classpath
+    static final String CONFIG_FILE_NAME = "config.properties";
+    // The environment variable holding the path of the configuration file
+    static final String CONFIG_FILE_ENV = "STARLING_CONFIG_FILE";
+    // The prefix of the environment variables overriding configuration properties
+    private static final String ENV_PREFIX = "STARLING_";
+    // The separator between a tenant name and a key in environment variable names
+    private static final String ENV_TENANT_SEPARATOR = "__";
+
+    private final Map<String, String> environment;
+    private final Path configFile;
+
+    /**
+     * Constructor for the ConfigLoader class.
+     * @param environment The environment variables to read the configuration file path and overrides from.
+     */
+    ConfigLoader(Map<String, String> environment) {
+        this.environment = environment;
+        String path = environment.get(CONFIG_FILE_ENV);
+        this.configFile = path == null || path.isBlank() ? null : Paths.get(path);
+    }
+
+    /**
+     * Returns the path of the configuration file.
+     * @return The path, or null if the configuration is loaded from the classpath.
+     */
+    Path getConfigFile() {
+        return configFile;
+    }
+
+    /**
+     * Loads the properties from the configuration file and applies the environment overrides.
+     * @return The loaded properties.
+     * @throws IOException If the configuration file cannot be read.
+     */
+    Properties load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = openConfigFile()) {
+            properties.load(input);
+        }
+        applyEnvironment(properties);
+        return properties;
+    }
+
+    private InputStream openConfigFile() throws IOException {
+        if (configFile != null) {
+            return Files.newInputStream(configFile);
+        }
+        InputStream input = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE_NAME);
+        if (input == null) {
+            throw new IOException("Property file '" + CONFIG_FILE_NAME + "' not found in the classpath");
+        }
+        return input;
+    }
+
+    private void applyEnvironment(Properties properties) {
+        for (Map.Entry<String, String> variable : environment.entrySet()) {
+            String name = variable.getKey();
+            if (name.startsWith(ENV_PREFIX) && !CONFIG_FILE_ENV.equals(name)) {
+                properties.setProperty(toPropertyKey(name.substring(ENV_PREFIX.length())), variable.getValue());
+            }
+        }
+    }
+
+    private static String toPropertyKey(String name) {
+        int separator = name.indexOf(ENV_TENANT_SEPARATOR);
+        if (separator < 0) {
+            return name;
+        }
+        return name.substring(0, separator).toLowerCase(Locale.ROOT) + "."
+            + name.substring(separator + ENV_TENANT_SEPARATOR.length());
+    }
+}
@@ -1,57 +1,123 @@
 package com.starlingbank.config;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.starlingbank.logging.EventLog;
 
 /**
  * This class is responsible for managing the configuration of the application.
- * It loads the properties from a configuration file and provides a method to access them.
+ * It loads the tenant configurations from a configuration file or the environment, provides methods to
+ * access them, and can reload them at runtime, notifying listeners of the tenants that changed.
  * @author Cesar Goncalves
  */
 public class ConfigManager {
-    // The name of the configuration file
-    private static final String CONFIG_FILE_NAME = "config.properties";
-    // The key used to retrieve the access token from the properties
-    private static final String ACCESS_TOKEN_KEY = "ACCESS_TOKEN";
-
-    // Logger for this class
-    private static final Logger LOGGER = Logger.getLogger(ConfigManager.class.getName());
+    // Log of the errors of this class
+    private static final EventLog LOG = EventLog.get();
 
-    // Properties object to hold the loaded properties
-    private final Properties properties;
+    // Loader reading the properties from the configuration file and the environment
+    private final ConfigLoader loader;
+    // Listeners notified of tenant configuration changes
+    private final List<TenantConfigListener> listeners = new CopyOnWriteArrayList<>();
+    // Snapshot of the tenant configurations, replaced as a whole on reload
+    private volatile Map<String, TenantConfig> tenants;
 
     /**
      * Constructor for the ConfigManager class.
-     * It initializes the properties object and loads the properties from the configuration file.
+     * It loads the tenant configurations using the environment variables of the process.
      */
     public ConfigManager() {
-        this.properties = new Properties();
-        loadProperties();
+        this(System.getenv());
     }
 
     /**
-     * This method loads the properties from the configuration file into the properties object.
-     * If the file is not found, it throws an IOException.
+     * Constructor for the ConfigManager class.
+     * It loads the tenant configurations using the given environment variables.
+     * If the configuration cannot be loaded, no tenant is configured.
+     * @param environment The environment variables to read the configuration file path and overrides from.
      */
-    private void loadProperties() {
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE_NAME)) {
-            if (input == null) {
-                throw new IOException("Property file '" + CONFIG_FILE_NAME + "' not found in the classpath");
-            }
-            properties.load(input);
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Cannot load properties from " + CONFIG_FILE_NAME, e);
+    public ConfigManager(Map<String, String> environment) {
+        this.loader = new ConfigLoader(environment);
+        this.tenants = Collections.emptyMap();
+        try {
+            this.tenants = TenantConfigParser.parse(loader.load());
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.severe("config", "Cannot load the configuration", e);
         }
     }
 
     /**
-     * This method retrieves the access token from the properties.
-     * @return The access token as a string.
+     * This method retrieves the access token of the default tenant.
+     * @return The access token as a string, or null if the default tenant is not configured.
      */
     public String getAccessToken() {
-        return properties.getProperty(ACCESS_TOKEN_KEY);
+        TenantConfig defaultTenant = tenants.get(TenantConfig.DEFAULT_TENANT);
+        return defaultTenant == null ? null : defaultTenant.getAccessToken();
+    }
+
+    /**
+     * This method retrieves the configuration of a tenant.
+     * @param name The name of the tenant.
+     * @return The configuration of the tenant, or null if the tenant is not configured.
+     */
+    public TenantConfig getTenant(String name) {
+        return tenants.get(name);
+    }
+
+    /**
+     * This method retrieves the configurations of all the tenants.
+     * @return An unmodifiable collection of tenant configurations.
+     */
+    public Collection<TenantConfig> getTenants() {
+        return tenants.values();
+    }
+
+    /**
+     * This method returns the path of the configuration file.
+     * @return The path, or null if the configuration is loaded from the classpath.
+     */
+    public Path getConfigFile() {
+        return loader.getConfigFile();
+    }
+
+    /**
+     * Registers a listener notified of the tenants added, changed or removed by a reload.
+     * @param listener The listener to register.
+     */
+    public void addListener(TenantConfigListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Reloads the tenant configurations and notifies the listeners of the tenants that were added, changed or
+     * removed.
+     * If the configuration cannot be loaded, the previous configurations are kept.
+     */
+    public void reload() {
+        try {
+            Map<String, TenantConfig> previous = tenants;
+            tenants = TenantConfigParser.parse(loader.load());
+            notifyListeners(previous, tenants);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.severe("config", "Cannot reload the configuration, keeping the previous one", e);
+        }
+    }
+
+    private void notifyListeners(Map<String, TenantConfig> previous, Map<String, TenantConfig> current) {
+        for (TenantConfig tenantConfig : current.values()) {
+            if (!tenantConfig.isSameAs(previous.get(tenantConfig.getName()))) {
+                listeners.forEach(listener -> listener.tenantUpdated(tenantConfig));
+            }
+        }
+        for (String name : previous.keySet()) {
+            if (!current.containsKey(name)) {
+                listeners.forEach(listener -> listener.tenantRemoved(name));
+            }
+        }
     }
 }
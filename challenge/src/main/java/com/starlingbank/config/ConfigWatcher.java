@@ -0,0 +1,85 @@
+package com.starlingbank.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches the configuration file of a ConfigManager and reloads it whenever the file is created or modified.
+ * The watch runs on a daemon thread until the watcher is closed. To avoid reloading a half-written file,
+ * replace the configuration file atomically (write a temporary file, then move it over the original).
+ * @author Cesar Goncalves
+ */
+public class ConfigWatcher implements Closeable {
+    private final ConfigManager configManager;
+    private final Path configFileName;
+    private final WatchService watchService;
+    private final Thread watchThread;
+
+    /**
+     * Constructor for the ConfigWatcher class.
+     * It registers the directory of the configuration file with a WatchService.
+     * @param configManager The ConfigManager to reload when the configuration file changes.
+     * @throws IOException If the directory of the configuration file cannot be watched.
+     * @throws IllegalStateException If the configuration is not loaded from a file.
+     */
+    public ConfigWatcher(ConfigManager configManager) throws IOException {
+        Path configFile = configManager.getConfigFile();
+        if (configFile == null) {
+            throw new IllegalStateException("Hot reload requires the configuration to be loaded from a file");
+        }
+        Path absoluteFile = configFile.toAbsolutePath();
+        this.configManager = configManager;
+        this.configFileName = absoluteFile.getFileName();
+        this.watchService = absoluteFile.getFileSystem().newWatchService();
+        absoluteFile.getParent().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchThread = Thread.ofPlatform().daemon().name("config-watcher").unstarted(this::watch);
+    }
+
+    /**
+     * Starts watching the configuration file.
+     */
+    public void start() {
+        watchThread.start();
+    }
+
+    /**
+     * Stops watching the configuration file.
+     * @throws IOException If the WatchService cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                if (touchesConfigFile(key)) {
+                    configManager.reload();
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // The watcher was closed, stop watching
+        }
+    }
+
+    private boolean touchesConfigFile(WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (configFileName.equals(event.context())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
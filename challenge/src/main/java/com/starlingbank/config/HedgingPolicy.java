@@ -0,0 +1,128 @@
+package com.starlingbank.config;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Configures when an idempotent GET is hedged, i.e. when a duplicate request is sent because the first one
+ * is taking too long. The hedge is sent after a fixed delay, or once the request has been running longer than
+ * a percentile of the endpoint's observed latency. A budget caps the hedges to a percentage of the requests.
+ * @author Cesar Goncalves
+ */
+public final class HedgingPolicy {
+    /** The percentage of requests that may be hedged when no budget is configured. */
+    public static final int DEFAULT_BUDGET_PERCENT = 10;
+
+    private static final HedgingPolicy DISABLED = new HedgingPolicy(-1, 0, 0);
+
+    private final long fixedDelayNanos;
+    private final double percentile;
+    private final int budgetPercent;
+
+    private HedgingPolicy(long fixedDelayNanos, double percentile, int budgetPercent) {
+        this.fixedDelayNanos = fixedDelayNanos;
+        this.percentile = percentile;
+        this.budgetPercent = budgetPercent;
+    }
+
+    /**
+     * Returns the policy that never hedges.
+     * @return The disabled policy.
+     */
+    public static HedgingPolicy disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns a policy hedging requests still running after a fixed delay.
+     * @param delay The delay after which a request is hedged.
+     * @param budgetPercent The maximum percentage of requests hedged.
+     * @return The policy.
+     * @throws IllegalArgumentException If the delay is negative.
+     */
+    public static HedgingPolicy afterDelay(Duration delay, int budgetPercent) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("The hedging delay must not be negative: " + delay);
+        }
+        return new HedgingPolicy(delay.toNanos(), 0, budgetPercent);
+    }
+
+    /**
+     * Returns a policy hedging requests running longer than a percentile of the endpoint's observed latency.
+     * Until enough latencies are observed, requests are not hedged.
+     * @param percentile The percentile, between 0 and 1 exclusive (e.g. 0.95).
+     * @param budgetPercent The maximum percentage of requests hedged.
+     * @return The policy.
+     * @throws IllegalArgumentException If the percentile is not between 0 and 1 exclusive.
+     */
+    public static HedgingPolicy afterPercentile(double percentile, int budgetPercent) {
+        if (!(percentile > 0 && percentile < 1)) {
+            throw new IllegalArgumentException("The hedging percentile must be between 0 and 1 exclusive: "
+                + percentile);
+        }
+        return new HedgingPolicy(-1, percentile, budgetPercent);
+    }
+
+    /**
+     * Parses a policy: "off", a percentile between p0 and p100 exclusive such as "p95", or a delay in milliseconds
+     * that is not negative such as "250".
+     * @param value The value to parse.
+     * @param budgetPercent The maximum percentage of requests hedged.
+     * @return The policy.
+     * @throws IllegalArgumentException If the value cannot be parsed, or the percentile or delay is out of range.
+     */
+    public static HedgingPolicy parse(String value, int budgetPercent) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if ("off".equals(normalized)) {
+            return DISABLED;
+        }
+        final double percent = 100.0;
+        try {
+            return normalized.startsWith("p")
+                ? afterPercentile(Double.parseDouble(normalized.substring(1)) / percent, budgetPercent)
+                : afterDelay(Duration.ofMillis(Long.parseLong(normalized)), budgetPercent);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid hedging policy: " + value, e);
+        }
+    }
+
+    /**
+     * Returns the maximum percentage of requests hedged.
+     * @return The budget in percent.
+     */
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    /**
+     * Returns the fixed delay after which a request is hedged.
+     * @return The delay in nanoseconds, or -1 if the policy has no fixed delay.
+     */
+    public long getFixedDelayNanos() {
+        return fixedDelayNanos;
+    }
+
+    /**
+     * Returns the percentile of the observed latency after which a request is hedged.
+     * @return The percentile between 0 and 1, or 0 if the policy has no percentile.
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof HedgingPolicy)) {
+            return false;
+        }
+        HedgingPolicy policy = (HedgingPolicy) other;
+        return fixedDelayNanos == policy.fixedDelayNanos && Double.compare(percentile, policy.percentile) == 0
+            && budgetPercent == policy.budgetPercent;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fixedDelayNanos, percentile, budgetPercent);
+    }
+}
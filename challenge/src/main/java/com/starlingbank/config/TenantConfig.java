@@ -0,0 +1,126 @@
+package com.starlingbank.config;
+
+import java.util.Objects;
+
+/**
+ * Represents the configuration of a single tenant in the Starling Bank system.
+ * A tenant has its own access token, API base URL, request limits and hedging policy.
+ * @author Cesar Goncalves
+ */
+public class TenantConfig {
+    /** The name of the tenant configured through the top-level (unprefixed) keys. */
+    public static final String DEFAULT_TENANT = "default";
+    /** The base URL used when a tenant does not configure one. */
+    public static final String DEFAULT_BASE_URL = "https://api-sandbox.starlingbank.com";
+    /** The number of concurrent requests per endpoint allowed when a tenant does not configure a limit. */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    private final String name;
+    private final String accessToken;
+    private final String baseUrl;
+    private final int maxConcurrentRequests;
+    private final HedgingPolicy hedgingPolicy;
+
+    /**
+     * Constructs a TenantConfig with the specified name, credentials, base URL and limits, without hedging.
+     *
+     * @param name the name of the tenant
+     * @param accessToken the access token used to authenticate the tenant's API calls
+     * @param baseUrl the base URL of the Starling Bank API for the tenant
+     * @param maxConcurrentRequests the maximum number of concurrent requests to each endpoint for the tenant
+     */
+    public TenantConfig(String name, String accessToken, String baseUrl, int maxConcurrentRequests) {
+        this(name, accessToken, baseUrl, maxConcurrentRequests, HedgingPolicy.disabled());
+    }
+
+    /**
+     * Constructs a TenantConfig with the specified name, credentials, base URL, limits and hedging policy.
+     *
+     * @param name the name of the tenant
+     * @param accessToken the access token used to authenticate the tenant's API calls
+     * @param baseUrl the base URL of the Starling Bank API for the tenant
+     * @param maxConcurrentRequests the maximum number of concurrent requests to each endpoint for the tenant
+     * @param hedgingPolicy the policy deciding when the tenant's idempotent GETs are hedged
+     */
+    public TenantConfig(String name, String accessToken, String baseUrl, int maxConcurrentRequests,
+                        HedgingPolicy hedgingPolicy) {
+        this.name = name;
+        this.accessToken = accessToken;
+        this.baseUrl = baseUrl;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * Creates the configuration of the default tenant with the given access token.
+     *
+     * @param accessToken the access token of the default tenant
+     * @return the default tenant configuration
+     */
+    public static TenantConfig ofAccessToken(String accessToken) {
+        return new TenantConfig(DEFAULT_TENANT, accessToken, DEFAULT_BASE_URL, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * Returns the name of the tenant.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the access token of the tenant.
+     *
+     * @return the accessToken
+     */
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * Returns the base URL of the Starling Bank API for the tenant.
+     *
+     * @return the baseUrl
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Returns the maximum number of concurrent requests to each endpoint for the tenant.
+     *
+     * @return the maxConcurrentRequests
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Returns the policy deciding when the tenant's idempotent GETs are hedged.
+     *
+     * @return the hedgingPolicy
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Checks whether this configuration is identical to another one.
+     *
+     * @param other the configuration to compare with, may be null
+     * @return true if the other configuration has the same credentials, base URL, limits and hedging policy
+     */
+    public boolean isSameAs(TenantConfig other) {
+        return other != null && hasSameEndpoint(other) && hasSameLimits(other);
+    }
+
+    private boolean hasSameEndpoint(TenantConfig other) {
+        return Objects.equals(accessToken, other.accessToken) && Objects.equals(baseUrl, other.baseUrl);
+    }
+
+    private boolean hasSameLimits(TenantConfig other) {
+        return maxConcurrentRequests == other.maxConcurrentRequests && hedgingPolicy.equals(other.hedgingPolicy);
+    }
+}
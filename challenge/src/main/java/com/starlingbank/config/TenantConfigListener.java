@@ -0,0 +1,23 @@
+package com.starlingbank.config;
+
+/**
+ * Listener notified by the ConfigManager when the configuration of a tenant is added, changed or removed by a reload.
+ * @author Cesar Goncalves
+ */
+@FunctionalInterface
+public interface TenantConfigListener {
+
+    /**
+     * Called after a reload for every tenant whose configuration is new or differs from the previous one.
+     * @param tenantConfig The new configuration of the tenant.
+     */
+    void tenantUpdated(TenantConfig tenantConfig);
+
+    /**
+     * Called after a reload for every tenant that is no longer configured. Does nothing by default.
+     * @param name The name of the tenant removed.
+     */
+    default void tenantRemoved(String name) {
+        // Nothing kept for the tenant
+    }
+}
@@ -0,0 +1,78 @@
+package com.starlingbank.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Parses tenant configurations out of a set of properties.
+ * The default tenant is configured through the unprefixed keys (e.g. ACCESS_TOKEN), while the tenants
+ * listed in TENANTS are configured through keys prefixed with their name (e.g. alpha.ACCESS_TOKEN).
+ * @author Cesar Goncalves
+ */
+final class TenantConfigParser {
+    // The key listing the names of the additional tenants, separated by commas
+    static final String TENANTS_KEY = "TENANTS";
+    // The key used to retrieve the access token of a tenant
+    static final String ACCESS_TOKEN_KEY = "ACCESS_TOKEN";
+    // The key used to retrieve the API base URL of a tenant
+    static final String BASE_URL_KEY = "BASE_URL";
+    // The key used to retrieve the maximum number of concurrent requests of a tenant
+    static final String MAX_CONCURRENT_REQUESTS_KEY = "MAX_CONCURRENT_REQUESTS";
+    // The key used to retrieve when the idempotent GETs of a tenant are hedged (off, pNN or a delay in milliseconds)
+    static final String HEDGE_AFTER_KEY = "HEDGE_AFTER";
+    // The key used to retrieve the maximum percentage of a tenant's requests that may be hedged
+    static final String HEDGE_BUDGET_PERCENT_KEY = "HEDGE_BUDGET_PERCENT";
+
+    private TenantConfigParser() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Parses the tenant configurations from the given properties.
+     * @param properties The properties to parse.
+     * @return An unmodifiable map of tenant configurations keyed by tenant name, in declaration order.
+     */
+    static Map<String, TenantConfig> parse(Properties properties) {
+        Map<String, TenantConfig> tenants = new LinkedHashMap<>();
+        if (properties.containsKey(ACCESS_TOKEN_KEY)) {
+            tenants.put(TenantConfig.DEFAULT_TENANT, parseTenant(properties, TenantConfig.DEFAULT_TENANT, ""));
+        }
+        for (String name : properties.getProperty(TENANTS_KEY, "").split(",")) {
+            String tenantName = name.trim();
+            if (!tenantName.isEmpty()) {
+                tenants.put(tenantName, parseTenant(properties, tenantName, tenantName + "."));
+            }
+        }
+        return Collections.unmodifiableMap(tenants);
+    }
+
+    private static TenantConfig parseTenant(Properties properties, String name, String prefix) {
+        String accessToken = properties.getProperty(prefix + ACCESS_TOKEN_KEY);
+        String baseUrl = properties.getProperty(prefix + BASE_URL_KEY, TenantConfig.DEFAULT_BASE_URL).trim();
+        String maxConcurrentRequests = properties.getProperty(prefix + MAX_CONCURRENT_REQUESTS_KEY,
+            String.valueOf(TenantConfig.DEFAULT_MAX_CONCURRENT_REQUESTS)).trim();
+        return new TenantConfig(name, accessToken, baseUrl, parsePositiveInt(prefix + MAX_CONCURRENT_REQUESTS_KEY,
+            maxConcurrentRequests), parseHedgingPolicy(properties, prefix));
+    }
+
+    private static HedgingPolicy parseHedgingPolicy(Properties properties, String prefix) {
+        String hedgeAfter = properties.getProperty(prefix + HEDGE_AFTER_KEY, "off");
+        String budgetPercent = properties.getProperty(prefix + HEDGE_BUDGET_PERCENT_KEY,
+            String.valueOf(HedgingPolicy.DEFAULT_BUDGET_PERCENT)).trim();
+        return HedgingPolicy.parse(hedgeAfter, parsePositiveInt(prefix + HEDGE_BUDGET_PERCENT_KEY, budgetPercent));
+    }
+
+    private static int parsePositiveInt(String key, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed <= 0) {
+                throw new IllegalArgumentException(key + " must be a positive number: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a positive number: " + value, e);
+        }
+    }
+}
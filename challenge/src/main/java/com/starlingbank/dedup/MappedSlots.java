@@ -0,0 +1,158 @@
+package com.starlingbank.dedup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+
+/**
+ * The slots of a ProcessedItemSet, each holding the two longs of a UUID, in a memory-mapped file.
+ * The file starts with a header (magic, capacity and size) followed by the slots; an all-zero slot is empty.
+ * The slots are mapped in pages of at most 2^20 slots, as a single mapping cannot exceed 2 GiB.
+ * @author Cesar Goncalves
+ */
+final class MappedSlots implements Closeable {
+    /** The first int of the header, marking a file of slots. */
+    static final int MAGIC = 0x50495453;
+    /** The number of bytes of the header. */
+    static final int HEADER_BYTES = 32;
+    /** The offset in the header of the number of slots. */
+    static final int CAPACITY_OFFSET = 8;
+    /** The number of bytes of a slot. */
+    static final int SLOT_BYTES = 16;
+    private static final int SIZE_OFFSET = 16;
+    private static final int LSB_OFFSET = 8;
+    private static final int MAX_PAGE_SHIFT = 20;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] pages;
+    private final long capacity;
+    // log2 of the number of slots per page
+    private final int pageShift;
+
+    /**
+     * Constructor for MappedSlots.
+     * @param channel The channel of the file, of HEADER_BYTES plus capacity slots once mapped.
+     * @param lock The lock held on the file, released when the slots are closed.
+     * @param capacity The number of slots, a power of two.
+     * @throws IOException If the file cannot be mapped.
+     */
+    MappedSlots(FileChannel channel, FileLock lock, long capacity) throws IOException {
+        this.channel = channel;
+        this.lock = lock;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.capacity = capacity;
+        this.pageShift = Math.min(Long.numberOfTrailingZeros(capacity), MAX_PAGE_SHIFT);
+        this.pages = new MappedByteBuffer[(int) (capacity >>> pageShift)];
+        long pageBytes = (long) SLOT_BYTES << pageShift;
+        for (int page = 0; page < pages.length; page++) {
+            pages[page] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + page * pageBytes, pageBytes);
+        }
+    }
+
+    /**
+     * Writes the header of a new file, with no slot in use.
+     */
+    void initialize() {
+        header.putInt(0, MAGIC).putLong(CAPACITY_OFFSET, capacity).putLong(SIZE_OFFSET, 0);
+    }
+
+    /**
+     * Returns the number of slots.
+     * @return The capacity, a power of two.
+     */
+    long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of slots in use, as recorded in the header.
+     * @return The size.
+     */
+    long size() {
+        return header.getLong(SIZE_OFFSET);
+    }
+
+    /**
+     * Records the number of slots in use in the header.
+     * @param size The size.
+     */
+    void setSize(long size) {
+        header.putLong(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Checks whether a slot is empty.
+     * @param slot The index of the slot.
+     * @return true if the slot holds no UUID.
+     */
+    boolean isEmpty(long slot) {
+        return msb(slot) == 0 && lsb(slot) == 0;
+    }
+
+    /**
+     * Checks whether a slot holds a UUID.
+     * @param slot The index of the slot.
+     * @param msb The most significant bits of the UUID.
+     * @param lsb The least significant bits of the UUID.
+     * @return true if the slot holds the UUID.
+     */
+    boolean holds(long slot, long msb, long lsb) {
+        return msb(slot) == msb && lsb(slot) == lsb;
+    }
+
+    /**
+     * Returns the most significant bits of the UUID in a slot.
+     * @param slot The index of the slot.
+     * @return The most significant bits, 0 in an empty slot.
+     */
+    long msb(long slot) {
+        return page(slot).getLong(offset(slot));
+    }
+
+    /**
+     * Returns the least significant bits of the UUID in a slot.
+     * @param slot The index of the slot.
+     * @return The least significant bits, 0 in an empty slot.
+     */
+    long lsb(long slot) {
+        return page(slot).getLong(offset(slot) + LSB_OFFSET);
+    }
+
+    /**
+     * Writes a UUID into a slot.
+     * @param slot The index of the slot.
+     * @param msb The most significant bits of the UUID.
+     * @param lsb The least significant bits of the UUID.
+     */
+    void put(long slot, long msb, long lsb) {
+        page(slot).putLong(offset(slot), msb).putLong(offset(slot) + LSB_OFFSET, lsb);
+    }
+
+    /**
+     * Writes the slots and the header changed since the last call to the storage device.
+     */
+    void force() {
+        for (MappedByteBuffer page : pages) {
+            page.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.release();
+        channel.close();
+    }
+
+    private MappedByteBuffer page(long slot) {
+        return pages[(int) (slot >>> pageShift)];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot & (1L << pageShift) - 1) * SLOT_BYTES;
+    }
+}
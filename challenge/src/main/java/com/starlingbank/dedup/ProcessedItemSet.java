@@ -0,0 +1,134 @@
+package com.starlingbank.dedup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * A set of the feed items already counted, kept across runs in a memory-mapped file.
+ * The UUIDs are stored as two longs in an open-addressing table with linear probing, kept at most half full,
+ * so a lookup reads one or two 16-byte slots and the set costs 32 bytes of page cache per item and no heap.
+ * When the table is half full it is rehashed into a file twice as large, which then replaces the original.
+ * An item added is in the file as soon as add returns, so it survives the process; flush also makes it
+ * survive the machine.
+ * @author Cesar Goncalves
+ */
+public final class ProcessedItemSet implements Closeable {
+    private static final long INITIAL_CAPACITY = 65_536;
+    // Multiplier of the Fibonacci hashing of the UUIDs, so the UUIDs that are not random still spread evenly
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int HALF_LONG_BITS = 32;
+
+    private final Path file;
+    // The current table, replaced by a larger one when it is half full
+    private MappedSlots slots;
+
+    private ProcessedItemSet(Path file, MappedSlots slots) {
+        this.file = file;
+        this.slots = slots;
+    }
+
+    /**
+     * Opens the set kept in a file, creating an empty set if the file does not exist.
+     * @param file The file.
+     * @return The set, which must be closed.
+     * @throws IOException If the file cannot be created or opened, is not a set, or is open in another process.
+     */
+    public static ProcessedItemSet open(Path file) throws IOException {
+        return new ProcessedItemSet(file,
+            Files.exists(file) ? SlotFiles.open(file) : SlotFiles.create(file, INITIAL_CAPACITY));
+    }
+
+    /**
+     * Checks whether an item is in the set.
+     * @param uid The unique identifier of the item.
+     * @return true if the item was added, in this run or a previous one.
+     */
+    public synchronized boolean contains(UUID uid) {
+        return !slots.isEmpty(find(slots, uid.getMostSignificantBits(), uid.getLeastSignificantBits()));
+    }
+
+    /**
+     * Adds an item to the set.
+     * @param uid The unique identifier of the item, not the nil UUID.
+     * @return true if the item was added, false if it already was in the set.
+     * @throws IllegalArgumentException If the identifier is the nil UUID, which marks the empty slots.
+     * @throws UncheckedIOException If the set is full and cannot be grown.
+     */
+    public synchronized boolean add(UUID uid) {
+        long msb = uid.getMostSignificantBits();
+        long lsb = uid.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            throw new IllegalArgumentException("The nil UUID cannot be added");
+        }
+        long slot = find(slots, msb, lsb);
+        if (!slots.isEmpty(slot)) {
+            return false;
+        }
+        slots.put(slot, msb, lsb);
+        slots.setSize(slots.size() + 1);
+        if (slots.size() * 2 > slots.capacity()) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of items in the set.
+     * @return The size.
+     */
+    public synchronized long size() {
+        return slots.size();
+    }
+
+    /**
+     * Writes the items added to the storage device.
+     */
+    public synchronized void flush() {
+        slots.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        slots.force();
+        slots.close();
+    }
+
+    private void grow() {
+        Path grown = file.resolveSibling(file.getFileName() + ".grow");
+        try {
+            // A file left behind by a run that stopped while growing the set
+            Files.deleteIfExists(grown);
+            MappedSlots larger = SlotFiles.create(grown, slots.capacity() * 2);
+            for (long slot = 0; slot < slots.capacity(); slot++) {
+                if (!slots.isEmpty(slot)) {
+                    long msb = slots.msb(slot);
+                    long lsb = slots.lsb(slot);
+                    larger.put(find(larger, msb, lsb), msb, lsb);
+                }
+            }
+            larger.setSize(slots.size());
+            larger.force();
+            Files.move(grown, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            slots.close();
+            slots = larger;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow the processed item set " + file, e);
+        }
+    }
+
+    // Returns the slot holding the UUID, or the empty slot where it belongs
+    private static long find(MappedSlots table, long msb, long lsb) {
+        long mask = table.capacity() - 1;
+        long hash = (msb ^ lsb) * GOLDEN_RATIO;
+        long slot = (hash ^ hash >>> HALF_LONG_BITS) & mask;
+        while (!table.isEmpty(slot) && !table.holds(slot, msb, lsb)) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,47 @@
+package com.starlingbank.dedup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.starlingbank.logging.EventLog;
+
+/**
+ * Opens the ProcessedItemSet named by STARLING_PROCESSED_ITEMS, so the feed items counted by a run are skipped
+ * by the next runs over overlapping date ranges.
+ * @author Cesar Goncalves
+ */
+public final class ProcessedItemSets {
+    /** The environment variable naming the file of the processed item set. */
+    public static final String PROCESSED_ITEMS = "STARLING_PROCESSED_ITEMS";
+
+    // Log of the set that cannot be closed
+    private static final EventLog LOG = EventLog.get();
+
+    private ProcessedItemSets() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Opens the set configured by the environment; it is closed when the JVM shuts down.
+     * @param environment The environment variables.
+     * @return The set, or null if none is configured and every feed item is counted.
+     * @throws IOException If the set cannot be opened.
+     */
+    public static ProcessedItemSet fromEnvironment(Map<String, String> environment) throws IOException {
+        if (!environment.containsKey(PROCESSED_ITEMS)) {
+            return null;
+        }
+        ProcessedItemSet processedItems = ProcessedItemSet.open(Path.of(environment.get(PROCESSED_ITEMS)));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeSet(processedItems)));
+        return processedItems;
+    }
+
+    private static void closeSet(ProcessedItemSet processedItems) {
+        try {
+            processedItems.close();
+        } catch (IOException e) {
+            LOG.severe("dedup", "Cannot close the processed item set", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.starlingbank.dedup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Creates and opens the files of MappedSlots. A file is locked while open, so a second process cannot write to
+ * it at the same time.
+ * @author Cesar Goncalves
+ */
+final class SlotFiles {
+
+    private SlotFiles() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Creates a file of empty slots.
+     * @param file The file, which must not exist.
+     * @param capacity The number of slots, a power of two.
+     * @return The slots.
+     * @throws IOException If the file cannot be created or locked.
+     */
+    static MappedSlots create(Path file, long capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            MappedSlots slots = new MappedSlots(channel, lock(channel, file), capacity);
+            slots.initialize();
+            return slots;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a file of slots written by a previous run.
+     * @param file The file.
+     * @return The slots.
+     * @throws IOException If the file cannot be read or locked, or does not hold slots; the file is left closed.
+     */
+    static MappedSlots open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = lock(channel, file);
+            return new MappedSlots(channel, lock, capacity(channel, file));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Reads the capacity out of the header, checking that the file holds as many slots
+    private static long capacity(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = readHeader(channel, file);
+        long slotBytes = channel.size() - MappedSlots.HEADER_BYTES;
+        if (header.getInt(0) != MappedSlots.MAGIC) {
+            throw new IOException(file + " is not a processed item set: its magic number is "
+                + Integer.toHexString(header.getInt(0)));
+        }
+        long capacity = header.getLong(MappedSlots.CAPACITY_OFFSET);
+        // A power of two, and the size of the file, which a table cut short or grown by hand is not
+        if (Long.bitCount(capacity) != 1 || slotBytes % MappedSlots.SLOT_BYTES != 0
+            || slotBytes / MappedSlots.SLOT_BYTES != capacity) {
+            throw new IOException(file + " is corrupt: its header declares " + capacity + " slots but it holds "
+                + slotBytes / MappedSlots.SLOT_BYTES);
+        }
+        return capacity;
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel, Path file) throws IOException {
+        if (channel.size() < MappedSlots.HEADER_BYTES) {
+            throw new IOException(file + " is not a processed item set: " + channel.size() + " bytes is shorter than "
+                + "its header");
+        }
+        ByteBuffer header = ByteBuffer.allocate(MappedSlots.HEADER_BYTES);
+        while (header.hasRemaining()) {
+            channel.read(header, header.position());
+        }
+        return header;
+    }
+
+    private static FileLock lock(FileChannel channel, Path file) throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return lock;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Already open in this JVM, reported below as when another process holds it
+        }
+        channel.close();
+        throw new IOException(file + " is in use by another process");
+    }
+}
@@ -28,6 +28,26 @@ public class ApiException extends Exception {
         this.errorDescription = errorDescription;
     }
 
+    /**
+     * Constructor for an ApiException reporting the same API error as another one, kept as its cause, e.g. to one
+     * of the callers sharing a call on other threads.
+     *
+     * @param cause The ApiException reported.
+     */
+    public ApiException(ApiException cause) {
+        this(cause.statusCode, cause.error, cause.errorDescription);
+        initCause(cause);
+    }
+
+    /**
+     * This method returns the status code of the API response.
+     *
+     * @return The status code of the API response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
     /**
      * This method overrides the getMessage method of the Exception class.
      * It provides a custom message format for the API error.
@@ -0,0 +1,20 @@
+package com.starlingbank.exceptions;
+
+/**
+ * This exception is thrown without calling the API when an endpoint already has its maximum number of
+ * calls in flight, so that a slow endpoint cannot tie up the threads needed to call the other endpoints.
+ * @author Cesar Goncalves
+ */
+public class BulkheadFullException extends ApiException {
+    // Status code reported for calls rejected by a full bulkhead
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Constructor for the BulkheadFullException class.
+     *
+     * @param endpoint The name of the endpoint whose bulkhead is full.
+     */
+    public BulkheadFullException(String endpoint) {
+        super(TOO_MANY_REQUESTS, "Bulkhead full", "Too many concurrent calls to " + endpoint);
+    }
+}
@@ -0,0 +1,21 @@
+package com.starlingbank.exceptions;
+
+/**
+ * This exception is thrown without calling the API when the circuit breaker of an endpoint is open,
+ * because the endpoint has recently been failing or responding too slowly.
+ * @author Cesar Goncalves
+ */
+public class CircuitBreakerOpenException extends ApiException {
+    // Status code reported for calls rejected by an open circuit breaker
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * Constructor for the CircuitBreakerOpenException class.
+     *
+     * @param endpoint The name of the endpoint whose circuit breaker is open.
+     */
+    public CircuitBreakerOpenException(String endpoint) {
+        super(SERVICE_UNAVAILABLE, "Circuit breaker open",
+            "Calls to " + endpoint + " are rejected until the endpoint recovers");
+    }
+}
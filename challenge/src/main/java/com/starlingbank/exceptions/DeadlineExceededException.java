@@ -0,0 +1,20 @@
+package com.starlingbank.exceptions;
+
+/**
+ * This exception is thrown when the deadline of the work calling the API has passed, either before the call is
+ * sent or while waiting for its response, so the work gives up with the progress it has made so far.
+ * @author Cesar Goncalves
+ */
+public class DeadlineExceededException extends ApiException {
+    // Status code reported for calls cut short by the deadline
+    private static final int GATEWAY_TIMEOUT = 504;
+
+    /**
+     * Constructor for the DeadlineExceededException class.
+     *
+     * @param endpoint The name of the endpoint called after the deadline.
+     */
+    public DeadlineExceededException(String endpoint) {
+        super(GATEWAY_TIMEOUT, "Deadline exceeded", "No time left to call " + endpoint);
+    }
+}
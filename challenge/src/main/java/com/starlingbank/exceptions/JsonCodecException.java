@@ -0,0 +1,35 @@
+package com.starlingbank.exceptions;
+
+/**
+ * This is a custom exception class for handling JSON decoding errors.
+ * It is thrown by every JsonCodec, whatever library it is backed by, when a payload is malformed
+ * or misses a required field.
+ * @author Cesar Goncalves
+ */
+public class JsonCodecException extends RuntimeException {
+
+    /**
+     * Constructor for the JsonCodecException class with a custom message.
+     * @param message The custom message for the decoding error.
+     */
+    public JsonCodecException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor for the JsonCodecException class with a custom message and a cause.
+     * @param message The custom message for the decoding error.
+     * @param cause The error raised by the JSON library.
+     */
+    public JsonCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Returns the error raised by the JSON library, or this exception if the codec detected the error itself.
+     * @return The underlying error.
+     */
+    public Throwable getParserError() {
+        return getCause() == null ? this : getCause();
+    }
+}
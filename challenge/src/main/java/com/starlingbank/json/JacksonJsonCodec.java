@@ -0,0 +1,72 @@
+package com.starlingbank.json;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.starlingbank.exceptions.JsonCodecException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.FeedItemEvent;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+
+/**
+ * The JsonCodec backed by the Jackson streaming parser: payloads are mapped to the models token by token,
+ * without building a tree, and the fields the models do not use are skipped without being decoded.
+ * @author Cesar Goncalves
+ */
+public class JacksonJsonCodec implements JsonCodec {
+    /** The name the codec is selected by. */
+    public static final String NAME = "jackson";
+
+    // Thread-safe once configured, and expensive enough to be shared
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Account> decodeAccounts(String json) {
+        return decode(json, parser -> JsonStreamReader.readList(parser, "accounts", StarlingFields.AccountFields::new));
+    }
+
+    @Override
+    public List<Transaction> decodeTransactions(String json) {
+        return decode(json,
+            parser -> JsonStreamReader.readList(parser, "feedItems", StarlingFields.TransactionFields::new));
+    }
+
+    @Override
+    public List<SavingGoal> decodeSavingsGoals(String json) {
+        return decode(json,
+            parser -> JsonStreamReader.readList(parser, "savingsGoalList", StarlingFields.SavingGoalFields::new));
+    }
+
+    @Override
+    public UUID decodeSavingsGoalUid(String json) {
+        return decode(json, parser -> JsonStreamReader.readRoot(parser, new StarlingFields.SavingsGoalUidFields()));
+    }
+
+    @Override
+    public FeedItemEvent decodeFeedItemEvent(String json) {
+        return decode(json, parser -> JsonStreamReader.readRoot(parser, new StarlingFields.FeedItemEventFields()));
+    }
+
+    private <T> T decode(String json, PayloadReader<T> reader) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return reader.read(parser);
+        } catch (IOException e) {
+            throw new JsonCodecException("Cannot decode the response", e);
+        }
+    }
+
+    // Reads a payload out of a parser positioned before its first token
+    @FunctionalInterface
+    private interface PayloadReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+}
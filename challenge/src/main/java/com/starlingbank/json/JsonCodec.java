@@ -0,0 +1,66 @@
+package com.starlingbank.json;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.starlingbank.exceptions.JsonCodecException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.FeedItemEvent;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+
+/**
+ * Maps the JSON payloads of the Starling Bank API to the domain models.
+ * Implementations are discovered with the ServiceLoader and selected by name through JsonCodecs; every
+ * implementation must pass the same correctness suite, so they can be swapped without changing behaviour.
+ * @author Cesar Goncalves
+ */
+public interface JsonCodec {
+
+    /**
+     * Returns the name the codec is selected by.
+     * @return The name of the codec.
+     */
+    String name();
+
+    /**
+     * Decodes the response of GET /api/v2/accounts.
+     * @param json The response body.
+     * @return The accounts, in the order of the response.
+     * @throws JsonCodecException If the payload is malformed or misses a required field.
+     */
+    List<Account> decodeAccounts(String json);
+
+    /**
+     * Decodes the response of GET /api/v2/feed/account/{accountUid}/category/{categoryUid}/transactions-between.
+     * @param json The response body.
+     * @return The transactions, in the order of the response.
+     * @throws JsonCodecException If the payload is malformed or misses a required field.
+     */
+    List<Transaction> decodeTransactions(String json);
+
+    /**
+     * Decodes the response of GET /api/v2/account/{accountUid}/savings-goals.
+     * A goal without a totalSaved amount has nothing saved, in the currency of its target.
+     * @param json The response body.
+     * @return The savings goals, in the order of the response.
+     * @throws JsonCodecException If the payload is malformed or misses a required field.
+     */
+    List<SavingGoal> decodeSavingsGoals(String json);
+
+    /**
+     * Decodes the unique identifier out of the response of PUT /api/v2/account/{accountUid}/savings-goals.
+     * @param json The response body.
+     * @return The unique identifier of the created savings goal.
+     * @throws JsonCodecException If the payload is malformed or misses the identifier.
+     */
+    UUID decodeSavingsGoalUid(String json);
+
+    /**
+     * Decodes the body of a feed item webhook event.
+     * @param json The request body of the webhook.
+     * @return The event.
+     * @throws JsonCodecException If the payload is malformed or misses a required field.
+     */
+    FeedItemEvent decodeFeedItemEvent(String json);
+}
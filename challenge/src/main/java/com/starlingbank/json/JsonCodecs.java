@@ -0,0 +1,32 @@
+package com.starlingbank.json;
+
+import java.util.ServiceLoader;
+
+/**
+ * Selects a JsonCodec among the implementations registered with the ServiceLoader.
+ * @author Cesar Goncalves
+ */
+public final class JsonCodecs {
+    /** The name of the codec used when none is selected, backed by org.json. */
+    public static final String DEFAULT_CODEC = OrgJsonCodec.NAME;
+
+    private JsonCodecs() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns the codec with the given name.
+     * @param name The name of the codec, or null or blank for the default codec.
+     * @return The codec.
+     * @throws IllegalArgumentException If no registered codec has the given name.
+     */
+    public static JsonCodec byName(String name) {
+        String selected = name == null || name.isBlank() ? DEFAULT_CODEC : name.trim();
+        for (JsonCodec codec : ServiceLoader.load(JsonCodec.class)) {
+            if (codec.name().equals(selected)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown JSON codec: " + selected);
+    }
+}
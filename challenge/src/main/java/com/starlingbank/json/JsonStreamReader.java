@@ -0,0 +1,178 @@
+package com.starlingbank.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.starlingbank.exceptions.JsonCodecException;
+
+/**
+ * Reads the objects of a payload token by token, mapping them to models without building a tree.
+ * Fields the models do not use are skipped without being decoded.
+ * @author Cesar Goncalves
+ */
+final class JsonStreamReader {
+
+    private JsonStreamReader() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Reads the objects of an array held by a field of the root object.
+     * @param parser The parser, positioned before the root object.
+     * @param arrayName The name of the field holding the array.
+     * @param fields Creates the collector of the fields of each object of the array.
+     * @param <T> The type of the models.
+     * @return The models, in the order of the array.
+     * @throws IOException If the payload is malformed.
+     * @throws JsonCodecException If the array or a required field is missing.
+     */
+    static <T> List<T> readList(JsonParser parser, String arrayName, Supplier<ObjectFields<T>> fields)
+        throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        List<T> models = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (arrayName.equals(name)) {
+                models = readArray(parser, fields);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return require(models, arrayName);
+    }
+
+    /**
+     * Reads the root object.
+     * @param parser The parser, positioned before the root object.
+     * @param fields The collector of the fields of the object.
+     * @param <T> The type of the model.
+     * @return The model.
+     * @throws IOException If the payload is malformed.
+     * @throws JsonCodecException If a required field is missing.
+     */
+    static <T> T readRoot(JsonParser parser, ObjectFields<T> fields) throws IOException {
+        parser.nextToken();
+        return readObject(parser, fields);
+    }
+
+    /**
+     * Reads an object.
+     * @param parser The parser, positioned on the start of the object.
+     * @param fields The collector of the fields of the object.
+     * @param <T> The type of the model.
+     * @return The model.
+     * @throws IOException If the payload is malformed.
+     * @throws JsonCodecException If the value is not an object or a required field is missing.
+     */
+    static <T> T readObject(JsonParser parser, ObjectFields<T> fields) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            fields.read(name, parser);
+        }
+        return fields.build();
+    }
+
+    /**
+     * Reads a string value.
+     * @param parser The parser, positioned on the value.
+     * @return The string.
+     * @throws IOException If the payload is malformed.
+     * @throws JsonCodecException If the value is not a string.
+     */
+    static String readString(JsonParser parser) throws IOException {
+        expect(parser.currentToken(), JsonToken.VALUE_STRING);
+        return parser.getText();
+    }
+
+    /**
+     * Reads a unique identifier, parsed once here into the two longs of a UUID.
+     * @param parser The parser, positioned on the value.
+     * @param name The name of the field.
+     * @return The unique identifier.
+     * @throws IOException If the payload is malformed.
+     * @throws JsonCodecException If the value is not a string holding a UUID.
+     */
+    static UUID readUuid(JsonParser parser, String name) throws IOException {
+        return toUuid(readString(parser), name);
+    }
+
+    /**
+     * Parses a unique identifier.
+     * @param value The identifier as a string, or null.
+     * @param name The name of the field holding it.
+     * @return The unique identifier, or null if the value is null.
+     * @throws JsonCodecException If the value is not a UUID.
+     */
+    static UUID toUuid(String value, String name) {
+        try {
+            return value == null ? null : UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new JsonCodecException("Malformed field: " + name, e);
+        }
+    }
+
+    /**
+     * Narrows an integer to an int, e.g. the minor units of a transaction.
+     * @param value The integer.
+     * @param name The name of the field holding it.
+     * @return The integer as an int.
+     * @throws JsonCodecException If the integer does not fit in an int.
+     */
+    static int toInt(long value, String name) {
+        try {
+            return Math.toIntExact(value);
+        } catch (ArithmeticException e) {
+            throw new JsonCodecException("Out of range field: " + name, e);
+        }
+    }
+
+    /**
+     * Reads an integer value.
+     * @param parser The parser, positioned on the value.
+     * @return The integer.
+     * @throws IOException If the payload is malformed or the value does not fit in a long.
+     * @throws JsonCodecException If the value is not an integer.
+     */
+    static long readLong(JsonParser parser) throws IOException {
+        expect(parser.currentToken(), JsonToken.VALUE_NUMBER_INT);
+        return parser.getLongValue();
+    }
+
+    /**
+     * Checks that a required field was read.
+     * @param value The value of the field, null if it was not read.
+     * @param name The name of the field.
+     * @param <V> The type of the value.
+     * @return The value.
+     * @throws JsonCodecException If the field was not read.
+     */
+    static <V> V require(V value, String name) {
+        if (value == null) {
+            throw new JsonCodecException("Missing field: " + name);
+        }
+        return value;
+    }
+
+    private static <T> List<T> readArray(JsonParser parser, Supplier<ObjectFields<T>> fields) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+        List<T> models = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            models.add(readObject(parser, fields.get()));
+        }
+        return models;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new JsonCodecException("Expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.starlingbank.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * Collects the fields of a JSON object read by a streaming parser, then builds the model they describe.
+ * @param <T> The type of the model.
+ * @author Cesar Goncalves
+ */
+interface ObjectFields<T> {
+
+    /**
+     * Reads the value of a field, skipping it if the field is not part of the model.
+     * @param name The name of the field.
+     * @param parser The parser, positioned on the value of the field.
+     * @throws IOException If the value cannot be read.
+     */
+    void read(String name, JsonParser parser) throws IOException;
+
+    /**
+     * Builds the model out of the fields read.
+     * @return The model.
+     * @throws com.starlingbank.exceptions.JsonCodecException If a required field is missing.
+     */
+    T build();
+}
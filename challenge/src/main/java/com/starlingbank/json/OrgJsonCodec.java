@@ -0,0 +1,111 @@
+package com.starlingbank.json;
+
+import static com.starlingbank.json.JsonStreamReader.toUuid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.starlingbank.exceptions.JsonCodecException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.FeedItemEvent;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+
+/**
+ * The JsonCodec backed by the org.json tree parser: simple, but every payload is first parsed into a tree
+ * of JSONObjects and JSONArrays before being mapped.
+ * @author Cesar Goncalves
+ */
+public class OrgJsonCodec implements JsonCodec {
+    /** The name the codec is selected by. */
+    public static final String NAME = "org.json";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Account> decodeAccounts(String json) {
+        return decodeList(json, "accounts",
+            account -> new Account(toUuid(account.getString("accountUid"), "accountUid"),
+                toUuid(account.getString("defaultCategory"), "defaultCategory")));
+    }
+
+    @Override
+    public List<Transaction> decodeTransactions(String json) {
+        return decodeList(json, "feedItems", this::toTransaction);
+    }
+
+    @Override
+    public List<SavingGoal> decodeSavingsGoals(String json) {
+        return decodeList(json, "savingsGoalList", this::toSavingGoal);
+    }
+
+    @Override
+    public UUID decodeSavingsGoalUid(String json) {
+        try {
+            return toUuid(new JSONObject(json).getString("savingsGoalUid"), "savingsGoalUid");
+        } catch (JSONException e) {
+            throw new JsonCodecException("Cannot decode the savings goal", e);
+        }
+    }
+
+    @Override
+    public FeedItemEvent decodeFeedItemEvent(String json) {
+        try {
+            JSONObject item = new JSONObject(json).getJSONObject("content");
+            return new FeedItemEvent(toUuid(item.getString("feedItemUid"), "feedItemUid"),
+                toUuid(item.getString("accountUid"), "accountUid"),
+                item.getString("direction"), toTransaction(item));
+        } catch (JSONException e) {
+            throw new JsonCodecException("Cannot decode the feed item event", e);
+        }
+    }
+
+    private <T> List<T> decodeList(String json, String arrayName, Function<JSONObject, T> mapper) {
+        try {
+            JSONArray array = new JSONObject(json).getJSONArray(arrayName);
+            List<T> decoded = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                decoded.add(mapper.apply(array.getJSONObject(i)));
+            }
+            return decoded;
+        } catch (JSONException e) {
+            throw new JsonCodecException("Cannot decode " + arrayName, e);
+        }
+    }
+
+    private Transaction toTransaction(JSONObject item) {
+        return new Transaction(toUuid(item.optString("feedItemUid", null), "feedItemUid"),
+            item.optString("transactionTime", null),
+            toMinorUnits(item.getJSONObject("amount")), item.getString("source"));
+    }
+
+    // The minor units of a transaction, which getInt would truncate rather than reject when out of range
+    private static int toMinorUnits(JSONObject amount) {
+        try {
+            return amount.getBigInteger("minorUnits").intValueExact();
+        } catch (ArithmeticException e) {
+            throw new JsonCodecException("Out of range field: minorUnits", e);
+        }
+    }
+
+    private SavingGoal toSavingGoal(JSONObject goal) {
+        Amount target = toAmount(goal.getJSONObject("target"));
+        JSONObject totalSaved = goal.optJSONObject("totalSaved");
+        return new SavingGoal(toUuid(goal.getString("savingsGoalUid"), "savingsGoalUid"), goal.getString("name"), target,
+            totalSaved == null ? new Amount(0, target.getCurrency()) : toAmount(totalSaved));
+    }
+
+    private Amount toAmount(JSONObject amount) {
+        return new Amount(amount.getLong("minorUnits"), amount.getString("currency"));
+    }
+}
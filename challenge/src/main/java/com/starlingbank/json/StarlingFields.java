@@ -0,0 +1,216 @@
+package com.starlingbank.json;
+
+import static com.starlingbank.json.JsonStreamReader.readLong;
+import static com.starlingbank.json.JsonStreamReader.readObject;
+import static com.starlingbank.json.JsonStreamReader.readString;
+import static com.starlingbank.json.JsonStreamReader.readUuid;
+import static com.starlingbank.json.JsonStreamReader.require;
+import static com.starlingbank.json.JsonStreamReader.toInt;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.FeedItemEvent;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+
+/**
+ * The field collectors of the Starling Bank payloads read by the JacksonJsonCodec.
+ * @author Cesar Goncalves
+ */
+final class StarlingFields {
+
+    private StarlingFields() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Collects the fields of an account.
+     */
+    static final class AccountFields implements ObjectFields<Account> {
+        private UUID accountUid;
+        private UUID defaultCategory;
+
+        @Override
+        public void read(String name, JsonParser parser) throws IOException {
+            if ("accountUid".equals(name)) {
+                accountUid = readUuid(parser, name);
+            } else if ("defaultCategory".equals(name)) {
+                defaultCategory = readUuid(parser, name);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        @Override
+        public Account build() {
+            return new Account(require(accountUid, "accountUid"), require(defaultCategory, "defaultCategory"));
+        }
+    }
+
+    /**
+     * Collects the fields of a feed item.
+     */
+    static final class TransactionFields implements ObjectFields<Transaction> {
+        private UUID feedItemUid;
+        private String transactionTime;
+        private Amount amount;
+        private String source;
+
+        @Override
+        public void read(String name, JsonParser parser) throws IOException {
+            if ("feedItemUid".equals(name)) {
+                feedItemUid = readUuid(parser, name);
+            } else if ("transactionTime".equals(name)) {
+                transactionTime = readString(parser);
+            } else if ("amount".equals(name)) {
+                amount = readObject(parser, new AmountFields());
+            } else if ("source".equals(name)) {
+                source = readString(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        @Override
+        public Transaction build() {
+            return new Transaction(feedItemUid, transactionTime,
+                toInt(require(amount, "amount").getMinorUnits(), "minorUnits"), require(source, "source"));
+        }
+    }
+
+    /**
+     * Collects the feed item of a webhook event.
+     */
+    static final class FeedItemEventFields implements ObjectFields<FeedItemEvent> {
+        private FeedItemEvent content;
+
+        @Override
+        public void read(String name, JsonParser parser) throws IOException {
+            if ("content".equals(name)) {
+                content = readObject(parser, new FeedItemFields());
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        @Override
+        public FeedItemEvent build() {
+            return require(content, "content");
+        }
+    }
+
+    /**
+     * Collects the fields of the feed item of a webhook event, its identifier, amount and source as a feed item's.
+     */
+    static final class FeedItemFields implements ObjectFields<FeedItemEvent> {
+        private final TransactionFields transaction = new TransactionFields();
+        private UUID accountUid;
+        private String direction;
+
+        @Override
+        public void read(String name, JsonParser parser) throws IOException {
+            if ("accountUid".equals(name)) {
+                accountUid = readUuid(parser, name);
+            } else if ("direction".equals(name)) {
+                direction = readString(parser);
+            } else {
+                transaction.read(name, parser);
+            }
+        }
+
+        @Override
+        public FeedItemEvent build() {
+            Transaction feedItem = transaction.build();
+            return new FeedItemEvent(require(feedItem.getFeedItemUid(), "feedItemUid"), require(accountUid, "accountUid"),
+                require(direction, "direction"), feedItem);
+        }
+    }
+
+    /**
+     * Collects the fields of a savings goal.
+     */
+    static final class SavingGoalFields implements ObjectFields<SavingGoal> {
+        private UUID savingsGoalUid;
+        private String name;
+        private Amount target;
+        private Amount totalSaved;
+
+        @Override
+        public void read(String fieldName, JsonParser parser) throws IOException {
+            if ("savingsGoalUid".equals(fieldName)) {
+                savingsGoalUid = readUuid(parser, fieldName);
+            } else if ("name".equals(fieldName)) {
+                name = readString(parser);
+            } else if ("target".equals(fieldName)) {
+                target = readObject(parser, new AmountFields());
+            } else {
+                readOther(fieldName, parser);
+            }
+        }
+
+        @Override
+        public SavingGoal build() {
+            Amount goalTarget = require(target, "target");
+            return new SavingGoal(require(savingsGoalUid, "savingsGoalUid"), require(name, "name"), goalTarget,
+                totalSaved == null ? new Amount(0, goalTarget.getCurrency()) : totalSaved);
+        }
+
+        private void readOther(String fieldName, JsonParser parser) throws IOException {
+            if ("totalSaved".equals(fieldName) && parser.currentToken() != JsonToken.VALUE_NULL) {
+                totalSaved = readObject(parser, new AmountFields());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Collects the fields of an amount.
+     */
+    static final class AmountFields implements ObjectFields<Amount> {
+        private Long minorUnits;
+        private String currency;
+
+        @Override
+        public void read(String name, JsonParser parser) throws IOException {
+            if ("minorUnits".equals(name)) {
+                minorUnits = readLong(parser);
+            } else if ("currency".equals(name)) {
+                currency = readString(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        @Override
+        public Amount build() {
+            return new Amount(require(minorUnits, "minorUnits"), require(currency, "currency"));
+        }
+    }
+
+    /**
+     * Collects the unique identifier of a created savings goal.
+     */
+    static final class SavingsGoalUidFields implements ObjectFields<UUID> {
+        private UUID savingsGoalUid;
+
+        @Override
+        public void read(String name, JsonParser parser) throws IOException {
+            if ("savingsGoalUid".equals(name)) {
+                savingsGoalUid = readUuid(parser, name);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        @Override
+        public UUID build() {
+            return require(savingsGoalUid, "savingsGoalUid");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.starlingbank.ledger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of a RoundUpLedger: the balance not swept yet of each savings goal of each account, and the sweeps
+ * begun but not settled yet. It is rebuilt by replaying the journal and is not thread-safe; the ledger guards it.
+ * @author Cesar Goncalves
+ */
+final class LedgerBalances {
+    // The balances, keyed by account and savings goal, in the order they were first accrued
+    private final Map<LedgerKey, LedgerEntry> entries = new LinkedHashMap<>();
+    // The sweeps whose transfer may or may not have been made, keyed like the balances they sweep
+    private final Map<LedgerKey, PendingSweep> sweeps = new LinkedHashMap<>();
+
+    /**
+     * Adds an accrual to the balances.
+     * @param accrual The accrual.
+     */
+    void applyAccrual(LedgerEntry accrual) {
+        entries.merge(accrual.key(), accrual,
+            (current, added) -> current.plus(added.getPendingMinorUnits(), added.getFirstAccruedAt()));
+    }
+
+    /**
+     * Records a sweep begun, until it is settled.
+     * @param sweep The sweep.
+     */
+    void applySweep(PendingSweep sweep) {
+        sweeps.put(sweep.key(), sweep);
+    }
+
+    /**
+     * Subtracts a settlement from the balances, removing the entry once nothing remains, and ends its sweep.
+     * @param key The key of the entry swept.
+     * @param minorUnits The amount swept, in minor units.
+     * @param settledAt The settlement time.
+     */
+    void applySettlement(LedgerKey key, long minorUnits, Instant settledAt) {
+        entries.computeIfPresent(key, (entryKey, current) -> current.minus(minorUnits, settledAt));
+        sweeps.remove(key);
+    }
+
+    /**
+     * Returns the entries due to be swept, oldest first.
+     * @param policy The policy deciding which entries are due.
+     * @param now The current time.
+     * @return The entries due.
+     */
+    List<LedgerEntry> due(SweepPolicy policy, Instant now) {
+        List<LedgerEntry> due = new ArrayList<>();
+        for (LedgerEntry entry : entries.values()) {
+            if (policy.isDue(entry, now)) {
+                due.add(entry);
+            }
+        }
+        due.sort(Comparator.comparing(LedgerEntry::getFirstAccruedAt));
+        return due;
+    }
+
+    /**
+     * Returns the balance of a savings goal.
+     * @param key The key of the entry.
+     * @return The entry, or null if nothing is pending.
+     */
+    LedgerEntry entry(LedgerKey key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Returns the sweep begun of a balance.
+     * @param key The key of the entry swept.
+     * @return The sweep, or null if the balance is not being swept.
+     */
+    PendingSweep sweep(LedgerKey key) {
+        return sweeps.get(key);
+    }
+
+    Collection<LedgerEntry> entries() {
+        return entries.values();
+    }
+
+    Collection<PendingSweep> sweeps() {
+        return sweeps.values();
+    }
+}
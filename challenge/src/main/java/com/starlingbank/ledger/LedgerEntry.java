@@ -0,0 +1,117 @@
+package com.starlingbank.ledger;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The round-ups accrued for a savings goal of an account and not swept into it yet.
+ * @author Cesar Goncalves
+ */
+public final class LedgerEntry {
+    private final UUID accountUid;
+    private final UUID savingsGoalUid;
+    // Name of the savings goal, for reporting
+    private final String savingsGoalName;
+    private final long pendingMinorUnits;
+    // When the oldest round-up not swept yet was accrued
+    private final Instant firstAccruedAt;
+
+    /**
+     * Constructor for LedgerEntry.
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     * @param savingsGoalName The name of the savings goal.
+     * @param pendingMinorUnits The balance not swept yet, in minor units.
+     * @param firstAccruedAt When the oldest round-up not swept yet was accrued.
+     */
+    public LedgerEntry(UUID accountUid, UUID savingsGoalUid, String savingsGoalName, long pendingMinorUnits,
+                       Instant firstAccruedAt) {
+        this.accountUid = accountUid;
+        this.savingsGoalUid = savingsGoalUid;
+        this.savingsGoalName = savingsGoalName;
+        this.pendingMinorUnits = pendingMinorUnits;
+        this.firstAccruedAt = firstAccruedAt;
+    }
+
+    /**
+     * Returns the key of the entry in the ledger.
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     * @return The key.
+     */
+    static LedgerKey keyOf(UUID accountUid, UUID savingsGoalUid) {
+        return new LedgerKey(accountUid, savingsGoalUid);
+    }
+
+    /**
+     * Returns the key of the entry in the ledger.
+     * @return The key.
+     */
+    LedgerKey key() {
+        return keyOf(accountUid, savingsGoalUid);
+    }
+
+    /**
+     * Returns the entry with a round-up added, the oldest accrual time kept.
+     * @param minorUnits The round-up, in minor units.
+     * @param accruedAt When the round-up was accrued.
+     * @return The new entry.
+     */
+    LedgerEntry plus(long minorUnits, Instant accruedAt) {
+        Instant oldest = accruedAt.isBefore(firstAccruedAt) ? accruedAt : firstAccruedAt;
+        return new LedgerEntry(accountUid, savingsGoalUid, savingsGoalName, pendingMinorUnits + minorUnits, oldest);
+    }
+
+    /**
+     * Returns the entry with a swept amount subtracted; the remainder counts as accrued at the settlement time.
+     * @param minorUnits The amount swept, in minor units.
+     * @param settledAt When the amount was swept.
+     * @return The new entry, or null if nothing remains.
+     */
+    LedgerEntry minus(long minorUnits, Instant settledAt) {
+        if (pendingMinorUnits <= minorUnits) {
+            return null;
+        }
+        return new LedgerEntry(accountUid, savingsGoalUid, savingsGoalName, pendingMinorUnits - minorUnits, settledAt);
+    }
+
+    /**
+     * Returns the unique identifier of the account.
+     * @return The accountUid.
+     */
+    public UUID getAccountUid() {
+        return accountUid;
+    }
+
+    /**
+     * Returns the unique identifier of the savings goal.
+     * @return The savingsGoalUid.
+     */
+    public UUID getSavingsGoalUid() {
+        return savingsGoalUid;
+    }
+
+    /**
+     * Returns the name of the savings goal.
+     * @return The savingsGoalName.
+     */
+    public String getSavingsGoalName() {
+        return savingsGoalName;
+    }
+
+    /**
+     * Returns the balance not swept yet.
+     * @return The balance in minor units.
+     */
+    public long getPendingMinorUnits() {
+        return pendingMinorUnits;
+    }
+
+    /**
+     * Returns when the oldest round-up of the balance was accrued.
+     * @return The accrual time.
+     */
+    public Instant getFirstAccruedAt() {
+        return firstAccruedAt;
+    }
+}
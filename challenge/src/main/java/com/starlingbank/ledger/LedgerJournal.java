@@ -0,0 +1,165 @@
+package com.starlingbank.ledger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The append-only journal of a RoundUpLedger, one change per line:
+ * {@code A <account> <goal> <minorUnits> <epochMillis> <goalName>} for an accrual,
+ * {@code P <account> <goal> <minorUnits> <epochMillis> <transferUid>} for a sweep begun and
+ * {@code S <account> <goal> <minorUnits> <epochMillis>} for its settlement, fields separated by tabs.
+ * Every line is forced to the storage device before the append returns: a sweep must be durable before its transfer
+ * is made, and an accrual or a settlement before the feed items or the balance it accounts for are forgotten.
+ * @author Cesar Goncalves
+ */
+final class LedgerJournal {
+    private static final String ACCRUAL = "A";
+    private static final String SWEEP = "P";
+    private static final String SETTLEMENT = "S";
+    private static final String SEPARATOR = "\t";
+    private static final int ACCRUAL_FIELDS = 6;
+    private static final int ACCOUNT = 1;
+    private static final int GOAL = 2;
+    private static final int MINOR_UNITS = 3;
+    private static final int EPOCH_MILLIS = 4;
+    private static final int GOAL_NAME = 5;
+    private static final int TRANSFER = 5;
+
+    private final FileChannel channel;
+
+    private LedgerJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Reads the balances out of a journal file.
+     * @param file The journal file; a missing file has no balance.
+     * @return The balances and the sweeps not settled.
+     * @throws IOException If the file cannot be read or a line is malformed.
+     */
+    static LedgerBalances replay(Path file) throws IOException {
+        LedgerBalances balances = new LedgerBalances();
+        if (!Files.exists(file)) {
+            return balances;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                replayLine(balances, line);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Rewrites a journal file with one accrual per balance and one line per sweep not settled, and opens it for
+     * appending.
+     * @param file The journal file.
+     * @param balances The balances and the sweeps not settled.
+     * @return The journal.
+     * @throws IOException If the file cannot be written.
+     */
+    static LedgerJournal compact(Path file, LedgerBalances balances) throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (LedgerEntry entry : balances.entries()) {
+                writer.write(accrualLine(entry));
+            }
+            for (PendingSweep sweep : balances.sweeps()) {
+                writer.write(sweepLine(sweep));
+            }
+        }
+        try (FileChannel written = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+            written.force(true);
+        }
+        // Atomic, so a crash leaves either the old journal or the compacted one
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new LedgerJournal(FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Appends an accrual.
+     * @param accrual The accrual.
+     */
+    void appendAccrual(LedgerEntry accrual) {
+        append(accrualLine(accrual));
+    }
+
+    /**
+     * Appends a sweep begun.
+     * @param sweep The sweep.
+     */
+    void appendSweep(PendingSweep sweep) {
+        append(sweepLine(sweep));
+    }
+
+    /**
+     * Appends a settlement.
+     * @param swept The sweep settled.
+     * @param settledAt The settlement time.
+     */
+    void appendSettlement(PendingSweep swept, Instant settledAt) {
+        append(String.join(SEPARATOR, SETTLEMENT, swept.getAccountUid().toString(), swept.getSavingsGoalUid().toString(),
+            Long.toString(swept.getMinorUnits()), Long.toString(settledAt.toEpochMilli())) + System.lineSeparator());
+    }
+
+    /**
+     * Closes the journal.
+     * @throws IOException If the journal cannot be closed.
+     */
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(String line) {
+        try {
+            channel.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to the ledger journal", e);
+        }
+    }
+
+    private static String accrualLine(LedgerEntry entry) {
+        // The name comes last and may not span lines or fields
+        return String.join(SEPARATOR, ACCRUAL, entry.getAccountUid().toString(), entry.getSavingsGoalUid().toString(),
+            Long.toString(entry.getPendingMinorUnits()), Long.toString(entry.getFirstAccruedAt().toEpochMilli()),
+            entry.getSavingsGoalName().replaceAll("\\s", " ")) + System.lineSeparator();
+    }
+
+    private static String sweepLine(PendingSweep sweep) {
+        return String.join(SEPARATOR, SWEEP, sweep.getAccountUid().toString(), sweep.getSavingsGoalUid().toString(),
+            Long.toString(sweep.getMinorUnits()), Long.toString(sweep.getStartedAt().toEpochMilli()),
+            sweep.getTransferUid().toString()) + System.lineSeparator();
+    }
+
+    private static void replayLine(LedgerBalances balances, String line) throws IOException {
+        String[] fields = line.split(SEPARATOR, ACCRUAL_FIELDS);
+        try {
+            UUID accountUid = UUID.fromString(fields[ACCOUNT]);
+            UUID savingsGoalUid = UUID.fromString(fields[GOAL]);
+            long minorUnits = Long.parseLong(fields[MINOR_UNITS]);
+            Instant time = Instant.ofEpochMilli(Long.parseLong(fields[EPOCH_MILLIS]));
+            if (ACCRUAL.equals(fields[0])) {
+                balances.applyAccrual(new LedgerEntry(accountUid, savingsGoalUid, fields[GOAL_NAME], minorUnits, time));
+            } else if (SWEEP.equals(fields[0])) {
+                balances.applySweep(new PendingSweep(accountUid, savingsGoalUid, minorUnits,
+                    UUID.fromString(fields[TRANSFER]), time));
+            } else {
+                balances.applySettlement(LedgerEntry.keyOf(accountUid, savingsGoalUid), minorUnits, time);
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed ledger journal line: " + line, e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.starlingbank.ledger;
+
+import java.util.UUID;
+
+/**
+ * The key of a balance of a RoundUpLedger: an account and one of its savings goals. Hashing and comparing a key
+ * reads the four longs of the two identifiers, without building a string per lookup.
+ * @author Cesar Goncalves
+ */
+final class LedgerKey {
+    private final UUID accountUid;
+    private final UUID savingsGoalUid;
+
+    /**
+     * Constructor for LedgerKey.
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     */
+    LedgerKey(UUID accountUid, UUID savingsGoalUid) {
+        this.accountUid = accountUid;
+        this.savingsGoalUid = savingsGoalUid;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LedgerKey)) {
+            return false;
+        }
+        LedgerKey key = (LedgerKey) other;
+        return accountUid.equals(key.accountUid) && savingsGoalUid.equals(key.savingsGoalUid);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * accountUid.hashCode() + savingsGoalUid.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return accountUid + "/" + savingsGoalUid;
+    }
+}
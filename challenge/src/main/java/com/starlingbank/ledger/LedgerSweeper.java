@@ -0,0 +1,139 @@
+package com.starlingbank.ledger;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.service.SavingsGoalService;
+
+/**
+ * Sweeps the balances of the RoundUpLedger into their savings goals.
+ * A sweep takes the entries due under the SweepPolicy across all accounts, oldest first, and transfers a batch of
+ * at most maxTransfersPerSweep of them, each with a single transfer, on virtual threads with at most
+ * maxConcurrentTransfers in flight. Each transfer is journaled as a PendingSweep before it is made and settled
+ * once it is; a transfer or settlement that fails leaves its balance, and its transferUid, in the ledger for the
+ * next sweep, without failing the rest of the batch.
+ * @author Cesar Goncalves
+ */
+public class LedgerSweeper {
+    // Log of the failed transfers
+    private static final EventLog LOG = EventLog.get();
+    // The outcome of an entry not swept
+    private static final long NOT_SWEPT = -1;
+
+    private final RoundUpLedger ledger;
+    private final SweepPolicy policy;
+    private final SavingsGoalService savingsGoalService;
+    private final int maxTransfersPerSweep;
+    // Limit on the number of transfers in flight at the same time
+    private final Semaphore transferPermits;
+
+    /**
+     * Constructor for LedgerSweeper.
+     * @param ledger The ledger swept.
+     * @param policy Decides which entries are due.
+     * @param savingsGoalService Service making the transfers.
+     * @param maxTransfersPerSweep Maximum number of entries swept by a sweep.
+     * @param maxConcurrentTransfers Maximum number of transfers in flight at the same time.
+     * @throws IllegalArgumentException If a maximum is not positive.
+     */
+    public LedgerSweeper(RoundUpLedger ledger, SweepPolicy policy, SavingsGoalService savingsGoalService,
+                         int maxTransfersPerSweep, int maxConcurrentTransfers) {
+        if (maxTransfersPerSweep <= 0 || maxConcurrentTransfers <= 0) {
+            throw new IllegalArgumentException("maxTransfersPerSweep and maxConcurrentTransfers must be positive");
+        }
+        this.ledger = ledger;
+        this.policy = policy;
+        this.savingsGoalService = savingsGoalService;
+        this.maxTransfersPerSweep = maxTransfersPerSweep;
+        this.transferPermits = new Semaphore(maxConcurrentTransfers);
+    }
+
+    /**
+     * Returns the ledger swept.
+     * @return The ledger.
+     */
+    public RoundUpLedger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * Accrues the round-up allocated to each savings goal of an account.
+     * @param account The account.
+     * @param allocations The round-up allocated to each savings goal.
+     */
+    public void accrue(Account account, Map<SavingGoal, Amount> allocations) {
+        allocations.forEach((savingGoal, amount) -> ledger.accrue(account.getAccountUid(),
+            savingGoal.getSavingsGoalUid(), savingGoal.getName(), amount.getMinorUnits()));
+    }
+
+    /**
+     * Sweeps a batch of the entries due and waits for the transfers to complete.
+     * @return The outcome of the sweep.
+     */
+    public SweepReport sweep() {
+        List<LedgerEntry> due = ledger.due(policy);
+        List<LedgerEntry> batch = due.subList(0, Math.min(due.size(), maxTransfersPerSweep));
+        List<Future<Long>> futures = new ArrayList<>(batch.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (LedgerEntry entry : batch) {
+                futures.add(executor.submit(() -> sweepOne(entry)));
+            }
+        }
+        int swept = 0;
+        long sweptMinorUnits = 0;
+        for (Future<Long> future : futures) {
+            long minorUnits = sweptMinorUnits(future);
+            if (minorUnits != NOT_SWEPT) {
+                swept++;
+                sweptMinorUnits += minorUnits;
+            }
+        }
+        return new SweepReport(swept, sweptMinorUnits, batch.size() - swept, due.size() - batch.size());
+    }
+
+    // Returns the amount swept, or NOT_SWEPT
+    private long sweepOne(LedgerEntry entry) throws InterruptedException {
+        transferPermits.acquire();
+        try {
+            PendingSweep sweep = ledger.beginSweep(entry);
+            savingsGoalService.addMoneyToSavingsGoal(sweep.getAccountUid(), sweep.getSavingsGoalUid(),
+                new Amount(sweep.getMinorUnits(), CurrencyUnit.GBP), sweep.getTransferUid());
+            ledger.settle(sweep);
+            return sweep.getMinorUnits();
+        } catch (ServiceException | UncheckedIOException e) {
+            LOG.log(LogEvent.of(Level.WARNING, "sweep", "Cannot sweep into savings goal " + entry.getSavingsGoalName()
+                + ": " + e.getMessage()).account(entry.getAccountUid()).amount(entry.getPendingMinorUnits()));
+            return NOT_SWEPT;
+        } finally {
+            transferPermits.release();
+        }
+    }
+
+    // The executor has been closed, so every future is already complete
+    private static long sweptMinorUnits(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            LOG.severe("sweep", "Unexpected error while sweeping the ledger", e.getCause());
+            return NOT_SWEPT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while sweeping the ledger", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.starlingbank.ledger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.service.SavingsGoalService;
+
+/**
+ * Builds the LedgerSweeper from the environment: STARLING_LEDGER_FILE names the journal of the ledger, and the
+ * round-ups are swept once they reach STARLING_SWEEP_THRESHOLD minor units (1000 by default) or
+ * STARLING_SWEEP_MAX_AGE (an ISO-8601 duration, P7D by default), at most STARLING_SWEEP_BATCH transfers
+ * (100 by default) per sweep.
+ * @author Cesar Goncalves
+ */
+public final class Ledgers {
+    /** The environment variable naming the journal of the ledger. */
+    public static final String LEDGER_FILE = "STARLING_LEDGER_FILE";
+    /** The environment variable holding the balance swept as soon as it is reached, in minor units. */
+    public static final String SWEEP_THRESHOLD = "STARLING_SWEEP_THRESHOLD";
+    /** The environment variable holding the age after which any balance is swept. */
+    public static final String SWEEP_MAX_AGE = "STARLING_SWEEP_MAX_AGE";
+    /** The environment variable holding the maximum number of transfers per sweep. */
+    public static final String SWEEP_BATCH = "STARLING_SWEEP_BATCH";
+
+    // Log of the ledger that cannot be closed
+    private static final EventLog LOG = EventLog.get();
+    private static final String DEFAULT_THRESHOLD = "1000";
+    private static final String DEFAULT_MAX_AGE = "P7D";
+    private static final String DEFAULT_BATCH = "100";
+
+    private Ledgers() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Builds the sweeper of the ledger configured by the environment; the journal is closed when the JVM shuts down.
+     * @param environment The environment variables.
+     * @param savingsGoalService Service making the transfers.
+     * @param maxConcurrentTransfers Maximum number of transfers in flight at the same time.
+     * @return The sweeper, or null if no ledger is configured and round-ups are transferred as soon as found.
+     * @throws IOException If the journal cannot be opened.
+     * @throws IllegalArgumentException If a sweep setting is invalid.
+     */
+    public static LedgerSweeper sweeperFromEnvironment(Map<String, String> environment,
+                                                       SavingsGoalService savingsGoalService,
+                                                       int maxConcurrentTransfers) throws IOException {
+        if (!environment.containsKey(LEDGER_FILE)) {
+            return null;
+        }
+        SweepPolicy policy = new SweepPolicy(Long.parseLong(environment.getOrDefault(SWEEP_THRESHOLD, DEFAULT_THRESHOLD)),
+            Duration.parse(environment.getOrDefault(SWEEP_MAX_AGE, DEFAULT_MAX_AGE)));
+        RoundUpLedger ledger = RoundUpLedger.open(Path.of(environment.get(LEDGER_FILE)), Clock.systemUTC());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeLedger(ledger)));
+        return new LedgerSweeper(ledger, policy, savingsGoalService,
+            Integer.parseInt(environment.getOrDefault(SWEEP_BATCH, DEFAULT_BATCH)), maxConcurrentTransfers);
+    }
+
+    private static void closeLedger(RoundUpLedger ledger) {
+        try {
+            ledger.close();
+        } catch (IOException e) {
+            LOG.severe("ledger", "Cannot close the ledger", e);
+        }
+    }
+}
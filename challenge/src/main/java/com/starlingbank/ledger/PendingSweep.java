@@ -0,0 +1,83 @@
+package com.starlingbank.ledger;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A sweep of a balance of the RoundUpLedger journaled before its transfer is made, and kept until the transfer is
+ * settled. Its transferUid is reused by every attempt of the transfer, the API making a transfer once per
+ * transferUid, so a sweep retried after a failure or a crash is never paid twice.
+ * @author Cesar Goncalves
+ */
+public final class PendingSweep {
+    private final UUID accountUid;
+    private final UUID savingsGoalUid;
+    // The amount transferred, the balance of the entry when the sweep began
+    private final long minorUnits;
+    private final UUID transferUid;
+    private final Instant startedAt;
+
+    /**
+     * Constructor for PendingSweep.
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     * @param minorUnits The amount transferred, in minor units.
+     * @param transferUid The unique identifier of the transfer.
+     * @param startedAt When the sweep began.
+     */
+    PendingSweep(UUID accountUid, UUID savingsGoalUid, long minorUnits, UUID transferUid, Instant startedAt) {
+        this.accountUid = accountUid;
+        this.savingsGoalUid = savingsGoalUid;
+        this.minorUnits = minorUnits;
+        this.transferUid = transferUid;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Returns the key of the entry swept in the ledger.
+     * @return The key.
+     */
+    LedgerKey key() {
+        return LedgerEntry.keyOf(accountUid, savingsGoalUid);
+    }
+
+    /**
+     * Returns the unique identifier of the account.
+     * @return The accountUid.
+     */
+    public UUID getAccountUid() {
+        return accountUid;
+    }
+
+    /**
+     * Returns the unique identifier of the savings goal.
+     * @return The savingsGoalUid.
+     */
+    public UUID getSavingsGoalUid() {
+        return savingsGoalUid;
+    }
+
+    /**
+     * Returns the amount transferred by the sweep.
+     * @return The amount in minor units.
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Returns the unique identifier of the transfer of the sweep.
+     * @return The transferUid.
+     */
+    public UUID getTransferUid() {
+        return transferUid;
+    }
+
+    /**
+     * Returns when the sweep began.
+     * @return The start time.
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+}
@@ -0,0 +1,149 @@
+package com.starlingbank.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The local ledger of the round-ups accrued for each savings goal of each account and not swept yet.
+ * Round-ups are accrued locally as often as they are found and swept by the LedgerSweeper only once a
+ * SweepPolicy says so, so frequent runs make a transfer per goal per sweep instead of one per run.
+ * A ledger opened on a journal file appends every change to it, forced to disk, before applying it, so the
+ * balances survive a restart or a power loss; the journal is compacted to one line per balance and per sweep not
+ * settled when the ledger is opened.
+ * A sweep is journaled with its transferUid before the transfer is made and settled once it is, so a sweep
+ * interrupted between the two is retried under the same transferUid instead of being paid again.
+ * @author Cesar Goncalves
+ */
+public class RoundUpLedger implements Closeable {
+    // The balances and the sweeps not settled, guarded by this
+    private final LedgerBalances balances;
+    private final Clock clock;
+    // The journal of the changes, or null if the ledger is kept in memory only
+    private final LedgerJournal journal;
+
+    /**
+     * Constructor for a RoundUpLedger kept in memory only.
+     * @param clock The source of the accrual times.
+     */
+    public RoundUpLedger(Clock clock) {
+        this(new LedgerBalances(), clock, null);
+    }
+
+    private RoundUpLedger(LedgerBalances balances, Clock clock, LedgerJournal journal) {
+        this.balances = balances;
+        this.clock = clock;
+        this.journal = journal;
+    }
+
+    /**
+     * Opens the ledger kept in a journal file, creating the file if it does not exist.
+     * @param journalFile The journal file.
+     * @param clock The source of the accrual times.
+     * @return The ledger, with the balances and the sweeps not settled of the journal.
+     * @throws IOException If the journal cannot be read or compacted.
+     */
+    public static RoundUpLedger open(Path journalFile, Clock clock) throws IOException {
+        LedgerBalances balances = LedgerJournal.replay(journalFile);
+        return new RoundUpLedger(balances, clock, LedgerJournal.compact(journalFile, balances));
+    }
+
+    /**
+     * Accrues a round-up for a savings goal.
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     * @param savingsGoalName The name of the savings goal.
+     * @param minorUnits The round-up in minor units; nothing is accrued unless it is positive.
+     * @throws java.io.UncheckedIOException If the accrual cannot be written to the journal.
+     */
+    public synchronized void accrue(UUID accountUid, UUID savingsGoalUid, String savingsGoalName, long minorUnits) {
+        if (minorUnits <= 0) {
+            return;
+        }
+        LedgerEntry accrual = new LedgerEntry(accountUid, savingsGoalUid, savingsGoalName, minorUnits, clock.instant());
+        if (journal != null) {
+            journal.appendAccrual(accrual);
+        }
+        balances.applyAccrual(accrual);
+    }
+
+    /**
+     * Returns the entries due to be swept, oldest first.
+     * @param policy The policy deciding which entries are due.
+     * @return A snapshot of the entries due.
+     */
+    public synchronized List<LedgerEntry> due(SweepPolicy policy) {
+        return balances.due(policy, clock.instant());
+    }
+
+    /**
+     * Begins the sweep of an entry, journaling it with a new transferUid before its transfer is made, or returns the
+     * sweep of the entry begun earlier and not settled, whose transfer must be retried as it was.
+     * @param entry The entry, as returned by due.
+     * @return The sweep, with the amount and the transferUid of its transfer.
+     * @throws java.io.UncheckedIOException If the sweep cannot be written to the journal.
+     */
+    public synchronized PendingSweep beginSweep(LedgerEntry entry) {
+        PendingSweep sweep = balances.sweep(entry.key());
+        if (sweep == null) {
+            sweep = new PendingSweep(entry.getAccountUid(), entry.getSavingsGoalUid(), entry.getPendingMinorUnits(),
+                UUID.randomUUID(), clock.instant());
+            if (journal != null) {
+                journal.appendSweep(sweep);
+            }
+            balances.applySweep(sweep);
+        }
+        return sweep;
+    }
+
+    /**
+     * Records that the transfer of a sweep was made. Round-ups accrued since the sweep began stay in the ledger.
+     * @param sweep The sweep, as returned by beginSweep, whose amount was transferred.
+     * @throws java.io.UncheckedIOException If the settlement cannot be written to the journal.
+     */
+    public synchronized void settle(PendingSweep sweep) {
+        Instant now = clock.instant();
+        if (journal != null) {
+            journal.appendSettlement(sweep, now);
+        }
+        balances.applySettlement(sweep.key(), sweep.getMinorUnits(), now);
+    }
+
+    /**
+     * Returns the balance not swept yet of a savings goal.
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     * @return The balance in minor units.
+     */
+    public synchronized long pending(UUID accountUid, UUID savingsGoalUid) {
+        LedgerEntry entry = balances.entry(LedgerEntry.keyOf(accountUid, savingsGoalUid));
+        return entry == null ? 0 : entry.getPendingMinorUnits();
+    }
+
+    /**
+     * Returns every balance not swept yet.
+     * @return A snapshot of the entries.
+     */
+    public synchronized List<LedgerEntry> entries() {
+        return List.copyOf(balances.entries());
+    }
+
+    /**
+     * Returns the sweeps begun and not settled yet.
+     * @return A snapshot of the sweeps.
+     */
+    public synchronized List<PendingSweep> pendingSweeps() {
+        return List.copyOf(balances.sweeps());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.starlingbank.ledger;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides when the round-ups accrued for a savings goal are swept into it: once they reach a threshold amount,
+ * or once the oldest of them reaches a maximum age, so small balances are still swept eventually.
+ * @author Cesar Goncalves
+ */
+public final class SweepPolicy {
+    private final long thresholdMinorUnits;
+    private final Duration maxAge;
+
+    /**
+     * Constructor for SweepPolicy.
+     * @param thresholdMinorUnits The balance swept as soon as it is reached, in minor units.
+     * @param maxAge The age after which any balance is swept.
+     * @throws IllegalArgumentException If the threshold is not positive or the maximum age is negative.
+     */
+    public SweepPolicy(long thresholdMinorUnits, Duration maxAge) {
+        if (thresholdMinorUnits <= 0 || maxAge.isNegative()) {
+            throw new IllegalArgumentException("The sweep threshold must be positive and the maximum age not negative");
+        }
+        this.thresholdMinorUnits = thresholdMinorUnits;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Checks whether an entry is due to be swept.
+     * @param entry The entry.
+     * @param now The current time.
+     * @return true if the entry has a balance reaching the threshold, or a balance older than the maximum age.
+     */
+    public boolean isDue(LedgerEntry entry, Instant now) {
+        return entry.getPendingMinorUnits() >= thresholdMinorUnits
+            || entry.getPendingMinorUnits() > 0 && !entry.getFirstAccruedAt().plus(maxAge).isAfter(now);
+    }
+
+    /**
+     * Returns the balance swept as soon as it is reached.
+     * @return The threshold in minor units.
+     */
+    public long getThresholdMinorUnits() {
+        return thresholdMinorUnits;
+    }
+
+    /**
+     * Returns the age after which any balance is swept.
+     * @return The maximum age.
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+}
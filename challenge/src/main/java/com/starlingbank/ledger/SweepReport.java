@@ -0,0 +1,59 @@
+package com.starlingbank.ledger;
+
+/**
+ * The outcome of a sweep of the RoundUpLedger.
+ * @author Cesar Goncalves
+ */
+public final class SweepReport {
+    private final int sweptEntries;
+    private final long sweptMinorUnits;
+    private final int failedEntries;
+    // Entries due but left for the next sweep, as a sweep transfers at most a batch of entries
+    private final int deferredEntries;
+
+    /**
+     * Constructor for SweepReport.
+     * @param sweptEntries The number of entries swept, one transfer each.
+     * @param sweptMinorUnits The total swept, in minor units.
+     * @param failedEntries The number of entries whose transfer failed; they stay in the ledger.
+     * @param deferredEntries The number of entries due but left for the next sweep.
+     */
+    public SweepReport(int sweptEntries, long sweptMinorUnits, int failedEntries, int deferredEntries) {
+        this.sweptEntries = sweptEntries;
+        this.sweptMinorUnits = sweptMinorUnits;
+        this.failedEntries = failedEntries;
+        this.deferredEntries = deferredEntries;
+    }
+
+    /**
+     * Returns the number of balances swept.
+     * @return The number of entries.
+     */
+    public int getSweptEntries() {
+        return sweptEntries;
+    }
+
+    /**
+     * Returns the total transferred by the sweep.
+     * @return The total in minor units.
+     */
+    public long getSweptMinorUnits() {
+        return sweptMinorUnits;
+    }
+
+    /**
+     * Returns the number of balances whose transfer failed.
+     * @return The number of entries.
+     */
+    public int getFailedEntries() {
+        return failedEntries;
+    }
+
+    /**
+     * Returns the number of balances due but left for the next sweep.
+     * @return The number of entries.
+     */
+    public int getDeferredEntries() {
+        return deferredEntries;
+    }
+}
@@ -0,0 +1,171 @@
+package com.starlingbank.logging;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * An asynchronous log of structured events.
+ * Logging hands the event to a lock-free ring drained by a background writer, so the calling thread never waits
+ * for the output or for another thread's lock. Under overload the log sheds events instead of stalling the
+ * callers: once the ring is three quarters full only one event in eight below WARNING is kept, and any event is
+ * dropped when the ring is full. The writer reports the number of events dropped.
+ * The application's log writes to the standard output, at the level set by STARLING_LOG_LEVEL (INFO by default).
+ * @author Cesar Goncalves
+ */
+public final class EventLog implements AutoCloseable {
+    /** The environment variable holding the minimum level of the application's log, e.g. FINE or WARNING. */
+    public static final String LEVEL = "STARLING_LOG_LEVEL";
+    /** The number of events the application's log holds before shedding them. */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int HIGH_WATERMARK_QUARTERS = 3;
+    private static final int QUARTER_SHIFT = 2;
+    private static final int SAMPLE_EVERY = 8;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final EventRing ring;
+    private final int minimumLevel;
+    // The size of the ring above which events below WARNING are sampled
+    private final int highWatermark;
+    // Counts the events considered for sampling, every SAMPLE_EVERY-th one being kept
+    private final AtomicLong sampled = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final EventWriter writer;
+    private final Thread writerThread;
+
+    private EventLog(Appendable out, int capacity, Level minimumLevel) {
+        this.ring = new EventRing(capacity);
+        this.minimumLevel = minimumLevel.intValue();
+        this.highWatermark = capacity * HIGH_WATERMARK_QUARTERS >> QUARTER_SHIFT;
+        this.writer = new EventWriter(ring, out, dropped);
+        this.writerThread = Thread.ofPlatform().name("event-log-writer").daemon().unstarted(writer);
+    }
+
+    /**
+     * Starts a log and its writer thread.
+     * @param out The output the events are written to; it is flushed whenever the writer runs out of events.
+     * @param capacity The number of events the ring holds, a power of two.
+     * @param minimumLevel The level below which events are ignored.
+     * @return The log.
+     * @throws IllegalArgumentException If the capacity is not a power of two.
+     */
+    public static EventLog start(Appendable out, int capacity, Level minimumLevel) {
+        EventLog log = new EventLog(out, capacity, minimumLevel);
+        log.writerThread.start();
+        return log;
+    }
+
+    /**
+     * Returns the application's log, writing to the standard output until the application exits.
+     * @return The log.
+     */
+    public static EventLog get() {
+        return ApplicationLog.INSTANCE;
+    }
+
+    /**
+     * Checks whether events of a level are logged.
+     * @param level The level.
+     * @return true if the level is at least the minimum level of the log.
+     */
+    public boolean isLoggable(Level level) {
+        return level.intValue() >= minimumLevel;
+    }
+
+    /**
+     * Logs an event, without waiting; the event is dropped if the log is overloaded.
+     * @param event The event.
+     */
+    public void log(LogEvent event) {
+        if (!isLoggable(event.getLevel())) {
+            return;
+        }
+        if (!admit(event) || !ring.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Logs an informational event.
+     * @param phase The phase of the application.
+     * @param message The message.
+     */
+    public void info(String phase, String message) {
+        log(LogEvent.of(Level.INFO, phase, message));
+    }
+
+    /**
+     * Logs a warning.
+     * @param phase The phase of the application.
+     * @param message The message.
+     */
+    public void warning(String phase, String message) {
+        log(LogEvent.of(Level.WARNING, phase, message));
+    }
+
+    /**
+     * Logs an error with the exception that caused it.
+     * @param phase The phase of the application.
+     * @param message The message.
+     * @param thrown The exception.
+     */
+    public void severe(String phase, String message, Throwable thrown) {
+        log(LogEvent.of(Level.SEVERE, phase, message).thrown(thrown));
+    }
+
+    /**
+     * Returns the number of events dropped because the log was overloaded.
+     * @return The number of events.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until the events logged so far are written and flushed, e.g. before prompting the user so that the
+     * prompt follows the progress already logged.
+     */
+    public void flush() {
+        writer.awaitWritten(ring.claimed(), writerThread);
+    }
+
+    /**
+     * Writes the events still in the ring and stops the writer.
+     */
+    @Override
+    public void close() {
+        writer.close();
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Samples the events below WARNING once the ring is above its high watermark
+    private boolean admit(LogEvent event) {
+        return ring.size() < highWatermark || event.getLevel().intValue() >= Level.WARNING.intValue()
+            || sampled.getAndIncrement() % SAMPLE_EVERY == 0;
+    }
+
+    /**
+     * The application's log, started on first use and closed when the application exits.
+     */
+    private static final class ApplicationLog {
+        static final EventLog INSTANCE = startApplicationLog(System.out);
+
+        private ApplicationLog() {
+        }
+
+        private static EventLog startApplicationLog(PrintStream out) {
+            String level = System.getenv(LEVEL);
+            EventLog log = start(out, DEFAULT_CAPACITY, level == null ? Level.INFO : Level.parse(level));
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close));
+            return log;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.starlingbank.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free ring of events with many producers and a single consumer.
+ * A producer claims a sequence with a compare-and-set on the tail, failing instead of waiting when the ring is
+ * full, then publishes the event into the slot of the sequence. The consumer takes the events in sequence order,
+ * clearing each slot before moving the head past it, so a producer never overwrites an event not yet taken.
+ * @author Cesar Goncalves
+ */
+final class EventRing {
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final int mask;
+    // The sequence of the next slot claimed by a producer
+    private final AtomicLong tail = new AtomicLong();
+    // The sequence of the next slot taken by the consumer, written only by the consumer
+    private volatile long head;
+
+    /**
+     * Constructor for EventRing.
+     * @param capacity The number of slots, a power of two.
+     * @throws IllegalArgumentException If the capacity is not a positive power of two.
+     */
+    EventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds an event, without waiting.
+     * @param event The event.
+     * @return false if the ring is full and the event was not added.
+     */
+    boolean offer(LogEvent event) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.setRelease((int) claimed & mask, event);
+        return true;
+    }
+
+    /**
+     * Takes the next event; only the consumer may call it.
+     * @return The event, or null if the next event is not published yet.
+     */
+    LogEvent poll() {
+        long next = head;
+        int index = (int) next & mask;
+        LogEvent event = slots.getAcquire(index);
+        if (event != null) {
+            slots.setPlain(index, null);
+            // The volatile write publishes the cleared slot to the producers reading the head
+            head = next + 1;
+        }
+        return event;
+    }
+
+    /**
+     * Returns the number of events claimed and not taken yet.
+     * @return The number of events.
+     */
+    int size() {
+        return (int) (tail.get() - head);
+    }
+
+    /**
+     * Returns the sequence of the next slot a producer will claim, i.e. the number of events ever added.
+     * @return The sequence.
+     */
+    long claimed() {
+        return tail.get();
+    }
+
+    /**
+     * Returns the sequence of the next slot the consumer will take, i.e. the number of events ever taken.
+     * @return The sequence.
+     */
+    long taken() {
+        return head;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.starlingbank.logging;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * The background writer of an EventLog, the single consumer of its ring.
+ * The writer formats the events into a reused builder and flushes the output whenever the ring runs empty, so a
+ * burst of events costs a single flush. It then reports the events dropped since the last report and parks
+ * until the next events.
+ * @author Cesar Goncalves
+ */
+final class EventWriter implements Runnable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long AWAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final EventRing ring;
+    private final Appendable out;
+    private final LongAdder dropped;
+    private final StringBuilder line = new StringBuilder();
+    // The number of events taken from the ring and written to the output, flushed
+    private volatile long written;
+    private volatile boolean closed;
+    private long reportedDrops;
+
+    /**
+     * Constructor for EventWriter.
+     * @param ring The ring of the events.
+     * @param out The output the events are written to.
+     * @param dropped The number of events dropped by the log.
+     */
+    EventWriter(EventRing ring, Appendable out, LongAdder dropped) {
+        this.ring = ring;
+        this.out = out;
+        this.dropped = dropped;
+    }
+
+    @Override
+    public void run() {
+        while (!closed || ring.size() > 0) {
+            LogEvent event = ring.poll();
+            if (event == null) {
+                idle();
+            } else {
+                write(event);
+            }
+        }
+        idle();
+    }
+
+    /**
+     * Waits until a number of events are written and flushed, waking the writer up instead of letting it park.
+     * @param events The number of events, counted from the first event of the ring.
+     * @param writerThread The thread running this writer; the wait ends if it has stopped.
+     */
+    void awaitWritten(long events, Thread writerThread) {
+        while (written < events && writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, AWAIT_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Stops the writer once the ring is empty.
+     */
+    void close() {
+        closed = true;
+    }
+
+    private void idle() {
+        long drops = dropped.sum();
+        if (drops > reportedDrops) {
+            write(LogEvent.of(Level.WARNING, "log", "Dropped " + (drops - reportedDrops) + " events under overload"));
+            reportedDrops = drops;
+        }
+        flush();
+        written = ring.taken();
+        if (!closed) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    private void write(LogEvent event) {
+        line.setLength(0);
+        event.appendTo(line);
+        line.append(System.lineSeparator());
+        try {
+            out.append(line);
+        } catch (IOException e) {
+            System.err.println("Cannot write the log: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        if (out instanceof Flushable) {
+            try {
+                ((Flushable) out).flush();
+            } catch (IOException e) {
+                System.err.println("Cannot flush the log: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.starlingbank.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * A structured event of the EventLog: its level, the phase of the application it happened in and a message,
+ * with the account, amount and latency it concerns when they apply.
+ * Events are written as a logfmt line, e.g. {@code time=2024-01-01T10:00:00Z level=INFO phase=transfer
+ * account=2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34 amount=120 msg="Transferred £1.20"}.
+ * The fields are set while building the event; an event must not be changed once it is logged.
+ * @author Cesar Goncalves
+ */
+public final class LogEvent {
+    private final long epochMillis;
+    private final Level level;
+    private final String phase;
+    private final String message;
+    // Formatted by the writer, off the thread logging the event
+    private UUID accountUid;
+    private boolean hasAmount;
+    private long amountMinorUnits;
+    // The latency of the operation in nanoseconds, or negative when the event has none
+    private long latencyNanos = -1;
+    private Throwable thrown;
+
+    private LogEvent(long epochMillis, Level level, String phase, String message) {
+        this.epochMillis = epochMillis;
+        this.level = level;
+        this.phase = phase;
+        this.message = message;
+    }
+
+    /**
+     * Creates an event happening now.
+     * @param level The level of the event.
+     * @param phase The phase of the application, e.g. backfill or transfer.
+     * @param message The message.
+     * @return The event.
+     */
+    public static LogEvent of(Level level, String phase, String message) {
+        return new LogEvent(System.currentTimeMillis(), level, phase, message);
+    }
+
+    /**
+     * Sets the account the event concerns.
+     * @param uid The unique identifier of the account.
+     * @return This event.
+     */
+    public LogEvent account(UUID uid) {
+        this.accountUid = uid;
+        return this;
+    }
+
+    /**
+     * Sets the amount the event concerns.
+     * @param minorUnits The amount in minor units.
+     * @return This event.
+     */
+    public LogEvent amount(long minorUnits) {
+        this.hasAmount = true;
+        this.amountMinorUnits = minorUnits;
+        return this;
+    }
+
+    /**
+     * Sets the latency of the operation the event reports.
+     * @param nanos The latency in nanoseconds.
+     * @return This event.
+     */
+    public LogEvent latency(long nanos) {
+        this.latencyNanos = nanos;
+        return this;
+    }
+
+    /**
+     * Sets the exception the event reports; its stack trace is written after the line of the event.
+     * @param exception The exception.
+     * @return This event.
+     */
+    public LogEvent thrown(Throwable exception) {
+        this.thrown = exception;
+        return this;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Appends the event as a logfmt line, without line separator unless the event has a stack trace.
+     * @param out The builder to append to.
+     */
+    void appendTo(StringBuilder out) {
+        out.append("time=").append(Instant.ofEpochMilli(epochMillis)).append(" level=").append(level.getName())
+            .append(" phase=").append(phase);
+        if (accountUid != null) {
+            out.append(" account=").append(accountUid);
+        }
+        if (hasAmount) {
+            out.append(" amount=").append(amountMinorUnits);
+        }
+        if (latencyNanos >= 0) {
+            out.append(" latencyMs=").append(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        }
+        out.append(" msg=");
+        appendQuoted(out, message);
+        appendStackTrace(out);
+    }
+
+    private void appendStackTrace(StringBuilder out) {
+        if (thrown != null) {
+            StringWriter stackTrace = new StringWriter();
+            thrown.printStackTrace(new PrintWriter(stackTrace));
+            out.append(System.lineSeparator()).append(stackTrace.toString().stripTrailing());
+        }
+    }
+
+    private static void appendQuoted(StringBuilder out, String value) {
+        out.append('"');
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -1,14 +1,17 @@
 package com.starlingbank.model;
 
+import java.util.UUID;
+
 /**
- * Represents an Account in the Starling Bank system.
+ * Represents an Account in the Starling Bank system. The identifiers are parsed once out of the API responses
+ * and kept as UUIDs, two longs each, until they are formatted back into the URLs of the API calls.
  * @author Cesar Goncalves
  */
 public class Account {
     // Unique identifier for the account
-    private final String accountUid;
+    private final UUID accountUid;
     // Unique identifier for the category associated with the account
-    private final String categoryUid;
+    private final UUID categoryUid;
 
     /**
      * Constructs a new Account with the specified accountUid and categoryUid.
@@ -16,7 +19,7 @@ public class Account {
      * @param accountUid  the unique identifier for the account
      * @param categoryUid the unique identifier for the category associated with the account
      */
-    public Account(String accountUid, String categoryUid) {
+    public Account(UUID accountUid, UUID categoryUid) {
         this.accountUid = accountUid;
         this.categoryUid = categoryUid;
     }
@@ -26,7 +29,7 @@ public class Account {
      *
      * @return the accountUid
      */
-    public String getAccountUid() {
+    public UUID getAccountUid() {
         return accountUid;
     }
 
@@ -35,7 +38,7 @@ public class Account {
      *
      * @return the categoryUid
      */
-    public String getCategoryUid() {
+    public UUID getCategoryUid() {
         return categoryUid;
     }
 }
@@ -2,48 +2,139 @@ package com.starlingbank.model;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
-import java.util.Currency;
 import java.util.Locale;
 
 /**
- * Represents an Amount in the Starling Bank system.
+ * Represents an Amount in the Starling Bank system: a whole number of minor units of a currency.
+ * The arithmetic is exact and overflow-checked, and amounts of different currencies are never mixed. Code summing
+ * many amounts should add their minor units with Math.addExact and build a single Amount from the total.
  * @author Cesar Goncalves
  */
-public class Amount {
-    private final int minorUnits;
-    private final String currencyCode;
+public final class Amount {
+    private final long minorUnits;
+    private final CurrencyUnit currency;
 
-    public Amount(int minorUnits, String currencyCode) {
+    /**
+     * Constructs an Amount of a currency.
+     *
+     * @param minorUnits the amount in minor units (e.g., pence for GBP)
+     * @param currency the currency of the amount
+     */
+    public Amount(long minorUnits, CurrencyUnit currency) {
         this.minorUnits = minorUnits;
-        this.currencyCode = currencyCode;
+        this.currency = currency;
+    }
+
+    /**
+     * Constructs an Amount of the currency with the given code.
+     *
+     * @param minorUnits the amount in minor units (e.g., pence for GBP)
+     * @param currencyCode the ISO 4217 code of the currency
+     */
+    public Amount(long minorUnits, String currencyCode) {
+        this(minorUnits, CurrencyUnit.of(currencyCode));
+    }
+
+    /**
+     * Parses an amount written in major units, such as "12.50".
+     *
+     * @param decimal the amount in major units, with at most the currency's number of decimal places
+     * @param currency the currency of the amount
+     * @return the amount
+     * @throws NumberFormatException if the text is not such an amount
+     * @throws ArithmeticException if the amount does not fit in a long number of minor units
+     */
+    public static Amount parse(String decimal, CurrencyUnit currency) {
+        return new Amount(DecimalMinorUnits.parse(decimal, currency), currency);
     }
 
-    public int getMinorUnits() {
+    public long getMinorUnits() {
         return minorUnits;
     }
 
+    public CurrencyUnit getCurrency() {
+        return currency;
+    }
+
     public String getCurrencyCode() {
-        return currencyCode;
+        return currency.getCode();
+    }
+
+    /**
+     * Adds an amount of the same currency.
+     *
+     * @param other the amount to add
+     * @return the sum
+     * @throws IllegalArgumentException if the amounts are of different currencies
+     * @throws ArithmeticException if the sum overflows
+     */
+    public Amount plus(Amount other) {
+        currency.requireSameAs(other.currency);
+        return new Amount(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Multiplies the amount by a whole number.
+     *
+     * @param factor the multiplier
+     * @return the product
+     * @throws ArithmeticException if the product overflows
+     */
+    public Amount times(long factor) {
+        return new Amount(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    /**
+     * Splits the amount into parts differing by at most one minor unit, the larger parts first, so the parts always
+     * add up to the amount.
+     *
+     * @param parts the number of parts
+     * @return the parts
+     * @throws IllegalArgumentException if the number of parts is not positive
+     */
+    public Amount[] split(int parts) {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("Cannot split into " + parts + " parts");
+        }
+        long share = Math.floorDiv(minorUnits, parts);
+        long remainder = Math.floorMod(minorUnits, parts);
+        Amount[] split = new Amount[parts];
+        for (int part = 0; part < parts; part++) {
+            split[part] = new Amount(part < remainder ? share + 1 : share, currency);
+        }
+        return split;
     }
 
     // Converts minor units to major units (e.g., pence to pounds)
     public BigDecimal toMajorUnits() {
-        Currency currency = Currency.getInstance(currencyCode);
-        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+        return BigDecimal.valueOf(minorUnits, currency.getFractionDigits());
     }
 
-    // Formats the amount for display, e.g., "£10.00" or "€10.00"
     /**
-     * Formats the amount for display.
+     * Formats the amount for display, e.g., "£10.00" or "€10.00".
      *
      * @param locale the locale to use for formatting.
      * @return the formatted amount.
      */
     public String format(Locale locale) {
-        BigDecimal amount = toMajorUnits();
-        Currency currency = Currency.getInstance(currencyCode);
         NumberFormat format = NumberFormat.getCurrencyInstance(locale);
-        format.setCurrency(currency);
-        return format.format(amount);
+        format.setCurrency(currency.getCurrency());
+        return format.format(toMajorUnits());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Amount && ((Amount) other).minorUnits == minorUnits
+            && ((Amount) other).currency == currency;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) ^ currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toMajorUnits().toPlainString() + " " + currency;
     }
 }
@@ -0,0 +1,78 @@
+package com.starlingbank.model;
+
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Describes a currency for money arithmetic: its ISO 4217 code, its number of decimal places and the number of
+ * minor units in a major unit. The units are interned, one per code, so they are compared by reference and looking
+ * one up again allocates nothing.
+ * @author Cesar Goncalves
+ */
+public final class CurrencyUnit {
+    /** Pound sterling, the currency of the Starling accounts. */
+    public static final CurrencyUnit GBP = new CurrencyUnit(Currency.getInstance("GBP"));
+
+    private static final int RADIX = 10;
+    // The interned units, keyed by currency code
+    private static final ConcurrentMap<String, CurrencyUnit> UNITS = new ConcurrentHashMap<>(Map.of("GBP", GBP));
+
+    private final Currency currency;
+    // The number of decimal places of the amounts, 0 for the currencies without minor units
+    private final int fractionDigits;
+    private final long minorUnitsPerMajorUnit;
+
+    private CurrencyUnit(Currency currency) {
+        this.currency = currency;
+        this.fractionDigits = Math.max(currency.getDefaultFractionDigits(), 0);
+        long perMajorUnit = 1;
+        for (int digit = 0; digit < fractionDigits; digit++) {
+            perMajorUnit *= RADIX;
+        }
+        this.minorUnitsPerMajorUnit = perMajorUnit;
+    }
+
+    /**
+     * Returns the unit of a currency.
+     * @param currencyCode The ISO 4217 code of the currency.
+     * @return The interned unit of the currency.
+     * @throws IllegalArgumentException If the code is not an ISO 4217 currency code.
+     */
+    public static CurrencyUnit of(String currencyCode) {
+        return UNITS.computeIfAbsent(currencyCode, code -> new CurrencyUnit(Currency.getInstance(code)));
+    }
+
+    public String getCode() {
+        return currency.getCurrencyCode();
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    public long getMinorUnitsPerMajorUnit() {
+        return minorUnitsPerMajorUnit;
+    }
+
+    /**
+     * Checks that an amount of another currency can be combined with an amount of this one.
+     * @param other The other currency.
+     * @throws IllegalArgumentException If the currencies differ.
+     */
+    public void requireSameAs(CurrencyUnit other) {
+        if (other != this) {
+            throw new IllegalArgumentException("Cannot combine " + other + " with " + this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getCode();
+    }
+}
@@ -0,0 +1,57 @@
+package com.starlingbank.model;
+
+import java.util.regex.Pattern;
+
+/**
+ * Parses decimal amounts such as "12.5" or "-0.07" into minor units, as whole numbers of major and minor units and
+ * never through double, so every amount with at most the currency's number of decimal places is represented exactly.
+ * @author Cesar Goncalves
+ */
+final class DecimalMinorUnits {
+    private static final int RADIX = 10;
+    // Unsigned decimal numbers with at least one digit, e.g. "12", "12.", "12.5" or ".5"
+    private static final Pattern DECIMAL = Pattern.compile("\\d+(\\.\\d*)?|\\.\\d+");
+
+    private DecimalMinorUnits() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Parses a decimal amount.
+     * @param text The amount in major units, with an optional sign and decimal point.
+     * @param unit The currency of the amount.
+     * @return The amount in minor units.
+     * @throws NumberFormatException If the text is not a decimal number, or has more decimal places than the
+     * currency.
+     * @throws ArithmeticException If the amount does not fit in a long.
+     */
+    static long parse(String text, CurrencyUnit unit) {
+        String trimmed = text.trim();
+        boolean negative = trimmed.startsWith("-");
+        String digits = negative || trimmed.startsWith("+") ? trimmed.substring(1) : trimmed;
+        if (!DECIMAL.matcher(digits).matches()) {
+            throw new NumberFormatException("Not an amount of " + unit + ": " + text);
+        }
+        long minorUnits = toMinorUnits(digits, unit);
+        return negative ? -minorUnits : minorUnits;
+    }
+
+    private static long toMinorUnits(String digits, CurrencyUnit unit) {
+        int point = digits.indexOf('.');
+        String majorUnits = point < 0 ? digits : digits.substring(0, point);
+        String fraction = point < 0 ? "" : digits.substring(point + 1);
+        if (fraction.length() > unit.getFractionDigits()) {
+            throw new NumberFormatException("More than " + unit.getFractionDigits() + " decimal places: " + digits);
+        }
+        long fractionMinorUnits = parseDigits(fraction);
+        for (int digit = fraction.length(); digit < unit.getFractionDigits(); digit++) {
+            fractionMinorUnits *= RADIX;
+        }
+        return Math.addExact(Math.multiplyExact(parseDigits(majorUnits), unit.getMinorUnitsPerMajorUnit()),
+            fractionMinorUnits);
+    }
+
+    private static long parseDigits(String digits) {
+        return digits.isEmpty() ? 0 : Long.parseLong(digits);
+    }
+}
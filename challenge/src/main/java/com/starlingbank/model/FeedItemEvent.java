@@ -0,0 +1,70 @@
+package com.starlingbank.model;
+
+import java.util.UUID;
+
+/**
+ * Represents a feed item webhook event in the Starling Bank system: a transaction created or updated on an
+ * account, delivered at least once.
+ * @author Cesar Goncalves
+ */
+public class FeedItemEvent {
+    // The unique identifier of the feed item, the same across the redeliveries and updates of the transaction
+    private final UUID feedItemUid;
+    // The unique identifier of the account the transaction belongs to
+    private final UUID accountUid;
+    // The direction of the transaction, IN or OUT
+    private final String direction;
+    // The amount and source of the transaction
+    private final Transaction transaction;
+
+    /**
+     * Constructs a FeedItemEvent for the specified feed item.
+     *
+     * @param feedItemUid the unique identifier of the feed item
+     * @param accountUid the unique identifier of the account
+     * @param direction the direction of the transaction, IN or OUT
+     * @param transaction the amount and source of the transaction
+     */
+    public FeedItemEvent(UUID feedItemUid, UUID accountUid, String direction, Transaction transaction) {
+        this.feedItemUid = feedItemUid;
+        this.accountUid = accountUid;
+        this.direction = direction;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Returns the unique identifier of the feed item.
+     *
+     * @return the feedItemUid
+     */
+    public UUID getFeedItemUid() {
+        return feedItemUid;
+    }
+
+    /**
+     * Returns the unique identifier of the account.
+     *
+     * @return the accountUid
+     */
+    public UUID getAccountUid() {
+        return accountUid;
+    }
+
+    /**
+     * Returns the direction of the transaction.
+     *
+     * @return IN or OUT
+     */
+    public String getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the amount and source of the transaction.
+     *
+     * @return the transaction
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+}
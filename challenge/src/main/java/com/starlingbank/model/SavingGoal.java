@@ -1,25 +1,42 @@
 package com.starlingbank.model;
 
+import java.util.UUID;
+
 /**
  * Represents a Saving Goal in the Starling Bank system.
  * @author Cesar Goncalves
  */
 public class SavingGoal {
-    private final String savingsGoalUid;  // Saving Goal Unique Identifier
+    private final UUID savingsGoalUid;    // Saving Goal Unique Identifier
     private final String name;            // Name of the Saving Goal
     private final Amount target;          // Target Amount of the Saving Goal
+    private final Amount totalSaved;      // Amount saved so far in the Saving Goal
+
+    /**
+     * Constructs a SavingGoal with the specified unique identifier, name, and target amount,
+     * with nothing saved so far.
+     *
+     * @param savingsGoalUid the unique identifier for the saving goal
+     * @param name the name of the saving goal
+     * @param target the target amount for the saving goal
+     */
+    public SavingGoal(UUID savingsGoalUid, String name, Amount target) {
+        this(savingsGoalUid, name, target, new Amount(0, target.getCurrency()));
+    }
 
     /**
-     * Constructs a SavingGoal with the specified unique identifier, name, and target amount.
+     * Constructs a SavingGoal with the specified unique identifier, name, target amount and amount saved.
      *
      * @param savingsGoalUid the unique identifier for the saving goal
      * @param name the name of the saving goal
      * @param target the target amount for the saving goal
+     * @param totalSaved the amount saved so far in the saving goal
      */
-    public SavingGoal(String savingsGoalUid, String name, Amount target) {
+    public SavingGoal(UUID savingsGoalUid, String name, Amount target, Amount totalSaved) {
         this.savingsGoalUid = savingsGoalUid;
         this.name = name;
         this.target = target;
+        this.totalSaved = totalSaved;
     }
 
     /**
@@ -27,7 +44,7 @@ public class SavingGoal {
      *
      * @return the savingsGoalUid
      */
-    public String getSavingsGoalUid() {
+    public UUID getSavingsGoalUid() {
         return savingsGoalUid;
     }
 
@@ -48,4 +65,22 @@ public class SavingGoal {
     public Amount getTarget() {
         return target;
     }
+
+    /**
+     * Returns the amount saved so far in the saving goal.
+     *
+     * @return the totalSaved
+     */
+    public Amount getTotalSaved() {
+        return totalSaved;
+    }
+
+    /**
+     * Returns the amount still missing to reach the target, in minor units.
+     *
+     * @return the remaining target in minor units, or zero if the target has been reached
+     */
+    public long getRemainingTargetMinorUnits() {
+        return Math.max(0, Math.subtractExact(target.getMinorUnits(), totalSaved.getMinorUnits()));
+    }
 }
@@ -1,26 +1,76 @@
 package com.starlingbank.model;
 
+import java.util.UUID;
+
 /**
  * Represents a Transaction in the Starling Bank system.
  * @author Cesar Goncalves
  */
 public class Transaction {
+    // The unique identifier of the feed item, null when it is not known
+    private final UUID feedItemUid;
+    // When the transaction was made, as an ISO-8601 UTC timestamp, null when it is not known
+    private final String transactionTime;
     // The amount in minor units (e.g., pence for GBP)
     private final int minorUnits;
     // The source of the transaction
     private final String source;
 
     /**
-     * Constructs a Transaction with the specified minor units and source.
+     * Constructs a Transaction with the specified minor units and source, of an unknown feed item.
      *
      * @param minorUnits the amount in minor units
      * @param source the source of the transaction
      */
     public Transaction(int minorUnits, String source) {
+        this(null, minorUnits, source);
+    }
+
+    /**
+     * Constructs a Transaction with the specified feed item, minor units and source.
+     *
+     * @param feedItemUid the unique identifier of the feed item, or null if it is not known
+     * @param minorUnits the amount in minor units
+     * @param source the source of the transaction
+     */
+    public Transaction(UUID feedItemUid, int minorUnits, String source) {
+        this(feedItemUid, null, minorUnits, source);
+    }
+
+    /**
+     * Constructs a Transaction with the specified feed item, time, minor units and source.
+     *
+     * @param feedItemUid the unique identifier of the feed item, or null if it is not known
+     * @param transactionTime when the transaction was made, as an ISO-8601 UTC timestamp, or null if it is not known
+     * @param minorUnits the amount in minor units
+     * @param source the source of the transaction
+     */
+    public Transaction(UUID feedItemUid, String transactionTime, int minorUnits, String source) {
+        this.feedItemUid = feedItemUid;
+        this.transactionTime = transactionTime;
         this.minorUnits = minorUnits;
         this.source = source;
     }
 
+    /**
+     * Returns the unique identifier of the feed item.
+     *
+     * @return the feedItemUid, or null if it is not known
+     */
+    public UUID getFeedItemUid() {
+        return feedItemUid;
+    }
+
+    /**
+     * Returns when the transaction was made.
+     *
+     * @return the transactionTime as an ISO-8601 UTC timestamp, e.g. 2024-01-15T10:20:30.000Z, or null if it is
+     * not known
+     */
+    public String getTransactionTime() {
+        return transactionTime;
+    }
+
     /**
      * Returns the amount in minor units.
      *
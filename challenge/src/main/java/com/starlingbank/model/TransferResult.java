@@ -0,0 +1,63 @@
+package com.starlingbank.model;
+
+/**
+ * Represents the outcome of a transfer of money into a savings goal.
+ * @author Cesar Goncalves
+ */
+public class TransferResult {
+    // The savings goal the money was transferred to
+    private final SavingGoal savingGoal;
+    // The amount transferred
+    private final Amount amount;
+    // The reason the transfer failed, or null if it succeeded
+    private final Exception failure;
+
+    /**
+     * Constructs a TransferResult for the specified savings goal and amount.
+     *
+     * @param savingGoal the savings goal the money was transferred to
+     * @param amount the amount transferred
+     * @param failure the reason the transfer failed, or null if it succeeded
+     */
+    public TransferResult(SavingGoal savingGoal, Amount amount, Exception failure) {
+        this.savingGoal = savingGoal;
+        this.amount = amount;
+        this.failure = failure;
+    }
+
+    /**
+     * Returns the savings goal the money was transferred to.
+     *
+     * @return the savingGoal
+     */
+    public SavingGoal getSavingGoal() {
+        return savingGoal;
+    }
+
+    /**
+     * Returns the amount transferred.
+     *
+     * @return the amount
+     */
+    public Amount getAmount() {
+        return amount;
+    }
+
+    /**
+     * Returns the reason the transfer failed.
+     *
+     * @return the failure, or null if the transfer succeeded
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns whether the transfer succeeded.
+     *
+     * @return true if the transfer succeeded
+     */
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+}
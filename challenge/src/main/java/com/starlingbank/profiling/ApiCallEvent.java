@@ -0,0 +1,79 @@
+package com.starlingbank.profiling;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event of a call to an endpoint of the Starling Bank API, from the caller's point of view: its duration
+ * includes the wait for the endpoint's concurrency limit and every hedge of the call.
+ * @author Cesar Goncalves
+ */
+@Name(ApiCallEvent.NAME)
+@Label("API Call")
+@Category({"Starling Bank", "API"})
+@Description("A call to an endpoint of the Starling Bank API, including its hedges")
+@StackTrace(false)
+public final class ApiCallEvent extends Event {
+    /** The name of the event in a recording. */
+    public static final String NAME = "com.starlingbank.ApiCall";
+    /** The status code of a call that got no response. */
+    public static final int NO_RESPONSE = 0;
+    private static final int TWO_BYTES = 0x80;
+    private static final int THREE_BYTES = 0x800;
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Account")
+    @Description("The account the call is about, null for the accounts of the token")
+    private String accountUid;
+
+    @Label("Status Code")
+    @Description("The status code of the response, 0 if there was none")
+    private int statusCode;
+
+    @Label("Response Size")
+    @Description("The size of the response body encoded as UTF-8")
+    @DataAmount
+    private long responseBytes;
+
+    /**
+     * Ends the call and commits the event if the recording takes it.
+     * @param calledEndpoint The name of the endpoint called.
+     * @param account The account the call is about, or null.
+     * @param status The status code of the response, or NO_RESPONSE.
+     * @param body The body of the response, or null.
+     */
+    public void commit(String calledEndpoint, UUID account, int status, String body) {
+        end();
+        if (shouldCommit()) {
+            endpoint = calledEndpoint;
+            accountUid = Objects.toString(account, null);
+            statusCode = status;
+            responseBytes = body == null ? 0 : utf8Bytes(body);
+            commit();
+        }
+    }
+
+    // The size of a body encoded as UTF-8, counted without encoding it: a surrogate pair is two chars of four bytes
+    private static long utf8Bytes(String body) {
+        long bytes = body.length();
+        for (int index = 0; index < body.length(); index++) {
+            char c = body.charAt(index);
+            if (c >= THREE_BYTES && !Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (c >= TWO_BYTES) {
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+}
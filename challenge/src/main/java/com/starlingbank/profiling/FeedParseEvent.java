@@ -0,0 +1,51 @@
+package com.starlingbank.profiling;
+
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event of the decoding of the feed of an account into its transactions.
+ * @author Cesar Goncalves
+ */
+@Name(FeedParseEvent.NAME)
+@Label("Feed Parse")
+@Category({"Starling Bank", "Round-Up"})
+@Description("The decoding of the feed items of an account")
+@StackTrace(false)
+public final class FeedParseEvent extends Event {
+    /** The name of the event in a recording. */
+    public static final String NAME = "com.starlingbank.FeedParse";
+
+    @Label("Account")
+    private String accountUid;
+
+    @Label("Feed Items")
+    private int feedItems;
+
+    @Label("Feed Size")
+    @DataAmount
+    private long feedBytes;
+
+    /**
+     * Ends the decoding and commits the event if the recording takes it.
+     * @param account The account of the feed.
+     * @param items The number of feed items decoded.
+     * @param feed The feed decoded.
+     */
+    public void commit(UUID account, int items, String feed) {
+        end();
+        if (shouldCommit()) {
+            accountUid = account.toString();
+            feedItems = items;
+            feedBytes = feed.length();
+            commit();
+        }
+    }
+}
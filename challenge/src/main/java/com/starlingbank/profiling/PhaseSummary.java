@@ -0,0 +1,154 @@
+package com.starlingbank.profiling;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * The events of a phase of the round-up in a recording: how many there were, how long they took, the domain total
+ * of the phase, e.g. the feed items parsed, and the keys of the phase, e.g. endpoints or accounts, taking the most
+ * time, written as rows of the hotspot report of a RecordingAnalyser.
+ * @author Cesar Goncalves
+ */
+public final class PhaseSummary {
+    private static final String ROW_FORMAT = "%-44s %8s %12s %10s %10s %10s %s%n";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double PERCENTILE = 0.99;
+    private static final int INITIAL_DURATIONS = 1024;
+
+    private final String phase;
+    private final String eventName;
+    // The field the hotspots are keyed by, null if the phase has none
+    private final String keyField;
+    // The field summed into the domain total, and how the total is labelled
+    private final String totalField;
+    private final String totalLabel;
+    // The duration of every event, in nanoseconds, sorted once the recording is read
+    private long[] durations = new long[INITIAL_DURATIONS];
+    private int count;
+    private long totalNanos;
+    private long total;
+    private final Map<String, Long> nanosByKey = new HashMap<>();
+    private final Map<String, Integer> countByKey = new HashMap<>();
+
+    private PhaseSummary(String phase, String eventName, String keyField, String totalField, String totalLabel) {
+        this.phase = phase;
+        this.eventName = eventName;
+        this.keyField = keyField;
+        this.totalField = totalField;
+        this.totalLabel = totalLabel;
+    }
+
+    /**
+     * Creates empty summaries of the phases of the round-up, in the order they happen.
+     * @return The summaries.
+     */
+    static List<PhaseSummary> ofRoundUp() {
+        return List.of(
+            new PhaseSummary("API calls", ApiCallEvent.NAME, "endpoint", "responseBytes", "response bytes"),
+            new PhaseSummary("Feed parses", FeedParseEvent.NAME, "accountUid", "feedItems", "feed items"),
+            new PhaseSummary("Round-ups", RoundUpEvent.NAME, null, "roundUpMinorUnits", "round-up minor units"),
+            new PhaseSummary("Transfers", TransferEvent.NAME, "accountUid", "minorUnits", "minor units"));
+    }
+
+    /**
+     * Writes the header of the rows of the summaries.
+     * @param out Where the header is written.
+     * @throws IOException If the header cannot be written.
+     */
+    static void writeHeader(Appendable out) throws IOException {
+        out.append(String.format(Locale.UK, ROW_FORMAT, "Phase / hotspot", "Events", "Total ms", "Mean ms", "p99 ms",
+            "Max ms", "Total"));
+    }
+
+    /**
+     * Adds an event to the summary if it belongs to the phase.
+     * @param event The event.
+     * @return true if the event belongs to the phase.
+     */
+    boolean add(RecordedEvent event) {
+        if (!eventName.equals(event.getEventType().getName())) {
+            return false;
+        }
+        long nanos = event.getDuration().toNanos();
+        if (count == durations.length) {
+            durations = Arrays.copyOf(durations, count * 2);
+        }
+        durations[count++] = nanos;
+        totalNanos += nanos;
+        total += event.getLong(totalField);
+        String key = keyField == null ? null : event.getString(keyField);
+        if (key != null) {
+            nanosByKey.merge(key, nanos, Long::sum);
+            countByKey.merge(key, 1, Integer::sum);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the name of the phase.
+     * @return The name.
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the number of events of the phase.
+     * @return The number of events.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the domain total of the phase, e.g. the feed items parsed or the round-up in minor units.
+     * @return The total.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the keys of the phase taking the most time, the slowest first.
+     * @param limit The maximum number of keys returned.
+     * @return The keys.
+     */
+    public List<String> hotspots(int limit) {
+        List<String> keys = new ArrayList<>(nanosByKey.keySet());
+        keys.sort((first, second) -> Long.compare(nanosByKey.get(second), nanosByKey.get(first)));
+        return keys.subList(0, Math.min(limit, keys.size()));
+    }
+
+    /**
+     * Writes the row of the phase, followed by the rows of its hotspots.
+     * @param out Where the rows are written.
+     * @param hotspots The maximum number of hotspots written.
+     * @throws IOException If the rows cannot be written.
+     */
+    void writeRows(Appendable out, int hotspots) throws IOException {
+        Arrays.sort(durations, 0, count);
+        out.append(String.format(Locale.UK, ROW_FORMAT, phase, count, millis(totalNanos),
+            millis(count == 0 ? 0 : totalNanos / count), millis(percentileNanos()),
+            millis(count == 0 ? 0 : durations[count - 1]), total + " " + totalLabel));
+        for (String key : hotspots(hotspots)) {
+            out.append(String.format(Locale.UK, ROW_FORMAT, "  " + key, countByKey.get(key),
+                millis(nanosByKey.get(key)), "", "", "", ""));
+        }
+    }
+
+    // The duration of the events at the percentile, with the durations sorted
+    private long percentileNanos() {
+        return count == 0 ? 0 : durations[(int) Math.ceil(PERCENTILE * count) - 1];
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.UK, "%.1f", nanos / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,74 @@
+package com.starlingbank.profiling;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarises a Flight Recorder recording of the round-up, made with the jfr/starling.jfc configuration, into a
+ * hotspot report per phase: the API calls, feed parses, round-ups and transfers, each with its number of events,
+ * total, mean, 99th percentile and maximum durations and domain total, followed by the endpoints or accounts
+ * taking the most time. Run it with the recording as the only argument.
+ * @author Cesar Goncalves
+ */
+public final class RecordingAnalyser {
+    // The number of hotspots reported per phase
+    private static final int HOTSPOTS = 5;
+
+    private RecordingAnalyser() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Writes the hotspot report of a recording to the standard output.
+     * @param args The path of the recording.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: RecordingAnalyser <recording.jfr>");
+            return;
+        }
+        writeReport(analyse(Path.of(args[0])), System.out);
+    }
+
+    /**
+     * Reads the events of the round-up of a recording, ignoring the other events.
+     * @param recording The recording.
+     * @return The summary of each phase, in the order the phases happen.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static List<PhaseSummary> analyse(Path recording) throws IOException {
+        List<PhaseSummary> phases = PhaseSummary.ofRoundUp();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                addToPhase(phases, file.readEvent());
+            }
+        }
+        return phases;
+    }
+
+    /**
+     * Writes the hotspot report of the phases, one row per phase followed by a row per hotspot.
+     * @param phases The summary of each phase.
+     * @param out Where the report is written.
+     * @throws IOException If the report cannot be written.
+     */
+    public static void writeReport(List<PhaseSummary> phases, Appendable out) throws IOException {
+        PhaseSummary.writeHeader(out);
+        for (PhaseSummary phase : phases) {
+            phase.writeRows(out, HOTSPOTS);
+        }
+    }
+
+    private static void addToPhase(List<PhaseSummary> phases, RecordedEvent event) {
+        for (PhaseSummary phase : phases) {
+            if (phase.add(event)) {
+                return;
+            }
+        }
+    }
+}
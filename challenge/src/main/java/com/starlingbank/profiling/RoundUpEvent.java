@@ -0,0 +1,48 @@
+package com.starlingbank.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event of the calculation of the round-up of a batch of transactions.
+ * @author Cesar Goncalves
+ */
+@Name(RoundUpEvent.NAME)
+@Label("Round-Up")
+@Category({"Starling Bank", "Round-Up"})
+@Description("The calculation of the round-up of a batch of transactions")
+@StackTrace(false)
+public final class RoundUpEvent extends Event {
+    /** The name of the event in a recording. */
+    public static final String NAME = "com.starlingbank.RoundUp";
+
+    @Label("Transactions")
+    private int transactions;
+
+    @Label("Rounded Up")
+    @Description("The transactions rounded up for the first time")
+    private int roundedUp;
+
+    @Label("Round-Up Minor Units")
+    private long roundUpMinorUnits;
+
+    /**
+     * Ends the calculation and commits the event if the recording takes it.
+     * @param batch The number of transactions of the batch.
+     * @param counted The number of transactions rounded up for the first time.
+     * @param total The round-up of the batch in minor units.
+     */
+    public void commit(int batch, int counted, long total) {
+        end();
+        if (shouldCommit()) {
+            transactions = batch;
+            roundedUp = counted;
+            roundUpMinorUnits = total;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.starlingbank.profiling;
+
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event of the transfer of a round-up into a savings goal, once it has a transfer permit.
+ * @author Cesar Goncalves
+ */
+@Name(TransferEvent.NAME)
+@Label("Savings Goal Transfer")
+@Category({"Starling Bank", "Round-Up"})
+@Description("The transfer of a round-up into a savings goal")
+@StackTrace(false)
+public final class TransferEvent extends Event {
+    /** The name of the event in a recording. */
+    public static final String NAME = "com.starlingbank.Transfer";
+
+    @Label("Account")
+    private String accountUid;
+
+    @Label("Savings Goal")
+    private String savingsGoalUid;
+
+    @Label("Minor Units")
+    private long minorUnits;
+
+    @Label("Successful")
+    private boolean successful;
+
+    /**
+     * Ends the transfer and commits the event if the recording takes it.
+     * @param account The account the money is transferred from.
+     * @param savingsGoal The savings goal the money is transferred into.
+     * @param amount The amount transferred, in minor units.
+     * @param transferred Whether the transfer succeeded.
+     */
+    public void commit(UUID account, UUID savingsGoal, long amount, boolean transferred) {
+        end();
+        if (shouldCommit()) {
+            // Formatted only when the recording takes the event
+            accountUid = account.toString();
+            savingsGoalUid = savingsGoal.toString();
+            minorUnits = amount;
+            successful = transferred;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.starlingbank.report;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes the rows of a report as comma-separated values (RFC 4180). A text holding a comma, a quote or a line
+ * break is quoted, its quotes doubled; an unknown text is left empty.
+ * @author Cesar Goncalves
+ */
+final class CsvRowEncoder implements RowEncoder {
+    private static final String CRLF = "\r\n";
+
+    // The row being encoded, reused for every row
+    private final StringBuilder row = new StringBuilder();
+
+    @Override
+    public void writeHeader(ReportLevel level, ReportChannel out) throws IOException {
+        if (!out.isEmpty()) {
+            return; // Appended to a report that already has its header
+        }
+        row.setLength(0);
+        appendNames(level.getTextColumns());
+        appendNames(level.getNumberColumns());
+        endRow(out);
+    }
+
+    @Override
+    public void writeRow(ReportLevel level, String[] texts, long[] numbers, ReportChannel out) throws IOException {
+        row.setLength(0);
+        for (String text : texts) {
+            appendText(text);
+        }
+        for (long number : numbers) {
+            separate().append(number);
+        }
+        endRow(out);
+    }
+
+    private void appendNames(List<String> names) {
+        for (String name : names) {
+            separate().append(name);
+        }
+    }
+
+    private void appendText(String text) {
+        separate();
+        if (text == null || !needsQuotes(text)) {
+            row.append(text == null ? "" : text);
+            return;
+        }
+        row.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    private static boolean needsQuotes(String text) {
+        return text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+    }
+
+    // Appends the comma separating a value from the previous one
+    private StringBuilder separate() {
+        return row.isEmpty() ? row : row.append(',');
+    }
+
+    private void endRow(ReportChannel out) throws IOException {
+        out.write(row.append(CRLF));
+    }
+}
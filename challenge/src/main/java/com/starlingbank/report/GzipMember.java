@@ -0,0 +1,96 @@
+package com.starlingbank.report;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a report into a gzip member (RFC 1952): a fixed header, the raw deflate stream and a trailer holding
+ * the CRC-32 and the length of the uncompressed bytes. The Deflater reads from and writes to direct buffers, so the
+ * rows are compressed without being copied to the heap.
+ * @author Cesar Goncalves
+ */
+final class GzipMember {
+    // Magic number, deflate method, no flags, no modification time, no extra flags and an unknown OS
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int TRAILER_BYTES = 8;
+    private static final byte[] NO_INPUT = new byte[0];
+
+    // Raw deflate, as the gzip header and trailer are written here, at the fastest level: the rows are repetitive
+    // enough to compress well anyway, and the export keeps up with the disk
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private final CRC32 crc = new CRC32();
+    // Compressed bytes not written yet
+    private final ByteBuffer compressed;
+
+    /**
+     * Constructor for GzipMember.
+     * @param bufferBytes The size of the buffer of the compressed bytes.
+     */
+    GzipMember(int bufferBytes) {
+        this.compressed = ByteBuffer.allocateDirect(bufferBytes);
+    }
+
+    /**
+     * Returns the header starting every member.
+     * @return The header, ready to be written.
+     */
+    static ByteBuffer header() {
+        return ByteBuffer.wrap(HEADER).asReadOnlyBuffer();
+    }
+
+    /**
+     * Compresses bytes, writing the compressed bytes as they come out of the Deflater.
+     * @param input The bytes, all of them consumed.
+     * @param sink Writes the compressed bytes.
+     * @throws IOException If the compressed bytes cannot be written.
+     */
+    void deflate(ByteBuffer input, Sink sink) throws IOException {
+        crc.update(input.duplicate());
+        deflater.setInput(input);
+        while (!deflater.needsInput()) {
+            writeCompressed(sink);
+        }
+        // The Deflater keeps reading the buffer it was given, which the caller refills once it is consumed
+        deflater.setInput(NO_INPUT);
+    }
+
+    /**
+     * Ends the deflate stream and writes the trailer of the member.
+     * @param sink Writes the compressed bytes and the trailer.
+     * @throws IOException If they cannot be written.
+     */
+    void finish(Sink sink) throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            writeCompressed(sink);
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        // Both fields are modulo 2^32
+        trailer.putInt((int) crc.getValue()).putInt((int) deflater.getBytesRead()).flip();
+        deflater.end();
+        sink.write(trailer);
+    }
+
+    private void writeCompressed(Sink sink) throws IOException {
+        compressed.clear();
+        deflater.deflate(compressed);
+        compressed.flip();
+        sink.write(compressed);
+    }
+
+    /**
+     * Writes the bytes of a member.
+     */
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * Writes all the remaining bytes of a buffer.
+         * @param bytes The bytes.
+         * @throws IOException If they cannot be written.
+         */
+        void write(ByteBuffer bytes) throws IOException;
+    }
+}
@@ -0,0 +1,41 @@
+package com.starlingbank.report;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.starlingbank.util.JsonBodyWriter;
+
+/**
+ * Encodes the rows of a report as JSON Lines: one object per line, its members named after the columns. An unknown
+ * text is left out of its object.
+ * @author Cesar Goncalves
+ */
+final class JsonLinesRowEncoder implements RowEncoder {
+    private static final byte[] NEWLINE = {'\n'};
+
+    // The object being encoded, reused for every row
+    private final JsonBodyWriter writer = new JsonBodyWriter();
+
+    @Override
+    public void writeHeader(ReportLevel level, ReportChannel out) {
+        // Every line names its members
+    }
+
+    @Override
+    public void writeRow(ReportLevel level, String[] texts, long[] numbers, ReportChannel out) throws IOException {
+        writer.reset().beginObject();
+        List<String> textColumns = level.getTextColumns();
+        for (int column = 0; column < texts.length; column++) {
+            if (texts[column] != null) {
+                writer.name(textColumns.get(column)).value(texts[column]);
+            }
+        }
+        List<String> numberColumns = level.getNumberColumns();
+        for (int column = 0; column < numbers.length; column++) {
+            writer.name(numberColumns.get(column)).value(numbers[column]);
+        }
+        writer.endObject();
+        out.write(writer.buffer(), writer.size());
+        out.write(NEWLINE, NEWLINE.length);
+    }
+}
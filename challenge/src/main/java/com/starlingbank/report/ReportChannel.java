@@ -0,0 +1,157 @@
+package com.starlingbank.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The file a report is written to, through a direct buffer reused for every row.
+ * The rows are encoded as UTF-8 into the buffer, which is written to the channel whenever it is full, so a report
+ * of any size is written with the same two buffers. A gzipped report deflates each full buffer into a second direct
+ * buffer before writing it, and is framed as gzip members: each sync ends the member written so far, so the file
+ * up to the length it returns is a complete gzip file, and a report reopened at that length appends a new member.
+ * @author Cesar Goncalves
+ */
+final class ReportChannel implements Closeable {
+    private static final int BUFFER_BYTES = 65_536;
+    private static final int INITIAL_TEXT_CHARS = 256;
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+
+    private final FileChannel channel;
+    // Rows encoded and not written yet
+    private final ByteBuffer rows = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    // Text to encode, copied here as wrapping each row in a CharBuffer would allocate
+    private CharBuffer chars = CharBuffer.allocate(INITIAL_TEXT_CHARS);
+    // The text encoded, on the heap as the encoder is much faster between arrays, then copied to the rows in bulk
+    private ByteBuffer encoded = ByteBuffer.allocate(INITIAL_TEXT_CHARS * MAX_UTF8_BYTES_PER_CHAR);
+    private final boolean gzipped;
+    // Compresses the rows of the current member of a gzipped report, null for a plain report
+    private GzipMember gzip;
+    // Whether the file held no report before this one was opened
+    private final boolean empty;
+
+    private ReportChannel(FileChannel channel, boolean gzipped) throws IOException {
+        this.channel = channel;
+        this.gzipped = gzipped;
+        this.empty = channel.size() == 0;
+    }
+
+    /**
+     * Opens the file of a report.
+     * @param file The file.
+     * @param gzip Whether the report is gzipped.
+     * @param keptBytes The length of the file kept and appended to, as returned by a sync, or 0 to replace the file.
+     * Anything written after that length, e.g. by a run that crashed before its next sync, is discarded.
+     * @return The channel, which must be closed for the report to be complete.
+     * @throws IOException If the file cannot be opened.
+     */
+    static ReportChannel open(Path file, boolean gzip, long keptBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(keptBytes).position(channel.size());
+        ReportChannel report = new ReportChannel(channel, gzip);
+        report.startMember();
+        return report;
+    }
+
+    /**
+     * Checks whether the file held nothing before the report was opened, so the report starts with its header.
+     * @return true if the file was empty.
+     */
+    boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Writes bytes to the report.
+     * @param bytes The bytes.
+     * @param length The number of bytes written, from the start of the array.
+     * @throws IOException If the buffer is full and cannot be written.
+     */
+    void write(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!rows.hasRemaining()) {
+                drain();
+            }
+            int chunk = Math.min(rows.remaining(), length - offset);
+            rows.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    /**
+     * Writes text to the report, encoded as UTF-8.
+     * @param text The text.
+     * @throws IOException If the buffer is full and cannot be written.
+     */
+    void write(StringBuilder text) throws IOException {
+        if (text.length() > chars.capacity()) {
+            chars = CharBuffer.allocate(Math.max(text.length(), chars.capacity() * 2));
+            encoded = ByteBuffer.allocate(chars.capacity() * MAX_UTF8_BYTES_PER_CHAR);
+        }
+        chars.clear().limit(text.length());
+        text.getChars(0, text.length(), chars.array(), 0);
+        encoded.clear();
+        encoder.encode(chars, encoded, true);
+        write(encoded.array(), encoded.position());
+    }
+
+    /**
+     * Writes the rows buffered, ends the gzip member if the report is gzipped, and forces the file to disk, so the
+     * report written so far survives a crash.
+     * @return The length of the file synced, which a report reopened at that length continues.
+     * @throws IOException If the rows cannot be written or the file cannot be forced to disk.
+     */
+    long sync() throws IOException {
+        drain();
+        if (gzip != null) {
+            gzip.finish(this::writeFully);
+        }
+        channel.force(true);
+        long synced = channel.position();
+        startMember();
+        return synced;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            drain();
+            if (gzip != null) {
+                gzip.finish(this::writeFully);
+            }
+        }
+    }
+
+    // Starts a new gzip member if the report is gzipped, as the Deflater of a member is ended with it
+    private void startMember() throws IOException {
+        if (gzipped) {
+            gzip = new GzipMember(BUFFER_BYTES);
+            writeFully(GzipMember.header());
+        }
+    }
+
+    // Writes the rows buffered, compressed if the report is gzipped, and empties the buffer
+    private void drain() throws IOException {
+        rows.flip();
+        if (gzip == null) {
+            writeFully(rows);
+        } else {
+            gzip.deflate(rows, this::writeFully);
+        }
+        rows.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.starlingbank.report;
+
+import java.util.function.Supplier;
+
+/**
+ * The file formats of a round-up report.
+ * @author Cesar Goncalves
+ */
+public enum ReportFormat {
+    /** Comma-separated values (RFC 4180), starting with a header row. */
+    CSV(CsvRowEncoder::new),
+    /** JSON Lines: one JSON object per row, its members named after the columns. */
+    JSON_LINES(JsonLinesRowEncoder::new);
+
+    private final Supplier<RowEncoder> encoders;
+
+    ReportFormat(Supplier<RowEncoder> encoders) {
+        this.encoders = encoders;
+    }
+
+    /**
+     * Creates an encoder of the rows in this format.
+     * @return The encoder, reusing its buffers for every row.
+     */
+    RowEncoder newEncoder() {
+        return encoders.get();
+    }
+}
@@ -0,0 +1,42 @@
+package com.starlingbank.report;
+
+import java.util.List;
+
+/**
+ * The rows of a round-up report: one per transaction, or the totals of each day or of each account.
+ * The text columns of a row come before its number columns.
+ * @author Cesar Goncalves
+ */
+public enum ReportLevel {
+    /** One row per transaction, with its round-up. */
+    TRANSACTION(List.of("accountUid", "feedItemUid", "transactionTime", "source"),
+        List.of("minorUnits", "roundUpMinorUnits")),
+    /** One row per account and UTC day, with the totals of its transactions. */
+    DAY(List.of("accountUid", "day"), List.of("transactions", "minorUnits", "roundUpMinorUnits")),
+    /** One row per account, with the totals of its transactions. */
+    ACCOUNT(List.of("accountUid"), List.of("transactions", "minorUnits", "roundUpMinorUnits"));
+
+    private final List<String> textColumns;
+    private final List<String> numberColumns;
+
+    ReportLevel(List<String> textColumns, List<String> numberColumns) {
+        this.textColumns = textColumns;
+        this.numberColumns = numberColumns;
+    }
+
+    /**
+     * Returns the names of the text columns of the rows.
+     * @return The names, in the order of the columns.
+     */
+    List<String> getTextColumns() {
+        return textColumns;
+    }
+
+    /**
+     * Returns the names of the number columns of the rows, which follow the text columns.
+     * @return The names, in the order of the columns.
+     */
+    List<String> getNumberColumns() {
+        return numberColumns;
+    }
+}
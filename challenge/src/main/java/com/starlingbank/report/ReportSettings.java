@@ -0,0 +1,90 @@
+package com.starlingbank.report;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The settings of a round-up report: STARLING_REPORT_FILE names the file, gzipped if its name ends with .gz,
+ * STARLING_REPORT_FORMAT is csv (the default) or json-lines, and STARLING_REPORT_LEVEL is transaction (the default),
+ * day or account.
+ * @author Cesar Goncalves
+ */
+public final class ReportSettings {
+    /** The environment variable naming the file of the report. */
+    public static final String REPORT_FILE = "STARLING_REPORT_FILE";
+    /** The environment variable holding the format of the report. */
+    public static final String REPORT_FORMAT = "STARLING_REPORT_FORMAT";
+    /** The environment variable holding the level of the rows of the report. */
+    public static final String REPORT_LEVEL = "STARLING_REPORT_LEVEL";
+
+    private static final String GZIP_EXTENSION = ".gz";
+
+    private final Path file;
+    private final ReportFormat format;
+    private final ReportLevel level;
+
+    /**
+     * Constructor for ReportSettings.
+     * @param file The file of the report, gzipped if its name ends with .gz.
+     * @param format The format of the report.
+     * @param level The level of the rows of the report.
+     */
+    public ReportSettings(Path file, ReportFormat format, ReportLevel level) {
+        this.file = file;
+        this.format = format;
+        this.level = level;
+    }
+
+    /**
+     * Reads the settings of the report from the environment.
+     * @param environment The environment variables.
+     * @return The settings, or null if no report is configured.
+     * @throws IllegalArgumentException If the format or the level is unknown.
+     */
+    public static ReportSettings fromEnvironment(Map<String, String> environment) {
+        if (!environment.containsKey(REPORT_FILE)) {
+            return null;
+        }
+        return new ReportSettings(Path.of(environment.get(REPORT_FILE)),
+            ReportFormat.valueOf(constantName(environment.getOrDefault(REPORT_FORMAT, "csv"))),
+            ReportLevel.valueOf(constantName(environment.getOrDefault(REPORT_LEVEL, "transaction"))));
+    }
+
+    // Turns e.g. json-lines into JSON_LINES
+    private static String constantName(String name) {
+        return name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+    }
+
+    /**
+     * Returns the file of the report.
+     * @return The file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Checks whether the report is gzipped, as its file name ends with .gz.
+     * @return true if the report is gzipped.
+     */
+    public boolean isGzipped() {
+        return file.getFileName().toString().endsWith(GZIP_EXTENSION);
+    }
+
+    /**
+     * Returns the format of the report.
+     * @return The format.
+     */
+    public ReportFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the level of the rows of the report.
+     * @return The level.
+     */
+    public ReportLevel getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,154 @@
+package com.starlingbank.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * An auditable report of the round-ups, exported as the transactions are fetched.
+ * Each batch of transactions is written as it arrives, one row per transaction or per day, straight into the
+ * reusable buffers of a ReportChannel, so the heap holds one batch whatever the size of the report. The account
+ * rows are written when the report is closed. A sync forces the rows written so far to disk and returns the length
+ * of the file they fill, at which a report can be reopened to continue it. The round-up of a transaction is
+ * reported whether or not an earlier run already counted it.
+ * @author Cesar Goncalves
+ */
+public final class RoundUpReport implements Closeable {
+    private static final int ACCOUNT_COLUMN = 0;
+    private static final int FEED_ITEM_COLUMN = 1;
+    private static final int DAY_COLUMN = 1;
+    private static final int TIME_COLUMN = 2;
+    private static final int SOURCE_COLUMN = 3;
+    // The length of the date of an ISO-8601 timestamp, e.g. 2024-01-15
+    private static final int DATE_LENGTH = 10;
+    private static final String UNKNOWN_DAY = "unknown";
+
+    private final ReportChannel out;
+    private final RowEncoder encoder;
+    private final ReportLevel level;
+    private final RoundUpCalculator calculator;
+    // The columns of the row being written, reused for every row
+    private final String[] texts;
+    private final long[] numbers;
+    // The totals of each account, in the order the accounts were first written
+    private final Map<UUID, RowTotals> accountTotals = new LinkedHashMap<>();
+
+    private RoundUpReport(ReportChannel out, ReportSettings settings, RoundUpCalculator calculator) {
+        this.out = out;
+        this.encoder = settings.getFormat().newEncoder();
+        this.level = settings.getLevel();
+        this.calculator = calculator;
+        this.texts = new String[level.getTextColumns().size()];
+        this.numbers = new long[level.getNumberColumns().size()];
+    }
+
+    /**
+     * Opens a report.
+     * @param settings The file, format and level of the report, or null if no report is configured.
+     * @param calculator Calculator of the round-up of each transaction.
+     * @param keptBytes The length of the report in the file to continue, as returned by a sync, e.g. for a resumed
+     * backfill, or 0 to replace it. Anything written after that length is discarded.
+     * @return The report, which must be closed for the file to be complete, or null if no report is configured.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static RoundUpReport open(ReportSettings settings, RoundUpCalculator calculator, long keptBytes)
+        throws IOException {
+        if (settings == null) {
+            return null;
+        }
+        RoundUpReport report = new RoundUpReport(ReportChannel.open(settings.getFile(), settings.isGzipped(),
+            keptBytes), settings, calculator);
+        report.encoder.writeHeader(report.level, report.out);
+        return report;
+    }
+
+    /**
+     * Writes the rows of a batch of transactions of an account. For the day rows, a batch must hold every
+     * transaction of the days it covers.
+     * @param account The account of the transactions.
+     * @param transactions The transactions.
+     * @throws IOException If the rows cannot be written.
+     */
+    public synchronized void write(Account account, List<Transaction> transactions) throws IOException {
+        // The identifier of the account is formatted once, when its totals are created
+        RowTotals totals = accountTotals.computeIfAbsent(account.getAccountUid(), uid -> new RowTotals(uid.toString()));
+        Map<String, RowTotals> dayTotals = new TreeMap<>();
+        texts[ACCOUNT_COLUMN] = totals.getKey();
+        for (Transaction transaction : transactions) {
+            long roundUp = roundUpOf(transaction);
+            totals.add(transaction.getMinorUnits(), roundUp);
+            if (level == ReportLevel.TRANSACTION) {
+                writeTransaction(transaction, roundUp);
+            } else if (level == ReportLevel.DAY) {
+                dayTotals.computeIfAbsent(dayOf(transaction), RowTotals::new).add(transaction.getMinorUnits(), roundUp);
+            }
+        }
+        // Empty unless the report has day rows
+        writeDays(dayTotals);
+    }
+
+    /**
+     * Forces the rows written so far to disk, so they survive a crash. The account rows are written on close only.
+     * @return The length of the file synced, at which the report can be reopened to continue it.
+     * @throws IOException If the rows cannot be written or the file cannot be forced to disk.
+     */
+    public synchronized long sync() throws IOException {
+        return out.sync();
+    }
+
+    /**
+     * Writes the account rows, if the report has them, and completes the file.
+     * @throws IOException If the rows cannot be written or the file cannot be completed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try (out) {
+            if (level == ReportLevel.ACCOUNT) {
+                for (RowTotals totals : accountTotals.values()) {
+                    texts[ACCOUNT_COLUMN] = totals.getKey();
+                    writeTotals(totals);
+                }
+            }
+        }
+    }
+
+    private long roundUpOf(Transaction transaction) {
+        return calculator.isRoundedUp(transaction) ? calculator.calculateRoundUpForTransaction(transaction) : 0;
+    }
+
+    // The UTC day of a transaction, as the timestamps of the API are in UTC
+    private static String dayOf(Transaction transaction) {
+        String time = transaction.getTransactionTime();
+        return time == null ? UNKNOWN_DAY : time.substring(0, DATE_LENGTH);
+    }
+
+    private void writeTransaction(Transaction transaction, long roundUp) throws IOException {
+        texts[FEED_ITEM_COLUMN] = Objects.toString(transaction.getFeedItemUid(), null);
+        texts[TIME_COLUMN] = transaction.getTransactionTime();
+        texts[SOURCE_COLUMN] = transaction.getSource();
+        numbers[0] = transaction.getMinorUnits();
+        numbers[1] = roundUp;
+        encoder.writeRow(level, texts, numbers, out);
+    }
+
+    private void writeDays(Map<String, RowTotals> dayTotals) throws IOException {
+        for (RowTotals totals : dayTotals.values()) {
+            texts[DAY_COLUMN] = totals.getKey();
+            writeTotals(totals);
+        }
+    }
+
+    private void writeTotals(RowTotals totals) throws IOException {
+        totals.copyTo(numbers);
+        encoder.writeRow(level, texts, numbers, out);
+    }
+}
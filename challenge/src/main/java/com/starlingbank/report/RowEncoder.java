@@ -0,0 +1,28 @@
+package com.starlingbank.report;
+
+import java.io.IOException;
+
+/**
+ * Encodes the rows of a report in a file format. An encoder reuses its buffers and is not thread-safe.
+ * @author Cesar Goncalves
+ */
+interface RowEncoder {
+
+    /**
+     * Writes what starts a report, if the format has a header.
+     * @param level The level of the rows, naming the columns.
+     * @param out The report.
+     * @throws IOException If the header cannot be written.
+     */
+    void writeHeader(ReportLevel level, ReportChannel out) throws IOException;
+
+    /**
+     * Writes a row.
+     * @param level The level of the row, naming the columns.
+     * @param texts The values of the text columns, null when unknown.
+     * @param numbers The values of the number columns.
+     * @param out The report.
+     * @throws IOException If the row cannot be written.
+     */
+    void writeRow(ReportLevel level, String[] texts, long[] numbers, ReportChannel out) throws IOException;
+}
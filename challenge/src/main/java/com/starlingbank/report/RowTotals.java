@@ -0,0 +1,50 @@
+package com.starlingbank.report;
+
+/**
+ * The totals of the transactions of a day or of an account.
+ * @author Cesar Goncalves
+ */
+final class RowTotals {
+    // The day or the account the totals are of
+    private final String key;
+    private long transactions;
+    private long minorUnits;
+    private long roundUpMinorUnits;
+
+    /**
+     * Constructor for RowTotals, with no transaction.
+     * @param key The day or the account the totals are of.
+     */
+    RowTotals(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Adds a transaction to the totals.
+     * @param transactionMinorUnits The amount of the transaction in minor units.
+     * @param transactionRoundUp The round-up of the transaction in minor units.
+     */
+    void add(long transactionMinorUnits, long transactionRoundUp) {
+        transactions++;
+        minorUnits = Math.addExact(minorUnits, transactionMinorUnits);
+        roundUpMinorUnits = Math.addExact(roundUpMinorUnits, transactionRoundUp);
+    }
+
+    /**
+     * Returns the day or the account the totals are of.
+     * @return The key.
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Copies the totals into the number columns of a row, in the order of the columns of the levels of totals.
+     * @param numbers The number columns.
+     */
+    void copyTo(long[] numbers) {
+        numbers[0] = transactions;
+        numbers[1] = minorUnits;
+        numbers[2] = roundUpMinorUnits;
+    }
+}
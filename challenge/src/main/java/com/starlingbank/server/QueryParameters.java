@@ -0,0 +1,88 @@
+package com.starlingbank.server;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The parameters of the query string of a request to the RoundUpServer.
+ * A missing or malformed parameter is reported as an IllegalArgumentException, which the server answers with a
+ * 400 naming the parameter.
+ * @author Cesar Goncalves
+ */
+final class QueryParameters {
+    private final Map<String, String> values;
+
+    private QueryParameters(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Parses a query string; of a parameter given several times, the last value is kept.
+     * @param rawQuery The query string, still URL-encoded, or null if the request has none.
+     * @return The parameters.
+     */
+    static QueryParameters parse(String rawQuery) {
+        Map<String, String> values = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    values.put(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+                }
+            }
+        }
+        return new QueryParameters(values);
+    }
+
+    /**
+     * Returns the value of a parameter.
+     * @param name The name of the parameter.
+     * @return The value, never empty.
+     * @throws IllegalArgumentException If the parameter is missing or empty.
+     */
+    String require(String name) {
+        String value = values.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing query parameter " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of a date parameter.
+     * @param name The name of the parameter.
+     * @return The date.
+     * @throws IllegalArgumentException If the parameter is missing or not an ISO-8601 date, e.g. 2024-01-31.
+     */
+    LocalDate requireDate(String name) {
+        try {
+            return LocalDate.parse(require(name));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("The query parameter " + name + " is not a date (YYYY-MM-DD)", e);
+        }
+    }
+
+    /**
+     * Returns the value of a unique identifier parameter, parsed into a UUID.
+     * @param name The name of the parameter.
+     * @return The unique identifier.
+     * @throws IllegalArgumentException If the parameter is missing or not a UUID.
+     */
+    UUID requireUuid(String name) {
+        String value = require(name);
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The query parameter " + name + " is not a UUID", e);
+        }
+    }
+
+    private static String decode(String encoded) {
+        return URLDecoder.decode(encoded, StandardCharsets.UTF_8);
+    }
+}
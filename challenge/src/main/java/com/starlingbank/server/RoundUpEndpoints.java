@@ -0,0 +1,128 @@
+package com.starlingbank.server;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.JsonBodyWriter;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * The operations of the RoundUpServer, over the services shared with the rest of the application.
+ * Both take the account as accountUid and categoryUid, and the range as from, the first day, and to, the day
+ * after the last day. Calculating a round-up has no side effect, so a feed item is counted whether or not an
+ * earlier run counted it; a sweep counts each feed item once, like the command line round-up. The sweeps of an
+ * account run one at a time, so concurrent sweeps do not count the same feed items, and transfer under a
+ * transferUid derived from the feed items swept, so a sweep retried after a failure is not paid twice whatever
+ * transferUid it is given; the transferUid chosen by the caller is used only without a ProcessedItemSet.
+ * @author Cesar Goncalves
+ */
+public class RoundUpEndpoints {
+    private final TransactionService transactionService;
+    private final SavingsGoalService savingsGoalService;
+    // Counts the feed items swept, recorded as processed once transferred if it is given a ProcessedItemSet
+    private final RoundUpCalculator calculator;
+    // The lock of the sweeps of each account; not synchronized, which would pin the virtual thread of the request
+    private final Map<UUID, Lock> sweepLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for RoundUpEndpoints.
+     * @param transactionService Service fetching the transactions of the accounts.
+     * @param savingsGoalService Service transferring the round-ups into the savings goals.
+     * @param calculator Calculator of the round-ups.
+     */
+    public RoundUpEndpoints(TransactionService transactionService, SavingsGoalService savingsGoalService,
+                            RoundUpCalculator calculator) {
+        this.transactionService = transactionService;
+        this.savingsGoalService = savingsGoalService;
+        this.calculator = calculator;
+    }
+
+    /**
+     * Calculates the round-up of an account over a range, without transferring it.
+     * @param query The account and the range.
+     * @param response Writes the round-up and the number of transactions of the range.
+     * @throws IllegalArgumentException If a parameter is missing or invalid.
+     * @throws com.starlingbank.exceptions.ServiceException If the transactions cannot be fetched.
+     */
+    void calculate(QueryParameters query, JsonBodyWriter response) {
+        Account account = accountOf(query);
+        LocalDate from = query.requireDate("from");
+        LocalDate to = endOfRange(query, from);
+        List<Transaction> transactions = transactionService.getTransactions(account, from, to);
+        long roundUp = 0;
+        for (Transaction transaction : transactions) {
+            if (calculator.isRoundedUp(transaction)) {
+                roundUp += calculator.calculateRoundUpForTransaction(transaction);
+            }
+        }
+        response.beginObject()
+            .name("accountUid").value(account.getAccountUid().toString())
+            .name("from").value(from.toString())
+            .name("to").value(to.toString())
+            .name("transactions").value(transactions.size())
+            .name("roundUpMinorUnits").value(roundUp)
+            .endObject();
+    }
+
+    /**
+     * Transfers the round-up of an account over a range into a savings goal.
+     * @param query The account, the range, the savingsGoalUid of the savings goal and the transferUid of the
+     * transfer, the idempotency key of the sweep.
+     * @param response Writes the round-up transferred and the transferUid it was transferred under.
+     * @throws IllegalArgumentException If a parameter is missing or invalid.
+     * @throws com.starlingbank.exceptions.ServiceException If the transactions cannot be fetched or the round-up
+     * cannot be transferred.
+     * @throws java.io.UncheckedIOException If the feed items swept cannot be recorded as processed.
+     */
+    void sweep(QueryParameters query, JsonBodyWriter response) {
+        Account account = accountOf(query);
+        UUID savingsGoalUid = query.requireUuid("savingsGoalUid");
+        UUID transferUid = query.requireUuid("transferUid");
+        LocalDate from = query.requireDate("from");
+        LocalDate to = endOfRange(query, from);
+        Lock sweepLock = sweepLocks.computeIfAbsent(account.getAccountUid(), uid -> new ReentrantLock());
+        sweepLock.lock();
+        try {
+            PendingRoundUp roundUp = calculator.calculatePendingRoundUp(transactionService.getTransactions(account,
+                from, to));
+            UUID sweptUid = roundUp.transferUid(savingsGoalUid, transferUid);
+            if (roundUp.getMinorUnits() > 0) {
+                savingsGoalService.addMoneyToSavingsGoal(account.getAccountUid(), savingsGoalUid,
+                    new Amount(roundUp.getMinorUnits(), CurrencyUnit.GBP), sweptUid);
+                roundUp.markProcessed();
+            }
+            response.beginObject()
+                .name("accountUid").value(account.getAccountUid().toString())
+                .name("savingsGoalUid").value(savingsGoalUid.toString())
+                .name("transferUid").value(sweptUid.toString())
+                .name("transferredMinorUnits").value(roundUp.getMinorUnits())
+                .endObject();
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private static Account accountOf(QueryParameters query) {
+        return new Account(query.requireUuid("accountUid"), query.requireUuid("categoryUid"));
+    }
+
+    private static LocalDate endOfRange(QueryParameters query, LocalDate from) {
+        LocalDate to = query.requireDate("to");
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("The query parameter from must be before to");
+        }
+        return to;
+    }
+}
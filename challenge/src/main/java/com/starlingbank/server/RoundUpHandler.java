@@ -0,0 +1,131 @@
+package com.starlingbank.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.logging.Level;
+
+import com.starlingbank.api.Deadline;
+import com.starlingbank.exceptions.DeadlineExceededException;
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.util.JsonBodyWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Serves an operation of the RoundUpServer: the query string is handed to the operation, which writes the JSON
+ * response, under the deadline of the request. A request without the bearer token of the server is answered with a
+ * 401, an invalid request with a 400, a failure of the API with a 502, or a 504 if the deadline passed first, and a
+ * failure to record the outcome locally with a 500; the errors are JSON objects with an error member.
+ * @author Cesar Goncalves
+ */
+class RoundUpHandler implements HttpHandler {
+    private static final int HTTP_STATUS_OK = 200;
+    private static final int HTTP_STATUS_BAD_REQUEST = 400;
+    private static final int HTTP_STATUS_UNAUTHORIZED = 401;
+    private static final int HTTP_STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int HTTP_STATUS_INTERNAL_SERVER_ERROR = 500;
+    private static final int HTTP_STATUS_BAD_GATEWAY = 502;
+    private static final int HTTP_STATUS_GATEWAY_TIMEOUT = 504;
+    private static final long NO_RESPONSE_BODY = -1;
+
+    // Log of the requests that fail
+    private static final EventLog LOG = EventLog.get();
+
+    private final String method;
+    private final Operation operation;
+    private final Duration requestTimeout;
+    // The Authorization header every request must carry, compared in constant time
+    private final byte[] authorization;
+
+    /**
+     * Constructor for RoundUpHandler.
+     * @param method The HTTP method of the operation.
+     * @param operation The operation.
+     * @param settings The timeout of a request and the token of the callers.
+     */
+    RoundUpHandler(String method, Operation operation, ServerSettings settings) {
+        this.method = method;
+        this.operation = operation;
+        this.requestTimeout = settings.getRequestTimeout();
+        this.authorization = ("Bearer " + settings.getToken()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Deadline.Scope deadline = Deadline.within(requestTimeout);
+        try (exchange) {
+            if (rejected(exchange)) {
+                return;
+            }
+            JsonBodyWriter response = new JsonBodyWriter();
+            int statusCode = respond(QueryParameters.parse(exchange.getRequestURI().getRawQuery()), response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(statusCode, response.size());
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response.buffer(), 0, response.size());
+            }
+        } finally {
+            deadline.close();
+        }
+    }
+
+    // Answers the requests without the token of the server or of another method, returning whether it did
+    private boolean rejected(HttpExchange exchange) throws IOException {
+        if (!isAuthorized(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            exchange.sendResponseHeaders(HTTP_STATUS_UNAUTHORIZED, NO_RESPONSE_BODY);
+            return true;
+        }
+        if (!method.equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(HTTP_STATUS_METHOD_NOT_ALLOWED, NO_RESPONSE_BODY);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isAuthorized(String header) {
+        return header != null && MessageDigest.isEqual(authorization, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Runs the operation, replacing its response by an error if it fails, and returns the status of the response
+    private int respond(QueryParameters query, JsonBodyWriter response) {
+        try {
+            operation.respond(query, response);
+            return HTTP_STATUS_OK;
+        } catch (IllegalArgumentException e) {
+            response.reset().beginObject().name("error").value(e.getMessage()).endObject();
+            return HTTP_STATUS_BAD_REQUEST;
+        } catch (ServiceException e) {
+            LOG.log(LogEvent.of(Level.WARNING, "server", "Cannot serve the request: " + e.getMessage()).thrown(e));
+            response.reset().beginObject().name("error").value(e.getMessage()).endObject();
+            return e.getCause() instanceof DeadlineExceededException ? HTTP_STATUS_GATEWAY_TIMEOUT : HTTP_STATUS_BAD_GATEWAY;
+        } catch (UncheckedIOException e) {
+            LOG.log(LogEvent.of(Level.SEVERE, "server", "Cannot record the outcome of the request: " + e.getMessage())
+                .thrown(e));
+            response.reset().beginObject().name("error").value(e.getMessage()).endObject();
+            return HTTP_STATUS_INTERNAL_SERVER_ERROR;
+        }
+    }
+
+    /**
+     * An operation of the server.
+     */
+    @FunctionalInterface
+    interface Operation {
+        /**
+         * Runs the operation.
+         * @param query The parameters of the request.
+         * @param response Writes the JSON response.
+         * @throws IllegalArgumentException If a parameter is missing or invalid.
+         * @throws ServiceException If the API cannot be called.
+         * @throws UncheckedIOException If the outcome cannot be recorded locally.
+         */
+        void respond(QueryParameters query, JsonBodyWriter response);
+    }
+}
@@ -0,0 +1,69 @@
+package com.starlingbank.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The embedded HTTP service of the round-up, for other systems to round up accounts without running the command
+ * line. GET /round-up calculates the round-up of an account over a range and POST /sweep transfers it into a
+ * savings goal, both through the StarlingClient and services of the application, see RoundUpEndpoints.
+ * Every request is handled on its own virtual thread, under a Deadline of its own: the threads do not inherit the
+ * deadline of the thread starting the server. The server listens on the host of its settings, the loopback address
+ * by default, and answers only the requests bearing its token.
+ * @author Cesar Goncalves
+ */
+public class RoundUpServer implements AutoCloseable {
+    /** The path calculating a round-up. */
+    public static final String ROUND_UP_PATH = "/round-up";
+    /** The path transferring a round-up into a savings goal. */
+    public static final String SWEEP_PATH = "/sweep";
+
+    // The connections queued before being accepted, zero for the system default
+    private static final int BACKLOG = 0;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for RoundUpServer; the server accepts no request before it is started.
+     * @param settings The address to listen on, the timeout of a request and the token of the callers.
+     * @param endpoints The operations served.
+     * @throws IOException If the port cannot be bound.
+     */
+    public RoundUpServer(ServerSettings settings, RoundUpEndpoints endpoints) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(settings.getHost(), settings.getPort()), BACKLOG);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().inheritInheritableThreadLocals(false)
+            .name("round-up-request-", 0).factory());
+        server.setExecutor(executor);
+        server.createContext(ROUND_UP_PATH, new RoundUpHandler("GET", endpoints::calculate, settings));
+        server.createContext(SWEEP_PATH, new RoundUpHandler("POST", endpoints::sweep, settings));
+    }
+
+    /**
+     * Starts accepting the requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting the requests and waits for the ones being handled.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,101 @@
+package com.starlingbank.server;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.starlingbank.api.DeadlineSettings;
+
+/**
+ * The settings of a RoundUpServer, read from the environment: STARLING_SERVER_HOST holds the address to listen on
+ * (the loopback address by default, so the server is not reachable from other hosts unless asked to be),
+ * STARLING_SERVER_PORT the port (8081 by default, next to the webhooks) and STARLING_SERVER_TOKEN the bearer
+ * token the callers must present, as a sweep moves money with the access token of the application. Each request
+ * is served under the account timeout of DeadlineSettings, as a request rounds up a single account.
+ * @author Cesar Goncalves
+ */
+public final class ServerSettings {
+    /** The environment variable holding the port to listen on. */
+    public static final String PORT = "STARLING_SERVER_PORT";
+    /** The environment variable holding the address to listen on. */
+    public static final String HOST = "STARLING_SERVER_HOST";
+    /** The environment variable holding the bearer token of the callers. */
+    public static final String TOKEN = "STARLING_SERVER_TOKEN";
+
+    private static final String DEFAULT_HOST = "127.0.0.1";
+    private static final String DEFAULT_PORT = "8081";
+    private static final int MAX_PORT = 65_535;
+
+    // The address to listen on, a host name or an IP address
+    private final String host;
+    // The port to listen on, 0 for a free one
+    private final int port;
+    // How long a request may take, including every call it makes to the API
+    private final Duration requestTimeout;
+    // The bearer token every request must carry in its Authorization header
+    private final String token;
+
+    /**
+     * Constructor for ServerSettings.
+     * @param host The address to listen on, e.g. 127.0.0.1, or 0.0.0.0 for every interface.
+     * @param port The port to listen on; 0 picks a free port.
+     * @param requestTimeout How long a request may take.
+     * @param token The bearer token of the callers.
+     * @throws IllegalArgumentException If the port is out of range or the token is missing.
+     */
+    public ServerSettings(String host, int port, Duration requestTimeout, String token) {
+        if (port < 0 || port > MAX_PORT) {
+            throw new IllegalArgumentException("The port must be between 0 and " + MAX_PORT);
+        }
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException(TOKEN + " must be set to the bearer token of the callers");
+        }
+        this.host = host;
+        this.port = port;
+        this.requestTimeout = requestTimeout;
+        this.token = token;
+    }
+
+    /**
+     * Reads the settings from the environment.
+     * @param environment The environment variables.
+     * @return The settings.
+     * @throws IllegalArgumentException If a setting is invalid.
+     */
+    public static ServerSettings fromEnvironment(Map<String, String> environment) {
+        return new ServerSettings(environment.getOrDefault(HOST, DEFAULT_HOST).trim(),
+            Integer.parseInt(environment.getOrDefault(PORT, DEFAULT_PORT).trim()),
+            DeadlineSettings.fromEnvironment(environment).getAccountTimeout(), environment.get(TOKEN));
+    }
+
+    /**
+     * Returns the address to listen on.
+     * @return The host name or IP address.
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Returns the port to listen on.
+     * @return The port, 0 for a free port.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Returns how long a request may take, including every call it makes to the API.
+     * @return The timeout of a request.
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Returns the bearer token every request must carry.
+     * @return The token of the callers.
+     */
+    public String getToken() {
+        return token;
+    }
+}
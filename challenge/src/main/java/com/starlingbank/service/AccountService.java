@@ -1,31 +1,34 @@
 package com.starlingbank.service;
 
 import java.io.IOException;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.util.List;
 
 import com.starlingbank.api.StarlingClient;
 import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.exceptions.JsonCodecException;
 import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.json.JsonCodec;
 import com.starlingbank.model.Account;
 
 /**
  * This class provides services related to Account.
- * It uses StarlingClient to communicate with the Starling Bank API.
+ * It uses StarlingClient to communicate with the Starling Bank API, and a JsonCodec to decode its responses.
  * @author Cesar Goncalves
  */
 public class AccountService {
     // StarlingClient instance for API communication
     private final StarlingClient starlingClient;
+    // JsonCodec decoding the API responses
+    private final JsonCodec jsonCodec;
 
     /**
      * Constructor for AccountService.
      * @param starlingClient StarlingClient instance for API communication
+     * @param jsonCodec JsonCodec decoding the API responses
      */
-    public AccountService(StarlingClient starlingClient) {
+    public AccountService(StarlingClient starlingClient, JsonCodec jsonCodec) {
         this.starlingClient = starlingClient;
+        this.jsonCodec = jsonCodec;
     }
 
     /**
@@ -35,22 +38,41 @@ public class AccountService {
      * reading the response, or parsing the response.
      */
     public Account getAccountDetails() {
-        try {
-            String response = starlingClient.getAccountDetails();
-            JSONArray accountsArray = new JSONObject(response).getJSONArray("accounts");
+        return requireAccounts().get(0);
+    }
 
-            if (accountsArray.isEmpty()) {
-                throw new ServiceException("No accounts found");
-            }
+    /**
+     * Retrieves every account the access token gives access to, each with its default category.
+     * @return The accounts, at least one.
+     * @throws ServiceException If there is no account, or if there is an error communicating with the API,
+     * reading the response, or parsing the response.
+     */
+    public List<Account> requireAccounts() {
+        List<Account> accounts = getAccounts();
+
+        if (accounts.isEmpty()) {
+            throw new ServiceException("No accounts found");
+        }
 
-            JSONObject accountJson = accountsArray.getJSONObject(0);
-            return new Account(accountJson.getString("accountUid"), accountJson.getString("defaultCategory"));
+        return accounts;
+    }
+
+    /**
+     * Retrieves every account the access token gives access to from the Starling Bank API.
+     * @return The accounts, possibly empty.
+     * @throws ServiceException If there is an error communicating with the API,
+     * reading the response, or parsing the response.
+     */
+    public List<Account> getAccounts() {
+        try {
+            String response = starlingClient.getAccountDetails();
+            return jsonCodec.decodeAccounts(response);
         } catch (ApiException e) {
             throw new ServiceException("Error communicating with the API", e);
         } catch (IOException e) {
             throw new ServiceException("Error reading the response from the API", e);
-        } catch (JSONException e) {
-            throw new ServiceException("Error parsing the response from the API", e);
+        } catch (JsonCodecException e) {
+            throw new ServiceException("Error parsing the response from the API", e.getParserError());
         }
     }
 }
@@ -0,0 +1,121 @@
+package com.starlingbank.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+
+import com.starlingbank.api.Deadline;
+import com.starlingbank.api.DeadlineSettings;
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.model.Account;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Service class calculating the round-up of several accounts in parallel.
+ * The feed of each account is fetched on a virtual thread, at most maxConcurrentAccounts at a time, so a customer
+ * with several accounts waits for the slowest feed instead of the sum of them. An account whose feed cannot be
+ * fetched is logged and left out, without preventing the round-up of the others, as is an account not rounded up
+ * before its Deadline, which starts once the account gets its permit.
+ * @author Cesar Goncalves
+ */
+public class RoundUpService {
+    // Log of the accounts rounded up and of those that fail
+    private static final EventLog LOG = EventLog.get();
+
+    // Service fetching the transactions of each account
+    private final TransactionService transactionService;
+    // Calculator of the round-up of each account
+    private final RoundUpCalculator calculator;
+    // Limit on the number of feeds fetched at the same time
+    private final Semaphore accountPermits;
+    // How long the round-up of an account may take
+    private final Duration accountTimeout;
+
+    /**
+     * Constructor for RoundUpService, with the default timeout per account.
+     * @param transactionService Service fetching the transactions of each account
+     * @param calculator Calculator of the round-up of each account
+     * @param maxConcurrentAccounts Maximum number of feeds fetched at the same time
+     */
+    public RoundUpService(TransactionService transactionService, RoundUpCalculator calculator,
+                          int maxConcurrentAccounts) {
+        this(transactionService, calculator, maxConcurrentAccounts, DeadlineSettings.DEFAULT_ACCOUNT_TIMEOUT);
+    }
+
+    /**
+     * Constructor for RoundUpService.
+     * @param transactionService Service fetching the transactions of each account
+     * @param calculator Calculator of the round-up of each account
+     * @param maxConcurrentAccounts Maximum number of feeds fetched at the same time
+     * @param accountTimeout How long the round-up of an account may take
+     */
+    public RoundUpService(TransactionService transactionService, RoundUpCalculator calculator,
+                          int maxConcurrentAccounts, Duration accountTimeout) {
+        if (maxConcurrentAccounts <= 0) {
+            throw new IllegalArgumentException("maxConcurrentAccounts must be positive");
+        }
+        this.transactionService = transactionService;
+        this.calculator = calculator;
+        this.accountPermits = new Semaphore(maxConcurrentAccounts);
+        this.accountTimeout = accountTimeout;
+    }
+
+    /**
+     * Calculates the round-up of each account between two dates in parallel and waits for all of them.
+     * @param accounts The accounts, each with the category its feed is fetched from.
+     * @param from The first day of the range.
+     * @param to The day after the last day of the range.
+     * @return The round-up of each account, in the order of the accounts, without the accounts whose feed could not
+     * be fetched. Its feed items are recorded as processed once the caller transfers or accrues it.
+     */
+    public Map<Account, PendingRoundUp> calculateRoundUps(List<Account> accounts, LocalDate from, LocalDate to) {
+        Map<Account, PendingRoundUp> roundUps = new ConcurrentHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Account account : accounts) {
+                executor.execute(() -> calculateRoundUp(account, from, to, roundUps));
+            }
+        }
+        Map<Account, PendingRoundUp> orderedRoundUps = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            if (roundUps.containsKey(account)) {
+                orderedRoundUps.put(account, roundUps.get(account));
+            }
+        }
+        return orderedRoundUps;
+    }
+
+    private void calculateRoundUp(Account account, LocalDate from, LocalDate to,
+                                  Map<Account, PendingRoundUp> roundUps) {
+        try {
+            accountPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // Left out of this run
+        }
+        Deadline.Scope deadline = Deadline.after(accountTimeout).bind();
+        try {
+            long started = System.nanoTime();
+            PendingRoundUp roundUp = calculator.calculatePendingRoundUp(
+                transactionService.getTransactions(account, from, to));
+            roundUps.put(account, roundUp);
+            LOG.log(LogEvent.of(Level.FINE, "roundup", "Rounded up from " + from + " to " + to)
+                .account(account.getAccountUid()).amount(roundUp.getMinorUnits()).latency(System.nanoTime() - started));
+        } catch (ServiceException e) {
+            LOG.log(LogEvent.of(Level.WARNING, "roundup", "Cannot round up the account, left out of this run: "
+                + e.getMessage()).account(account.getAccountUid()));
+        } finally {
+            deadline.close();
+            accountPermits.release();
+        }
+    }
+}
@@ -1,16 +1,14 @@
 package com.starlingbank.service;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.util.UUID;
 
 import com.starlingbank.api.StarlingClient;
 import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.exceptions.JsonCodecException;
 import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.json.JsonCodec;
 import com.starlingbank.model.Account;
 import com.starlingbank.model.Amount;
 import com.starlingbank.model.SavingGoal;
@@ -22,13 +20,17 @@ import com.starlingbank.model.SavingGoal;
 public class SavingsGoalService {
     // StarlingClient instance for API communication
     private final StarlingClient starlingClient;
+    // JsonCodec instance decoding the API responses
+    private final JsonCodec jsonCodec;
 
     /**
      * Constructor for SavingsGoalService.
      * @param starlingClient StarlingClient instance for API communication
+     * @param jsonCodec JsonCodec instance decoding the API responses
      */
-    public SavingsGoalService(StarlingClient starlingClient) {
+    public SavingsGoalService(StarlingClient starlingClient, JsonCodec jsonCodec) {
         this.starlingClient = starlingClient;
+        this.jsonCodec = jsonCodec;
     }
 
     /**
@@ -37,32 +39,20 @@ public class SavingsGoalService {
      * @return List of SavingGoal objects
      * @throws ServiceException if there is an error fetching savings goals
      */
-    public List<SavingGoal> getSavingsGoals(String accountUid) {
+    public List<SavingGoal> getSavingsGoals(UUID accountUid) {
         // Validate input
         if (accountUid == null) {
             throw new IllegalArgumentException("accountUid cannot be null");
         }
         try {
             String response = starlingClient.getSavingsGoals(accountUid);
-            JSONArray savingsGoalsJson = new JSONObject(response).getJSONArray("savingsGoalList");
-            List<SavingGoal> savingsGoals = new ArrayList<>();
-            for (int i = 0; i < savingsGoalsJson.length(); i++) {
-                JSONObject goalJson = savingsGoalsJson.getJSONObject(i);
-                String savingsGoalUid = goalJson.getString("savingsGoalUid");
-                String name = goalJson.getString("name");
-                JSONObject targetJson = goalJson.getJSONObject("target");
-                int minorUnits = targetJson.getInt("minorUnits");
-                String currency = targetJson.getString("currency");
-                Amount target = new Amount(minorUnits, currency);
-                savingsGoals.add(new SavingGoal(savingsGoalUid, name, target));
-            }
-            return savingsGoals;
+            return jsonCodec.decodeSavingsGoals(response);
         } catch (ApiException e) {
             throw new ServiceException("Error communicating with the API", e);
         } catch (IOException e) {
             throw new ServiceException("Error reading the response from the API", e);
-        } catch (JSONException e) {
-            throw new ServiceException("Error parsing the response from the API", e);
+        } catch (JsonCodecException e) {
+            throw new ServiceException("Error parsing the response from the API", e.getParserError());
         }
     }
 
@@ -83,10 +73,9 @@ public class SavingsGoalService {
         try {
             String response = starlingClient.createSavingsGoal(account.getAccountUid(),
                 goalName, targetAmount.getCurrencyCode(), targetAmount.getMinorUnits());
-            JSONObject goalJson = new JSONObject(response);
-            String savingsGoalUid = goalJson.getString("savingsGoalUid");
+            UUID savingsGoalUid = jsonCodec.decodeSavingsGoalUid(response);
             return new SavingGoal(savingsGoalUid, goalName, targetAmount);
-        } catch (IOException | ApiException e) {
+        } catch (IOException | ApiException | JsonCodecException e) {
             throw new ServiceException("Error creating savings goal: " + goalName, e);
         }
     }
@@ -101,12 +90,28 @@ public class SavingsGoalService {
      */
     public void addMoneyToSavingsGoal(Account account, SavingGoal savingGoal, Amount amount) {
         try {
-            String currency = amount.getCurrencyCode();
-            int minorUnits = amount.getMinorUnits();
-            starlingClient.addMoneyToSavingsGoal(account.getAccountUid(),
-                savingGoal.getSavingsGoalUid(), minorUnits, currency);
+            starlingClient.addMoneyToSavingsGoal(account.getAccountUid(), savingGoal.getSavingsGoalUid(),
+                UUID.randomUUID(), amount.getMinorUnits(), amount.getCurrencyCode());
         } catch (IOException | ApiException e) {
             throw new ServiceException("Error adding money to savings goal: " + savingGoal.getName(), e);
         }
     }
+
+    /**
+     * Adds money to the savings goal with the given unique identifier.
+     *
+     * @param accountUid The unique identifier of the account.
+     * @param savingsGoalUid The unique identifier of the savings goal.
+     * @param amount The amount object containing the currency and the amount in minor units to add to the savings goal.
+     * @param transferUid The unique identifier of the transfer, reused to retry it without paying it twice.
+     * @throws ServiceException if there is an error adding money to the savings goal.
+     */
+    public void addMoneyToSavingsGoal(UUID accountUid, UUID savingsGoalUid, Amount amount, UUID transferUid) {
+        try {
+            starlingClient.addMoneyToSavingsGoal(accountUid, savingsGoalUid, transferUid, amount.getMinorUnits(),
+                amount.getCurrencyCode());
+        } catch (IOException | ApiException e) {
+            throw new ServiceException("Error adding money to savings goal: " + savingsGoalUid, e);
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.starlingbank.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.TransferResult;
+import com.starlingbank.profiling.TransferEvent;
+import com.starlingbank.util.PendingRoundUp;
+
+/**
+ * Service class transferring money into several savings goals in parallel.
+ * Transfers run on virtual threads, at most maxConcurrentTransfers at a time, and a failing transfer does not
+ * prevent the others from completing: the outcome of every transfer is reported separately, and recorded as a
+ * TransferEvent when Flight Recorder is running.
+ * @author Cesar Goncalves
+ */
+public class SavingsGoalTransferService {
+    // Service making the individual transfers
+    private final SavingsGoalService savingsGoalService;
+    // Limit on the number of transfers in flight at the same time
+    private final Semaphore transferPermits;
+
+    /**
+     * Constructor for SavingsGoalTransferService.
+     * @param savingsGoalService Service making the individual transfers
+     * @param maxConcurrentTransfers Maximum number of transfers in flight at the same time
+     */
+    public SavingsGoalTransferService(SavingsGoalService savingsGoalService, int maxConcurrentTransfers) {
+        if (maxConcurrentTransfers <= 0) {
+            throw new IllegalArgumentException("maxConcurrentTransfers must be positive");
+        }
+        this.savingsGoalService = savingsGoalService;
+        this.transferPermits = new Semaphore(maxConcurrentTransfers);
+    }
+
+    /**
+     * Transfers the given amounts into their savings goals in parallel and waits for all of them to complete.
+     * @param account The account the money is transferred from.
+     * @param allocations The amount to transfer into each savings goal.
+     * @return The outcome of each transfer, in the order of the allocations.
+     */
+    public List<TransferResult> transfer(Account account, Map<SavingGoal, Amount> allocations) {
+        return transfer(account, allocations, savingGoal -> null);
+    }
+
+    /**
+     * Transfers the shares of a round-up into their savings goals in parallel, then records the feed items of the
+     * round-up as processed if every share was transferred. Otherwise the whole round-up is counted again by the
+     * next run, as its feed items are not split across the shares; each share is transferred under the transferUid
+     * of the round-up for its savings goal, so the shares already transferred are not paid twice.
+     * @param account The account the money is transferred from.
+     * @param allocations The share of the round-up to transfer into each savings goal.
+     * @param roundUp The round-up split across the savings goals.
+     * @return The outcome of each transfer, in the order of the allocations.
+     */
+    public List<TransferResult> transfer(Account account, Map<SavingGoal, Amount> allocations,
+                                         PendingRoundUp roundUp) {
+        List<TransferResult> results = transfer(account, allocations, roundUp::transferUid);
+        if (results.stream().allMatch(TransferResult::isSuccessful)) {
+            roundUp.markProcessed();
+        }
+        return results;
+    }
+
+    // Transfers the shares in parallel, each under its transferUid, or a new one if null
+    private List<TransferResult> transfer(Account account, Map<SavingGoal, Amount> allocations,
+                                          Function<SavingGoal, UUID> transferUids) {
+        List<Future<TransferResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            allocations.forEach((savingGoal, amount) -> futures.add(executor.submit(
+                () -> transferOne(account, savingGoal, amount, transferUids.apply(savingGoal)))));
+        }
+        List<TransferResult> results = new ArrayList<>();
+        for (Future<TransferResult> future : futures) {
+            results.add(resultOf(future));
+        }
+        return results;
+    }
+
+    private TransferResult transferOne(Account account, SavingGoal savingGoal, Amount amount, UUID transferUid)
+        throws InterruptedException {
+        transferPermits.acquire();
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        boolean transferred = false;
+        try {
+            if (transferUid == null) {
+                savingsGoalService.addMoneyToSavingsGoal(account, savingGoal, amount);
+            } else {
+                savingsGoalService.addMoneyToSavingsGoal(account.getAccountUid(), savingGoal.getSavingsGoalUid(), amount,
+                    transferUid);
+            }
+            transferred = true;
+            return new TransferResult(savingGoal, amount, null);
+        } catch (ServiceException e) {
+            return new TransferResult(savingGoal, amount, e);
+        } finally {
+            event.commit(account.getAccountUid(), savingGoal.getSavingsGoalUid(), amount.getMinorUnits(), transferred);
+            transferPermits.release();
+        }
+    }
+
+    // The executor has been closed, so every future is already complete
+    private static TransferResult resultOf(Future<TransferResult> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new ServiceException("Unexpected error while transferring to a savings goal", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while transferring to savings goals", e);
+        }
+    }
+}
@@ -1,32 +1,43 @@
 package com.starlingbank.service;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.util.UUID;
 
 import com.starlingbank.api.StarlingClient;
 import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.exceptions.JsonCodecException;
 import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.model.Account;
 import com.starlingbank.model.Transaction;
+import com.starlingbank.profiling.FeedParseEvent;
 
 /**
  * This service class is responsible for handling transaction related operations.
+ * The decoding of each feed is recorded as a FeedParseEvent when Flight Recorder is running.
  * @author Cesar Goncalves
  */
 public class TransactionService {
+    // Format of the timestamps of the API
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+
     // Instance of StarlingClient for API communication
     private final StarlingClient starlingClient;
+    // Instance of JsonCodec decoding the API responses
+    private final JsonCodec jsonCodec;
 
     /**
      * Constructor for TransactionService.
      * @param starlingClient Instance of StarlingClient for API communication
+     * @param jsonCodec Instance of JsonCodec decoding the API responses
      */
-    public TransactionService(StarlingClient starlingClient) {
+    public TransactionService(StarlingClient starlingClient, JsonCodec jsonCodec) {
         this.starlingClient = starlingClient;
+        this.jsonCodec = jsonCodec;
     }
 
     /**
@@ -38,50 +49,50 @@ public class TransactionService {
      * @return List of Transaction objects
      * @throws ServiceException if there is an error while fetching transactions
      */
-    public List<Transaction> getTransactions(String accountUid, String categoryUid,
+    public List<Transaction> getTransactions(UUID accountUid, UUID categoryUid,
         String minTransactionTimestamp, String maxTransactionTimestamp) {
         validateParameters(accountUid, categoryUid, minTransactionTimestamp, maxTransactionTimestamp);
         try {
             String response = starlingClient.getTransactions(accountUid, categoryUid,
                 minTransactionTimestamp, maxTransactionTimestamp);
-            return parseTransactions(response);
+            FeedParseEvent parse = new FeedParseEvent();
+            parse.begin();
+            List<Transaction> transactions = jsonCodec.decodeTransactions(response);
+            parse.commit(accountUid, transactions.size(), response);
+            return transactions;
         } catch (IOException e) {
             throw new ServiceException("Error occurred while communicating with the API", e);
         } catch (ApiException e) {
             throw new ServiceException("Received an error response from the API", e);
-        } catch (JSONException e) {
-            throw new ServiceException("Error occurred while parsing the response from the API", e);
+        } catch (JsonCodecException e) {
+            throw new ServiceException("Error occurred while parsing the response from the API", e.getParserError());
         }
     }
 
+    /**
+     * Fetches the transactions of an account between two dates, each taken at the start of the day in UTC.
+     * @param account The account object
+     * @param startDate The first day of the range
+     * @param endDate The day after the last day of the range
+     * @return List of Transaction objects
+     * @throws ServiceException if there is an error while fetching transactions
+     */
+    public List<Transaction> getTransactions(Account account, LocalDate startDate, LocalDate endDate) {
+        return getTransactions(account.getAccountUid(), account.getCategoryUid(),
+            startDate.atStartOfDay(ZoneOffset.UTC).format(TIMESTAMP_FORMAT),
+            endDate.atStartOfDay(ZoneOffset.UTC).format(TIMESTAMP_FORMAT));
+    }
+
     /**
      * Validates the input parameters.
      * @param params Input parameters to validate
      * @throws IllegalArgumentException if any input parameter is null or empty
      */
-    private void validateParameters(String... params) {
-        for (String param : params) {
-            if (param == null || param.isEmpty()) {
+    private void validateParameters(Object... params) {
+        for (Object param : params) {
+            if (param == null || "".equals(param)) {
                 throw new IllegalArgumentException("Input parameters cannot be null or empty");
             }
         }
     }
-
-    /**
-     * Parses the transactions from the response.
-     * @param response Response string to parse
-     * @return List of Transaction objects
-     * @throws JSONException if there is an error while parsing the response
-     */
-    private List<Transaction> parseTransactions(String response) throws JSONException {
-        JSONArray transactionsJson = new JSONObject(response).getJSONArray("feedItems");
-        List<Transaction> transactions = new ArrayList<>();
-        for (int i = 0; i < transactionsJson.length(); i++) {
-            JSONObject transactionJson = transactionsJson.getJSONObject(i);
-            int minorUnits = transactionJson.getJSONObject("amount").getInt("minorUnits");
-            String source = transactionJson.getString("source");
-            transactions.add(new Transaction(minorUnits, source));
-        }
-        return transactions;
-    }
 }
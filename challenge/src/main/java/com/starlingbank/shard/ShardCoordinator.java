@@ -0,0 +1,90 @@
+package com.starlingbank.shard;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.starlingbank.dedup.ProcessedItemSets;
+import com.starlingbank.ledger.Ledgers;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.model.Account;
+
+/**
+ * Coordinates a sharded round-up: partitions the accounts into a ShardQueue, starts the worker processes,
+ * waits for them and merges the reports of the shards. Each worker has its own heap and garbage collector, so
+ * the accounts of a large book are processed side by side instead of in a single JVM.
+ * @author Cesar Goncalves
+ */
+public class ShardCoordinator {
+    // Log of the workers that fail and the shards left pending
+    private static final EventLog LOG = EventLog.get();
+
+    private final ShardSettings settings;
+    // The command starting a worker process, which reads the queue directory from its environment
+    private final List<String> workerCommand;
+
+    /**
+     * Constructor for ShardCoordinator.
+     * @param settings The queue directory and the number of workers and shards.
+     * @param workerCommand The command starting a worker process.
+     */
+    public ShardCoordinator(ShardSettings settings, List<String> workerCommand) {
+        this.settings = settings;
+        this.workerCommand = workerCommand;
+    }
+
+    /**
+     * Merges the journals of every shard of a queue, done or not.
+     * @param queue The queue.
+     * @return The report of the accounts processed so far.
+     * @throws IOException If a journal cannot be read.
+     */
+    public static ShardReport merge(ShardQueue queue) throws IOException {
+        ShardReport report = ShardReport.EMPTY;
+        for (int shard = 0; shard < queue.getShardCount(); shard++) {
+            for (String line : ShardLease.journalLines(queue, shard)) {
+                report = report.plus(ShardReport.fromJournalLine(line));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Runs the round-up of the accounts across the worker processes. If the queue directory holds the queue of an
+     * interrupted run over the same range, it is resumed instead of partitioned again.
+     * @param accounts The accounts.
+     * @param from The first day of the round-up.
+     * @param to The day after the last day of the round-up.
+     * @return The merged report of the shards.
+     * @throws IOException If the queue cannot be written or a worker cannot be started.
+     * @throws InterruptedException If the coordinator is interrupted while waiting for the workers.
+     */
+    public ShardReport run(List<Account> accounts, LocalDate from, LocalDate to)
+        throws IOException, InterruptedException {
+        ShardQueue queue = ShardQueue.openOrCreate(settings.getQueueDirectory(), accounts, settings.getShardCount(),
+            from, to);
+        List<Process> workers = new ArrayList<>();
+        for (int worker = 0; worker < settings.getWorkers(); worker++) {
+            ProcessBuilder builder = new ProcessBuilder(workerCommand).inheritIO();
+            builder.environment().put(ShardSettings.QUEUE_DIRECTORY, settings.getQueueDirectory().toAbsolutePath()
+                .toString());
+            // The processed item set is locked by the process that opens it, so it cannot be shared by the workers
+            builder.environment().remove(ProcessedItemSets.PROCESSED_ITEMS);
+            // Nor can the journal of the ledger, which each worker would append to and rewrite on its own
+            builder.environment().remove(Ledgers.LEDGER_FILE);
+            workers.add(builder.start());
+        }
+        for (Process worker : workers) {
+            int status = worker.waitFor();
+            if (status != 0) {
+                LOG.warning("shard", "A shard worker exited with status " + status);
+            }
+        }
+        int pending = queue.pendingShards().size();
+        if (pending > 0) {
+            LOG.warning("shard", pending + " shards are not done; run again over the same range to resume them");
+        }
+        return merge(queue);
+    }
+}
@@ -0,0 +1,114 @@
+package com.starlingbank.shard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.starlingbank.model.Account;
+
+/**
+ * A worker's lease of a shard of a ShardQueue, held until closed or until the worker's process dies.
+ * The outcome of each account is appended to the shard's journal and forced to disk before the next account,
+ * so the worker reclaiming the shard of a dead worker skips the accounts already processed. An account whose
+ * transfer completed but whose line was not written yet is processed again.
+ * @author Cesar Goncalves
+ */
+public final class ShardLease implements AutoCloseable {
+    private final ShardQueue queue;
+    private final int shard;
+    // The channel holding the lock of the shard; closing it releases the lock
+    private final FileChannel lockChannel;
+    private final FileChannel journal;
+
+    /**
+     * Constructor for ShardLease.
+     * @param queue The queue of the shard.
+     * @param shard The index of the shard.
+     * @param lockChannel The channel holding the lock of the shard.
+     * @throws IOException If the journal of the shard cannot be opened.
+     */
+    ShardLease(ShardQueue queue, int shard, FileChannel lockChannel) throws IOException {
+        this.queue = queue;
+        this.shard = shard;
+        this.lockChannel = lockChannel;
+        this.journal = FileChannel.open(queue.file(shard, ".journal"), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Returns the complete lines of the journal of a shard, one per account processed.
+     * @param queue The queue of the shard.
+     * @param shard The index of the shard.
+     * @return The lines.
+     * @throws IOException If the journal cannot be read.
+     */
+    static List<String> journalLines(ShardQueue queue, int shard) throws IOException {
+        Path file = queue.file(shard, ".journal");
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream().filter(ShardReport::isJournalLine).toList();
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    /**
+     * Returns the accounts of the shard.
+     * @return The accounts.
+     * @throws IOException If the shard file cannot be read.
+     */
+    public List<Account> accounts() throws IOException {
+        return ShardPartitioner.accounts(queue, shard);
+    }
+
+    /**
+     * Returns the accounts of the shard already processed, by this lease or by a previous holder of the shard.
+     * @return The unique identifiers of the accounts.
+     * @throws IOException If the journal cannot be read.
+     */
+    public Set<UUID> processedAccounts() throws IOException {
+        return journalLines(queue, shard).stream().map(ShardReport::accountOf).collect(Collectors.toSet());
+    }
+
+    /**
+     * Journals the outcome of an account.
+     * @param accountUid The unique identifier of the account.
+     * @param outcome The report of the account.
+     * @throws IOException If the journal cannot be written.
+     */
+    public void record(UUID accountUid, ShardReport outcome) throws IOException {
+        journal.write(ByteBuffer.wrap(outcome.toJournalLine(accountUid).getBytes(StandardCharsets.UTF_8)));
+        journal.force(false);
+    }
+
+    /**
+     * Marks the shard done, once every account is journaled.
+     * @throws IOException If the marker cannot be written.
+     */
+    public void complete() throws IOException {
+        Files.write(queue.file(shard, ".done"), new byte[0]);
+    }
+
+    /**
+     * Releases the shard.
+     * @throws IOException If a channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            journal.close();
+        } finally {
+            lockChannel.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.starlingbank.shard;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.starlingbank.model.Account;
+
+/**
+ * Hash-partitions the accounts of a ShardQueue into its shard files, one account per line as
+ * {@code <accountUid> <categoryUid>} separated by a tab.
+ * @author Cesar Goncalves
+ */
+final class ShardPartitioner {
+    private static final String SEPARATOR = "\t";
+
+    private ShardPartitioner() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns the shard of an account; the hash of a UUID is specified, so every process agrees on it.
+     * @param accountUid The unique identifier of the account.
+     * @param shardCount The number of shards.
+     * @return The index of the shard.
+     */
+    static int shardOf(UUID accountUid, int shardCount) {
+        return Math.floorMod(accountUid.hashCode(), shardCount);
+    }
+
+    /**
+     * Replaces the shard files of a queue, journals included, with a new partition of the accounts.
+     * @param directory The directory of the queue.
+     * @param queue The queue.
+     * @param accounts The accounts to partition.
+     * @throws IOException If the files cannot be deleted or written.
+     */
+    static void partition(Path directory, ShardQueue queue, List<Account> accounts) throws IOException {
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, ShardQueue.SHARD_PREFIX + "*")) {
+            for (Path file : stale) {
+                Files.delete(file);
+            }
+        }
+        List<List<String>> shards = new ArrayList<>();
+        for (int shard = 0; shard < queue.getShardCount(); shard++) {
+            shards.add(new ArrayList<>());
+        }
+        for (Account account : accounts) {
+            shards.get(shardOf(account.getAccountUid(), queue.getShardCount()))
+                .add(account.getAccountUid() + SEPARATOR + account.getCategoryUid());
+        }
+        for (int shard = 0; shard < queue.getShardCount(); shard++) {
+            Files.write(queue.file(shard, ".accounts"), shards.get(shard), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads the accounts of a shard.
+     * @param queue The queue.
+     * @param shard The index of the shard.
+     * @return The accounts.
+     * @throws IOException If the shard file cannot be read.
+     */
+    static List<Account> accounts(ShardQueue queue, int shard) throws IOException {
+        return Files.readAllLines(queue.file(shard, ".accounts"), StandardCharsets.UTF_8).stream()
+            .map(line -> line.split(SEPARATOR))
+            .map(fields -> new Account(UUID.fromString(fields[0]), UUID.fromString(fields[1])))
+            .toList();
+    }
+}
@@ -0,0 +1,176 @@
+package com.starlingbank.shard;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import com.starlingbank.model.Account;
+
+/**
+ * An on-disk queue of shards of accounts, shared by the worker processes of a sharded round-up.
+ * Accounts are hash-partitioned into shard files. A worker takes a shard by holding an exclusive file lock on it,
+ * which the operating system releases when the worker exits or dies, so the shard of a dead worker is leased
+ * again by the next worker looking for work. Each account processed is appended to the shard's journal, and
+ * the shard is marked done once every account is journaled.
+ * @author Cesar Goncalves
+ */
+public final class ShardQueue {
+    // The prefix of every file of a shard
+    static final String SHARD_PREFIX = "shard-";
+    private static final String QUEUE_FILE = "queue.properties";
+    private static final String FROM = "from";
+    private static final String TO = "to";
+    private static final String SHARDS = "shards";
+
+    private final Path directory;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int shardCount;
+
+    private ShardQueue(Path directory, LocalDate from, LocalDate to, int shardCount) {
+        this.directory = directory;
+        this.from = from;
+        this.to = to;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Opens the queue of a directory, or partitions the accounts into a new queue if the directory holds no queue
+     * of the same range and number of shards. Reopening the queue of an interrupted run resumes it, so no account
+     * already journaled is processed twice.
+     * @param directory The directory of the queue.
+     * @param accounts The accounts to partition.
+     * @param shardCount The number of shards.
+     * @param from The first day of the round-up.
+     * @param to The day after the last day of the round-up.
+     * @return The queue.
+     * @throws IOException If the queue cannot be read or written.
+     */
+    public static ShardQueue openOrCreate(Path directory, List<Account> accounts, int shardCount, LocalDate from,
+                                          LocalDate to) throws IOException {
+        ShardQueue queue = new ShardQueue(directory, from, to, shardCount);
+        if (!queue.toProperties().equals(readQueueFile(directory))) {
+            Files.createDirectories(directory);
+            // Deleted first and saved last, so a queue partitioned in part is partitioned again
+            Files.deleteIfExists(directory.resolve(QUEUE_FILE));
+            ShardPartitioner.partition(directory, queue, accounts);
+            queue.saveQueueFile();
+        }
+        return queue;
+    }
+
+    /**
+     * Opens the queue of a directory.
+     * @param directory The directory of the queue.
+     * @return The queue.
+     * @throws IOException If the queue cannot be read.
+     */
+    public static ShardQueue open(Path directory) throws IOException {
+        Properties saved = readQueueFile(directory);
+        return new ShardQueue(directory, LocalDate.parse(saved.getProperty(FROM)),
+            LocalDate.parse(saved.getProperty(TO)), Integer.parseInt(saved.getProperty(SHARDS)));
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Returns the shards not done yet, whether leased by a worker or not.
+     * @return The indexes of the shards.
+     */
+    public List<Integer> pendingShards() {
+        List<Integer> pending = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (!Files.exists(file(shard, ".done"))) {
+                pending.add(shard);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Leases a shard, unless another worker holds it or it is done.
+     * @param shard The index of the shard.
+     * @return The lease, to be closed once the shard is processed, or null if the shard is not available.
+     * @throws IOException If the lock file cannot be opened.
+     */
+    public ShardLease tryLease(int shard) throws IOException {
+        FileChannel channel = FileChannel.open(file(shard, ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = tryLock(channel);
+        // Checked under the lock, as the shard may have been completed since it was listed as pending
+        if (lock == null || Files.exists(file(shard, ".done"))) {
+            channel.close();
+            return null;
+        }
+        return new ShardLease(this, shard, channel);
+    }
+
+    /**
+     * Returns a file of a shard; every file of a shard starts with the same prefix.
+     * @param shard The index of the shard.
+     * @param extension The extension of the file: .accounts, .journal, .lock or .done.
+     * @return The path of the file.
+     */
+    Path file(int shard, String extension) {
+        return directory.resolve(SHARD_PREFIX + shard + extension);
+    }
+
+    private Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(FROM, from.toString());
+        properties.setProperty(TO, to.toString());
+        properties.setProperty(SHARDS, Integer.toString(shardCount));
+        return properties;
+    }
+
+    // Reads the queue file of a directory, which has no property if the directory holds no queue
+    private static Properties readQueueFile(Path directory) throws IOException {
+        Properties saved = new Properties();
+        Path queueFile = directory.resolve(QUEUE_FILE);
+        if (Files.exists(queueFile)) {
+            try (Reader reader = Files.newBufferedReader(queueFile, StandardCharsets.UTF_8)) {
+                saved.load(reader);
+            }
+        }
+        return saved;
+    }
+
+    private void saveQueueFile() throws IOException {
+        Path saving = directory.resolve(QUEUE_FILE + ".saving");
+        try (Writer writer = Files.newBufferedWriter(saving, StandardCharsets.UTF_8)) {
+            toProperties().store(writer, "Sharded round-up queue");
+        }
+        Files.move(saving, directory.resolve(QUEUE_FILE), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Locks a shard's lock file, or returns null if another process, or another worker of this one, holds it
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.starlingbank.shard;
+
+import java.util.UUID;
+
+/**
+ * The outcome of the round-up of one account, of a shard or of every shard of a ShardQueue: the accounts processed,
+ * those that failed, the round-up found and the part of it transferred into the savings goals.
+ * Reports are merged with plus, so the coordinator's report is the sum of the shards' reports.
+ * @author Cesar Goncalves
+ */
+public final class ShardReport {
+    /** The report of no account. */
+    public static final ShardReport EMPTY = new ShardReport(0, 0, 0, 0);
+
+    private static final String SEPARATOR = "\t";
+    private static final int ACCOUNTS = 1;
+    private static final int FAILED_ACCOUNTS = 2;
+    private static final int ROUND_UP = 3;
+    private static final int TRANSFERRED = 4;
+    private static final int FIELDS = 5;
+
+    private final int accounts;
+    private final int failedAccounts;
+    private final long roundUpMinorUnits;
+    // The part of the round-up transferred, short of the round-up when a transfer failed or an account has no goal
+    private final long transferredMinorUnits;
+
+    private ShardReport(int accounts, int failedAccounts, long roundUpMinorUnits, long transferredMinorUnits) {
+        this.accounts = accounts;
+        this.failedAccounts = failedAccounts;
+        this.roundUpMinorUnits = roundUpMinorUnits;
+        this.transferredMinorUnits = transferredMinorUnits;
+    }
+
+    /**
+     * Returns the report of an account processed.
+     * @param roundUpMinorUnits The round-up of the account, in minor units.
+     * @param transferredMinorUnits The part of the round-up transferred, in minor units.
+     * @return The report.
+     */
+    public static ShardReport ofAccount(long roundUpMinorUnits, long transferredMinorUnits) {
+        return new ShardReport(1, 0, roundUpMinorUnits, transferredMinorUnits);
+    }
+
+    /**
+     * Returns the report of an account that could not be processed.
+     * @return The report.
+     */
+    public static ShardReport failedAccount() {
+        return new ShardReport(1, 1, 0, 0);
+    }
+
+    /**
+     * Merges this report with another.
+     * @param other The other report.
+     * @return The sum of both reports.
+     */
+    public ShardReport plus(ShardReport other) {
+        return new ShardReport(accounts + other.accounts, failedAccounts + other.failedAccounts,
+            roundUpMinorUnits + other.roundUpMinorUnits, transferredMinorUnits + other.transferredMinorUnits);
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    public int getFailedAccounts() {
+        return failedAccounts;
+    }
+
+    public long getRoundUpMinorUnits() {
+        return roundUpMinorUnits;
+    }
+
+    public long getTransferredMinorUnits() {
+        return transferredMinorUnits;
+    }
+
+    /**
+     * Returns the journal line of the report of an account: the account and the fields of the report,
+     * separated by tabs.
+     * @param accountUid The unique identifier of the account.
+     * @return The line, ending with a line separator.
+     */
+    String toJournalLine(UUID accountUid) {
+        return accountUid + SEPARATOR + accounts + SEPARATOR + failedAccounts + SEPARATOR + roundUpMinorUnits
+            + SEPARATOR + transferredMinorUnits + System.lineSeparator();
+    }
+
+    /**
+     * Checks whether a journal line was written in full; the last line is torn if a worker died writing it.
+     * @param line The line.
+     * @return true if the line has every field of a report.
+     */
+    static boolean isJournalLine(String line) {
+        return line.split(SEPARATOR).length == FIELDS;
+    }
+
+    /**
+     * Returns the unique identifier of the account of a journal line.
+     * @param line The line.
+     * @return The unique identifier of the account.
+     */
+    static UUID accountOf(String line) {
+        return UUID.fromString(line.substring(0, line.indexOf(SEPARATOR)));
+    }
+
+    /**
+     * Reads the report of a journal line.
+     * @param line The line.
+     * @return The report.
+     * @throws NumberFormatException If the line is malformed.
+     */
+    static ShardReport fromJournalLine(String line) {
+        String[] fields = line.split(SEPARATOR);
+        return new ShardReport(Integer.parseInt(fields[ACCOUNTS]), Integer.parseInt(fields[FAILED_ACCOUNTS]),
+            Long.parseLong(fields[ROUND_UP]), Long.parseLong(fields[TRANSFERRED]));
+    }
+}
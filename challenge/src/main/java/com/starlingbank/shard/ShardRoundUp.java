@@ -0,0 +1,67 @@
+package com.starlingbank.shard;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.TransferResult;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.SavingsGoalTransferService;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpAllocator;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * The round-up of an account, as done by a worker: the round-up of the range is split across the account's
+ * savings goals and transferred. Workers run unattended, so an account without a savings goal keeps its round-up
+ * instead of prompting for a new goal; its feed items, like those of a failed transfer, are not recorded as
+ * processed, so the next run counts them again.
+ * @author Cesar Goncalves
+ */
+public class ShardRoundUp implements ShardTask {
+    private final TransactionService transactionService;
+    private final SavingsGoalService savingsGoalService;
+    private final RoundUpCalculator calculator;
+    private final RoundUpAllocator allocator;
+    private final SavingsGoalTransferService transferService;
+
+    /**
+     * Constructor for ShardRoundUp.
+     * @param transactionService Service fetching the transactions of the accounts.
+     * @param savingsGoalService Service fetching the savings goals of the accounts.
+     * @param calculator Calculator of the round-up.
+     * @param allocator Splits the round-up across the savings goals.
+     * @param transferService Transfers the shares into the savings goals.
+     */
+    public ShardRoundUp(TransactionService transactionService, SavingsGoalService savingsGoalService,
+                        RoundUpCalculator calculator, RoundUpAllocator allocator,
+                        SavingsGoalTransferService transferService) {
+        this.transactionService = transactionService;
+        this.savingsGoalService = savingsGoalService;
+        this.calculator = calculator;
+        this.allocator = allocator;
+        this.transferService = transferService;
+    }
+
+    @Override
+    public ShardReport process(Account account, LocalDate from, LocalDate to) {
+        PendingRoundUp roundUp = calculator.calculatePendingRoundUp(transactionService.getTransactions(account, from, to));
+        long roundUpMinorUnits = roundUp.getMinorUnits();
+        List<SavingGoal> savingsGoals = roundUpMinorUnits > 0
+            ? savingsGoalService.getSavingsGoals(account.getAccountUid()) : List.of();
+        if (savingsGoals.isEmpty()) {
+            return ShardReport.ofAccount(roundUpMinorUnits, 0);
+        }
+        Map<SavingGoal, Amount> allocations = allocator.allocate(roundUpMinorUnits, CurrencyUnit.GBP, savingsGoals);
+        long transferredMinorUnits = transferService.transfer(account, allocations, roundUp).stream()
+            .filter(TransferResult::isSuccessful)
+            .mapToLong(result -> result.getAmount().getMinorUnits())
+            .sum();
+        return ShardReport.ofAccount(roundUpMinorUnits, transferredMinorUnits);
+    }
+}
@@ -0,0 +1,104 @@
+package com.starlingbank.shard;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import com.starlingbank.api.DeadlineSettings;
+
+/**
+ * The settings of a sharded round-up, read from the environment: STARLING_SHARD_QUEUE names the directory of the
+ * queue (shard-queue by default), STARLING_SHARD_WORKERS the number of worker processes (4 by default) and
+ * STARLING_SHARDS the number of shards (4 per worker by default, so a worker that finishes early takes over
+ * the remaining shards and a dead worker loses the progress of a single shard). The accounts are processed under
+ * the account timeout of DeadlineSettings.
+ * @author Cesar Goncalves
+ */
+public final class ShardSettings {
+    /** The environment variable naming the directory of the queue. */
+    public static final String QUEUE_DIRECTORY = "STARLING_SHARD_QUEUE";
+    /** The environment variable holding the number of worker processes. */
+    public static final String WORKERS = "STARLING_SHARD_WORKERS";
+    /** The environment variable holding the number of shards. */
+    public static final String SHARDS = "STARLING_SHARDS";
+
+    private static final String DEFAULT_QUEUE_DIRECTORY = "shard-queue";
+    private static final String DEFAULT_WORKERS = "4";
+    private static final int SHARDS_PER_WORKER = 4;
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final Path queueDirectory;
+    private final int workers;
+    private final int shardCount;
+    // How long a worker waits before trying again to lease the shards held by other workers
+    private final Duration pollInterval;
+    // How long a worker may take to process an account
+    private final Duration accountTimeout;
+
+    /**
+     * Constructor for ShardSettings, with the default account timeout.
+     * @param queueDirectory The directory of the queue.
+     * @param workers The number of worker processes.
+     * @param shardCount The number of shards.
+     * @param pollInterval How long a worker waits before trying again to lease the shards of other workers.
+     * @throws IllegalArgumentException If the number of workers or shards is not positive.
+     */
+    public ShardSettings(Path queueDirectory, int workers, int shardCount, Duration pollInterval) {
+        this(queueDirectory, workers, shardCount, pollInterval, DeadlineSettings.DEFAULT_ACCOUNT_TIMEOUT);
+    }
+
+    /**
+     * Constructor for ShardSettings.
+     * @param queueDirectory The directory of the queue.
+     * @param workers The number of worker processes.
+     * @param shardCount The number of shards.
+     * @param pollInterval How long a worker waits before trying again to lease the shards of other workers.
+     * @param accountTimeout How long a worker may take to process an account.
+     * @throws IllegalArgumentException If the number of workers or shards is not positive.
+     */
+    public ShardSettings(Path queueDirectory, int workers, int shardCount, Duration pollInterval,
+                         Duration accountTimeout) {
+        if (workers <= 0 || shardCount <= 0) {
+            throw new IllegalArgumentException("The number of workers and shards must be positive");
+        }
+        this.queueDirectory = queueDirectory;
+        this.workers = workers;
+        this.shardCount = shardCount;
+        this.pollInterval = pollInterval;
+        this.accountTimeout = accountTimeout;
+    }
+
+    /**
+     * Reads the settings from the environment.
+     * @param environment The environment variables.
+     * @return The settings.
+     * @throws IllegalArgumentException If a setting is invalid.
+     */
+    public static ShardSettings fromEnvironment(Map<String, String> environment) {
+        int workers = Integer.parseInt(environment.getOrDefault(WORKERS, DEFAULT_WORKERS));
+        String shards = environment.get(SHARDS);
+        return new ShardSettings(Path.of(environment.getOrDefault(QUEUE_DIRECTORY, DEFAULT_QUEUE_DIRECTORY)), workers,
+            shards == null ? workers * SHARDS_PER_WORKER : Integer.parseInt(shards), POLL_INTERVAL,
+            DeadlineSettings.fromEnvironment(environment).getAccountTimeout());
+    }
+
+    public Path getQueueDirectory() {
+        return queueDirectory;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public Duration getAccountTimeout() {
+        return accountTimeout;
+    }
+}
@@ -0,0 +1,24 @@
+package com.starlingbank.shard;
+
+import java.time.LocalDate;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.model.Account;
+
+/**
+ * The work a ShardWorker does for each account of the shards it leases.
+ * @author Cesar Goncalves
+ */
+@FunctionalInterface
+public interface ShardTask {
+
+    /**
+     * Processes an account.
+     * @param account The account.
+     * @param from The first day of the round-up.
+     * @param to The day after the last day of the round-up.
+     * @return The report of the account.
+     * @throws ServiceException If the account cannot be processed; the worker journals it as failed.
+     */
+    ShardReport process(Account account, LocalDate from, LocalDate to);
+}
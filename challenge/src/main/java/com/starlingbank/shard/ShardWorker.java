@@ -0,0 +1,118 @@
+package com.starlingbank.shard;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+import com.starlingbank.api.Deadline;
+import com.starlingbank.api.DeadlineSettings;
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.model.Account;
+
+/**
+ * A worker of a sharded round-up, usually one per process.
+ * The worker leases the pending shards of the queue one at a time and processes their accounts. It only stops
+ * once every shard is done: while the remaining shards are leased by other workers it polls them, so if one of
+ * those workers dies its shard is reclaimed and finished. Each account is processed under its own Deadline, so an
+ * account whose calls hang is recorded as failed instead of holding the worker for ever.
+ * @author Cesar Goncalves
+ */
+public class ShardWorker {
+    // Log of the accounts rounded up and of those that fail
+    private static final EventLog LOG = EventLog.get();
+
+    private final ShardQueue queue;
+    private final ShardTask task;
+    // How long the worker waits before trying again to lease the shards held by other workers
+    private final Duration pollInterval;
+    // How long the processing of an account may take
+    private final Duration accountTimeout;
+
+    /**
+     * Constructor for ShardWorker, with the default timeout per account.
+     * @param queue The queue of the shards.
+     * @param task The work done for each account.
+     * @param pollInterval How long to wait before trying again to lease the shards held by other workers.
+     */
+    public ShardWorker(ShardQueue queue, ShardTask task, Duration pollInterval) {
+        this(queue, task, pollInterval, DeadlineSettings.DEFAULT_ACCOUNT_TIMEOUT);
+    }
+
+    /**
+     * Constructor for ShardWorker.
+     * @param queue The queue of the shards.
+     * @param task The work done for each account.
+     * @param pollInterval How long to wait before trying again to lease the shards held by other workers.
+     * @param accountTimeout How long the processing of an account may take.
+     */
+    public ShardWorker(ShardQueue queue, ShardTask task, Duration pollInterval, Duration accountTimeout) {
+        this.queue = queue;
+        this.task = task;
+        this.pollInterval = pollInterval;
+        this.accountTimeout = accountTimeout;
+    }
+
+    /**
+     * Processes shards until every shard of the queue is done.
+     * @return The number of shards this worker completed.
+     * @throws IOException If a shard or its journal cannot be read or written.
+     * @throws InterruptedException If the worker is interrupted while waiting for the shards of other workers.
+     */
+    public int run() throws IOException, InterruptedException {
+        int completed = 0;
+        for (List<Integer> pending = queue.pendingShards(); !pending.isEmpty(); pending = queue.pendingShards()) {
+            int leased = processAvailable(pending);
+            if (leased == 0) {
+                Thread.sleep(pollInterval.toMillis());
+            }
+            completed += leased;
+        }
+        return completed;
+    }
+
+    // Processes the pending shards no other worker holds, returning how many were completed
+    private int processAvailable(List<Integer> pending) throws IOException {
+        int completed = 0;
+        for (int shard : pending) {
+            try (ShardLease lease = queue.tryLease(shard)) {
+                if (lease != null) {
+                    process(lease);
+                    completed++;
+                }
+            }
+        }
+        return completed;
+    }
+
+    private void process(ShardLease lease) throws IOException {
+        Set<UUID> processed = lease.processedAccounts();
+        for (Account account : lease.accounts()) {
+            if (!processed.contains(account.getAccountUid())) {
+                lease.record(account.getAccountUid(), processAccount(account));
+            }
+        }
+        lease.complete();
+    }
+
+    private ShardReport processAccount(Account account) {
+        long started = System.nanoTime();
+        Deadline.Scope deadline = Deadline.after(accountTimeout).bind();
+        try {
+            ShardReport report = task.process(account, queue.getFrom(), queue.getTo());
+            LOG.log(LogEvent.of(Level.FINE, "shard", "Rounded up the account").account(account.getAccountUid())
+                .amount(report.getTransferredMinorUnits()).latency(System.nanoTime() - started));
+            return report;
+        } catch (ServiceException e) {
+            LOG.log(LogEvent.of(Level.WARNING, "shard", "The round-up of the account failed").account(account.getAccountUid())
+                .latency(System.nanoTime() - started).thrown(e));
+            return ShardReport.failedAccount();
+        } finally {
+            deadline.close();
+        }
+    }
+}
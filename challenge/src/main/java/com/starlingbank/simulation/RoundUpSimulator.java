@@ -0,0 +1,92 @@
+package com.starlingbank.simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.starlingbank.model.Transaction;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Evaluates what each of a set of rounding strategies would have saved over the same transactions.
+ * The transactions are read once, however many strategies are evaluated: each transaction is rounded up once
+ * per distinct unit and the round-ups are summed per source and unit. Every strategy's savings then follow from
+ * these sums alone, as a multiplier scales the sum of the round-ups of the sources it includes, so the cost per
+ * transaction depends on the number of units, not on the number of strategies.
+ * @author Cesar Goncalves
+ */
+public class RoundUpSimulator {
+    // Index of the transaction count in the sums of a source, followed by the sum of the round-ups of each unit
+    private static final int COUNT = 0;
+
+    private final RoundUpCalculator calculator;
+    private final List<RoundUpStrategy> strategies;
+    // The distinct units of the strategies
+    private final int[] units;
+    // The index in units of the unit of each strategy
+    private final int[] unitIndexes;
+
+    /**
+     * Constructor for RoundUpSimulator.
+     * @param calculator The calculator rounding up each transaction.
+     * @param strategies The strategies to evaluate; the first one is the baseline the others are compared with.
+     */
+    public RoundUpSimulator(RoundUpCalculator calculator, List<RoundUpStrategy> strategies) {
+        this.calculator = calculator;
+        this.strategies = List.copyOf(strategies);
+        this.unitIndexes = new int[strategies.size()];
+        List<Integer> distinctUnits = new ArrayList<>();
+        for (int strategy = 0; strategy < strategies.size(); strategy++) {
+            Integer unit = strategies.get(strategy).getRoundToMinorUnits();
+            if (!distinctUnits.contains(unit)) {
+                distinctUnits.add(unit);
+            }
+            unitIndexes[strategy] = distinctUnits.indexOf(unit);
+        }
+        this.units = distinctUnits.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Evaluates the strategies over the transactions in a single pass.
+     * @param transactions The transactions, iterated once.
+     * @return The savings of each strategy.
+     */
+    public SimulationReport simulate(Iterable<Transaction> transactions) {
+        Map<String, long[]> sumsBySource = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            long[] sums = sumsBySource.get(transaction.getSource());
+            if (sums == null) {
+                sums = new long[units.length + 1];
+                sumsBySource.put(transaction.getSource(), sums);
+            }
+            accumulate(sums, transaction.getMinorUnits());
+        }
+
+        List<StrategyResult> results = new ArrayList<>(strategies.size());
+        for (int strategy = 0; strategy < strategies.size(); strategy++) {
+            results.add(resultOf(strategies.get(strategy), unitIndexes[strategy], sumsBySource));
+        }
+        return new SimulationReport(results);
+    }
+
+    private void accumulate(long[] sums, int minorUnits) {
+        sums[COUNT]++;
+        for (int unit = 0; unit < units.length; unit++) {
+            sums[unit + 1] += calculator.calculateRoundUp(minorUnits, units[unit]);
+        }
+    }
+
+    private static StrategyResult resultOf(RoundUpStrategy strategy, int unitIndex, Map<String, long[]> sumsBySource) {
+        long transactionCount = 0;
+        long roundUpMinorUnits = 0;
+        for (String source : strategy.getSources()) {
+            long[] sums = sumsBySource.get(source);
+            if (sums != null) {
+                transactionCount += sums[COUNT];
+                roundUpMinorUnits += sums[unitIndex + 1];
+            }
+        }
+        return new StrategyResult(strategy, transactionCount, roundUpMinorUnits * strategy.getMultiplier());
+    }
+}
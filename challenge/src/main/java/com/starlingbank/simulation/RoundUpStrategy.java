@@ -0,0 +1,109 @@
+package com.starlingbank.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A rounding policy whose savings the RoundUpSimulator evaluates: the unit transactions are rounded up to,
+ * the multiplier applied to each round-up and the transaction sources rounded up.
+ * @author Cesar Goncalves
+ */
+public final class RoundUpStrategy {
+    /** The source of outbound Faster Payments, the only transactions rounded up by the current policy. */
+    public static final String FASTER_PAYMENTS_OUT = "FASTER_PAYMENTS_OUT";
+    /** The source of card payments. */
+    public static final String MASTER_CARD = "MASTER_CARD";
+    /** The source of direct debits. */
+    public static final String DIRECT_DEBIT = "DIRECT_DEBIT";
+
+    private static final int MINOR_UNITS_PER_POUND = 100;
+    // Units of the standard grid: the nearest £1, £2, £5 and £10
+    private static final int[] GRID_UNITS = {100, 200, 500, 1000};
+    private static final int[] GRID_MULTIPLIERS = {1, 2, 3};
+    private static final List<Set<String>> GRID_SOURCES = List.of(
+        Set.of(FASTER_PAYMENTS_OUT),
+        Set.of(FASTER_PAYMENTS_OUT, MASTER_CARD),
+        Set.of(FASTER_PAYMENTS_OUT, MASTER_CARD, DIRECT_DEBIT));
+
+    private final String name;
+    private final int roundToMinorUnits;
+    private final int multiplier;
+    private final Set<String> sources;
+
+    /**
+     * Constructor for RoundUpStrategy.
+     * @param name The name of the strategy in the comparison table.
+     * @param roundToMinorUnits The unit transactions are rounded up to, in minorUnits.
+     * @param multiplier The multiplier applied to each round-up.
+     * @param sources The transaction sources rounded up.
+     * @throws IllegalArgumentException If the unit or the multiplier is not positive.
+     */
+    public RoundUpStrategy(String name, int roundToMinorUnits, int multiplier, Set<String> sources) {
+        if (roundToMinorUnits <= 0 || multiplier <= 0) {
+            throw new IllegalArgumentException("The unit and the multiplier of strategy " + name + " must be positive");
+        }
+        this.name = name;
+        this.roundToMinorUnits = roundToMinorUnits;
+        this.multiplier = multiplier;
+        this.sources = Collections.unmodifiableSet(new LinkedHashSet<>(sources));
+    }
+
+    /**
+     * Returns the current policy: outbound Faster Payments rounded up to the nearest £1.
+     * @return The strategy.
+     */
+    public static RoundUpStrategy current() {
+        return of(MINOR_UNITS_PER_POUND, 1, Set.of(FASTER_PAYMENTS_OUT));
+    }
+
+    /**
+     * Returns the standard grid of strategies: every combination of rounding to the nearest £1, £2, £5 and £10,
+     * multipliers of 1x, 2x and 3x, and rounding up outbound Faster Payments alone, with card payments, and with
+     * card payments and direct debits. The current policy comes first.
+     * @return The strategies.
+     */
+    public static List<RoundUpStrategy> standardGrid() {
+        List<RoundUpStrategy> strategies = new ArrayList<>();
+        for (Set<String> gridSources : GRID_SOURCES) {
+            for (int gridMultiplier : GRID_MULTIPLIERS) {
+                addUnits(strategies, gridMultiplier, gridSources);
+            }
+        }
+        return strategies;
+    }
+
+    private static void addUnits(List<RoundUpStrategy> strategies, int multiplier, Set<String> sources) {
+        for (int gridUnit : GRID_UNITS) {
+            strategies.add(of(gridUnit, multiplier, sources));
+        }
+    }
+
+    // Creates a strategy named after its parameters, e.g. "nearest £5 x2 FASTER_PAYMENTS_OUT+MASTER_CARD"
+    private static RoundUpStrategy of(int roundToMinorUnits, int multiplier, Set<String> sources) {
+        // Sorted, as the grid's sets have no iteration order
+        List<String> sortedSources = new ArrayList<>(sources);
+        Collections.sort(sortedSources);
+        String name = "nearest £" + roundToMinorUnits / MINOR_UNITS_PER_POUND + " x" + multiplier + " "
+            + String.join("+", sortedSources);
+        return new RoundUpStrategy(name, roundToMinorUnits, multiplier, new LinkedHashSet<>(sortedSources));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRoundToMinorUnits() {
+        return roundToMinorUnits;
+    }
+
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    public Set<String> getSources() {
+        return sources;
+    }
+}
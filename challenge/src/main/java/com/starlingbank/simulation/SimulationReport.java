@@ -0,0 +1,64 @@
+package com.starlingbank.simulation;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The savings of every strategy evaluated by the RoundUpSimulator, written as a comparison table ranked by the
+ * amount saved, each strategy compared with the baseline, the first strategy simulated.
+ * @author Cesar Goncalves
+ */
+public class SimulationReport {
+    private static final int FRACTION_DIGITS = 2;
+    private static final String ROW_FORMAT = "%-60s %12s %14s %14s%n";
+
+    // The results, in the order the strategies were simulated
+    private final List<StrategyResult> results;
+
+    /**
+     * Constructor for SimulationReport.
+     * @param results The result of each strategy; the first one is the baseline.
+     */
+    public SimulationReport(List<StrategyResult> results) {
+        this.results = List.copyOf(results);
+    }
+
+    /**
+     * Returns the results, in the order the strategies were simulated.
+     * @return The results.
+     */
+    public List<StrategyResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Writes the comparison table, one row per strategy, ranked by the amount saved.
+     * @param out Where the table is written.
+     * @throws IOException If the table cannot be written.
+     */
+    public void writeTable(Appendable out) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+        long baseline = results.get(0).getRoundUpMinorUnits();
+        List<StrategyResult> ranked = new ArrayList<>(results);
+        ranked.sort(Comparator.comparingLong(StrategyResult::getRoundUpMinorUnits).reversed());
+
+        out.append(String.format(Locale.UK, ROW_FORMAT, "Strategy", "Transactions", "Saved", "vs baseline"));
+        for (StrategyResult result : ranked) {
+            long difference = result.getRoundUpMinorUnits() - baseline;
+            out.append(String.format(Locale.UK, ROW_FORMAT, result.getStrategy().getName(), result.getTransactionCount(),
+                format(result.getRoundUpMinorUnits()), (difference > 0 ? "+" : "") + format(difference)));
+        }
+    }
+
+    // Formats an amount of pence in pounds, e.g. "£12.34"
+    private static String format(long minorUnits) {
+        return NumberFormat.getCurrencyInstance(Locale.UK).format(BigDecimal.valueOf(minorUnits, FRACTION_DIGITS));
+    }
+}
@@ -0,0 +1,37 @@
+package com.starlingbank.simulation;
+
+/**
+ * The savings a RoundUpStrategy would have made over the simulated transactions.
+ * @author Cesar Goncalves
+ */
+public final class StrategyResult {
+    private final RoundUpStrategy strategy;
+    // The number of transactions the strategy rounds up, including those already a multiple of its unit
+    private final long transactionCount;
+    // The total saved, multiplier included
+    private final long roundUpMinorUnits;
+
+    /**
+     * Constructor for StrategyResult.
+     * @param strategy The strategy.
+     * @param transactionCount The number of transactions the strategy rounds up.
+     * @param roundUpMinorUnits The total saved, in minorUnits.
+     */
+    public StrategyResult(RoundUpStrategy strategy, long transactionCount, long roundUpMinorUnits) {
+        this.strategy = strategy;
+        this.transactionCount = transactionCount;
+        this.roundUpMinorUnits = roundUpMinorUnits;
+    }
+
+    public RoundUpStrategy getStrategy() {
+        return strategy;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public long getRoundUpMinorUnits() {
+        return roundUpMinorUnits;
+    }
+}
@@ -0,0 +1,60 @@
+package com.starlingbank.transport;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A response of the Starling Bank API, fully read.
+ * @author Cesar Goncalves
+ */
+public final class ApiResponse {
+    private final int statusCode;
+    // Response headers by name; repeated headers keep their last value
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    /**
+     * Constructor for ApiResponse.
+     * @param statusCode The HTTP status code.
+     * @param headers The response headers by name.
+     * @param body The response body.
+     */
+    public ApiResponse(int statusCode, Map<String, String> headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    /**
+     * Returns the HTTP status code.
+     * @return The status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the response headers.
+     * @return An unmodifiable map of the headers by name.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the response body.
+     * @return The raw bytes of the body.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the response body as a string, decoded as UTF-8 like every JSON payload.
+     * @return The body.
+     */
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
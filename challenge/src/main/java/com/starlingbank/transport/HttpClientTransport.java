@@ -0,0 +1,48 @@
+package com.starlingbank.transport;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * The Transport sending the requests over the network with an Apache HttpClient.
+ * @author Cesar Goncalves
+ */
+public class HttpClientTransport implements Transport {
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * Constructor for HttpClientTransport.
+     * @param httpClient The HTTP client used to send the requests, which may be shared between tenants.
+     */
+    public HttpClientTransport(CloseableHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public ApiResponse execute(HttpRequestBase request) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (Header header : response.getAllHeaders()) {
+                headers.put(header.getName(), header.getValue());
+            }
+            byte[] body = response.getEntity() == null ? NO_BODY : EntityUtils.toByteArray(response.getEntity());
+            return new ApiResponse(response.getStatusLine().getStatusCode(), headers, body);
+        }
+    }
+
+    @Override
+    public void warmUp(HttpHead request) throws IOException {
+        // Whatever the status, the response has no body, so the connection goes back to the pool once it is read
+        execute(request);
+    }
+}
@@ -0,0 +1,111 @@
+package com.starlingbank.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * The Transport sending the requests over the network with the JDK's HttpClient, negotiating HTTP/2.
+ * Over HTTP/2 the concurrent requests to a host are multiplexed as streams of a single connection, instead of
+ * holding a pooled HTTP/1.1 connection each; a server that does not speak HTTP/2 is sent HTTP/1.1 instead.
+ * Aborting a request, as the hedging of GETs does with the slower attempt, cancels its exchange. The socket timeout
+ * of the request's config bounds the whole exchange, as the JDK's HttpClient has no timeout per read.
+ * @author Cesar Goncalves
+ */
+public class JdkHttpTransport implements Transport {
+    private final HttpClient httpClient;
+
+    /**
+     * Constructor for JdkHttpTransport.
+     * @param httpClient The HTTP client used to send the requests, which may be shared between tenants.
+     */
+    public JdkHttpTransport(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Creates a transport over a new HTTP client preferring HTTP/2.
+     * @return The transport.
+     */
+    public static JdkHttpTransport http2() {
+        return new JdkHttpTransport(HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build());
+    }
+
+    @Override
+    public ApiResponse execute(HttpRequestBase request) throws IOException {
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(toJdkRequest(request),
+            HttpResponse.BodyHandlers.ofByteArray());
+        // Cancels the exchange straight away if the request is already aborted
+        request.setCancellable(() -> exchange.cancel(true));
+        try {
+            return toApiResponse(exchange.get());
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (CancellationException e) {
+            throw new IOException("The request was aborted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void warmUp(HttpHead request) throws IOException {
+        // Also negotiates the protocol, so the first requests are already multiplexed over HTTP/2
+        execute(request);
+    }
+
+    private static HttpRequest toJdkRequest(HttpRequestBase request) throws IOException {
+        HttpEntity entity = entityOf(request);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getURI()).method(request.getMethod(),
+            entity == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(EntityUtils.toByteArray(entity)));
+        // The entity of a PUT carries its content type, which the Apache client would send as a header
+        if (entity != null && entity.getContentType() != null) {
+            builder.setHeader(HttpHeaders.CONTENT_TYPE, entity.getContentType().getValue());
+        }
+        for (Header header : request.getAllHeaders()) {
+            builder.setHeader(header.getName(), header.getValue());
+        }
+        setTimeout(builder, request.getConfig());
+        return builder.build();
+    }
+
+    private static void setTimeout(HttpRequest.Builder builder, RequestConfig config) {
+        if (config != null && config.getSocketTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(config.getSocketTimeout()));
+        }
+    }
+
+    private static HttpEntity entityOf(HttpRequestBase request) {
+        return request instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+    }
+
+    private static ApiResponse toApiResponse(HttpResponse<byte[]> response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            List<String> values = header.getValue();
+            headers.put(header.getKey(), values.get(values.size() - 1));
+        }
+        return new ApiResponse(response.statusCode(), headers, response.body());
+    }
+}
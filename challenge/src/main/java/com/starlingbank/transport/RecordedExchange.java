@@ -0,0 +1,95 @@
+package com.starlingbank.transport;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * One request and its response, as captured by a RecordingTransport.
+ * The request is identified by its method and target (path and query, without the base URL), so recordings
+ * can be replayed against any base URL.
+ * @author Cesar Goncalves
+ */
+final class RecordedExchange {
+    // A trailing UUID is an idempotency key (e.g. the transferUid of add-money), generated anew on every run
+    private static final Pattern TRAILING_UUID =
+        Pattern.compile(".*/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final long offsetNanos;
+    private final long latencyNanos;
+    private final String method;
+    private final String target;
+    private final Map<String, String> requestHeaders;
+    private final byte[] requestBody;
+    private final ApiResponse response;
+
+    /**
+     * Constructor for RecordedExchange.
+     * @param offsetNanos When the request was sent, in nanoseconds since the recording started.
+     * @param latencyNanos How long the response took, in nanoseconds.
+     * @param method The HTTP method of the request.
+     * @param target The path and query of the request.
+     * @param requestHeaders The request headers, without the credentials.
+     * @param requestBody The request body, empty if the request has none.
+     * @param response The response.
+     */
+    RecordedExchange(long offsetNanos, long latencyNanos, String method, String target,
+                     Map<String, String> requestHeaders, byte[] requestBody, ApiResponse response) {
+        this.offsetNanos = offsetNanos;
+        this.latencyNanos = latencyNanos;
+        this.method = method;
+        this.target = target;
+        this.requestHeaders = Collections.unmodifiableMap(requestHeaders);
+        this.requestBody = requestBody;
+        this.response = response;
+    }
+
+    /**
+     * Returns the key replayed requests are matched by: the method and the target, with a trailing UUID
+     * replaced by a wildcard.
+     * @param method The HTTP method of the request.
+     * @param target The path and query of the request.
+     * @return The key.
+     */
+    static String keyOf(String method, String target) {
+        String matchedTarget = TRAILING_UUID.matcher(target).matches()
+            ? target.substring(0, target.lastIndexOf('/') + 1) + "*" : target;
+        return method + " " + matchedTarget;
+    }
+
+    /**
+     * Returns the key the exchange is replayed by.
+     * @return The key.
+     */
+    String key() {
+        return keyOf(method, target);
+    }
+
+    long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    String getTarget() {
+        return target;
+    }
+
+    Map<String, String> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    byte[] getRequestBody() {
+        return requestBody;
+    }
+
+    ApiResponse getResponse() {
+        return response;
+    }
+}
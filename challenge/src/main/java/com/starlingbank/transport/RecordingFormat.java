@@ -0,0 +1,105 @@
+package com.starlingbank.transport;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The binary format of a recording, written inside a GZIP stream.
+ * A header (magic number and version) is followed by the exchanges, each introduced by a marker byte:
+ * timing, request line, request headers and body, then status, response headers and body.
+ * Strings are written as modified UTF-8, headers and bodies are prefixed with their length.
+ * @author Cesar Goncalves
+ */
+final class RecordingFormat {
+    /** Identifies a recording file ("SRR1"). */
+    static final int MAGIC = 0x53525231;
+    /** The version of the format. */
+    static final int VERSION = 1;
+    /** Introduces an exchange. */
+    static final int EXCHANGE_MARKER = 1;
+
+    private RecordingFormat() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Writes an exchange.
+     * @param out The output to write to.
+     * @param exchange The exchange.
+     * @throws IOException If the exchange cannot be written.
+     */
+    static void write(DataOutput out, RecordedExchange exchange) throws IOException {
+        out.writeByte(EXCHANGE_MARKER);
+        out.writeLong(exchange.getOffsetNanos());
+        out.writeLong(exchange.getLatencyNanos());
+        out.writeUTF(exchange.getMethod());
+        out.writeUTF(exchange.getTarget());
+        writeHeaders(out, exchange.getRequestHeaders());
+        writeBytes(out, exchange.getRequestBody());
+        ApiResponse response = exchange.getResponse();
+        out.writeShort(response.getStatusCode());
+        writeHeaders(out, response.getHeaders());
+        writeBytes(out, response.getBody());
+    }
+
+    /**
+     * Reads the next exchange.
+     * @param in The input to read from, positioned after the header or the previous exchange.
+     * @return The exchange, or null at the end of the recording.
+     * @throws IOException If the recording is corrupted or truncated.
+     */
+    static RecordedExchange read(DataInputStream in) throws IOException {
+        int marker = in.read();
+        if (marker != EXCHANGE_MARKER) {
+            return endOfRecording(marker);
+        }
+        long offsetNanos = in.readLong();
+        long latencyNanos = in.readLong();
+        String method = in.readUTF();
+        String target = in.readUTF();
+        Map<String, String> requestHeaders = readHeaders(in);
+        byte[] requestBody = readBytes(in);
+        int statusCode = in.readUnsignedShort();
+        ApiResponse response = new ApiResponse(statusCode, readHeaders(in), readBytes(in));
+        return new RecordedExchange(offsetNanos, latencyNanos, method, target, requestHeaders, requestBody, response);
+    }
+
+    private static RecordedExchange endOfRecording(int marker) throws IOException {
+        if (marker != -1) {
+            throw new IOException("Corrupted recording, unexpected marker " + marker);
+        }
+        return null;
+    }
+
+    private static void writeHeaders(DataOutput out, Map<String, String> headers) throws IOException {
+        out.writeShort(headers.size());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+    }
+
+    private static Map<String, String> readHeaders(DataInput in) throws IOException {
+        int count = in.readUnsignedShort();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            headers.put(in.readUTF(), in.readUTF());
+        }
+        return headers;
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,83 @@
+package com.starlingbank.transport;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * A Transport capturing every exchange of another Transport into a TrafficRecorder.
+ * The Authorization header is never recorded, so recordings carry no credentials.
+ * @author Cesar Goncalves
+ */
+public class RecordingTransport implements Transport {
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final Transport delegate;
+    private final TrafficRecorder recorder;
+    private final LongSupplier nanoClock;
+    // When the recording started, the origin of the offsets of the exchanges
+    private final long startNanos;
+
+    /**
+     * Constructor for RecordingTransport.
+     * @param delegate The transport actually sending the requests.
+     * @param recorder The recorder the exchanges are written to.
+     * @param nanoClock The source of the current time in nanoseconds.
+     */
+    public RecordingTransport(Transport delegate, TrafficRecorder recorder, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    @Override
+    public ApiResponse execute(HttpRequestBase request) throws IOException {
+        long sentNanos = nanoClock.getAsLong();
+        ApiResponse response = delegate.execute(request);
+        long latencyNanos = nanoClock.getAsLong() - sentNanos;
+        recorder.record(new RecordedExchange(sentNanos - startNanos, latencyNanos, request.getMethod(),
+            targetOf(request), headersOf(request), bodyOf(request), response));
+        return response;
+    }
+
+    @Override
+    public void warmUp(HttpHead request) throws IOException {
+        // Not an exchange of the client, so it is not recorded
+        delegate.warmUp(request);
+    }
+
+    /**
+     * Returns the path and query of a request.
+     * @param request The request.
+     * @return The target of the request.
+     */
+    static String targetOf(HttpRequestBase request) {
+        String query = request.getURI().getRawQuery();
+        return request.getURI().getRawPath() + (query == null ? "" : "?" + query);
+    }
+
+    private static Map<String, String> headersOf(HttpRequestBase request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Header header : request.getAllHeaders()) {
+            headers.put(header.getName(), header.getValue());
+        }
+        headers.remove(HttpHeaders.AUTHORIZATION);
+        return headers;
+    }
+
+    private static byte[] bodyOf(HttpRequestBase request) throws IOException {
+        HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+            ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+        return entity == null ? NO_BODY : EntityUtils.toByteArray(entity);
+    }
+}
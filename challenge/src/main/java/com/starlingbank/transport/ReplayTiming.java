@@ -0,0 +1,12 @@
+package com.starlingbank.transport;
+
+/**
+ * How fast a ReplayTransport answers the requests.
+ * @author Cesar Goncalves
+ */
+public enum ReplayTiming {
+    /** Each response takes as long as it took when it was recorded. */
+    ORIGINAL,
+    /** Each response is returned immediately. */
+    MAXIMUM_SPEED
+}
@@ -0,0 +1,76 @@
+package com.starlingbank.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * A Transport answering the requests with the responses of a recording, without any network.
+ * Requests are matched by method and target, ignoring the base URL and a trailing idempotency key; requests
+ * with the same key get the recorded responses in order, the last one being repeated once they run out.
+ * @author Cesar Goncalves
+ */
+public class ReplayTransport implements Transport {
+    private final Map<String, Deque<RecordedExchange>> exchanges = new HashMap<>();
+    private final ReplayTiming timing;
+
+    /**
+     * Constructor for ReplayTransport.
+     * @param recording The recorded exchanges.
+     * @param timing How fast the responses are returned.
+     */
+    ReplayTransport(List<RecordedExchange> recording, ReplayTiming timing) {
+        this.timing = timing;
+        for (RecordedExchange exchange : recording) {
+            exchanges.computeIfAbsent(exchange.key(), key -> new ArrayDeque<>()).add(exchange);
+        }
+    }
+
+    /**
+     * Loads a recording file.
+     * @param file The recording file, written by a TrafficRecorder.
+     * @param timing How fast the responses are returned.
+     * @return The transport replaying the recording.
+     * @throws IOException If the file cannot be read, or is not a complete recording.
+     */
+    public static ReplayTransport load(Path file, ReplayTiming timing) throws IOException {
+        return new ReplayTransport(TrafficRecorder.read(file), timing);
+    }
+
+    @Override
+    public ApiResponse execute(HttpRequestBase request) throws IOException {
+        RecordedExchange exchange = next(RecordedExchange.keyOf(request.getMethod(), RecordingTransport.targetOf(request)));
+        if (timing == ReplayTiming.ORIGINAL) {
+            pause(exchange.getLatencyNanos());
+        }
+        if (request.isAborted()) {
+            throw new IOException("Request aborted");
+        }
+        return exchange.getResponse();
+    }
+
+    private synchronized RecordedExchange next(String key) throws IOException {
+        Deque<RecordedExchange> queue = exchanges.get(key);
+        if (queue == null) {
+            throw new IOException("No recorded response for " + key);
+        }
+        return queue.size() > 1 ? queue.poll() : queue.peek();
+    }
+
+    private static void pause(long nanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while replaying a response");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.starlingbank.transport;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the exchanges captured by RecordingTransports to a compressed recording file, and reads them back.
+ * Exchanges are appended in the order they complete; the file is complete once the recorder is closed.
+ * @author Cesar Goncalves
+ */
+public class TrafficRecorder implements Closeable {
+    private final DataOutputStream out;
+
+    /**
+     * Constructor for TrafficRecorder. It creates or truncates the recording file.
+     * @param file The recording file.
+     * @throws IOException If the file cannot be created.
+     */
+    public TrafficRecorder(Path file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))));
+        out.writeInt(RecordingFormat.MAGIC);
+        out.writeInt(RecordingFormat.VERSION);
+    }
+
+    /**
+     * Reads all the exchanges of a recording file.
+     * @param file The recording file.
+     * @return The exchanges, in the order they were recorded.
+     * @throws IOException If the file cannot be read, or is not a complete recording.
+     */
+    static List<RecordedExchange> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != RecordingFormat.MAGIC || in.readInt() != RecordingFormat.VERSION) {
+                throw new IOException("Not a recording, or an unsupported version: " + file);
+            }
+            List<RecordedExchange> exchanges = new ArrayList<>();
+            for (RecordedExchange exchange = RecordingFormat.read(in); exchange != null;
+                exchange = RecordingFormat.read(in)) {
+                exchanges.add(exchange);
+            }
+            return exchanges;
+        }
+    }
+
+    /**
+     * Appends an exchange to the recording.
+     * @param exchange The exchange.
+     * @throws IOException If the exchange cannot be written.
+     */
+    synchronized void record(RecordedExchange exchange) throws IOException {
+        RecordingFormat.write(out, exchange);
+    }
+
+    /**
+     * Completes the recording file.
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,34 @@
+package com.starlingbank.transport;
+
+import java.io.IOException;
+
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * Carries the HTTP requests of a StarlingClient to the Starling Bank API, or to a stand-in for it.
+ * Implementations must be thread-safe, and should give up on a request once it is aborted.
+ * @author Cesar Goncalves
+ */
+@FunctionalInterface
+public interface Transport {
+
+    /**
+     * Sends a request and reads its response, whatever its status.
+     * @param request The request to send, with its headers set.
+     * @return The response.
+     * @throws IOException If the request cannot be sent or the response cannot be read.
+     */
+    ApiResponse execute(HttpRequestBase request) throws IOException;
+
+    /**
+     * Opens a connection to an origin ahead of the first request, resolving its name and completing the
+     * handshakes, and leaves it in the pool. A transport without connections does nothing.
+     * @param request The HEAD request to the origin of the API, e.g. https://api.starlingbank.com/, with the
+     * timeouts of the warm-up.
+     * @throws IOException If the connection cannot be opened.
+     */
+    default void warmUp(HttpHead request) throws IOException {
+        // No connection to open
+    }
+}
@@ -0,0 +1,97 @@
+package com.starlingbank.transport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import com.starlingbank.logging.EventLog;
+
+/**
+ * Selects the Transport of the application from the environment: requests are sent over the network, with the
+ * Apache HttpClient over HTTP/1.1 or, if STARLING_TRANSPORT is http2, with the JDK's HttpClient over HTTP/2,
+ * optionally recorded to the file named by STARLING_RECORD_TO, or replayed from the recording named by
+ * STARLING_REPLAY_FROM, at the speed set by STARLING_REPLAY_TIMING (original or maximum_speed, the default).
+ * @author Cesar Goncalves
+ */
+public final class Transports {
+    /** The environment variable selecting the network transport: apache (the default) or http2. */
+    public static final String TRANSPORT = "STARLING_TRANSPORT";
+    /** The environment variable naming the file the API traffic is recorded to. */
+    public static final String RECORD_TO = "STARLING_RECORD_TO";
+    /** The environment variable naming the recording the API traffic is replayed from. */
+    public static final String REPLAY_FROM = "STARLING_REPLAY_FROM";
+    /** The environment variable setting the ReplayTiming of the replay. */
+    public static final String REPLAY_TIMING = "STARLING_REPLAY_TIMING";
+
+    private static final String HTTP2 = "http2";
+
+    // Log of the errors of this class
+    private static final EventLog LOG = EventLog.get();
+
+    private Transports() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether the API traffic is replayed, in which case no access token is needed.
+     * @param environment The environment variables.
+     * @return true if a recording is replayed.
+     */
+    public static boolean isReplaying(Map<String, String> environment) {
+        return environment.containsKey(REPLAY_FROM);
+    }
+
+    /**
+     * Returns the factory of the transport selected by the environment.
+     * When recording, the recording file is completed when the JVM shuts down.
+     * @param environment The environment variables.
+     * @return The factory building the transport over the shared HTTP client.
+     * @throws IOException If the recording cannot be created or the replayed recording cannot be read.
+     * @throws IllegalArgumentException If the replay timing is invalid.
+     */
+    public static Function<CloseableHttpClient, Transport> fromEnvironment(Map<String, String> environment)
+        throws IOException {
+        if (isReplaying(environment)) {
+            ReplayTransport replay = ReplayTransport.load(Path.of(environment.get(REPLAY_FROM)),
+                parseTiming(environment.get(REPLAY_TIMING)));
+            return httpClient -> replay;
+        }
+        Function<CloseableHttpClient, Transport> network = network(environment.get(TRANSPORT));
+        if (environment.containsKey(RECORD_TO)) {
+            return recording(network, Path.of(environment.get(RECORD_TO)));
+        }
+        return network;
+    }
+
+    // The HTTP/2 transport has its own HTTP client, shared by the tenants in place of the Apache one
+    private static Function<CloseableHttpClient, Transport> network(String transport) {
+        if (HTTP2.equalsIgnoreCase(transport)) {
+            JdkHttpTransport http2 = JdkHttpTransport.http2();
+            return httpClient -> http2;
+        }
+        return HttpClientTransport::new;
+    }
+
+    private static Function<CloseableHttpClient, Transport> recording(Function<CloseableHttpClient, Transport> network,
+                                                                      Path file) throws IOException {
+        TrafficRecorder recorder = new TrafficRecorder(file);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeRecorder(recorder)));
+        return httpClient -> new RecordingTransport(network.apply(httpClient), recorder, System::nanoTime);
+    }
+
+    private static ReplayTiming parseTiming(String value) {
+        return value == null ? ReplayTiming.MAXIMUM_SPEED : ReplayTiming.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private static void closeRecorder(TrafficRecorder recorder) {
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            LOG.severe("recording", "Cannot complete the recording", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.starlingbank.util;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.starlingbank.model.SavingGoal;
+
+/**
+ * An AllocationStrategy assigns a weight to every savings goal, and the RoundUpAllocator splits the
+ * round-up across the goals in proportion to their weights.
+ * @author Cesar Goncalves
+ */
+@FunctionalInterface
+public interface AllocationStrategy {
+
+    /**
+     * Returns the weight of a savings goal.
+     * @param savingGoal The savings goal.
+     * @return The weight of the savings goal, zero or positive.
+     */
+    long weightOf(SavingGoal savingGoal);
+
+    /**
+     * Strategy giving every savings goal the same share of the round-up.
+     * @return The strategy.
+     */
+    static AllocationStrategy equalWeights() {
+        return savingGoal -> 1;
+    }
+
+    /**
+     * Strategy splitting the round-up in proportion to the amount each savings goal still misses to reach its
+     * target, so the goals furthest from their targets receive the most.
+     * @return The strategy.
+     */
+    static AllocationStrategy remainingTarget() {
+        return SavingGoal::getRemainingTargetMinorUnits;
+    }
+
+    /**
+     * Strategy splitting the round-up according to explicit weights.
+     * @param weightsBySavingsGoalUid The weight of each savings goal, keyed by its unique identifier.
+     * Savings goals without a weight receive nothing.
+     * @return The strategy.
+     */
+    static AllocationStrategy weighted(Map<UUID, Long> weightsBySavingsGoalUid) {
+        return savingGoal -> weightsBySavingsGoalUid.getOrDefault(savingGoal.getSavingsGoalUid(), 0L);
+    }
+}
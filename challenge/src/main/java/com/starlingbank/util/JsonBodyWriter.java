@@ -0,0 +1,128 @@
+package com.starlingbank.util;
+
+/**
+ * A reusable, streaming writer of JSON request bodies.
+ * Objects, names and values are encoded as UTF-8 straight into a growable byte buffer, so writing a body
+ * allocates nothing once the buffer is large enough. Call reset() before writing the next body.
+ * @author Cesar Goncalves
+ */
+public final class JsonBodyWriter {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int RADIX = 10;
+
+    // The encoded body, valid up to size
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Discards the body written so far, keeping the buffer for the next body.
+     * @return This writer.
+     */
+    public JsonBodyWriter reset() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Starts an object, either as the body or as the value of the last name written.
+     * @return This writer.
+     */
+    public JsonBodyWriter beginObject() {
+        writeByte('{');
+        return this;
+    }
+
+    /**
+     * Ends the current object.
+     * @return This writer.
+     */
+    public JsonBodyWriter endObject() {
+        writeByte('}');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     * @param name The name.
+     * @return This writer.
+     */
+    public JsonBodyWriter name(String name) {
+        if (buffer[size - 1] != '{') {
+            writeByte(',');
+        }
+        JsonStringEncoder.write(this, name);
+        writeByte(':');
+        return this;
+    }
+
+    /**
+     * Writes a string value.
+     * @param value The value.
+     * @return This writer.
+     */
+    public JsonBodyWriter value(String value) {
+        JsonStringEncoder.write(this, value);
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     * @param value The value.
+     * @return This writer.
+     */
+    public JsonBodyWriter value(long value) {
+        if (value < 0) {
+            writeByte('-');
+        }
+        // Digits are written from the negative value, so that Long.MIN_VALUE does not overflow
+        writeDigits(value < 0 ? value : -value);
+        return this;
+    }
+
+    /**
+     * Returns the buffer holding the body; only the first size() bytes are part of it.
+     * @return The buffer, reused by the next body written.
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the number of bytes of the body.
+     * @return The size of the body.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a byte to the body.
+     * @param value The byte, as an int or char.
+     */
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeDigits(long negative) {
+        int length = 1;
+        for (long remaining = negative / RADIX; remaining != 0; remaining /= RADIX) {
+            length++;
+        }
+        ensureCapacity(length);
+        long remaining = negative;
+        for (int position = size + length - 1; position >= size; position--) {
+            buffer[position] = (byte) ('0' - remaining % RADIX);
+            remaining /= RADIX;
+        }
+        size += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+            System.arraycopy(buffer, 0, grown, 0, size);
+            buffer = grown;
+        }
+    }
+}
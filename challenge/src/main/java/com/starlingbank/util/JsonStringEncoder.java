@@ -0,0 +1,95 @@
+package com.starlingbank.util;
+
+/**
+ * Writes JSON strings, quoted and escaped, as UTF-8 bytes into a JsonBodyWriter.
+ * Unpaired surrogates cannot be encoded and are replaced with '?', as String.getBytes does.
+ * @author Cesar Goncalves
+ */
+final class JsonStringEncoder {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int FIRST_PRINTABLE = 0x20;
+    private static final int TWO_BYTES = 0x80;
+    private static final int THREE_BYTES = 0x800;
+    private static final int FOUR_BYTES = 0x10000;
+    private static final int CONTINUATION = 0x80;
+    private static final int CONTINUATION_MASK = 0x3F;
+    private static final int TWO_BYTES_LEAD = 0xC0;
+    private static final int THREE_BYTES_LEAD = 0xE0;
+    private static final int FOUR_BYTES_LEAD = 0xF0;
+    private static final int BITS_PER_CONTINUATION = 6;
+    private static final int BITS_PER_TWO_CONTINUATIONS = 12;
+    private static final int BITS_PER_THREE_CONTINUATIONS = 18;
+    private static final int BITS_PER_HEX_DIGIT = 4;
+    private static final int HEX_DIGIT_MASK = 0xF;
+
+    private JsonStringEncoder() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Writes a quoted and escaped string.
+     * @param out The writer to write to.
+     * @param value The string.
+     */
+    static void write(JsonBodyWriter out, String value) {
+        out.writeByte('"');
+        int index = 0;
+        while (index < value.length()) {
+            index = writeChar(out, value, index);
+        }
+        out.writeByte('"');
+    }
+
+    // Writes the character at the given index and returns the index of the next character
+    private static int writeChar(JsonBodyWriter out, String value, int index) {
+        char c = value.charAt(index);
+        if (c == '"' || c == '\\') {
+            out.writeByte('\\');
+            out.writeByte(c);
+        } else if (c < FIRST_PRINTABLE) {
+            writeUnicodeEscape(out, c);
+        } else if (c < TWO_BYTES) {
+            out.writeByte(c);
+        } else {
+            return writeNonAscii(out, value, index);
+        }
+        return index + 1;
+    }
+
+    private static void writeUnicodeEscape(JsonBodyWriter out, char c) {
+        out.writeByte('\\');
+        out.writeByte('u');
+        out.writeByte('0');
+        out.writeByte('0');
+        out.writeByte(HEX_DIGITS[c >> BITS_PER_HEX_DIGIT]);
+        out.writeByte(HEX_DIGITS[c & HEX_DIGIT_MASK]);
+    }
+
+    private static int writeNonAscii(JsonBodyWriter out, String value, int index) {
+        int codePoint = value.codePointAt(index);
+        if (Character.isSurrogate(value.charAt(index)) && codePoint < FOUR_BYTES) {
+            out.writeByte('?');
+            return index + 1;
+        }
+        writeUtf8(out, codePoint);
+        return index + Character.charCount(codePoint);
+    }
+
+    private static void writeUtf8(JsonBodyWriter out, int codePoint) {
+        if (codePoint < THREE_BYTES) {
+            out.writeByte(TWO_BYTES_LEAD | codePoint >> BITS_PER_CONTINUATION);
+        } else if (codePoint < FOUR_BYTES) {
+            out.writeByte(THREE_BYTES_LEAD | codePoint >> BITS_PER_TWO_CONTINUATIONS);
+            writeContinuation(out, codePoint >> BITS_PER_CONTINUATION);
+        } else {
+            out.writeByte(FOUR_BYTES_LEAD | codePoint >> BITS_PER_THREE_CONTINUATIONS);
+            writeContinuation(out, codePoint >> BITS_PER_TWO_CONTINUATIONS);
+            writeContinuation(out, codePoint >> BITS_PER_CONTINUATION);
+        }
+        writeContinuation(out, codePoint);
+    }
+
+    private static void writeContinuation(JsonBodyWriter out, int bits) {
+        out.writeByte(CONTINUATION | bits & CONTINUATION_MASK);
+    }
+}
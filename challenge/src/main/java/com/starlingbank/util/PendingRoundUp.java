@@ -0,0 +1,117 @@
+package com.starlingbank.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+import com.starlingbank.model.SavingGoal;
+
+/**
+ * The total round-up of a list of transactions, together with the feed items it counts for the first time.
+ * The feed items are recorded as processed only once the round-up is transferred, accrued or checkpointed, so a
+ * round-up that fails before then is counted again by the next run instead of being lost. Its shares are then
+ * transferred again under the same transferUids, derived from its feed items, so the shares that went through the
+ * first time are not paid twice.
+ * @author Cesar Goncalves
+ */
+public final class PendingRoundUp {
+    // The total round-up in minor units
+    private final long minorUnits;
+    // The feed items counted for the first time
+    private final List<UUID> feedItemUids;
+    // The feed items already counted, null if every feed item is counted
+    private final ProcessedItemSet processedItems;
+    // Identifies the round-up across runs, null if it is not counted once, so its shares get new transferUids
+    private final String transferKey;
+    // Run once the round-up is durable, after its feed items are recorded, e.g. to delete the checkpoint of a backfill
+    private final Runnable whenProcessed;
+
+    /**
+     * Constructor for PendingRoundUp.
+     * @param minorUnits The total round-up in minor units.
+     * @param feedItemUids The feed items counted for the first time.
+     * @param processedItems The feed items already counted, null if every feed item is counted.
+     */
+    PendingRoundUp(long minorUnits, List<UUID> feedItemUids, ProcessedItemSet processedItems) {
+        this(minorUnits, feedItemUids, processedItems, processedItems == null || feedItemUids.isEmpty() ? null
+            : feedItemUids.stream().sorted().map(UUID::toString).collect(Collectors.joining(",")), () -> { });
+    }
+
+    private PendingRoundUp(long minorUnits, List<UUID> feedItemUids, ProcessedItemSet processedItems,
+                           String transferKey, Runnable whenProcessed) {
+        this.minorUnits = minorUnits;
+        this.feedItemUids = feedItemUids;
+        this.processedItems = processedItems;
+        this.transferKey = transferKey;
+        this.whenProcessed = whenProcessed;
+    }
+
+    /**
+     * Returns a round-up whose feed items are already recorded as processed, e.g. the round-up of a backfill whose
+     * chunks were checkpointed, and whose progress is kept until the round-up is durable.
+     * @param minorUnits The total round-up in minor units.
+     * @param transferKey Identifies the round-up across runs, so a round-up transferred again after a failure gets
+     * the same transferUids.
+     * @param whenProcessed Run once the round-up is durable, e.g. to delete the checkpoint of the backfill.
+     * @return The round-up, without feed items to record.
+     */
+    public static PendingRoundUp of(long minorUnits, String transferKey, Runnable whenProcessed) {
+        return new PendingRoundUp(minorUnits, List.of(), null, transferKey, whenProcessed);
+    }
+
+    /**
+     * Returns the total round-up.
+     * @return The total round-up in minor units.
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Returns the feed items counted for the first time by the round-up.
+     * @return The unique identifiers of the feed items, empty if every feed item is counted.
+     */
+    public List<UUID> getFeedItemUids() {
+        return feedItemUids;
+    }
+
+    /**
+     * Returns the transferUid of the share of the round-up transferred into a savings goal: the same on every run
+     * counting the same feed items, so a transfer repeated after a partial failure is not paid twice, and a new one
+     * if the round-up does not record its feed items.
+     * @param savingGoal The savings goal the share is transferred into.
+     * @return The unique identifier of the transfer.
+     */
+    public UUID transferUid(SavingGoal savingGoal) {
+        return transferUid(savingGoal.getSavingsGoalUid(), UUID.randomUUID());
+    }
+
+    /**
+     * Returns the transferUid of the share of the round-up transferred into a savings goal, derived from the feed
+     * items counted like the one of transferUid(SavingGoal), or a given one if the round-up does not record them.
+     * @param savingsGoalUid The unique identifier of the savings goal the share is transferred into.
+     * @param otherwise The transferUid used if the round-up does not record its feed items.
+     * @return The unique identifier of the transfer.
+     */
+    public UUID transferUid(UUID savingsGoalUid, UUID otherwise) {
+        if (transferKey == null) {
+            return otherwise;
+        }
+        return UUID.nameUUIDFromBytes((transferKey + '/' + savingsGoalUid).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records the feed items counted by the round-up as processed, so later runs skip them.
+     * Called once the round-up is durable: transferred, accrued in the ledger or checkpointed.
+     * @throws java.io.UncheckedIOException If the set of processed items is full and cannot be grown, or the
+     * progress kept until the round-up is durable cannot be deleted.
+     */
+    public void markProcessed() {
+        for (UUID feedItemUid : feedItemUids) {
+            processedItems.add(feedItemUid);
+        }
+        whenProcessed.run();
+    }
+}
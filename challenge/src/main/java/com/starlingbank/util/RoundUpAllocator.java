@@ -0,0 +1,85 @@
+package com.starlingbank.util;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.SavingGoal;
+
+/**
+ * The RoundUpAllocator class splits a round-up amount across several savings goals.
+ * The split follows the weights of an AllocationStrategy and is exact to the minor unit: each goal first
+ * receives the floor of its proportional share, and the minor units left over go one by one to the goals
+ * with the largest remainders (largest remainder method), so the shares always add up to the total.
+ * @author Cesar Goncalves
+ */
+public class RoundUpAllocator {
+
+    private final AllocationStrategy strategy;
+
+    /**
+     * Constructor for RoundUpAllocator.
+     * @param strategy The strategy weighting the savings goals.
+     */
+    public RoundUpAllocator(AllocationStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Splits a round-up amount across savings goals.
+     * If no savings goal has a positive weight, the amount is split equally.
+     *
+     * @param totalMinorUnits The round-up amount in minor units.
+     * @param currency The currency of the round-up amount.
+     * @param savingGoals The savings goals to split the amount across.
+     * @return The non-zero share of each savings goal, in the order of the given goals.
+     * @throws IllegalArgumentException if the round-up amount is negative.
+     */
+    public Map<SavingGoal, Amount> allocate(long totalMinorUnits, CurrencyUnit currency, List<SavingGoal> savingGoals) {
+        if (totalMinorUnits < 0) {
+            throw new IllegalArgumentException("The round-up amount cannot be negative");
+        }
+        long[] weights = weightsOf(savingGoals);
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight = Math.addExact(totalWeight, weight);
+        }
+        long[] shares = split(totalMinorUnits, weights, totalWeight);
+
+        Map<SavingGoal, Amount> allocations = new LinkedHashMap<>();
+        for (int i = 0; i < shares.length; i++) {
+            if (shares[i] > 0) {
+                allocations.put(savingGoals.get(i), new Amount(shares[i], currency));
+            }
+        }
+        return allocations;
+    }
+
+    private long[] weightsOf(List<SavingGoal> savingGoals) {
+        long[] weights = savingGoals.stream().mapToLong(strategy::weightOf).map(weight -> Math.max(weight, 0)).toArray();
+        boolean anyPositive = IntStream.range(0, weights.length).anyMatch(i -> weights[i] > 0);
+        return anyPositive ? weights : savingGoals.stream().mapToLong(goal -> 1).toArray();
+    }
+
+    private static long[] split(long totalMinorUnits, long[] weights, long totalWeight) {
+        long[] shares = new long[weights.length];
+        long[] remainders = new long[weights.length];
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            long scaled = Math.multiplyExact(totalMinorUnits, weights[i]);
+            shares[i] = scaled / totalWeight;
+            remainders[i] = scaled % totalWeight;
+            allocated += shares[i];
+        }
+        // Hand the minor units lost to flooring to the largest remainders, earlier goals first on ties
+        IntStream.range(0, weights.length).boxed()
+            .sorted(Comparator.comparingLong((Integer i) -> remainders[i]).reversed())
+            .limit(totalMinorUnits - allocated)
+            .forEach(i -> shares[i]++);
+        return shares;
+    }
+}
@@ -1,18 +1,56 @@
 package com.starlingbank.util;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
+import com.starlingbank.dedup.ProcessedItemSet;
 import com.starlingbank.model.Transaction;
+import com.starlingbank.profiling.RoundUpEvent;
 
 /**
  * The RoundUpCalculator class provides methods to calculate the round-up amount for transactions
  * and the total round-up amount for a list of transactions.
+ * Given a ProcessedItemSet, the total round-up skips the feed items counted before, by this run or a previous
+ * one, so runs over overlapping date ranges round each purchase up once. The feed items of a total are recorded
+ * as processed by the caller, through its PendingRoundUp, once the round-up is durable. Each total is recorded as
+ * a RoundUpEvent when Flight Recorder is running.
  * @author Cesar Goncalves
  */
 public class RoundUpCalculator {
 
     private static final int MAX_PENCE = 100;
 
+    // The feed items already counted in a total round-up, null if every feed item is counted
+    private final ProcessedItemSet processedItems;
+
+    /**
+     * Constructor for RoundUpCalculator, counting every feed item.
+     */
+    public RoundUpCalculator() {
+        this(null);
+    }
+
+    /**
+     * Constructor for RoundUpCalculator, counting each feed item once.
+     *
+     * @param processedItems The feed items already counted, or null to count every feed item.
+     */
+    public RoundUpCalculator(ProcessedItemSet processedItems) {
+        this.processedItems = processedItems;
+    }
+
+    /**
+     * Returns the feed items already counted, shared with the webhooks so a feed item is counted once whichever
+     * way it arrives.
+     *
+     * @return The processed item set, or null if every feed item is counted.
+     */
+    public ProcessedItemSet getProcessedItems() {
+        return processedItems;
+    }
+
     /**
      * Calculates the round-up amount for a transaction.
      *
@@ -20,25 +58,70 @@ public class RoundUpCalculator {
      * @return The round-up amount in minorUnits.
      */
     public int calculateRoundUpForTransaction(Transaction transaction) {
-        int minorUnits = transaction.getMinorUnits();
-        int pence = minorUnits % MAX_PENCE;
-        return pence > 0 ? MAX_PENCE - pence : 0;
+        return calculateRoundUp(transaction.getMinorUnits(), MAX_PENCE);
     }
 
     /**
-     * Calculates the total round-up amount for a list of transactions.
+     * Calculates the amount rounding a transaction amount up to the next multiple of a unit, e.g. the
+     * nearest £5 for a unit of 500.
+     *
+     * @param minorUnits The transaction amount in minorUnits.
+     * @param roundToMinorUnits The unit to round up to, in minorUnits.
+     * @return The round-up amount in minorUnits.
+     */
+    public int calculateRoundUp(int minorUnits, int roundToMinorUnits) {
+        int remainder = minorUnits % roundToMinorUnits;
+        return remainder > 0 ? roundToMinorUnits - remainder : 0;
+    }
+
+    /**
+     * Calculates the total round-up amount for a list of transactions, skipping the feed items already counted,
+     * without recording the others as counted.
      *
      * @param transactions The list of transaction objects.
      * @return The total round-up amount in minorUnits.
      */
-    public int calculateTotalRoundUp(List<Transaction> transactions) {
-        int totalRoundUp = 0;
+    public long calculateTotalRoundUp(List<Transaction> transactions) {
+        return calculatePendingRoundUp(transactions).getMinorUnits();
+    }
+
+    /**
+     * Calculates the total round-up amount for a list of transactions, skipping the feed items already counted.
+     * The others are recorded as counted only once the caller calls markProcessed on the result.
+     *
+     * @param transactions The list of transaction objects.
+     * @return The total round-up amount and the feed items it counts for the first time.
+     */
+    public PendingRoundUp calculatePendingRoundUp(List<Transaction> transactions) {
+        RoundUpEvent event = new RoundUpEvent();
+        event.begin();
+        long totalRoundUp = 0;
+        int roundedUp = 0;
+        Set<UUID> counted = new LinkedHashSet<>();
         for (Transaction transaction : transactions) {
-            // Only include transactions that are outbound payments.
-            if ("FASTER_PAYMENTS_OUT".equals(transaction.getSource())) {
-                totalRoundUp += calculateRoundUpForTransaction(transaction);
+            if (isRoundedUp(transaction) && isCountedFirstTime(transaction, counted)) {
+                totalRoundUp = Math.addExact(totalRoundUp, calculateRoundUpForTransaction(transaction));
+                roundedUp++;
             }
         }
-        return totalRoundUp;
+        event.commit(transactions.size(), roundedUp, totalRoundUp);
+        return new PendingRoundUp(totalRoundUp, List.copyOf(counted), processedItems);
+    }
+
+    /**
+     * Checks whether a transaction is rounded up: only outbound payments are.
+     *
+     * @param transaction The transaction object.
+     * @return true if the transaction is rounded up.
+     */
+    public boolean isRoundedUp(Transaction transaction) {
+        return "FASTER_PAYMENTS_OUT".equals(transaction.getSource());
+    }
+
+    // Adds the feed item to those counted by this total, returning false if it already was counted by this total or
+    // a previous one; items of unknown identity always count
+    private boolean isCountedFirstTime(Transaction transaction, Set<UUID> counted) {
+        return processedItems == null || transaction.getFeedItemUid() == null
+            || !processedItems.contains(transaction.getFeedItemUid()) && counted.add(transaction.getFeedItemUid());
     }
 }
@@ -4,6 +4,10 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+
 /**
  * The UserInputHandler class is responsible for handling user inputs.
  * It provides methods to read different types of inputs from the user.
@@ -29,7 +33,7 @@ public class UserInputHandler {
      */
     public LocalDate readDate(String prompt) {
         while (true) {
-            System.out.println(prompt);
+            prompt(prompt);
             String input = scanner.nextLine();
             try {
                 return LocalDate.parse(input);
@@ -45,23 +49,38 @@ public class UserInputHandler {
      * @return The string entered by the user.
      */
     public String readString(String prompt) {
-        System.out.println(prompt);
+        prompt(prompt);
         return scanner.nextLine();
     }
 
     /**
-     * Reads a double input from the user.
-     * Prompts the user until a valid double is entered.
+     * Reads an amount in major units (e.g. 12.50) from the user.
+     * Prompts the user until a valid amount is entered.
      * @param prompt The prompt to display to the user.
-     * @return The double entered by the user.
+     * @param currency The currency of the amount.
+     * @return The amount entered by the user.
      */
-    public double readDouble(String prompt) {
-        System.out.println(prompt);
-        while (!scanner.hasNextDouble()) {
-            System.out.println("Invalid input. Please enter a numeric value.");
-            scanner.next(); // Clear the invalid input
+    public Amount readAmount(String prompt, CurrencyUnit currency) {
+        while (true) {
+            prompt(prompt);
+            String input = scanner.nextLine();
+            try {
+                return Amount.parse(input, currency);
+            } catch (NumberFormatException | ArithmeticException e) {
+                System.out.println("Invalid input. Please enter an amount with at most "
+                    + currency.getFractionDigits() + " decimal places.");
+            }
         }
-        return scanner.nextDouble();
+    }
+
+    /**
+     * Displays a prompt once the progress already logged is written, so the prompt is the last line displayed.
+     * Prompts and the replies to invalid input are written synchronously, as the user is waiting for them.
+     * @param prompt The prompt to display to the user.
+     */
+    private void prompt(String prompt) {
+        EventLog.get().flush();
+        System.out.println(prompt);
     }
 
 }
@@ -0,0 +1,98 @@
+package com.starlingbank.webhook;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state of a RoundUpAccumulator: the round-up pending for each account outside its sweep, and the sweep begun
+ * but not settled yet of each account. It is rebuilt by replaying the journal; the round-ups are added without a
+ * lock by the webhooks, and the sweeps changed by the sweeper only.
+ * @author Cesar Goncalves
+ */
+final class AccumulatedBalances {
+    // The round-up pending for each account outside its sweep, in minor units
+    private final Map<UUID, AtomicLong> pendingByAccount = new ConcurrentHashMap<>();
+    // The sweep begun and not settled of each account
+    private final Map<UUID, AccumulatedSweep> sweepsByAccount = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a round-up to an account; the counter of an account that has one is found with a plain read and
+     * updated atomically, so concurrent events of the same account never wait for each other.
+     * @param accountUid The unique identifier of the account.
+     * @param minorUnits The round-up in minor units, negative when replaying a sweep.
+     */
+    void add(UUID accountUid, long minorUnits) {
+        AtomicLong pending = pendingByAccount.get(accountUid);
+        if (pending == null) {
+            pending = pendingByAccount.computeIfAbsent(accountUid, uid -> new AtomicLong());
+        }
+        pending.addAndGet(minorUnits);
+    }
+
+    /**
+     * Takes the round-up pending for an account outside its sweep, leaving the account at zero.
+     * @param accountUid The unique identifier of the account.
+     * @return The round-up taken, in minor units.
+     */
+    long take(UUID accountUid) {
+        AtomicLong pending = pendingByAccount.get(accountUid);
+        return pending == null ? 0 : pending.getAndSet(0);
+    }
+
+    /**
+     * Records a sweep begun, until it is settled.
+     * @param sweep The sweep.
+     */
+    void applySweep(AccumulatedSweep sweep) {
+        sweepsByAccount.put(sweep.getAccountUid(), sweep);
+    }
+
+    /**
+     * Ends the sweep of an account.
+     * @param accountUid The unique identifier of the account.
+     */
+    void applySettlement(UUID accountUid) {
+        sweepsByAccount.remove(accountUid);
+    }
+
+    /**
+     * Returns the sweep begun of an account.
+     * @param accountUid The unique identifier of the account.
+     * @return The sweep, or null if the account is not being swept.
+     */
+    AccumulatedSweep sweep(UUID accountUid) {
+        return sweepsByAccount.get(accountUid);
+    }
+
+    /**
+     * Returns the round-up pending for an account, including its sweep.
+     * @param accountUid The unique identifier of the account.
+     * @return The round-up in minor units.
+     */
+    long pending(UUID accountUid) {
+        AtomicLong pending = pendingByAccount.get(accountUid);
+        AccumulatedSweep sweep = sweepsByAccount.get(accountUid);
+        return (pending == null ? 0 : pending.get()) + (sweep == null ? 0 : sweep.getMinorUnits());
+    }
+
+    /**
+     * Returns the accounts that received a round-up.
+     * @return A live view of the accounts.
+     */
+    Set<UUID> accounts() {
+        return Collections.unmodifiableSet(pendingByAccount.keySet());
+    }
+
+    /**
+     * Returns the sweeps begun and not settled.
+     * @return A live view of the sweeps.
+     */
+    Collection<AccumulatedSweep> sweeps() {
+        return Collections.unmodifiableCollection(sweepsByAccount.values());
+    }
+}
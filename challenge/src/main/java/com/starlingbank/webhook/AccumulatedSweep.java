@@ -0,0 +1,51 @@
+package com.starlingbank.webhook;
+
+import java.util.UUID;
+
+/**
+ * The round-up drained from the accumulator of an account by a sweep not settled yet.
+ * The sweepUid names the transferUids of its shares, so a sweep retried after a failure or a restart does not pay
+ * the shares that went through twice.
+ * @author Cesar Goncalves
+ */
+final class AccumulatedSweep {
+    private final UUID accountUid;
+    private final long minorUnits;
+    private final UUID sweepUid;
+
+    /**
+     * Constructor for AccumulatedSweep.
+     * @param accountUid The unique identifier of the account.
+     * @param minorUnits The round-up drained, in minor units.
+     * @param sweepUid The unique identifier of the sweep.
+     */
+    AccumulatedSweep(UUID accountUid, long minorUnits, UUID sweepUid) {
+        this.accountUid = accountUid;
+        this.minorUnits = minorUnits;
+        this.sweepUid = sweepUid;
+    }
+
+    /**
+     * Returns the account swept.
+     * @return The unique identifier of the account.
+     */
+    UUID getAccountUid() {
+        return accountUid;
+    }
+
+    /**
+     * Returns the round-up drained.
+     * @return The round-up in minor units.
+     */
+    long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Returns the unique identifier of the sweep.
+     * @return The sweepUid.
+     */
+    UUID getSweepUid() {
+        return sweepUid;
+    }
+}
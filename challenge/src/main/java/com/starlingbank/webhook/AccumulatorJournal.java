@@ -0,0 +1,165 @@
+package com.starlingbank.webhook;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+
+/**
+ * The append-only journal of a RoundUpAccumulator, one change per line:
+ * {@code A <account> <minorUnits> [<feedItemUid>]} for a round-up accepted,
+ * {@code P <account> <minorUnits> <sweepUid>} for a sweep begun and
+ * {@code S <account> <minorUnits> <sweepUid>} for its settlement, fields separated by tabs.
+ * Every line is forced to the storage device before the append returns, so a webhook is acknowledged only once its
+ * round-up survives the machine.
+ * @author Cesar Goncalves
+ */
+final class AccumulatorJournal {
+    private static final String ACCEPTED = "A";
+    private static final String SWEEP = "P";
+    private static final String SETTLEMENT = "S";
+    private static final String SEPARATOR = "\t";
+    private static final int ACCOUNT = 1;
+    private static final int MINOR_UNITS = 2;
+    private static final int FEED_ITEM = 3;
+    private static final int SWEEP_UID = 3;
+
+    private final FileChannel channel;
+
+    private AccumulatorJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Reads the round-ups pending and the sweeps not settled out of a journal file, and records the feed items
+     * accepted as processed, as they may not have been recorded before the process stopped.
+     * @param file The journal file; a missing file has no round-up.
+     * @param processedItems Receives the feed items accepted, or null if they are not recorded.
+     * @return The round-ups and the sweeps not settled.
+     * @throws IOException If the file cannot be read or a line is malformed.
+     */
+    static AccumulatedBalances replay(Path file, ProcessedItemSet processedItems) throws IOException {
+        AccumulatedBalances balances = new AccumulatedBalances();
+        if (!Files.exists(file)) {
+            return balances;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                replayLine(balances, line, processedItems);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Rewrites a journal file with one round-up per account and one line per sweep not settled, and opens it for
+     * appending.
+     * @param file The journal file.
+     * @param balances The round-ups and the sweeps not settled.
+     * @return The journal.
+     * @throws IOException If the file cannot be written.
+     */
+    static AccumulatorJournal compact(Path file, AccumulatedBalances balances) throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            // The round-up of each account includes that of its sweep, which the sweep then takes
+            for (UUID accountUid : balances.accounts()) {
+                writer.write(line(ACCEPTED, accountUid, balances.pending(accountUid), null));
+            }
+            for (AccumulatedSweep sweep : balances.sweeps()) {
+                writer.write(line(SWEEP, sweep.getAccountUid(), sweep.getMinorUnits(), sweep.getSweepUid()));
+            }
+        }
+        try (FileChannel written = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+            written.force(true);
+        }
+        // Atomic, so a crash leaves either the old journal or the compacted one
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new AccumulatorJournal(FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Appends a round-up accepted.
+     * @param accountUid The unique identifier of the account.
+     * @param minorUnits The round-up in minor units.
+     * @param feedItemUid The feed item of the round-up, or null if it has none.
+     */
+    void appendAccepted(UUID accountUid, long minorUnits, UUID feedItemUid) {
+        append(line(ACCEPTED, accountUid, minorUnits, feedItemUid));
+    }
+
+    /**
+     * Appends a sweep begun.
+     * @param sweep The sweep.
+     */
+    void appendSweep(AccumulatedSweep sweep) {
+        append(line(SWEEP, sweep.getAccountUid(), sweep.getMinorUnits(), sweep.getSweepUid()));
+    }
+
+    /**
+     * Appends a settlement.
+     * @param swept The sweep settled.
+     */
+    void appendSettlement(AccumulatedSweep swept) {
+        append(line(SETTLEMENT, swept.getAccountUid(), swept.getMinorUnits(), swept.getSweepUid()));
+    }
+
+    /**
+     * Closes the journal.
+     * @throws IOException If the journal cannot be closed.
+     */
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(String line) {
+        try {
+            // Appends of concurrent webhooks are serialized by the channel; each is forced before it is acknowledged
+            channel.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to the webhook journal", e);
+        }
+    }
+
+    private static String line(String type, UUID accountUid, long minorUnits, UUID uid) {
+        String line = String.join(SEPARATOR, type, accountUid.toString(), Long.toString(minorUnits));
+        return (uid == null ? line : line + SEPARATOR + uid) + System.lineSeparator();
+    }
+
+    private static void replayLine(AccumulatedBalances balances, String line, ProcessedItemSet processedItems)
+        throws IOException {
+        String[] fields = line.split(SEPARATOR);
+        try {
+            UUID accountUid = UUID.fromString(fields[ACCOUNT]);
+            long minorUnits = Long.parseLong(fields[MINOR_UNITS]);
+            if (ACCEPTED.equals(fields[0])) {
+                balances.add(accountUid, minorUnits);
+                recordProcessed(fields, processedItems);
+            } else if (SWEEP.equals(fields[0])) {
+                balances.add(accountUid, -minorUnits);
+                balances.applySweep(new AccumulatedSweep(accountUid, minorUnits, UUID.fromString(fields[SWEEP_UID])));
+            } else {
+                balances.applySettlement(accountUid);
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed webhook journal line: " + line, e);
+        }
+    }
+
+    private static void recordProcessed(String[] fields, ProcessedItemSet processedItems) {
+        if (processedItems != null && fields.length > FEED_ITEM) {
+            processedItems.add(UUID.fromString(fields[FEED_ITEM]));
+        }
+    }
+}
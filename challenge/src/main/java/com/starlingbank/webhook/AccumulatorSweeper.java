@@ -0,0 +1,126 @@
+package com.starlingbank.webhook;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.ledger.LedgerSweeper;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.TransferResult;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.SavingsGoalTransferService;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpAllocator;
+
+/**
+ * Periodically sweeps the round-ups accumulated from the webhooks into the savings goals of their accounts.
+ * The round-up of each account is taken into a sweep and split across its savings goals, then accrued in the
+ * ledger, which sweeps the balances that are due, or transferred at once without a ledger. A sweep that cannot be
+ * allocated or fully transferred is retried by the next sweep under the same transferUids, so only its failed
+ * shares are paid, as is the sweep of an account without a savings goal, since the sweeps run unattended.
+ * @author Cesar Goncalves
+ */
+public class AccumulatorSweeper implements AutoCloseable {
+    // Log of the round-ups swept and of those kept for the next sweep
+    private static final EventLog LOG = EventLog.get();
+
+    private final RoundUpAccumulator accumulator;
+    private final SavingsGoalService savingsGoalService;
+    private final RoundUpAllocator allocator;
+    private final SavingsGoalTransferService transferService;
+    // Accrues the round-ups in the ledger and sweeps them, or null to transfer them as soon as drained
+    private final LedgerSweeper ledgerSweeper;
+    // Runs the sweeps once started
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    /**
+     * Constructor for AccumulatorSweeper; nothing is swept before it is started.
+     * @param accumulator The round-ups accumulated from the webhooks.
+     * @param savingsGoalService Service fetching the savings goals of the accounts.
+     * @param allocator Splits the round-up of an account across its savings goals.
+     * @param transferService Transfers the shares into the savings goals when there is no ledger.
+     * @param ledgerSweeper Accrues the shares in the ledger and sweeps them, or null to transfer them at once.
+     */
+    public AccumulatorSweeper(RoundUpAccumulator accumulator, SavingsGoalService savingsGoalService,
+                              RoundUpAllocator allocator, SavingsGoalTransferService transferService,
+                              LedgerSweeper ledgerSweeper) {
+        this.accumulator = accumulator;
+        this.savingsGoalService = savingsGoalService;
+        this.allocator = allocator;
+        this.transferService = transferService;
+        this.ledgerSweeper = ledgerSweeper;
+    }
+
+    /**
+     * Starts sweeping the accumulated round-ups at a fixed interval, until the sweeper is closed.
+     * @param interval The time between the end of a sweep and the start of the next one.
+     */
+    public void start(Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::sweep, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sweeps the round-up accumulated for each account, then the balances of the ledger that are due.
+     * @return The round-up taken from the accumulator, transferred or accrued, in minor units.
+     */
+    public long sweep() {
+        long sweptMinorUnits = 0;
+        for (UUID accountUid : accumulator.accounts()) {
+            sweptMinorUnits += sweepAccount(accountUid);
+        }
+        if (ledgerSweeper != null) {
+            ledgerSweeper.sweep();
+        }
+        return sweptMinorUnits;
+    }
+
+    /**
+     * Stops the sweeps, waiting for the one running to complete.
+     */
+    @Override
+    public void close() {
+        scheduler.close();
+    }
+
+    // Returns the round-up transferred or accrued; the sweep is settled only once all of it is
+    private long sweepAccount(UUID accountUid) {
+        try {
+            PendingRoundUp roundUp = accumulator.beginSweep(accountUid);
+            List<SavingGoal> savingsGoals = roundUp == null ? List.of() : savingsGoalService.getSavingsGoals(accountUid);
+            if (savingsGoals.isEmpty()) {
+                return 0;
+            }
+            return transferOrAccrue(new Account(accountUid, null),
+                allocator.allocate(roundUp.getMinorUnits(), CurrencyUnit.GBP, savingsGoals), roundUp);
+        } catch (ServiceException | UncheckedIOException e) {
+            LOG.log(LogEvent.of(Level.WARNING, "webhooks", "Cannot sweep the round-up, kept for the next sweep: "
+                + e.getMessage()).account(accountUid).amount(accumulator.pending(accountUid)));
+            return 0;
+        }
+    }
+
+    // Returns the part of the round-up transferred or accrued
+    private long transferOrAccrue(Account account, Map<SavingGoal, Amount> allocations, PendingRoundUp roundUp) {
+        if (ledgerSweeper != null) {
+            ledgerSweeper.accrue(account, allocations);
+            roundUp.markProcessed();
+            return roundUp.getMinorUnits();
+        }
+        return transferService.transfer(account, allocations, roundUp).stream()
+            .filter(TransferResult::isSuccessful)
+            .mapToLong(result -> result.getAmount().getMinorUnits())
+            .sum();
+    }
+}
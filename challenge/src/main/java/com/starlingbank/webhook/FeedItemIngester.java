@@ -0,0 +1,92 @@
+package com.starlingbank.webhook;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+
+import com.starlingbank.exceptions.JsonCodecException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+import com.starlingbank.model.FeedItemEvent;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Ingests feed item webhook events: each event is verified, deduplicated on its feed item, and its round-up
+ * accepted by the account's accumulator, which journals it before the event is acknowledged if it is opened on a
+ * journal. The work per event is constant, whatever the history of the account.
+ * @author Cesar Goncalves
+ */
+public class FeedItemIngester {
+    private static final String DIRECTION_OUT = "OUT";
+    // Log of the round-ups that cannot be recorded
+    private static final EventLog LOG = EventLog.get();
+
+    private final WebhookSignatureVerifier verifier;
+    private final JsonCodec jsonCodec;
+    private final RecentEventFilter recentEvents;
+    private final RoundUpCalculator calculator;
+    private final RoundUpAccumulator accumulator;
+
+    /**
+     * Constructor for FeedItemIngester.
+     * @param verifier Verifies the signature of the events.
+     * @param jsonCodec Decodes the events.
+     * @param recentEvents Filters out the feed items already ingested.
+     * @param calculator Calculates the round-up of each transaction.
+     * @param accumulator Accumulates the round-ups of each account.
+     */
+    public FeedItemIngester(WebhookSignatureVerifier verifier, JsonCodec jsonCodec, RecentEventFilter recentEvents,
+                            RoundUpCalculator calculator, RoundUpAccumulator accumulator) {
+        this.verifier = verifier;
+        this.jsonCodec = jsonCodec;
+        this.recentEvents = recentEvents;
+        this.calculator = calculator;
+        this.accumulator = accumulator;
+    }
+
+    /**
+     * Ingests an event.
+     * @param body The request body of the webhook.
+     * @param signature The signature sent with the body, or null if none was sent.
+     * @return The outcome.
+     */
+    public IngestOutcome ingest(byte[] body, String signature) {
+        if (!verifier.verify(body, signature)) {
+            return IngestOutcome.INVALID_SIGNATURE;
+        }
+        FeedItemEvent event = decode(body);
+        if (event == null) {
+            return IngestOutcome.MALFORMED;
+        }
+        if (!recentEvents.firstSeen(event.getFeedItemUid())) {
+            return IngestOutcome.DUPLICATE;
+        }
+        return accumulate(event);
+    }
+
+    private FeedItemEvent decode(byte[] body) {
+        try {
+            return jsonCodec.decodeFeedItemEvent(new String(body, StandardCharsets.UTF_8));
+        } catch (JsonCodecException e) {
+            return null;
+        }
+    }
+
+    private IngestOutcome accumulate(FeedItemEvent event) {
+        if (!DIRECTION_OUT.equals(event.getDirection()) || !calculator.isRoundedUp(event.getTransaction())) {
+            return IngestOutcome.IGNORED;
+        }
+        try {
+            return accumulator.accept(event.getAccountUid(),
+                calculator.calculateRoundUpForTransaction(event.getTransaction()), event.getFeedItemUid())
+                ? IngestOutcome.ACCEPTED : IngestOutcome.DUPLICATE;
+        } catch (UncheckedIOException e) {
+            // Starling Bank redelivers the event, which must not be filtered out then
+            recentEvents.forget(event.getFeedItemUid());
+            LOG.log(LogEvent.of(Level.SEVERE, "webhooks", "Cannot record the round-up of a feed item: "
+                + e.getMessage()).account(event.getAccountUid()));
+            return IngestOutcome.NOT_RECORDED;
+        }
+    }
+}
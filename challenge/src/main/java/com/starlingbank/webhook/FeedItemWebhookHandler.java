@@ -0,0 +1,52 @@
+package com.starlingbank.webhook;
+
+import java.io.IOException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Receives the feed item webhooks over HTTP and acknowledges each with the status of its IngestOutcome. A body
+ * larger than any feed item event is rejected with 413 before it is read in full, so a sender cannot make the
+ * handler buffer an unbounded body.
+ * @author Cesar Goncalves
+ */
+class FeedItemWebhookHandler implements HttpHandler {
+    /** The header carrying the signature of the body. */
+    static final String SIGNATURE_HEADER = "X-Hook-Signature";
+
+    // The largest body read, far larger than a feed item event
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int HTTP_STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int HTTP_STATUS_PAYLOAD_TOO_LARGE = 413;
+    // The acknowledgements have no body
+    private static final long NO_RESPONSE_BODY = -1;
+
+    private final FeedItemIngester ingester;
+
+    /**
+     * Constructor for FeedItemWebhookHandler.
+     * @param ingester Ingests the events received.
+     */
+    FeedItemWebhookHandler(FeedItemIngester ingester) {
+        this.ingester = ingester;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(HTTP_STATUS_METHOD_NOT_ALLOWED, NO_RESPONSE_BODY);
+                return;
+            }
+            // One byte more than the limit, to tell a body at the limit from a larger one
+            byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                exchange.sendResponseHeaders(HTTP_STATUS_PAYLOAD_TOO_LARGE, NO_RESPONSE_BODY);
+                return;
+            }
+            IngestOutcome outcome = ingester.ingest(body, exchange.getRequestHeaders().getFirst(SIGNATURE_HEADER));
+            exchange.sendResponseHeaders(outcome.getStatusCode(), NO_RESPONSE_BODY);
+        }
+    }
+}
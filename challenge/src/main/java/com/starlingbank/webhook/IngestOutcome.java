@@ -0,0 +1,32 @@
+package com.starlingbank.webhook;
+
+/**
+ * The outcome of ingesting a webhook event, and the HTTP status it is acknowledged with.
+ * Duplicates and events without a round-up are acknowledged as successes, so Starling Bank does not redeliver
+ * them.
+ * @author Cesar Goncalves
+ */
+public enum IngestOutcome {
+    /** The round-up of the event was accumulated. */
+    ACCEPTED(200),
+    /** The event has no round-up, e.g. an inbound payment. */
+    IGNORED(200),
+    /** The event was already ingested. */
+    DUPLICATE(200),
+    /** The event is not a valid feed item event. */
+    MALFORMED(400),
+    /** The signature of the event is missing or invalid. */
+    INVALID_SIGNATURE(401),
+    /** The round-up of the event cannot be recorded, so the event is left for Starling Bank to redeliver. */
+    NOT_RECORDED(503);
+
+    private final int statusCode;
+
+    IngestOutcome(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,65 @@
+package com.starlingbank.webhook;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Filters out the events seen recently, as webhooks are delivered at least once and redelivered on failure.
+ * The keys are kept in two generations: once the latest generation is full it becomes the previous one and
+ * the oldest keys are forgotten, so the memory is bounded and no lock is taken.
+ * @author Cesar Goncalves
+ */
+public class RecentEventFilter {
+    private final int generationCapacity;
+    private final AtomicReference<Generations> generations;
+
+    /**
+     * Constructor for RecentEventFilter.
+     * @param generationCapacity The number of keys per generation; between one and two generations of keys are
+     * remembered.
+     */
+    public RecentEventFilter(int generationCapacity) {
+        this.generationCapacity = generationCapacity;
+        this.generations = new AtomicReference<>(new Generations(ConcurrentHashMap.newKeySet()));
+    }
+
+    /**
+     * Records a key and checks whether it is seen for the first time.
+     * @param key The key of the event, e.g. its feed item.
+     * @return true if the key was not seen recently.
+     */
+    public boolean firstSeen(UUID key) {
+        Generations current = generations.get();
+        if (current.previous.contains(key) || !current.latest.add(key)) {
+            return false;
+        }
+        if (current.latest.size() >= generationCapacity) {
+            // Only one caller rotates; keys added meanwhile land in the generation that becomes the previous one
+            generations.compareAndSet(current, new Generations(current.latest));
+        }
+        return true;
+    }
+
+    /**
+     * Forgets a key, so the event is seen for the first time again, e.g. when it cannot be ingested and is
+     * redelivered.
+     * @param key The key of the event.
+     */
+    public void forget(UUID key) {
+        Generations current = generations.get();
+        current.latest.remove(key);
+        current.previous.remove(key);
+    }
+
+    // The latest generation of keys, and the previous one
+    private static final class Generations {
+        private final Set<UUID> previous;
+        private final Set<UUID> latest = ConcurrentHashMap.newKeySet();
+
+        private Generations(Set<UUID> previous) {
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.starlingbank.webhook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+import com.starlingbank.util.PendingRoundUp;
+
+/**
+ * Accumulates the round-ups of each account as the events arrive, until a sweep takes them.
+ * Adding to an account takes no lock, so concurrent events of the same account never wait for each other.
+ * An accumulator opened on a journal file appends every round-up to it, forced to disk, before counting it, so the
+ * round-ups acknowledged survive a restart; a sweep is journaled before its transfers are made and settled once
+ * they are, so a sweep interrupted between the two is retried under the same transferUids.
+ * @author Cesar Goncalves
+ */
+public class RoundUpAccumulator implements Closeable {
+    // The round-up pending for each account and its sweep not settled
+    private final AccumulatedBalances balances;
+    // The journal of the round-ups and sweeps, or null if the accumulator is kept in memory only
+    private final AccumulatorJournal journal;
+    // The feed items already accepted, in this run or a previous one, or null if they are not recorded
+    private final ProcessedItemSet processedItems;
+
+    /**
+     * Constructor for a RoundUpAccumulator kept in memory only.
+     */
+    public RoundUpAccumulator() {
+        this(new AccumulatedBalances(), null, null);
+    }
+
+    private RoundUpAccumulator(AccumulatedBalances balances, AccumulatorJournal journal,
+                               ProcessedItemSet processedItems) {
+        this.balances = balances;
+        this.journal = journal;
+        this.processedItems = processedItems;
+    }
+
+    /**
+     * Opens the accumulator kept in a journal file, creating the file if it does not exist.
+     * @param journalFile The journal file.
+     * @param processedItems The feed items already accepted, recorded as each round-up is accepted, or null to
+     * deduplicate the events in memory only.
+     * @return The accumulator, with the round-ups pending and the sweeps not settled of the journal.
+     * @throws IOException If the journal cannot be read or compacted.
+     */
+    public static RoundUpAccumulator open(Path journalFile, ProcessedItemSet processedItems) throws IOException {
+        AccumulatedBalances balances = AccumulatorJournal.replay(journalFile, processedItems);
+        return new RoundUpAccumulator(balances, AccumulatorJournal.compact(journalFile, balances), processedItems);
+    }
+
+    /**
+     * Accepts the round-up of a feed item, unless the feed item was accepted before. The feed item is recorded as
+     * processed once its round-up is journaled, so a batch run over the same range skips it too.
+     * @param accountUid The unique identifier of the account.
+     * @param minorUnits The round-up in minor units.
+     * @param feedItemUid The unique identifier of the feed item.
+     * @return true if the round-up was added, false if the feed item was already accepted.
+     * @throws UncheckedIOException If the round-up cannot be written to the journal, in which case it is not added,
+     * or the feed item cannot be recorded.
+     */
+    public boolean accept(UUID accountUid, long minorUnits, UUID feedItemUid) {
+        if (processedItems != null && processedItems.contains(feedItemUid)) {
+            return false;
+        }
+        if (journal != null) {
+            journal.appendAccepted(accountUid, minorUnits, feedItemUid);
+        }
+        balances.add(accountUid, minorUnits);
+        if (processedItems != null) {
+            processedItems.add(feedItemUid);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the round-up pending for an account, including its sweep not settled.
+     * @param accountUid The unique identifier of the account.
+     * @return The pending round-up in minor units.
+     */
+    public long pending(UUID accountUid) {
+        return balances.pending(accountUid);
+    }
+
+    /**
+     * Begins the sweep of an account: returns its sweep not settled, whose transfers must be retried as they were,
+     * or else takes the round-up pending for the account into a new sweep, journaled before it is returned.
+     * Round-ups added concurrently are either taken or left for the next sweep, never lost.
+     * @param accountUid The unique identifier of the account.
+     * @return The round-up of the sweep, which settles the sweep once it is recorded as processed, or null if
+     * nothing is pending.
+     * @throws UncheckedIOException If the sweep cannot be written to the journal.
+     */
+    public PendingRoundUp beginSweep(UUID accountUid) {
+        AccumulatedSweep sweep = balances.sweep(accountUid);
+        if (sweep == null) {
+            long minorUnits = balances.take(accountUid);
+            if (minorUnits == 0) {
+                return null;
+            }
+            sweep = new AccumulatedSweep(accountUid, minorUnits, UUID.randomUUID());
+            journalSweep(sweep);
+        }
+        AccumulatedSweep begun = sweep;
+        return PendingRoundUp.of(begun.getMinorUnits(), begun.getSweepUid().toString(), () -> settle(begun));
+    }
+
+    /**
+     * Returns the accounts that received a round-up.
+     * @return A live view of the accounts.
+     */
+    public Set<UUID> accounts() {
+        return balances.accounts();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void journalSweep(AccumulatedSweep sweep) {
+        try {
+            if (journal != null) {
+                journal.appendSweep(sweep);
+            }
+        } catch (UncheckedIOException e) {
+            // Given back, as the journal still counts the round-up as pending
+            balances.add(sweep.getAccountUid(), sweep.getMinorUnits());
+            throw e;
+        }
+        balances.applySweep(sweep);
+    }
+
+    // Journals the settlement before forgetting the sweep, so a settlement that cannot be journaled is retried
+    private void settle(AccumulatedSweep sweep) {
+        if (journal != null) {
+            journal.appendSettlement(sweep);
+        }
+        balances.applySettlement(sweep.getAccountUid());
+    }
+}
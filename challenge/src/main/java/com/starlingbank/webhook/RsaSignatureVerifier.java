@@ -0,0 +1,56 @@
+package com.starlingbank.webhook;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Verifies the X-Hook-Signature of Starling Bank webhooks: the Base64 SHA512withRSA signature of the body,
+ * checked with the public key registered for the webhook.
+ * @author Cesar Goncalves
+ */
+public class RsaSignatureVerifier implements WebhookSignatureVerifier {
+    /** The algorithm of the signature. */
+    public static final String ALGORITHM = "SHA512withRSA";
+
+    private final PublicKey publicKey;
+
+    /**
+     * Constructor for RsaSignatureVerifier.
+     * @param publicKey The RSA public key of the webhook.
+     */
+    public RsaSignatureVerifier(PublicKey publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    /**
+     * Creates a verifier from the Base64 X.509 encoding of the public key, as shown when registering the webhook.
+     * @param base64PublicKey The encoded public key.
+     * @return The verifier.
+     * @throws GeneralSecurityException If the key is not a valid RSA public key.
+     * @throws IllegalArgumentException If the key is not valid Base64.
+     */
+    public static RsaSignatureVerifier fromBase64(String base64PublicKey) throws GeneralSecurityException {
+        byte[] encoded = Base64.getDecoder().decode(base64PublicKey.trim());
+        return new RsaSignatureVerifier(KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(encoded)));
+    }
+
+    @Override
+    public boolean verify(byte[] body, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        try {
+            // Signature instances are stateful, so each verification takes its own
+            Signature verifier = Signature.getInstance(ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifier.update(body);
+            return verifier.verify(Base64.getDecoder().decode(signature));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false; // Not Base64, or not a signature of this key
+        }
+    }
+}
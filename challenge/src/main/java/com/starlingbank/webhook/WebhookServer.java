@@ -0,0 +1,61 @@
+package com.starlingbank.webhook;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The embedded HTTP listener of the Starling Bank webhooks. Every request is handled on its own virtual thread,
+ * so a slow sender ties up no platform thread and the number of concurrent deliveries is not capped by a pool.
+ * @author Cesar Goncalves
+ */
+public class WebhookServer implements AutoCloseable {
+    /** The path the feed item webhook is registered at. */
+    public static final String FEED_ITEM_PATH = "/webhooks/feed-item";
+
+    // The connections queued before being accepted, zero for the system default
+    private static final int BACKLOG = 0;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for WebhookServer; the server accepts no request before it is started.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param ingester Ingests the feed item events received.
+     * @throws IOException If the address cannot be bound.
+     */
+    public WebhookServer(InetSocketAddress address, FeedItemIngester ingester) throws IOException {
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(FEED_ITEM_PATH, new FeedItemWebhookHandler(ingester));
+    }
+
+    /**
+     * Starts accepting the webhooks.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting the webhooks and waits for the ones being handled.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
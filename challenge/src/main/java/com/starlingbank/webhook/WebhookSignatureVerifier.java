@@ -0,0 +1,17 @@
+package com.starlingbank.webhook;
+
+/**
+ * Verifies that the body of a webhook was signed by Starling Bank.
+ * @author Cesar Goncalves
+ */
+@FunctionalInterface
+public interface WebhookSignatureVerifier {
+
+    /**
+     * Verifies the signature of a webhook body.
+     * @param body The request body, as received.
+     * @param signature The signature sent with the body, or null if none was sent.
+     * @return true if the signature is present and valid.
+     */
+    boolean verify(byte[] body, String signature);
+}
@@ -0,0 +1,108 @@
+package com.starlingbank.webhook;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Map;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Builds the WebhookServer from the environment: STARLING_WEBHOOK_PUBLIC_KEY holds the Base64 public key shown
+ * when registering the webhook, STARLING_WEBHOOK_PORT the port to listen on (8080 by default), and
+ * STARLING_WEBHOOK_SWEEP_INTERVAL how often the accumulated round-ups are swept (an ISO-8601 duration, PT1M by
+ * default), and STARLING_WEBHOOK_JOURNAL the journal the accumulated round-ups are kept in across restarts.
+ * @author Cesar Goncalves
+ */
+public final class Webhooks {
+    /** The environment variable holding the Base64 public key the webhooks are signed with. */
+    public static final String PUBLIC_KEY = "STARLING_WEBHOOK_PUBLIC_KEY";
+    /** The environment variable holding the port to listen on. */
+    public static final String PORT = "STARLING_WEBHOOK_PORT";
+    /** The environment variable holding the time between two sweeps of the accumulated round-ups. */
+    public static final String SWEEP_INTERVAL = "STARLING_WEBHOOK_SWEEP_INTERVAL";
+    /** The environment variable naming the journal of the accumulated round-ups. */
+    public static final String JOURNAL = "STARLING_WEBHOOK_JOURNAL";
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final String DEFAULT_SWEEP_INTERVAL = "PT1M";
+    // Feed items remembered to filter out redeliveries, per generation
+    private static final int RECENT_EVENTS_PER_GENERATION = 100_000;
+    // Log of the journal that cannot be closed
+    private static final EventLog LOG = EventLog.get();
+
+    private Webhooks() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Builds the webhook server configured by the environment, ready to be started.
+     * @param environment The environment variables.
+     * @param jsonCodec Decodes the events.
+     * @param accumulator Accumulates the round-ups of each account.
+     * @return The server.
+     * @throws IOException If the port cannot be bound.
+     * @throws GeneralSecurityException If the public key is missing or not a valid RSA public key.
+     * @throws IllegalArgumentException If the port is not a number or the public key is not valid Base64.
+     */
+    public static WebhookServer serverFromEnvironment(Map<String, String> environment, JsonCodec jsonCodec,
+                                                      RoundUpAccumulator accumulator)
+        throws IOException, GeneralSecurityException {
+        String publicKey = environment.get(PUBLIC_KEY);
+        if (publicKey == null) {
+            throw new GeneralSecurityException(PUBLIC_KEY + " is not set");
+        }
+        String port = environment.get(PORT);
+        FeedItemIngester ingester = new FeedItemIngester(RsaSignatureVerifier.fromBase64(publicKey), jsonCodec,
+            new RecentEventFilter(RECENT_EVENTS_PER_GENERATION), new RoundUpCalculator(), accumulator);
+        return new WebhookServer(new InetSocketAddress(port == null ? DEFAULT_PORT : Integer.parseInt(port.trim())),
+            ingester);
+    }
+
+    /**
+     * Builds the accumulator configured by the environment; its journal is closed when the JVM shuts down.
+     * @param environment The environment variables.
+     * @param processedItems The feed items already counted, which the feed items accepted are added to, or null if
+     * none is configured.
+     * @return The accumulator kept in the journal, or kept in memory only if no journal is configured, in which case
+     * the round-ups acknowledged and not swept yet are lost if the process stops.
+     * @throws IOException If the journal cannot be opened.
+     */
+    public static RoundUpAccumulator accumulatorFromEnvironment(Map<String, String> environment,
+                                                                ProcessedItemSet processedItems) throws IOException {
+        if (!environment.containsKey(JOURNAL)) {
+            return new RoundUpAccumulator();
+        }
+        RoundUpAccumulator accumulator = RoundUpAccumulator.open(Path.of(environment.get(JOURNAL)), processedItems);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeAccumulator(accumulator)));
+        return accumulator;
+    }
+
+    /**
+     * Returns the time between two sweeps of the accumulated round-ups configured by the environment.
+     * @param environment The environment variables.
+     * @return The interval.
+     * @throws java.time.format.DateTimeParseException If the interval is not an ISO-8601 duration.
+     * @throws IllegalArgumentException If the interval is not positive.
+     */
+    public static Duration sweepIntervalFromEnvironment(Map<String, String> environment) {
+        Duration interval = Duration.parse(environment.getOrDefault(SWEEP_INTERVAL, DEFAULT_SWEEP_INTERVAL));
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException(SWEEP_INTERVAL + " must be positive");
+        }
+        return interval;
+    }
+
+    private static void closeAccumulator(RoundUpAccumulator accumulator) {
+        try {
+            accumulator.close();
+        } catch (IOException e) {
+            LOG.severe("webhooks", "Cannot close the webhook journal", e);
+        }
+    }
+}
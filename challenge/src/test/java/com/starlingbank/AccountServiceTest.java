@@ -5,17 +5,21 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.util.UUID;
 
 import org.json.JSONException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.starlingbank.api.StarlingClient;
 import com.starlingbank.exceptions.ApiException;
 import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.json.OrgJsonCodec;
 import com.starlingbank.model.Account;
 import com.starlingbank.service.AccountService;
 
@@ -33,6 +37,10 @@ class AccountServiceTest {
     @Mock
     private StarlingClient starlingClient;
 
+    // Decoding the API responses with the org.json codec
+    @Spy
+    private JsonCodec jsonCodec = new OrgJsonCodec();
+
     // Injecting the mocks into the AccountService class
     @InjectMocks
     private AccountService accountService;
@@ -41,7 +49,8 @@ class AccountServiceTest {
     @Test
     void getAccountDetails_Success() throws Exception {
         // Arrange
-        String mockResponse = "{\"accounts\":[{\"accountUid\":\"12345\",\"defaultCategory\":\"67890\"}]}";
+        String mockResponse = "{\"accounts\":[{\"accountUid\":\"2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34\","
+            + "\"defaultCategory\":\"8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10\"}]}";
         when(starlingClient.getAccountDetails()).thenReturn(mockResponse);
 
         // Act
@@ -49,8 +58,8 @@ class AccountServiceTest {
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result.getAccountUid()).isEqualTo("12345");
-        assertThat(result.getCategoryUid()).isEqualTo("67890");
+        assertThat(result.getAccountUid()).isEqualTo(UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34"));
+        assertThat(result.getCategoryUid()).isEqualTo(UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10"));
 
         // Verify the interaction with StarlingClient
         verify(starlingClient).getAccountDetails();
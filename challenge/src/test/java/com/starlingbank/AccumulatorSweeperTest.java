@@ -0,0 +1,115 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.SavingsGoalTransferService;
+import com.starlingbank.util.AllocationStrategy;
+import com.starlingbank.util.RoundUpAllocator;
+import com.starlingbank.webhook.AccumulatorSweeper;
+import com.starlingbank.webhook.RoundUpAccumulator;
+
+/**
+ * This class is used to test the AccumulatorSweeper class.
+ * @author Cesar Goncalves
+ */
+@ExtendWith(MockitoExtension.class)
+class AccumulatorSweeperTest {
+
+    private static final UUID SWEPT_UID = UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34");
+    private static final UUID FAILING_UID = UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10");
+    private static final UUID WITHOUT_GOAL_UID = UUID.fromString("5a2e8c1d-7b3f-4e6a-9d0c-2f8b4a6e1c35");
+    private static final int TARGET_MINOR_UNITS = 100_000;
+    private static final int MAX_CONCURRENT_TRANSFERS = 2;
+    private static final int TRANSFER_UID_ARGUMENT = 3;
+
+    // Mocking the SavingsGoalService fetching the savings goals and making the transfers
+    @Mock
+    private SavingsGoalService savingsGoalService;
+
+    // Test case for sweeping the accumulated round-ups, keeping those that cannot be transferred for the next sweep
+    @Test
+    void sweep_KeepsTheRoundUpsNotTransferred() {
+        // Arrange
+        final long swept = 66;
+        final long failed = 42;
+        final long withoutGoal = 17;
+        SavingGoal holiday = new SavingGoal(UUID.randomUUID(), "Holiday", new Amount(TARGET_MINOR_UNITS, "GBP"));
+        SavingGoal car = new SavingGoal(UUID.randomUUID(), "Car", new Amount(TARGET_MINOR_UNITS, "GBP"));
+        when(savingsGoalService.getSavingsGoals(SWEPT_UID)).thenReturn(List.of(holiday));
+        when(savingsGoalService.getSavingsGoals(FAILING_UID)).thenReturn(List.of(car));
+        when(savingsGoalService.getSavingsGoals(WITHOUT_GOAL_UID)).thenReturn(List.of());
+        doNothing().when(savingsGoalService).addMoneyToSavingsGoal(eq(SWEPT_UID), eq(holiday.getSavingsGoalUid()),
+            any(Amount.class), any(UUID.class));
+        doThrow(new ServiceException("Error adding money to savings goal: Car")).when(savingsGoalService)
+            .addMoneyToSavingsGoal(eq(FAILING_UID), eq(car.getSavingsGoalUid()), any(Amount.class), any(UUID.class));
+        RoundUpAccumulator accumulator = new RoundUpAccumulator();
+        accumulator.accept(SWEPT_UID, swept, UUID.randomUUID());
+        accumulator.accept(FAILING_UID, failed, UUID.randomUUID());
+        accumulator.accept(WITHOUT_GOAL_UID, withoutGoal, UUID.randomUUID());
+        AccumulatorSweeper sweeper = new AccumulatorSweeper(accumulator, savingsGoalService,
+            new RoundUpAllocator(AllocationStrategy.remainingTarget()),
+            new SavingsGoalTransferService(savingsGoalService, MAX_CONCURRENT_TRANSFERS), null);
+
+        // Act
+        long sweptMinorUnits = sweeper.sweep();
+
+        // Assert
+        assertThat(sweptMinorUnits).isEqualTo(swept);
+        assertThat(accumulator.pending(SWEPT_UID)).isZero();
+        assertThat(accumulator.pending(FAILING_UID)).isEqualTo(failed);
+        assertThat(accumulator.pending(WITHOUT_GOAL_UID)).isEqualTo(withoutGoal);
+    }
+
+    // Test case for retrying a sweep that failed under the same transferUids, leaving later round-ups for the next
+    @Test
+    void sweep_RetriesFailedSweepUnderSameTransferUids() {
+        // Arrange
+        final long failed = 42;
+        final long later = 17;
+        SavingGoal car = new SavingGoal(UUID.randomUUID(), "Car", new Amount(TARGET_MINOR_UNITS, "GBP"));
+        when(savingsGoalService.getSavingsGoals(FAILING_UID)).thenReturn(List.of(car));
+        List<UUID> transferUids = new ArrayList<>();
+        doAnswer(invocation -> {
+            transferUids.add(invocation.getArgument(TRANSFER_UID_ARGUMENT));
+            if (transferUids.size() == 1) {
+                throw new ServiceException("Error adding money to savings goal: Car");
+            }
+            return null;
+        }).when(savingsGoalService).addMoneyToSavingsGoal(eq(FAILING_UID), eq(car.getSavingsGoalUid()),
+            any(Amount.class), any(UUID.class));
+        RoundUpAccumulator accumulator = new RoundUpAccumulator();
+        accumulator.accept(FAILING_UID, failed, UUID.randomUUID());
+        AccumulatorSweeper sweeper = new AccumulatorSweeper(accumulator, savingsGoalService,
+            new RoundUpAllocator(AllocationStrategy.remainingTarget()),
+            new SavingsGoalTransferService(savingsGoalService, MAX_CONCURRENT_TRANSFERS), null);
+        sweeper.sweep();
+        accumulator.accept(FAILING_UID, later, UUID.randomUUID());
+
+        // Act
+        long sweptMinorUnits = sweeper.sweep();
+
+        // Assert
+        assertThat(sweptMinorUnits).isEqualTo(failed);
+        assertThat(transferUids).hasSize(2).containsOnly(transferUids.get(0));
+        assertThat(accumulator.pending(FAILING_UID)).isEqualTo(later);
+    }
+}
@@ -0,0 +1,107 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.api.AdaptiveLimiter;
+
+/**
+ * This class is used to test the AdaptiveLimiter class.
+ * @author Cesar Goncalves
+ */
+class AdaptiveLimiterTest {
+
+    private static final int INITIAL_LIMIT = 4;
+    private static final int MAX_LIMIT = 8;
+    private static final int ROUNDS = 20;
+    private static final int DROPPED_CALLS = 3;
+    private static final Duration FAST_CALL_DURATION = Duration.ofMillis(10);
+    private static final Duration SLOW_CALL_DURATION = Duration.ofMillis(100);
+    private static final long FAST_CALL_NANOS = FAST_CALL_DURATION.toNanos();
+    private static final long SLOW_CALL_NANOS = SLOW_CALL_DURATION.toNanos();
+
+    // Fake clock driving the limiter
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void testLimitGrowsWhileLatencyStaysNearTheSmoothedLatency() throws InterruptedException {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(INITIAL_LIMIT, MAX_LIMIT, Duration.ZERO, nanoTime::get);
+
+        // Act
+        for (int round = 0; round < ROUNDS; round++) {
+            fillAndComplete(limiter, FAST_CALL_NANOS);
+        }
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(MAX_LIMIT);
+        for (int call = 0; call < MAX_LIMIT; call++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void testLimitBacksOffOncePerRoundTripOnOverload() throws InterruptedException {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(MAX_LIMIT, MAX_LIMIT, Duration.ZERO, nanoTime::get);
+        long burstStart = nanoTime.incrementAndGet();
+        complete(limiter, burstStart, FAST_CALL_NANOS, false);
+        final int limitAfterOneBackOff = 7;
+        final int limitAfterTwoBackOffs = 6;
+
+        // Act
+        for (int call = 0; call < DROPPED_CALLS; call++) {
+            complete(limiter, burstStart, FAST_CALL_NANOS, true);
+        }
+        int limitAfterBurst = limiter.getLimit();
+        complete(limiter, nanoTime.incrementAndGet(), SLOW_CALL_NANOS, false);
+
+        // Assert
+        assertThat(limitAfterBurst).isEqualTo(limitAfterOneBackOff);
+        assertThat(limiter.getLimit()).isEqualTo(limitAfterTwoBackOffs);
+    }
+
+    @Test
+    void testAcquiringNowDoesNotWaitForASlot() throws InterruptedException {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(INITIAL_LIMIT, MAX_LIMIT, Duration.ofMinutes(1), nanoTime::get);
+        for (int call = 0; call < INITIAL_LIMIT - 1; call++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        // Act
+        boolean lastSlot = limiter.tryAcquireNow();
+        boolean overLimit = limiter.tryAcquireNow();
+        limiter.release();
+
+        // Assert
+        assertThat(lastSlot).isTrue();
+        assertThat(overLimit).isFalse();
+        assertThat(limiter.tryAcquireNow()).isTrue();
+    }
+
+    // Acquires every slot under the limit, then completes the calls with the given latency
+    private void fillAndComplete(AdaptiveLimiter limiter, long latencyNanos) throws InterruptedException {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        long start = nanoTime.incrementAndGet();
+        for (int call = 0; call < acquired; call++) {
+            limiter.onSample(start, latencyNanos, false);
+            limiter.release();
+        }
+    }
+
+    private void complete(AdaptiveLimiter limiter, long start, long latencyNanos, boolean dropped)
+        throws InterruptedException {
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onSample(start, latencyNanos, dropped);
+        limiter.release();
+    }
+}
@@ -0,0 +1,68 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+
+/**
+ * This class is used to test the Amount class.
+ * @author Cesar Goncalves
+ */
+class AmountTest {
+
+    private static final long PENCE = 1000;
+    private static final int PARTS = 3;
+
+    @Test
+    void testParsingIsExactAndRejectsExtraDecimalPlaces() {
+        // Arrange
+        final long pounds = 1999;
+        final long oneAndSeventyPence = 170;
+        final long sevenPence = -7;
+        final long yen = 1234;
+
+        // Act
+        Amount exact = Amount.parse("19.99", CurrencyUnit.GBP);
+        Amount oneDecimal = Amount.parse(" 1.7 ", CurrencyUnit.GBP);
+        Amount negative = Amount.parse("-.07", CurrencyUnit.GBP);
+        Amount noMinorUnits = Amount.parse("1234", CurrencyUnit.of("JPY"));
+
+        // Assert
+        assertThat(exact.getMinorUnits()).isEqualTo(pounds);
+        assertThat(oneDecimal.getMinorUnits()).isEqualTo(oneAndSeventyPence);
+        assertThat(negative.getMinorUnits()).isEqualTo(sevenPence);
+        assertThat(noMinorUnits.getMinorUnits()).isEqualTo(yen);
+        assertThat(CurrencyUnit.of("GBP")).isSameAs(CurrencyUnit.GBP);
+        assertThatThrownBy(() -> Amount.parse("1.234", CurrencyUnit.GBP)).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Amount.parse("1e3", CurrencyUnit.GBP)).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Amount.parse(".", CurrencyUnit.GBP)).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Amount.parse("92233720368547758.08", CurrencyUnit.GBP))
+            .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void testArithmeticIsExactAndOverflowChecked() {
+        // Arrange
+        Amount amount = new Amount(PENCE, CurrencyUnit.GBP);
+        final long firstPart = 334;
+        final long otherPart = 333;
+
+        // Act
+        Amount[] parts = amount.split(PARTS);
+
+        // Assert
+        assertThat(parts).extracting(Amount::getMinorUnits).containsExactly(firstPart, otherPart, otherPart);
+        assertThat(Arrays.stream(parts).reduce(new Amount(0, CurrencyUnit.GBP), Amount::plus)).isEqualTo(amount);
+        assertThat(amount.times(PARTS)).isEqualTo(new Amount(PENCE * PARTS, "GBP"));
+        assertThatThrownBy(() -> new Amount(Long.MAX_VALUE, CurrencyUnit.GBP).plus(amount))
+            .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> amount.times(Long.MAX_VALUE)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> amount.plus(new Amount(PENCE, "EUR"))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.api.CircuitBreaker;
+import com.starlingbank.api.CircuitBreakerConfig;
+
+/**
+ * This class is used to test the CircuitBreaker class.
+ * @author Cesar Goncalves
+ */
+class CircuitBreakerTest {
+
+    private static final int WINDOW_SIZE = 4;
+    private static final int MINIMUM_CALLS = 4;
+    private static final int RATE_THRESHOLD_PERCENT = 50;
+    private static final Duration SLOW_CALL_DURATION = Duration.ofSeconds(1);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+    private static final int HALF_OPEN_CALLS = 2;
+    private static final Duration FAST_CALL_DURATION = Duration.ofMillis(10);
+    private static final long FAST_CALL_NANOS = FAST_CALL_DURATION.toNanos();
+
+    // Fake clock driving the breaker
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    // Instance of CircuitBreaker to be tested
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(new CircuitBreakerConfig(WINDOW_SIZE, MINIMUM_CALLS, RATE_THRESHOLD_PERCENT,
+            RATE_THRESHOLD_PERCENT, SLOW_CALL_DURATION, OPEN_DURATION, HALF_OPEN_CALLS), nanoTime::get);
+    }
+
+    // Test case for opening the breaker once the failure rate reaches its threshold
+    @Test
+    void opensOnFailureRate() {
+        // Act
+        recordCalls(false, FAST_CALL_NANOS, 2);
+        recordCalls(true, FAST_CALL_NANOS, 2);
+
+        // Assert
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    // Test case for opening the breaker once the slow-call rate reaches its threshold
+    @Test
+    void opensOnSlowCallRate() {
+        // Act
+        recordCalls(false, FAST_CALL_NANOS, 2);
+        recordCalls(false, SLOW_CALL_DURATION.toNanos(), 2);
+
+        // Assert
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    // Test case for staying closed before the minimum number of calls is recorded
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        // Act
+        recordCalls(true, FAST_CALL_NANOS, MINIMUM_CALLS - 1);
+
+        // Assert
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    // Test case for closing the breaker again after healthy trial calls
+    @Test
+    void closesAfterHealthyTrialCalls() {
+        // Arrange
+        recordCalls(true, FAST_CALL_NANOS, MINIMUM_CALLS);
+        nanoTime.addAndGet(OPEN_DURATION.toNanos());
+
+        // Act
+        recordCalls(false, FAST_CALL_NANOS, HALF_OPEN_CALLS);
+
+        // Assert
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    // Test case for limiting the number of trial calls and reopening after a failed trial
+    @Test
+    void reopensAfterFailedTrialCalls() {
+        // Arrange
+        recordCalls(true, FAST_CALL_NANOS, MINIMUM_CALLS);
+        nanoTime.addAndGet(OPEN_DURATION.toNanos());
+
+        // Act
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        circuitBreaker.onResult(true, FAST_CALL_NANOS);
+        circuitBreaker.onResult(false, FAST_CALL_NANOS);
+
+        // Assert
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void recordCalls(boolean failed, long durationNanos, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+            circuitBreaker.onResult(failed, durationNanos);
+        }
+    }
+}
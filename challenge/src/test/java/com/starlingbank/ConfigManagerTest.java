@@ -0,0 +1,163 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.config.ConfigManager;
+import com.starlingbank.config.HedgingPolicy;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.config.TenantConfigListener;
+
+/**
+ * This class is used to test the ConfigManager class.
+ * @author Cesar Goncalves
+ */
+class ConfigManagerTest {
+
+    private static final int ALPHA_MAX_CONCURRENT_REQUESTS = 8;
+
+    // Test case for loading the default and prefixed tenants from a configuration file
+    @Test
+    void loadTenants_FromFile(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path configFile = writeConfig(tempDir, "ACCESS_TOKEN=default-token\nTENANTS=alpha\n"
+            + "alpha.ACCESS_TOKEN=alpha-token\nalpha.BASE_URL=http://localhost:8080\n"
+            + "alpha.MAX_CONCURRENT_REQUESTS=8\n");
+
+        // Act
+        ConfigManager configManager = new ConfigManager(Map.of("STARLING_CONFIG_FILE", configFile.toString()));
+
+        // Assert
+        assertThat(configManager.getAccessToken()).isEqualTo("default-token");
+        assertThat(configManager.getTenants()).hasSize(2);
+        TenantConfig alpha = configManager.getTenant("alpha");
+        assertThat(alpha.getAccessToken()).isEqualTo("alpha-token");
+        assertThat(alpha.getBaseUrl()).isEqualTo("http://localhost:8080");
+        assertThat(alpha.getMaxConcurrentRequests()).isEqualTo(ALPHA_MAX_CONCURRENT_REQUESTS);
+        assertThat(configManager.getTenant(TenantConfig.DEFAULT_TENANT).getBaseUrl())
+            .isEqualTo(TenantConfig.DEFAULT_BASE_URL);
+    }
+
+    // Test case for overriding the configuration file with environment variables
+    @Test
+    void loadTenants_EnvironmentOverrides(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path configFile = writeConfig(tempDir, "ACCESS_TOKEN=file-token\nTENANTS=alpha\nalpha.ACCESS_TOKEN=alpha-token\n");
+
+        // Act
+        ConfigManager configManager = new ConfigManager(Map.of("STARLING_CONFIG_FILE", configFile.toString(),
+            "STARLING_ACCESS_TOKEN", "env-token", "STARLING_ALPHA__ACCESS_TOKEN", "alpha-env-token"));
+
+        // Assert
+        assertThat(configManager.getAccessToken()).isEqualTo("env-token");
+        assertThat(configManager.getTenant("alpha").getAccessToken()).isEqualTo("alpha-env-token");
+    }
+
+    // Test case for notifying listeners of the tenants changed by a reload
+    @Test
+    void reload_NotifiesChangedTenantsOnly(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path configFile = writeConfig(tempDir, "ACCESS_TOKEN=token-1\nTENANTS=alpha\nalpha.ACCESS_TOKEN=alpha-token\n");
+        ConfigManager configManager = new ConfigManager(Map.of("STARLING_CONFIG_FILE", configFile.toString()));
+        List<TenantConfig> updates = new ArrayList<>();
+        configManager.addListener(updates::add);
+
+        // Act
+        writeConfig(tempDir, "ACCESS_TOKEN=token-2\nTENANTS=alpha\nalpha.ACCESS_TOKEN=alpha-token\n");
+        configManager.reload();
+
+        // Assert
+        assertThat(updates).extracting(TenantConfig::getName).containsExactly(TenantConfig.DEFAULT_TENANT);
+        assertThat(configManager.getAccessToken()).isEqualTo("token-2");
+    }
+
+    // Test case for notifying listeners of the tenants removed by a reload
+    @Test
+    void reload_NotifiesRemovedTenants(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path configFile = writeConfig(tempDir, "ACCESS_TOKEN=token\nTENANTS=alpha,beta\nalpha.ACCESS_TOKEN=alpha-token\n"
+            + "beta.ACCESS_TOKEN=beta-token\n");
+        ConfigManager configManager = new ConfigManager(Map.of("STARLING_CONFIG_FILE", configFile.toString()));
+        List<String> removals = new ArrayList<>();
+        configManager.addListener(new TenantConfigListener() {
+            @Override
+            public void tenantUpdated(TenantConfig tenantConfig) {
+                // Only the removals are recorded
+            }
+
+            @Override
+            public void tenantRemoved(String name) {
+                removals.add(name);
+            }
+        });
+
+        // Act
+        writeConfig(tempDir, "ACCESS_TOKEN=token\nTENANTS=alpha\nalpha.ACCESS_TOKEN=alpha-token\n");
+        configManager.reload();
+
+        // Assert
+        assertThat(removals).containsExactly("beta");
+        assertThat(configManager.getTenant("beta")).isNull();
+    }
+
+    // Test case for keeping the previous configuration when a reload fails
+    @Test
+    void reload_InvalidConfigurationKeepsPrevious(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path configFile = writeConfig(tempDir, "ACCESS_TOKEN=token-1\n");
+        ConfigManager configManager = new ConfigManager(Map.of("STARLING_CONFIG_FILE", configFile.toString()));
+
+        // Act
+        writeConfig(tempDir, "ACCESS_TOKEN=token-2\nMAX_CONCURRENT_REQUESTS=none\n");
+        configManager.reload();
+
+        // Assert
+        assertThat(configManager.getAccessToken()).isEqualTo("token-1");
+    }
+
+    // Test case for loading the hedging policy of a tenant
+    @Test
+    void loadTenants_HedgingPolicy(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        final int budgetPercent = 5;
+        final double percentile = 0.95;
+        Path configFile = writeConfig(tempDir, "ACCESS_TOKEN=default-token\nTENANTS=alpha\n"
+            + "alpha.ACCESS_TOKEN=alpha-token\nalpha.HEDGE_AFTER=p95\nalpha.HEDGE_BUDGET_PERCENT=5\n");
+
+        // Act
+        ConfigManager configManager = new ConfigManager(Map.of("STARLING_CONFIG_FILE", configFile.toString()));
+
+        // Assert
+        assertThat(configManager.getTenant(TenantConfig.DEFAULT_TENANT).getHedgingPolicy())
+            .isEqualTo(HedgingPolicy.disabled());
+        assertThat(configManager.getTenant("alpha").getHedgingPolicy())
+            .isEqualTo(HedgingPolicy.afterPercentile(percentile, budgetPercent));
+    }
+
+    // Test case for rejecting a hedging percentile or delay out of range
+    @Test
+    void parseHedgingPolicy_OutOfRange() {
+        // Arrange
+        final int budgetPercent = 5;
+
+        // Act & Assert
+        for (String value : new String[] {"p0", "p100", "p150", "p-5", "-250"}) {
+            assertThatThrownBy(() -> HedgingPolicy.parse(value, budgetPercent))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining(value);
+        }
+    }
+
+    private Path writeConfig(Path tempDir, String content) throws IOException {
+        return Files.writeString(tempDir.resolve("config.properties"), content);
+    }
+}
@@ -0,0 +1,99 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.api.StarlingClient;
+import com.starlingbank.benchmark.StarlingApiStub;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.transport.ApiResponse;
+import com.starlingbank.transport.Transport;
+
+/**
+ * This class is used to test the warm-up of the connections of a StarlingClient against a local API stub.
+ * @author Cesar Goncalves
+ */
+class ConnectionWarmUpTest {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    private static final Duration LATENCY = Duration.ofMillis(50);
+
+    // Test case for filling the pool up to the tenant's concurrency, so the first calls open no connection
+    @Test
+    void warmUp_OpensTheConnectionsOfTheFirstCalls() throws Exception {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(MAX_CONCURRENT_REQUESTS);
+        try (StarlingApiStub api = new StarlingApiStub(LATENCY);
+             CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Arrange
+            StarlingClient client = new StarlingClient(
+                new TenantConfig("default", "token", api.getBaseUrl(), MAX_CONCURRENT_REQUESTS), httpClient);
+
+            // Act
+            client.warmUp().get();
+            int warmedUpConnections = api.getConnections();
+            List<Future<String>> calls = new ArrayList<>();
+            for (int call = 0; call < MAX_CONCURRENT_REQUESTS; call++) {
+                calls.add(callers.submit(client::getAccountDetails));
+            }
+            awaitAll(calls);
+
+            // Assert
+            assertThat(warmedUpConnections).isEqualTo(MAX_CONCURRENT_REQUESTS);
+            assertThat(api.getConnections()).isEqualTo(MAX_CONCURRENT_REQUESTS);
+        }
+    }
+
+    // Test case for bounding each warm-up request, so an origin that never answers does not hold a connection for ever
+    @Test
+    void warmUp_RequestsHaveTimeouts() throws Exception {
+        // Arrange
+        List<RequestConfig> warmUpConfigs = new CopyOnWriteArrayList<>();
+        Transport transport = new Transport() {
+            @Override
+            public ApiResponse execute(HttpRequestBase request) {
+                throw new UnsupportedOperationException("Only warmed up");
+            }
+
+            @Override
+            public void warmUp(HttpHead request) {
+                warmUpConfigs.add(request.getConfig());
+            }
+        };
+        StarlingClient client = new StarlingClient(
+            new TenantConfig("default", "token", "http://localhost", MAX_CONCURRENT_REQUESTS), transport);
+
+        // Act
+        client.warmUp().get();
+
+        // Assert
+        assertThat(warmUpConfigs).hasSize(MAX_CONCURRENT_REQUESTS).allSatisfy(config -> {
+            assertThat(config.getConnectionRequestTimeout()).isPositive();
+            assertThat(config.getConnectTimeout()).isPositive();
+            assertThat(config.getSocketTimeout()).isPositive();
+        });
+    }
+
+    private static void awaitAll(List<Future<String>> calls) throws InterruptedException, ExecutionException {
+        for (Future<String> call : calls) {
+            call.get();
+        }
+    }
+}
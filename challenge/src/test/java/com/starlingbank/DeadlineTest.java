@@ -0,0 +1,130 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.api.Deadline;
+import com.starlingbank.api.StarlingClient;
+import com.starlingbank.benchmark.StarlingApiStub;
+import com.starlingbank.config.HedgingPolicy;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.exceptions.DeadlineExceededException;
+import com.starlingbank.transport.JdkHttpTransport;
+import com.starlingbank.transport.Transport;
+
+/**
+ * This class is used to test the deadlines of the calls of a StarlingClient against a local API stub.
+ * @author Cesar Goncalves
+ */
+class DeadlineTest {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    // Far longer than the deadlines, as a stuck API would be
+    private static final Duration STUCK = Duration.ofSeconds(30);
+    private static final Duration DEADLINE = Duration.ofMillis(200);
+    private static final Duration GIVEN_UP_WITHIN = Duration.ofSeconds(5);
+
+    // Test case for failing a call made once the deadline has passed without sending it
+    @Test
+    void call_AfterTheDeadline_IsNotSent() throws IOException {
+        try (StarlingApiStub api = new StarlingApiStub(Duration.ZERO);
+             CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            // Arrange
+            StarlingClient client = new StarlingClient(
+                new TenantConfig("default", "token", api.getBaseUrl(), MAX_CONCURRENT_REQUESTS), httpClient);
+
+            // Act & Assert
+            Deadline.Scope deadline = Deadline.after(Duration.ZERO).bind();
+            try {
+                assertThatThrownBy(client::getAccountDetails).isInstanceOf(DeadlineExceededException.class);
+            } finally {
+                deadline.close();
+            }
+            assertThat(api.getConnections()).isZero();
+        }
+    }
+
+    // Test case for giving up on a stuck call, hedged or not, over either transport, once the deadline passes
+    @Test
+    void call_ToAStuckApi_GivesUpAtTheDeadline() throws IOException {
+        try (StarlingApiStub api = new StarlingApiStub(STUCK);
+             CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            // Arrange
+            StarlingClient apacheClient = new StarlingClient(
+                new TenantConfig("default", "token", api.getBaseUrl(), MAX_CONCURRENT_REQUESTS), httpClient);
+            StarlingClient hedgedClient = new StarlingClient(new TenantConfig("hedged", "token", api.getBaseUrl(),
+                MAX_CONCURRENT_REQUESTS, HedgingPolicy.afterDelay(DEADLINE.dividedBy(2), HedgingPolicy.DEFAULT_BUDGET_PERCENT)),
+                httpClient);
+            StarlingClient jdkClient = new StarlingClient(
+                new TenantConfig("jdk", "token", api.getBaseUrl(), MAX_CONCURRENT_REQUESTS), JdkHttpTransport.http2());
+
+            // Act & Assert
+            for (StarlingClient client : new StarlingClient[] {apacheClient, hedgedClient, jdkClient}) {
+                long started = System.nanoTime();
+                Deadline.Scope deadline = Deadline.after(DEADLINE).bind();
+                try {
+                    assertThatThrownBy(client::getAccountDetails).isInstanceOfAny(IOException.class,
+                        DeadlineExceededException.class);
+                } finally {
+                    deadline.close();
+                }
+                assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(GIVEN_UP_WITHIN);
+            }
+        }
+    }
+
+    // Test case for failing a hedged call whose request fails with an unexpected exception, rather than waiting for it
+    @Test
+    void call_HedgedRequestFailingUnexpectedly_FailsBeforeTheDeadline() {
+        // Arrange
+        Transport transport = request -> {
+            throw new IllegalStateException("Connection pool shut down");
+        };
+        StarlingClient client = new StarlingClient(new TenantConfig("hedged", "token", "http://localhost",
+            MAX_CONCURRENT_REQUESTS, HedgingPolicy.afterDelay(STUCK, HedgingPolicy.DEFAULT_BUDGET_PERCENT)), transport);
+
+        // Act & Assert
+        Deadline.Scope deadline = Deadline.after(GIVEN_UP_WITHIN).bind();
+        try {
+            assertThatThrownBy(client::getAccountDetails).isInstanceOf(IOException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            deadline.close();
+        }
+    }
+
+    // Test case for keeping the earlier deadline of the run when the deadline of an account is bound
+    @Test
+    void bind_KeepsTheEarlierDeadline() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        final long runNanos = 100;
+        final long accountNanos = 300;
+        Deadline run = Deadline.after(Duration.ofNanos(runNanos), nanos::get);
+        Deadline account = Deadline.after(Duration.ofNanos(accountNanos), nanos::get);
+
+        // Act & Assert
+        Deadline.Scope runScope = run.bind();
+        try {
+            Deadline.Scope accountScope = account.bind();
+            try {
+                assertThat(Deadline.current()).isSameAs(run);
+            } finally {
+                accountScope.close();
+            }
+            nanos.set(runNanos);
+            assertThat(Deadline.current().isExpired()).isTrue();
+        } finally {
+            runScope.close();
+        }
+        assertThat(Deadline.current()).isNull();
+    }
+}
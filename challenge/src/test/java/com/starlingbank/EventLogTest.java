@@ -0,0 +1,107 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+
+/**
+ * This class is used to test the EventLog class.
+ * @author Cesar Goncalves
+ */
+class EventLogTest {
+
+    private static final int CAPACITY = 16;
+    private static final int EVENTS = 100;
+    private static final long AMOUNT = 120;
+    private static final long LATENCY_NANOS = 42_000_000;
+    private static final UUID ACCOUNT_UID = UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34");
+
+    // Test case for writing the structured fields of the events, in order, and ignoring those below the level
+    @Test
+    void log_WritesStructuredEventsInOrder() {
+        // Arrange
+        StringBuilder out = new StringBuilder();
+        try (EventLog log = EventLog.start(out, CAPACITY, Level.INFO)) {
+
+            // Act
+            log.log(LogEvent.of(Level.INFO, "transfer", "Transferred \"£1.20\"").account(ACCOUNT_UID).amount(AMOUNT)
+                .latency(LATENCY_NANOS));
+            log.log(LogEvent.of(Level.FINE, "backfill", "Ignored below the level"));
+            log.warning("sweep", "Second");
+            log.flush();
+
+            // Assert
+            String[] lines = out.toString().split(System.lineSeparator());
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).startsWith("time=")
+                .endsWith(" level=INFO phase=transfer account=" + ACCOUNT_UID
+                    + " amount=120 latencyMs=42 msg=\"Transferred \\\"£1.20\\\"\"");
+            assertThat(lines[1]).endsWith(" level=WARNING phase=sweep msg=\"Second\"");
+        }
+    }
+
+    // Test case for shedding events, rather than blocking the callers, while the writer is stalled
+    @Test
+    void log_ShedsEventsWhileWriterIsStalled() throws InterruptedException {
+        // Arrange
+        StalledOutput out = new StalledOutput();
+        try (EventLog log = EventLog.start(out, CAPACITY, Level.INFO)) {
+            log.info("shard", "Taken by the writer, which then stalls");
+            out.writing.await();
+
+            // Act
+            for (int event = 0; event < EVENTS; event++) {
+                log.info("shard", "Event " + event);
+            }
+            long dropped = log.getDropped();
+            out.stall.countDown();
+            log.flush();
+
+            // Assert
+            // The ring fills up to three quarters (events 0 to 11), then keeps one event in eight until it is full
+            assertThat(dropped).isEqualTo(EVENTS - CAPACITY);
+            assertThat(out.written.toString()).contains("msg=\"Event 11\"", "msg=\"Event 12\"", "msg=\"Event 36\"")
+                .doesNotContain("msg=\"Event 13\"", "msg=\"Event 44\"")
+                .contains("msg=\"Dropped " + dropped + " events under overload\"");
+        }
+    }
+
+    /**
+     * An output whose first append waits until the test lets it go on.
+     */
+    private static final class StalledOutput implements Appendable {
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch stall = new CountDownLatch(1);
+        private final StringBuilder written = new StringBuilder();
+
+        @Override
+        public Appendable append(CharSequence text) throws IOException {
+            writing.countDown();
+            try {
+                stall.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.append(text);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) throws IOException {
+            return append(text.subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            return append(String.valueOf(c));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+import com.starlingbank.json.OrgJsonCodec;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpCalculator;
+import com.starlingbank.webhook.FeedItemIngester;
+import com.starlingbank.webhook.IngestOutcome;
+import com.starlingbank.webhook.RecentEventFilter;
+import com.starlingbank.webhook.RoundUpAccumulator;
+import com.starlingbank.webhook.RsaSignatureVerifier;
+import com.starlingbank.webhook.WebhookServer;
+
+/**
+ * This class is used to test the FeedItemIngester class.
+ * @author Cesar Goncalves
+ */
+class FeedItemIngesterTest {
+
+    private static final UUID ACCOUNT_UID = UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34");
+    private static final int MINOR_UNITS = 1234;
+    private static final int KEY_SIZE = 2048;
+    private static final int RECENT_EVENTS = 16;
+
+    // The key pair the test events are signed with
+    private static KeyPair keyPair;
+
+    private final RoundUpAccumulator accumulator = new RoundUpAccumulator();
+    private final FeedItemIngester ingester = ingester(accumulator);
+
+    @BeforeAll
+    static void generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(KEY_SIZE);
+        keyPair = generator.generateKeyPair();
+    }
+
+    // Test case for accumulating the round-up of an outbound payment, once however often it is delivered
+    @Test
+    void ingest_AccumulatesOncePerFeedItem() throws GeneralSecurityException {
+        // Arrange
+        final long expectedRoundUp = 66;
+        byte[] body = event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0001", "OUT", MINOR_UNITS);
+        String signature = sign(body);
+
+        // Act
+        IngestOutcome first = ingester.ingest(body, signature);
+        IngestOutcome redelivery = ingester.ingest(body, signature);
+
+        // Assert
+        assertThat(first).isEqualTo(IngestOutcome.ACCEPTED);
+        assertThat(redelivery).isEqualTo(IngestOutcome.DUPLICATE);
+        assertThat(accumulator.pending(ACCOUNT_UID)).isEqualTo(expectedRoundUp);
+        PendingRoundUp sweep = accumulator.beginSweep(ACCOUNT_UID);
+        assertThat(sweep.getMinorUnits()).isEqualTo(expectedRoundUp);
+        sweep.markProcessed();
+        assertThat(accumulator.pending(ACCOUNT_UID)).isZero();
+    }
+
+    // Test case for keeping the round-ups acknowledged, and filtering out their redeliveries, across a restart
+    @Test
+    void ingest_JournaledAcrossRestart(@TempDir Path directory) throws GeneralSecurityException, IOException {
+        // Arrange
+        final long expectedRoundUp = 66;
+        Path journal = directory.resolve("webhooks.journal");
+        Path items = directory.resolve("processed.items");
+        byte[] body = event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0005", "OUT", MINOR_UNITS);
+        String signature = sign(body);
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(items);
+             RoundUpAccumulator stopped = RoundUpAccumulator.open(journal, processedItems)) {
+            ingester(stopped).ingest(body, signature);
+        }
+
+        // Act
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(items);
+             RoundUpAccumulator restarted = RoundUpAccumulator.open(journal, processedItems)) {
+            IngestOutcome redelivery = ingester(restarted).ingest(body, signature);
+
+            // Assert
+            assertThat(redelivery).isEqualTo(IngestOutcome.DUPLICATE);
+            assertThat(restarted.pending(ACCOUNT_UID)).isEqualTo(expectedRoundUp);
+        }
+    }
+
+    // Test case for ignoring an inbound payment
+    @Test
+    void ingest_InboundIgnored() throws GeneralSecurityException {
+        // Arrange
+        byte[] body = event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0002", "IN", MINOR_UNITS);
+
+        // Act
+        IngestOutcome outcome = ingester.ingest(body, sign(body));
+
+        // Assert
+        assertThat(outcome).isEqualTo(IngestOutcome.IGNORED);
+        assertThat(accumulator.pending(ACCOUNT_UID)).isZero();
+    }
+
+    // Test case for rejecting an event whose body was altered after being signed, or which is not signed
+    @Test
+    void ingest_InvalidSignature() throws GeneralSecurityException {
+        // Arrange
+        String signature = sign(event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0003", "OUT", MINOR_UNITS));
+
+        // Act
+        IngestOutcome tampered = ingester.ingest(event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0003", "OUT", 1), signature);
+        IngestOutcome unsigned = ingester.ingest(event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0003", "OUT", 1), null);
+        IngestOutcome notBase64 = ingester.ingest(event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0003", "OUT", 1), "not a signature!");
+
+        // Assert
+        assertThat(tampered).isEqualTo(IngestOutcome.INVALID_SIGNATURE);
+        assertThat(unsigned).isEqualTo(IngestOutcome.INVALID_SIGNATURE);
+        assertThat(notBase64).isEqualTo(IngestOutcome.INVALID_SIGNATURE);
+        assertThat(accumulator.accounts()).isEmpty();
+    }
+
+    // Test case for rejecting a signed body that is not a feed item event
+    @Test
+    void ingest_Malformed() throws GeneralSecurityException {
+        // Arrange
+        byte[] body = "{\"content\":{}}".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        IngestOutcome outcome = ingester.ingest(body, sign(body));
+
+        // Assert
+        assertThat(outcome).isEqualTo(IngestOutcome.MALFORMED);
+    }
+
+    // Test case for acknowledging the webhooks over HTTP with the status of their outcome
+    @Test
+    void webhookServer_AcknowledgesOverHttp() throws Exception {
+        // Arrange
+        final int ok = 200;
+        final int unauthorized = 401;
+        final int methodNotAllowed = 405;
+        final int payloadTooLarge = 413;
+        final int oversizedBytes = 65 * 1024;
+        byte[] body = event("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0004", "OUT", MINOR_UNITS);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try (WebhookServer server = new WebhookServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            ingester)) {
+            server.start();
+            URI uri = URI.create("http://localhost:" + server.getPort() + WebhookServer.FEED_ITEM_PATH);
+
+            // Act
+            HttpResponse<Void> signed = client.send(HttpRequest.newBuilder(uri).header("X-Hook-Signature", sign(body))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)).build(), HttpResponse.BodyHandlers.discarding());
+            HttpResponse<Void> unsigned = client.send(HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)).build(), HttpResponse.BodyHandlers.discarding());
+            HttpResponse<Void> get = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+            HttpResponse<Void> oversized = client.send(HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[oversizedBytes])).build(),
+                HttpResponse.BodyHandlers.discarding());
+
+            // Assert
+            assertThat(signed.statusCode()).isEqualTo(ok);
+            assertThat(unsigned.statusCode()).isEqualTo(unauthorized);
+            assertThat(get.statusCode()).isEqualTo(methodNotAllowed);
+            assertThat(oversized.statusCode()).isEqualTo(payloadTooLarge);
+            assertThat(accumulator.accounts()).containsExactly(ACCOUNT_UID);
+        }
+    }
+
+    private static FeedItemIngester ingester(RoundUpAccumulator accumulator) {
+        return new FeedItemIngester(new RsaSignatureVerifier(keyPair.getPublic()), new OrgJsonCodec(),
+            new RecentEventFilter(RECENT_EVENTS), new RoundUpCalculator(), accumulator);
+    }
+
+    private static byte[] event(String feedItemUid, String direction, int minorUnits) {
+        return ("{\"webhookEventUid\":\"e-" + feedItemUid + "\",\"content\":{\"feedItemUid\":\"" + feedItemUid
+            + "\",\"accountUid\":\"" + ACCOUNT_UID + "\",\"amount\":{\"currency\":\"GBP\",\"minorUnits\":" + minorUnits
+            + "},\"direction\":\"" + direction + "\",\"source\":\"FASTER_PAYMENTS_OUT\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sign(byte[] body) throws GeneralSecurityException {
+        Signature signer = Signature.getInstance(RsaSignatureVerifier.ALGORITHM);
+        signer.initSign(keyPair.getPrivate());
+        signer.update(body);
+        return Base64.getEncoder().encodeToString(signer.sign());
+    }
+}
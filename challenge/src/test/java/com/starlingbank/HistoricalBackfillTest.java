@@ -0,0 +1,133 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.starlingbank.backfill.BackfillResult;
+import com.starlingbank.backfill.BackfillSettings;
+import com.starlingbank.backfill.HistoricalBackfill;
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * This class is used to test the HistoricalBackfill class.
+ * @author Cesar Goncalves
+ */
+@ExtendWith(MockitoExtension.class)
+class HistoricalBackfillTest {
+
+    private static final Account ACCOUNT = new Account(UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34"),
+        UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10"));
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 4, 1);
+    private static final int CHUNK_DAYS = 30;
+    private static final int CHUNKS = 4;
+    private static final int MAX_CONCURRENT_CHUNKS = 2;
+    private static final int AMOUNT = 1234;
+    private static final int ROUND_UP = 66;
+
+    // Mocking the TransactionService fetching the chunks
+    @Mock
+    private TransactionService transactionService;
+
+    // Test case for resuming an interrupted backfill without fetching the completed chunks again
+    @Test
+    void run_ResumesFromCheckpoint(@TempDir Path directory) throws IOException {
+        // Arrange
+        final LocalDate failingChunk = FROM.plusDays(2 * CHUNK_DAYS);
+        BackfillSettings settings = new BackfillSettings(directory.resolve("backfill.checkpoint"), CHUNK_DAYS,
+            MAX_CONCURRENT_CHUNKS);
+        HistoricalBackfill backfill = new HistoricalBackfill(transactionService, new RoundUpCalculator(), settings);
+        when(transactionService.getTransactions(eq(ACCOUNT), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of(new Transaction(AMOUNT, "FASTER_PAYMENTS_OUT")));
+        when(transactionService.getTransactions(ACCOUNT, failingChunk, failingChunk.plusDays(CHUNK_DAYS)))
+            .thenThrow(new ServiceException("Received an error response from the API"))
+            .thenReturn(List.of());
+        BackfillResult interrupted = backfill.run(ACCOUNT, FROM, TO);
+
+        // Act
+        BackfillResult resumed = backfill.run(ACCOUNT, FROM, TO);
+
+        // Assert
+        assertThat(interrupted.isComplete()).isFalse();
+        assertThat(interrupted.getCompletedChunks()).isEqualTo(CHUNKS - 1);
+        assertThat(resumed.isComplete()).isTrue();
+        assertThat(resumed.getResumedChunks()).isEqualTo(CHUNKS - 1);
+        assertThat(resumed.getRoundUpMinorUnits()).isEqualTo((long) (CHUNKS - 1) * ROUND_UP);
+        // The last chunk ends with the range, and every completed chunk was fetched once
+        verify(transactionService).getTransactions(ACCOUNT, FROM.plusDays((long) (CHUNKS - 1) * CHUNK_DAYS), TO);
+        verify(transactionService).getTransactions(ACCOUNT, FROM, FROM.plusDays(CHUNK_DAYS));
+        assertThat(Files.exists(settings.getCheckpointFile())).isTrue();
+        resumed.getRoundUp().markProcessed();
+        assertThat(Files.exists(settings.getCheckpointFile())).isFalse();
+    }
+
+    // Test case for transferring the round-up of a backfill again, under the same transferUids, after a failure
+    @Test
+    void run_KeepsCheckpointUntilRoundUpIsProcessed(@TempDir Path directory) throws IOException {
+        // Arrange
+        final SavingGoal goal = new SavingGoal(UUID.fromString("5d2e8f1a-3b7c-4e9d-8a6f-1c4b2e7d9a30"), "Holiday",
+            new Amount(AMOUNT, CurrencyUnit.GBP));
+        BackfillSettings settings = new BackfillSettings(directory.resolve("backfill.checkpoint"), CHUNK_DAYS,
+            MAX_CONCURRENT_CHUNKS);
+        HistoricalBackfill backfill = new HistoricalBackfill(transactionService, new RoundUpCalculator(), settings);
+        when(transactionService.getTransactions(eq(ACCOUNT), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of(new Transaction(AMOUNT, "FASTER_PAYMENTS_OUT")));
+        BackfillResult failedTransfer = backfill.run(ACCOUNT, FROM, TO);
+
+        // Act
+        BackfillResult rerun = backfill.run(ACCOUNT, FROM, TO);
+
+        // Assert
+        assertThat(rerun.getResumedChunks()).isEqualTo(CHUNKS);
+        assertThat(rerun.getRoundUpMinorUnits()).isEqualTo(failedTransfer.getRoundUpMinorUnits());
+        assertThat(rerun.getRoundUp().transferUid(goal)).isEqualTo(failedTransfer.getRoundUp().transferUid(goal));
+        // Every chunk was fetched once, by the first run
+        verify(transactionService).getTransactions(ACCOUNT, FROM, FROM.plusDays(CHUNK_DAYS));
+    }
+
+    // Test case for starting afresh when the checkpoint records another backfill
+    @Test
+    void run_IgnoresCheckpointOfAnotherRange(@TempDir Path directory) throws IOException {
+        // Arrange
+        BackfillSettings settings = new BackfillSettings(directory.resolve("backfill.checkpoint"), CHUNK_DAYS,
+            MAX_CONCURRENT_CHUNKS);
+        HistoricalBackfill backfill = new HistoricalBackfill(transactionService, new RoundUpCalculator(), settings);
+        when(transactionService.getTransactions(eq(ACCOUNT), any(LocalDate.class), any(LocalDate.class)))
+            .thenThrow(new ServiceException("Received an error response from the API"));
+        backfill.run(ACCOUNT, FROM.minusYears(1), TO);
+        when(transactionService.getTransactions(eq(ACCOUNT), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of());
+
+        // Act
+        BackfillResult result = backfill.run(ACCOUNT, FROM, TO);
+
+        // Assert
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getResumedChunks()).isZero();
+        verify(transactionService, never()).getTransactions(ACCOUNT, TO, TO);
+    }
+}
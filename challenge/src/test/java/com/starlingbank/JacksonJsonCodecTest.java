@@ -0,0 +1,17 @@
+package com.starlingbank;
+
+import com.starlingbank.json.JacksonJsonCodec;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.json.JsonCodecs;
+
+/**
+ * This class runs the JsonCodec correctness suite against the JacksonJsonCodec class.
+ * @author Cesar Goncalves
+ */
+class JacksonJsonCodecTest extends JsonCodecContractTest {
+
+    @Override
+    JsonCodec codec() {
+        return JsonCodecs.byName(JacksonJsonCodec.NAME);
+    }
+}
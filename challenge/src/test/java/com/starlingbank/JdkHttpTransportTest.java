@@ -0,0 +1,122 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.transport.ApiResponse;
+import com.starlingbank.transport.JdkHttpTransport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class is used to test the JdkHttpTransport class against a local HTTP server.
+ * @author Cesar Goncalves
+ */
+class JdkHttpTransportTest {
+
+    private static final int HTTP_STATUS_OK = 200;
+    private static final long ABORT_AFTER_MILLIS = 100;
+    private static final String BODY = "{\"amount\":{\"currency\":\"GBP\",\"minorUnits\":120}}";
+
+    // Released once the request the server keeps waiting has been aborted
+    private final CountDownLatch aborted = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/echo", this::echo);
+        server.createContext("/slow", exchange -> awaitAbort());
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        aborted.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // Test case for sending a PUT with its headers, body and content type, and reading the response
+    @Test
+    void execute_SendsHeadersAndBody() throws IOException {
+        // Arrange
+        HttpPut request = new HttpPut(baseUrl + "/echo");
+        request.setHeader("Authorization", "Bearer token");
+        request.setEntity(new StringEntity(BODY, ContentType.APPLICATION_JSON));
+
+        // Act
+        ApiResponse response = JdkHttpTransport.http2().execute(request);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HTTP_STATUS_OK);
+        assertThat(response.getBodyAsString()).isEqualTo("PUT Bearer token application/json; charset=UTF-8 " + BODY);
+    }
+
+    // Test case for giving up on a request once it is aborted, as the hedging of GETs does
+    @Test
+    void execute_GivesUpOnceAborted() {
+        // Arrange
+        HttpGet request = new HttpGet(baseUrl + "/slow");
+        executor.execute(() -> {
+            sleepQuietly();
+            request.abort();
+        });
+
+        // Act & Assert
+        assertThatThrownBy(() -> JdkHttpTransport.http2().execute(request)).isInstanceOf(IOException.class)
+            .hasMessage("The request was aborted");
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        byte[] echoed = (exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Authorization")
+            + " " + exchange.getRequestHeaders().getFirst("Content-Type") + " " + body).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(HTTP_STATUS_OK, echoed.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(echoed);
+        }
+    }
+
+    private void awaitAbort() {
+        try {
+            aborted.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ABORT_AFTER_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.util.JsonBodyWriter;
+
+/**
+ * This class is used to test the JsonBodyWriter class.
+ * @author Cesar Goncalves
+ */
+class JsonBodyWriterTest {
+
+    // Test case for writing a nested object
+    @Test
+    void write_NestedObject() {
+        // Arrange
+        JsonBodyWriter writer = new JsonBodyWriter();
+        final int minorUnits = 1234;
+
+        // Act
+        writer.beginObject()
+            .name("name").value("Holiday")
+            .name("target").beginObject()
+                .name("currency").value("GBP")
+                .name("minorUnits").value(minorUnits)
+            .endObject()
+            .endObject();
+
+        // Assert
+        assertThat(bodyOf(writer)).isEqualTo("{\"name\":\"Holiday\",\"target\":{\"currency\":\"GBP\",\"minorUnits\":1234}}");
+    }
+
+    // Test case for escaping quotes, control characters and non-ASCII characters
+    @Test
+    void write_EscapedStrings() {
+        // Arrange
+        JsonBodyWriter writer = new JsonBodyWriter();
+        String name = "Café \"€\" \\ \n\t 😀";
+
+        // Act
+        writer.beginObject().name("name").value(name).endObject();
+
+        // Assert
+        assertThat(new JSONObject(bodyOf(writer)).getString("name")).isEqualTo(name);
+    }
+
+    // Test case for writing extreme numbers and reusing the writer
+    @Test
+    void write_NumbersAfterReset() {
+        // Arrange
+        JsonBodyWriter writer = new JsonBodyWriter();
+        writer.beginObject().name("discarded").value("x").endObject();
+
+        // Act
+        writer.reset().beginObject()
+            .name("min").value(Long.MIN_VALUE)
+            .name("zero").value(0)
+            .name("max").value(Long.MAX_VALUE)
+            .endObject();
+
+        // Assert
+        assertThat(bodyOf(writer)).isEqualTo("{\"min\":" + Long.MIN_VALUE + ",\"zero\":0,\"max\":" + Long.MAX_VALUE + "}");
+    }
+
+    private String bodyOf(JsonBodyWriter writer) {
+        return new String(writer.buffer(), 0, writer.size(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,195 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.exceptions.JsonCodecException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.FeedItemEvent;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+
+/**
+ * The correctness suite every JsonCodec must pass, run once per codec by its subclasses.
+ * @author Cesar Goncalves
+ */
+abstract class JsonCodecContractTest {
+
+    private static final int TARGET_MINOR_UNITS = 1000;
+    private static final int SAVED_MINOR_UNITS = 250;
+    private static final String ACCOUNT_UID = "2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34";
+    private static final String CATEGORY_UID = "8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10";
+    private static final String SAVINGS_GOAL_UID = "4e6d2b8a-1c3f-4a9e-b7d5-6f0a2c8e1b93";
+
+    /**
+     * Returns the codec under test.
+     * @return The codec.
+     */
+    abstract JsonCodec codec();
+
+    // Test case for decoding the accounts, skipping the fields the model does not use
+    @Test
+    void decodeAccounts_SkipsUnknownFields() {
+        // Arrange
+        String json = "{\"accounts\":[{\"accountUid\":\"" + ACCOUNT_UID + "\",\"accountType\":\"PRIMARY\","
+            + "\"defaultCategory\":\"" + CATEGORY_UID + "\",\"createdAt\":\"2024-01-01T00:00:00Z\","
+            + "\"nested\":{\"list\":[1,{\"deep\":true}]}}]}";
+
+        // Act
+        List<Account> accounts = codec().decodeAccounts(json);
+
+        // Assert
+        assertThat(accounts).hasSize(1);
+        assertThat(accounts.get(0).getAccountUid()).isEqualTo(UUID.fromString(ACCOUNT_UID));
+        assertThat(accounts.get(0).getCategoryUid()).isEqualTo(UUID.fromString(CATEGORY_UID));
+    }
+
+    // Test case for decoding the feed items in order
+    @Test
+    void decodeTransactions_InOrder() {
+        // Arrange
+        final int firstMinorUnits = 1234;
+        final int secondMinorUnits = 50;
+        String json = "{\"feedItems\":[{\"amount\":{\"currency\":\"GBP\",\"minorUnits\":1234},"
+            + "\"transactionTime\":\"2024-01-15T10:20:30.000Z\",\"source\":\"FASTER_PAYMENTS_OUT\",\"direction\":\"OUT\"},"
+            + "{\"source\":\"CARD\",\"amount\":{\"minorUnits\":50,\"currency\":\"GBP\"}}]}";
+
+        // Act
+        List<Transaction> transactions = codec().decodeTransactions(json);
+
+        // Assert
+        assertThat(transactions).extracting(Transaction::getMinorUnits).containsExactly(firstMinorUnits, secondMinorUnits);
+        assertThat(transactions).extracting(Transaction::getSource).containsExactly("FASTER_PAYMENTS_OUT", "CARD");
+        assertThat(transactions).extracting(Transaction::getTransactionTime)
+            .containsExactly("2024-01-15T10:20:30.000Z", null);
+    }
+
+    // Test case for rejecting the amount of a feed item that does not fit the minor units of a transaction
+    @Test
+    void decodeTransactions_AmountOutOfRange() {
+        // Arrange
+        String json = "{\"feedItems\":[{\"amount\":{\"currency\":\"GBP\",\"minorUnits\":4294967296},"
+            + "\"source\":\"CARD\"}]}";
+
+        // Act & Assert
+        assertThatThrownBy(() -> codec().decodeTransactions(json))
+            .isInstanceOf(JsonCodecException.class)
+            .hasMessageContaining("minorUnits");
+    }
+
+    // Test case for decoding an empty feed
+    @Test
+    void decodeTransactions_Empty() {
+        // Act
+        List<Transaction> transactions = codec().decodeTransactions("{\"feedItems\":[]}");
+
+        // Assert
+        assertThat(transactions).isEmpty();
+    }
+
+    // Test case for decoding the savings goals, with and without an amount saved
+    @Test
+    void decodeSavingsGoals_OptionalTotalSaved() {
+        // Arrange
+        String json = "{\"savingsGoalList\":[{\"savingsGoalUid\":\"" + SAVINGS_GOAL_UID + "\","
+            + "\"name\":\"Trip \\\"2024\\\" \\u00e9\","
+            + "\"target\":{\"currency\":\"GBP\",\"minorUnits\":1000},\"totalSaved\":{\"currency\":\"GBP\",\"minorUnits\":250}},"
+            + "{\"savingsGoalUid\":\"9b1e7c4d-3a5f-4d2b-8e6c-0a7f1d3b5c27\",\"name\":\"Car\","
+            + "\"target\":{\"currency\":\"EUR\",\"minorUnits\":1000},"
+            + "\"totalSaved\":null}]}";
+
+        // Act
+        List<SavingGoal> goals = codec().decodeSavingsGoals(json);
+
+        // Assert
+        assertThat(goals).extracting(SavingGoal::getName).containsExactly("Trip \"2024\" é", "Car");
+        assertThat(goals.get(0).getSavingsGoalUid()).isEqualTo(UUID.fromString(SAVINGS_GOAL_UID));
+        assertThat(goals.get(0).getTarget().getMinorUnits()).isEqualTo(TARGET_MINOR_UNITS);
+        assertThat(goals.get(0).getTotalSaved().getMinorUnits()).isEqualTo(SAVED_MINOR_UNITS);
+        assertThat(goals.get(1).getTotalSaved().getMinorUnits()).isZero();
+        assertThat(goals.get(1).getTotalSaved().getCurrencyCode()).isEqualTo("EUR");
+    }
+
+    // Test case for decoding the identifier of a created savings goal
+    @Test
+    void decodeSavingsGoalUid_Success() {
+        // Act
+        UUID savingsGoalUid = codec().decodeSavingsGoalUid(
+            "{\"success\":true,\"savingsGoalUid\":\"" + SAVINGS_GOAL_UID + "\"}");
+
+        // Assert
+        assertThat(savingsGoalUid).isEqualTo(UUID.fromString(SAVINGS_GOAL_UID));
+    }
+
+    // Test case for rejecting an identifier that is not a UUID
+    @Test
+    void decodeSavingsGoalUid_Malformed() {
+        // Act & Assert
+        assertThatThrownBy(() -> codec().decodeSavingsGoalUid("{\"success\":true,\"savingsGoalUid\":\"sg-9\"}"))
+            .isInstanceOf(JsonCodecException.class)
+            .hasMessageContaining("savingsGoalUid");
+    }
+
+    // Test case for rejecting a malformed payload
+    @Test
+    void decodeAccounts_Malformed() {
+        // Act & Assert
+        assertThatThrownBy(() -> codec().decodeAccounts("{\"accounts\":}"))
+            .isInstanceOf(JsonCodecException.class);
+    }
+
+    // Test case for rejecting a payload missing a required field
+    @Test
+    void decodeSavingsGoals_MissingField() {
+        // Arrange
+        String json = "{\"savingsGoalList\":[{\"savingsGoalUid\":\"" + SAVINGS_GOAL_UID + "\",\"name\":\"Car\"}]}";
+
+        // Act & Assert
+        assertThatThrownBy(() -> codec().decodeSavingsGoals(json))
+            .isInstanceOf(JsonCodecException.class);
+    }
+
+    // Test case for rejecting a payload missing the expected array
+    @Test
+    void decodeTransactions_MissingArray() {
+        // Act & Assert
+        assertThatThrownBy(() -> codec().decodeTransactions("{\"items\":[]}"))
+            .isInstanceOf(JsonCodecException.class);
+    }
+
+    // Test case for decoding the feed item of a webhook event, skipping the fields the model does not use
+    @Test
+    void decodeFeedItemEvent_Success() {
+        // Arrange
+        final int minorUnits = 1234;
+        String json = "{\"webhookEventUid\":\"e-1\",\"eventTimestamp\":\"2024-01-01T00:00:00Z\","
+            + "\"content\":{\"feedItemUid\":\"7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0001\",\"categoryUid\":\"" + CATEGORY_UID + "\","
+            + "\"accountUid\":\"" + ACCOUNT_UID + "\","
+            + "\"amount\":{\"currency\":\"GBP\",\"minorUnits\":1234},\"direction\":\"OUT\","
+            + "\"source\":\"MASTER_CARD\",\"status\":\"SETTLED\",\"spendingCategory\":null}}";
+
+        // Act
+        FeedItemEvent event = codec().decodeFeedItemEvent(json);
+
+        // Assert
+        assertThat(event.getFeedItemUid()).isEqualTo(UUID.fromString("7d0c2a4e-6b1f-4e3a-8c5d-9f2b3a1e0001"));
+        assertThat(event.getAccountUid()).isEqualTo(UUID.fromString(ACCOUNT_UID));
+        assertThat(event.getDirection()).isEqualTo("OUT");
+        assertThat(event.getTransaction().getMinorUnits()).isEqualTo(minorUnits);
+        assertThat(event.getTransaction().getSource()).isEqualTo("MASTER_CARD");
+    }
+
+    // Test case for rejecting a webhook event without its feed item
+    @Test
+    void decodeFeedItemEvent_MissingContent() {
+        // Act & Assert
+        assertThatThrownBy(() -> codec().decodeFeedItemEvent("{\"webhookEventUid\":\"e-1\"}"))
+            .isInstanceOf(JsonCodecException.class);
+    }
+}
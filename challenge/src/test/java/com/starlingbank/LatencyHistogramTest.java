@@ -0,0 +1,72 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.api.LatencyHistogram;
+
+/**
+ * This class is used to test the LatencyHistogram class.
+ * @author Cesar Goncalves
+ */
+class LatencyHistogramTest {
+
+    private static final double P50 = 0.5;
+    private static final double P99 = 0.99;
+    private static final long P50_MILLIS = 500;
+    private static final long P99_MILLIS = 990;
+
+    // Test case for reading percentiles out of a uniform distribution of latencies
+    @Test
+    void percentileNanos_UniformLatencies() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        final int samples = 1000;
+        for (int millis = 1; millis <= samples; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        // Act
+        long p50 = histogram.percentileNanos(P50);
+        long p99 = histogram.percentileNanos(P99);
+
+        // Assert
+        final double tolerance = 0.125;
+        assertThat((double) p50).isCloseTo(TimeUnit.MILLISECONDS.toNanos(P50_MILLIS), within(tolerance * p50));
+        assertThat((double) p99).isCloseTo(TimeUnit.MILLISECONDS.toNanos(P99_MILLIS), within(tolerance * p99));
+        assertThat(histogram.getCount()).isEqualTo(samples);
+    }
+
+    // Test case for reading a percentile out of an empty histogram
+    @Test
+    void percentileNanos_Empty() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        long p99 = histogram.percentileNanos(P99);
+
+        // Assert
+        assertThat(p99).isZero();
+    }
+
+    // Test case for weighting a latency as several samples
+    @Test
+    void record_Weighted() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        final int weight = 16;
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Act
+        histogram.record(TimeUnit.SECONDS.toNanos(1), weight);
+
+        // Assert
+        assertThat(histogram.getCount()).isEqualTo(weight + 1);
+        assertThat(histogram.percentileNanos(P50)).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(P99_MILLIS));
+    }
+}
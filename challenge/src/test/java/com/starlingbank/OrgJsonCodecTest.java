@@ -0,0 +1,17 @@
+package com.starlingbank;
+
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.json.JsonCodecs;
+import com.starlingbank.json.OrgJsonCodec;
+
+/**
+ * This class runs the JsonCodec correctness suite against the OrgJsonCodec class.
+ * @author Cesar Goncalves
+ */
+class OrgJsonCodecTest extends JsonCodecContractTest {
+
+    @Override
+    JsonCodec codec() {
+        return JsonCodecs.byName(OrgJsonCodec.NAME);
+    }
+}
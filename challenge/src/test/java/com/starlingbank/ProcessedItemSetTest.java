@@ -0,0 +1,127 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * This class is used to test the ProcessedItemSet class.
+ * @author Cesar Goncalves
+ */
+class ProcessedItemSetTest {
+
+    // More items than fit in the initial table, so the set grows while they are added
+    private static final int ITEMS = 100_000;
+    private static final int AMOUNT = 123;
+
+    @Test
+    void testItemsAreKeptAcrossRunsWhileTheSetGrows(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("processed-items");
+        List<UUID> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(UUID.randomUUID());
+        }
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(file)) {
+            items.forEach(processedItems::add);
+        }
+
+        // Act
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(file)) {
+
+            // Assert
+            assertThat(processedItems.size()).isEqualTo(ITEMS);
+            assertThat(items).allMatch(processedItems::contains);
+            assertThat(items).noneMatch(processedItems::add);
+            assertThat(processedItems.contains(UUID.randomUUID())).isFalse();
+            assertThatThrownBy(() -> ProcessedItemSet.open(file)).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void testFileThatIsNotASetIsRejectedAndLeftClosed(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("processed-items");
+        Path tooShort = tempDir.resolve("too-short");
+        Files.write(tooShort, new byte[] {1, 2});
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(file)) {
+            processedItems.add(UUID.randomUUID());
+        }
+        byte[] valid = Files.readAllBytes(file);
+        byte[] badMagic = valid.clone();
+        badMagic[0] = 0;
+        Files.write(file, badMagic);
+
+        // Act
+        Throwable notASet = catchThrowable(() -> ProcessedItemSet.open(file));
+        Throwable shortFile = catchThrowable(() -> ProcessedItemSet.open(tooShort));
+        Files.write(file, valid);
+
+        // Assert
+        assertThat(notASet).isInstanceOf(IOException.class).hasMessageContaining("magic number");
+        assertThat(shortFile).isInstanceOf(IOException.class).hasMessageContaining("shorter than its header");
+        // The failed open released the lock, so the set opens once it is repaired
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(file)) {
+            assertThat(processedItems.size()).isOne();
+        }
+    }
+
+    @Test
+    void testOverlappingRunsRoundEachFeedItemUpOnce(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        final int roundUp = 77;
+        Transaction first = new Transaction(UUID.randomUUID(), AMOUNT, "FASTER_PAYMENTS_OUT");
+        Transaction second = new Transaction(UUID.randomUUID(), AMOUNT, "FASTER_PAYMENTS_OUT");
+        Transaction unknown = new Transaction(AMOUNT, "FASTER_PAYMENTS_OUT");
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(tempDir.resolve("processed-items"))) {
+            RoundUpCalculator calculator = new RoundUpCalculator(processedItems);
+
+            // Act
+            PendingRoundUp firstRun = calculator.calculatePendingRoundUp(List.of(first, unknown));
+            firstRun.markProcessed();
+            long overlappingRun = calculator.calculateTotalRoundUp(List.of(first, second, unknown));
+
+            // Assert
+            assertThat(firstRun.getMinorUnits()).isEqualTo(roundUp * 2);
+            assertThat(firstRun.getFeedItemUids()).containsExactly(first.getFeedItemUid());
+            assertThat(overlappingRun).isEqualTo(roundUp * 2);
+        }
+    }
+
+    @Test
+    void testRoundUpNotMarkedProcessedIsCountedAgain(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        final int roundUp = 77;
+        Transaction item = new Transaction(UUID.randomUUID(), AMOUNT, "FASTER_PAYMENTS_OUT");
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(tempDir.resolve("processed-items"))) {
+            RoundUpCalculator calculator = new RoundUpCalculator(processedItems);
+
+            // Act
+            long failedRun = calculator.calculateTotalRoundUp(List.of(item, item));
+            PendingRoundUp retriedRun = calculator.calculatePendingRoundUp(List.of(item));
+            retriedRun.markProcessed();
+            long laterRun = calculator.calculateTotalRoundUp(List.of(item));
+
+            // Assert
+            assertThat(failedRun).isEqualTo(roundUp);
+            assertThat(retriedRun.getMinorUnits()).isEqualTo(roundUp);
+            assertThat(processedItems.contains(item.getFeedItemUid())).isTrue();
+            assertThat(laterRun).isZero();
+        }
+    }
+}
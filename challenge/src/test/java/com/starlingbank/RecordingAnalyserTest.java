@@ -0,0 +1,127 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.api.StarlingClient;
+import com.starlingbank.benchmark.StarlingApiStub;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.json.OrgJsonCodec;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.profiling.ApiCallEvent;
+import com.starlingbank.profiling.PhaseSummary;
+import com.starlingbank.profiling.RecordingAnalyser;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.SavingsGoalTransferService;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.RoundUpCalculator;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * This class is used to test the JFR events of the round-up and the RecordingAnalyser class.
+ * @author Cesar Goncalves
+ */
+class RecordingAnalyserTest {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    private static final String ACCOUNT_UID = "2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34";
+    private static final Account ACCOUNT = new Account(UUID.fromString(ACCOUNT_UID),
+        UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10"));
+    private static final SavingGoal SAVINGS_GOAL = new SavingGoal(UUID.fromString("4e6d2b8a-1c3f-4a9e-b7d5-6f0a2c8e1b93"),
+        "Holiday", new Amount(10_000, CurrencyUnit.GBP));
+
+    // Test case for summarising the events of a round-up recorded with the shipped configuration
+    @Test
+    void analyse_RoundUpRecording(@TempDir Path directory) throws IOException, ParseException {
+        // Arrange
+        final long roundUp = 50;
+        final int lastPhase = 3;
+        LocalDate from = LocalDate.parse("2024-01-01");
+        Path recordingFile = directory.resolve("round-up.jfr");
+        try (StarlingApiStub api = new StarlingApiStub(Duration.ZERO);
+             CloseableHttpClient httpClient = HttpClients.createDefault();
+             Recording recording = new Recording(starlingConfiguration())) {
+            StarlingClient client = new StarlingClient(
+                new TenantConfig("default", "token", api.getBaseUrl(), MAX_CONCURRENT_REQUESTS), httpClient);
+            recording.start();
+
+            // Act
+            List<Transaction> transactions = new TransactionService(client, new OrgJsonCodec())
+                .getTransactions(ACCOUNT, from, from.plusWeeks(1));
+            long total = new RoundUpCalculator().calculateTotalRoundUp(transactions);
+            new SavingsGoalTransferService(mock(SavingsGoalService.class), MAX_CONCURRENT_REQUESTS)
+                .transfer(ACCOUNT, Map.of(SAVINGS_GOAL, new Amount(total, CurrencyUnit.GBP)));
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        List<PhaseSummary> phases = RecordingAnalyser.analyse(recordingFile);
+        StringBuilder report = new StringBuilder();
+        RecordingAnalyser.writeReport(phases, report);
+
+        // Assert
+        assertThat(phases).extracting(PhaseSummary::getPhase)
+            .containsExactly("API calls", "Feed parses", "Round-ups", "Transfers");
+        assertThat(phases).extracting(PhaseSummary::getCount).containsExactly(1, 1, 1, 1);
+        assertThat(phases).extracting(PhaseSummary::getTotal).element(1).isEqualTo(2L);
+        assertThat(phases).extracting(PhaseSummary::getTotal).element(2).isEqualTo(roundUp);
+        assertThat(phases.get(0).hotspots(1)).containsExactly("TRANSACTIONS");
+        assertThat(phases.get(lastPhase).hotspots(1)).containsExactly(ACCOUNT_UID);
+        assertThat(report.toString()).contains("Feed parses", "2 feed items", "  TRANSACTIONS");
+    }
+
+    // Test case for recording the size of a response body in bytes rather than in chars
+    @Test
+    void apiCallEvent_ResponseSizeInUtf8Bytes(@TempDir Path directory) throws IOException, ParseException {
+        // Arrange
+        final long utf8Bytes = 1 + 2 + 3 + 4;
+        Path recordingFile = directory.resolve("api-call.jfr");
+        try (Recording recording = new Recording(starlingConfiguration())) {
+            recording.start();
+            ApiCallEvent event = new ApiCallEvent();
+            event.begin();
+
+            // Act
+            event.commit("ACCOUNTS", null, HttpStatus.SC_OK, "a\u00e9\u20ac\ud83d\ude00");
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        assertThat(events).filteredOn(recorded -> ApiCallEvent.NAME.equals(recorded.getEventType().getName()))
+            .singleElement().satisfies(recorded -> assertThat(recorded.getLong("responseBytes")).isEqualTo(utf8Bytes));
+    }
+
+    private static Configuration starlingConfiguration() throws IOException, ParseException {
+        try (Reader jfc = new InputStreamReader(RecordingAnalyserTest.class.getResourceAsStream("/jfr/starling.jfc"),
+            StandardCharsets.UTF_8)) {
+            return Configuration.create(jfc);
+        }
+    }
+}
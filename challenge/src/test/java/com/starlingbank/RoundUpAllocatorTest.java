@@ -0,0 +1,100 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.util.AllocationStrategy;
+import com.starlingbank.util.RoundUpAllocator;
+
+/**
+ * This class is used to test the RoundUpAllocator class.
+ * @author Cesar Goncalves
+ */
+class RoundUpAllocatorTest {
+
+    private static final int TOTAL_ROUND_UP = 100;
+    private static final int TARGET = 10000;
+    private static final long HEAVY_WEIGHT = 2;
+
+    // Savings goals used across the tests
+    private final SavingGoal goal1 = new SavingGoal(UUID.randomUUID(), "Goal 1", new Amount(TARGET, "GBP"));
+    private final SavingGoal goal2 = new SavingGoal(UUID.randomUUID(), "Goal 2", new Amount(TARGET, "GBP"));
+    private final SavingGoal goal3 = new SavingGoal(UUID.randomUUID(), "Goal 3", new Amount(TARGET, "GBP"));
+
+    // Test case for splitting an amount that does not divide evenly across equally weighted goals
+    @Test
+    void allocate_EqualWeightsExactToThePenny() {
+        // Arrange
+        RoundUpAllocator allocator = new RoundUpAllocator(AllocationStrategy.equalWeights());
+
+        // Act
+        Map<SavingGoal, Amount> result = allocator.allocate(TOTAL_ROUND_UP, CurrencyUnit.GBP, List.of(goal1, goal2, goal3));
+
+        // Assert
+        // The penny left over goes to the first goal: 34 + 33 + 33 = 100
+        final long firstShare = 34;
+        final long otherShare = 33;
+        assertThat(result.values()).extracting(Amount::getMinorUnits).containsExactly(firstShare, otherShare, otherShare);
+    }
+
+    // Test case for splitting in proportion to the amount missing to reach each target
+    @Test
+    void allocate_RemainingTarget() {
+        // Arrange
+        RoundUpAllocator allocator = new RoundUpAllocator(AllocationStrategy.remainingTarget());
+        SavingGoal halfSaved = new SavingGoal(UUID.randomUUID(), "Goal 4", new Amount(TARGET, "GBP"),
+            new Amount(TARGET / 2, "GBP"));
+        SavingGoal reached = new SavingGoal(UUID.randomUUID(), "Goal 5", new Amount(TARGET, "GBP"),
+            new Amount(TARGET, "GBP"));
+
+        // Act
+        Map<SavingGoal, Amount> result = allocator.allocate(TOTAL_ROUND_UP, CurrencyUnit.GBP, List.of(goal1, halfSaved, reached));
+
+        // Assert
+        // Goal 1 misses twice as much as Goal 4, and Goal 5 has reached its target
+        final long largerShare = 67;
+        final long smallerShare = 33;
+        assertThat(result).containsOnlyKeys(goal1, halfSaved);
+        assertThat(result.get(goal1).getMinorUnits()).isEqualTo(largerShare);
+        assertThat(result.get(halfSaved).getMinorUnits()).isEqualTo(smallerShare);
+    }
+
+    // Test case for explicit weights
+    @Test
+    void allocate_ExplicitWeights() {
+        // Arrange
+        RoundUpAllocator allocator = new RoundUpAllocator(AllocationStrategy.weighted(
+            Map.of(goal1.getSavingsGoalUid(), 1L, goal2.getSavingsGoalUid(), HEAVY_WEIGHT)));
+
+        // Act
+        Map<SavingGoal, Amount> result = allocator.allocate(TOTAL_ROUND_UP, CurrencyUnit.GBP, List.of(goal1, goal2, goal3));
+
+        // Assert
+        final long smallerShare = 33;
+        final long largerShare = 67;
+        assertThat(result).containsOnlyKeys(goal1, goal2);
+        assertThat(result.values()).extracting(Amount::getMinorUnits).containsExactly(smallerShare, largerShare);
+    }
+
+    // Test case for falling back to equal weights when every goal has reached its target
+    @Test
+    void allocate_NoPositiveWeightSplitsEqually() {
+        // Arrange
+        RoundUpAllocator allocator = new RoundUpAllocator(AllocationStrategy.weighted(Map.of()));
+
+        // Act
+        Map<SavingGoal, Amount> result = allocator.allocate(TOTAL_ROUND_UP, CurrencyUnit.GBP, List.of(goal1, goal2));
+
+        // Assert
+        final long share = 50;
+        assertThat(result.values()).extracting(Amount::getMinorUnits).containsExactly(share, share);
+    }
+}
@@ -36,7 +36,7 @@ class RoundUpCalculatorTest {
 
         // Act
         // Calculating the total round up from the list of transactions
-        int result = calculator.calculateTotalRoundUp(transactions);
+        long result = calculator.calculateTotalRoundUp(transactions);
 
         // Assert
         // The expected result is 121 (77 pence for t1 and 44 pence for t2)
@@ -52,7 +52,7 @@ class RoundUpCalculatorTest {
 
         // Act
         // Calculating the total round up from the empty list of transactions
-        int result = calculator.calculateTotalRoundUp(transactions);
+        long result = calculator.calculateTotalRoundUp(transactions);
 
         // Assert
         // The expected result is 0 as there are no transactions
@@ -70,7 +70,7 @@ class RoundUpCalculatorTest {
 
         // Act
         // Calculating the total round up from the list of transactions
-        int result = calculator.calculateTotalRoundUp(transactions);
+        long result = calculator.calculateTotalRoundUp(transactions);
 
         // Assert
         // The expected result is 0 as the transactions are not of "FASTER_PAYMENTS_OUT" source
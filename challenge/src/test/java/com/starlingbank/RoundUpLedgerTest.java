@@ -0,0 +1,221 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.ledger.LedgerSweeper;
+import com.starlingbank.ledger.PendingSweep;
+import com.starlingbank.ledger.RoundUpLedger;
+import com.starlingbank.ledger.SweepPolicy;
+import com.starlingbank.ledger.SweepReport;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.service.SavingsGoalService;
+
+/**
+ * This class is used to test the RoundUpLedger and LedgerSweeper classes.
+ * @author Cesar Goncalves
+ */
+@ExtendWith(MockitoExtension.class)
+class RoundUpLedgerTest {
+
+    private static final UUID ACCOUNT_UID = UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34");
+    private static final UUID HOLIDAY_UID = UUID.fromString("4e6d2b8a-1c3f-4a9e-b7d5-6f0a2c8e1b93");
+    private static final UUID CAR_UID = UUID.fromString("9b1e7c4d-3a5f-4d2b-8e6c-0a7f1d3b5c27");
+    private static final long THRESHOLD = 1000;
+    private static final Duration MAX_AGE = Duration.ofDays(7);
+    private static final int MAX_TRANSFERS_PER_SWEEP = 10;
+    private static final int MAX_CONCURRENT_TRANSFERS = 2;
+
+    // Mocking the SavingsGoalService making the transfers
+    @Mock
+    private SavingsGoalService savingsGoalService;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+    // Test case for collapsing many small round-ups into one transfer once the threshold is reached
+    @Test
+    void sweep_ThresholdReached() {
+        // Arrange
+        final int runs = 60;
+        final int roundUp = 20;
+        RoundUpLedger ledger = new RoundUpLedger(clock);
+        LedgerSweeper sweeper = sweeper(ledger);
+        int transfersBeforeThreshold = 0;
+        for (int run = 0; run < runs; run++) {
+            ledger.accrue(ACCOUNT_UID, HOLIDAY_UID, "Holiday", roundUp);
+            transfersBeforeThreshold += ledger.pending(ACCOUNT_UID, HOLIDAY_UID) < THRESHOLD
+                ? sweeper.sweep().getSweptEntries() : 0;
+        }
+
+        // Act
+        SweepReport report = sweeper.sweep();
+
+        // Assert
+        assertThat(transfersBeforeThreshold).isZero();
+        assertThat(report.getSweptEntries()).isEqualTo(1);
+        assertThat(report.getSweptMinorUnits()).isEqualTo((long) runs * roundUp);
+        verify(savingsGoalService, times(1)).addMoneyToSavingsGoal(eq(ACCOUNT_UID), eq(HOLIDAY_UID),
+            argThat((Amount amount) -> amount.getMinorUnits() == runs * roundUp), any(UUID.class));
+        assertThat(ledger.entries()).isEmpty();
+    }
+
+    // Test case for sweeping a small balance once it reaches the maximum age
+    @Test
+    void sweep_MaxAgeReached() {
+        // Arrange
+        final long smallRoundUp = 30;
+        RoundUpLedger ledger = new RoundUpLedger(clock);
+        LedgerSweeper sweeper = sweeper(ledger);
+        ledger.accrue(ACCOUNT_UID, HOLIDAY_UID, "Holiday", smallRoundUp);
+        SweepReport early = sweeper.sweep();
+        clock.advance(MAX_AGE);
+
+        // Act
+        SweepReport aged = sweeper.sweep();
+
+        // Assert
+        assertThat(early.getSweptEntries()).isZero();
+        assertThat(aged.getSweptEntries()).isEqualTo(1);
+        assertThat(aged.getSweptMinorUnits()).isEqualTo(smallRoundUp);
+    }
+
+    // Test case for keeping the balance of a failed transfer for the next sweep, which retries the same transfer
+    @Test
+    void sweep_FailedTransferRetriedWithSameTransferUid() {
+        // Arrange
+        final long lateRoundUp = 30;
+        RoundUpLedger ledger = new RoundUpLedger(clock);
+        LedgerSweeper sweeper = sweeper(ledger);
+        ledger.accrue(ACCOUNT_UID, HOLIDAY_UID, "Holiday", THRESHOLD);
+        doThrow(new ServiceException("Error adding money to savings goal: Holiday")).doNothing()
+            .when(savingsGoalService).addMoneyToSavingsGoal(eq(ACCOUNT_UID), eq(HOLIDAY_UID), any(Amount.class),
+                any(UUID.class));
+
+        // Act
+        SweepReport failed = sweeper.sweep();
+        long pendingAfterFailure = ledger.pending(ACCOUNT_UID, HOLIDAY_UID);
+        ledger.accrue(ACCOUNT_UID, HOLIDAY_UID, "Holiday", lateRoundUp);
+        SweepReport retried = sweeper.sweep();
+
+        // Assert
+        assertThat(failed.getFailedEntries()).isEqualTo(1);
+        assertThat(pendingAfterFailure).isEqualTo(THRESHOLD);
+        assertThat(retried.getSweptMinorUnits()).isEqualTo(THRESHOLD);
+        ArgumentCaptor<UUID> transferUids = ArgumentCaptor.forClass(UUID.class);
+        verify(savingsGoalService, times(2)).addMoneyToSavingsGoal(eq(ACCOUNT_UID), eq(HOLIDAY_UID),
+            eq(new Amount(THRESHOLD, CurrencyUnit.GBP)), transferUids.capture());
+        assertThat(transferUids.getAllValues().get(1)).isEqualTo(transferUids.getAllValues().get(0));
+        assertThat(ledger.pending(ACCOUNT_UID, HOLIDAY_UID)).isEqualTo(lateRoundUp);
+        assertThat(ledger.pendingSweeps()).isEmpty();
+    }
+
+    // Test case for retrying, after a restart, the transfer of a sweep begun but not settled
+    @Test
+    void open_RetriesSweepNotSettled(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path journal = directory.resolve("ledger.journal");
+        PendingSweep interrupted;
+        try (RoundUpLedger ledger = RoundUpLedger.open(journal, clock)) {
+            ledger.accrue(ACCOUNT_UID, HOLIDAY_UID, "Holiday", THRESHOLD);
+            interrupted = ledger.beginSweep(ledger.entries().get(0));
+        } // Closed without settling, as when the process dies after the transfer
+
+        // Act
+        SweepReport report;
+        try (RoundUpLedger reopened = RoundUpLedger.open(journal, clock)) {
+            report = sweeper(reopened).sweep();
+
+            // Assert
+            assertThat(reopened.entries()).isEmpty();
+            assertThat(reopened.pendingSweeps()).isEmpty();
+        }
+        assertThat(report.getSweptMinorUnits()).isEqualTo(THRESHOLD);
+        verify(savingsGoalService).addMoneyToSavingsGoal(ACCOUNT_UID, HOLIDAY_UID,
+            new Amount(THRESHOLD, CurrencyUnit.GBP), interrupted.getTransferUid());
+    }
+
+    // Test case for restoring the balances from the journal, and compacting it
+    @Test
+    void open_RestoresBalancesFromJournal(@TempDir Path directory) throws IOException {
+        // Arrange
+        final long roundUp = 400;
+        final long remaining = 100;
+        Path journal = directory.resolve("ledger.journal");
+        try (RoundUpLedger ledger = RoundUpLedger.open(journal, clock)) {
+            ledger.accrue(ACCOUNT_UID, HOLIDAY_UID, "Holiday\tfund", roundUp);
+            ledger.accrue(ACCOUNT_UID, HOLIDAY_UID, "Holiday\tfund", roundUp);
+            ledger.accrue(ACCOUNT_UID, CAR_UID, "Car", roundUp);
+            ledger.settle(ledger.beginSweep(ledger.entries().get(1)));
+            ledger.accrue(ACCOUNT_UID, CAR_UID, "Car", remaining);
+        }
+
+        // Act
+        try (RoundUpLedger reopened = RoundUpLedger.open(journal, clock)) {
+
+            // Assert
+            assertThat(reopened.pending(ACCOUNT_UID, HOLIDAY_UID)).isEqualTo(2 * roundUp);
+            assertThat(reopened.pending(ACCOUNT_UID, CAR_UID)).isEqualTo(remaining);
+            assertThat(reopened.entries().get(0).getSavingsGoalName()).isEqualTo("Holiday fund");
+            assertThat(Files.readAllLines(journal)).hasSize(2);
+        }
+        verifyNoInteractions(savingsGoalService);
+    }
+
+    private LedgerSweeper sweeper(RoundUpLedger ledger) {
+        return new LedgerSweeper(ledger, new SweepPolicy(THRESHOLD, MAX_AGE), savingsGoalService,
+            MAX_TRANSFERS_PER_SWEEP, MAX_CONCURRENT_TRANSFERS);
+    }
+
+    // A clock the tests move forward
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.report.ReportFormat;
+import com.starlingbank.report.ReportLevel;
+import com.starlingbank.report.ReportSettings;
+import com.starlingbank.report.RoundUpReport;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * This class is used to test the RoundUpReport class.
+ * @author Cesar Goncalves
+ */
+class RoundUpReportTest {
+
+    private static final String ACCOUNT_UID = "2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34";
+    private static final String FEED_ITEM_UID_PREFIX = "7d0c2a4e-6b1f-4e3a-8c5d-";
+    private static final Account ACCOUNT = new Account(UUID.fromString(ACCOUNT_UID),
+        UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10"));
+    private static final int AMOUNT = 1234;
+    // Enough rows to fill the buffer of the report several times
+    private static final int TRANSACTIONS = 10_000;
+
+    private final RoundUpCalculator calculator = new RoundUpCalculator();
+
+    // Test case for a gzipped CSV report of the transactions, synced and continued by a resumed run, which drops the
+    // rows written after the sync
+    @Test
+    void write_GzippedCsvTransactionRows(@TempDir Path directory) throws IOException {
+        // Arrange
+        ReportSettings settings = new ReportSettings(directory.resolve("report.csv.gz"), ReportFormat.CSV,
+            ReportLevel.TRANSACTION);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int transaction = 0; transaction < TRANSACTIONS; transaction++) {
+            transactions.add(new Transaction(feedItem(transaction), "2024-01-15T10:20:30.000Z", AMOUNT,
+                "FASTER_PAYMENTS_OUT"));
+        }
+
+        // Act
+        long syncedBytes;
+        List<String> syncedLines;
+        try (RoundUpReport report = RoundUpReport.open(settings, calculator, 0)) {
+            report.write(ACCOUNT, transactions);
+            syncedBytes = report.sync();
+            // Written after the sync, as if the run crashed before checkpointing them
+            report.write(ACCOUNT, transactions);
+            syncedLines = gunzipLines(Arrays.copyOf(Files.readAllBytes(settings.getFile()), (int) syncedBytes));
+        }
+        try (RoundUpReport resumed = RoundUpReport.open(settings, calculator, syncedBytes)) {
+            resumed.write(ACCOUNT, List.of(new Transaction(null, null, AMOUNT, "CARD, CONTACTLESS")));
+        }
+
+        // Assert
+        List<String> lines = gunzipLines(Files.readAllBytes(settings.getFile()));
+        assertThat(syncedLines).hasSize(TRANSACTIONS + 1);
+        assertThat(lines).hasSize(TRANSACTIONS + 2);
+        assertThat(lines.get(0)).isEqualTo("accountUid,feedItemUid,transactionTime,source,minorUnits,roundUpMinorUnits");
+        assertThat(lines.get(1)).isEqualTo(ACCOUNT_UID + "," + FEED_ITEM_UID_PREFIX + "000000000000"
+            + ",2024-01-15T10:20:30.000Z,FASTER_PAYMENTS_OUT,1234,66");
+        assertThat(lines.get(TRANSACTIONS + 1)).isEqualTo(ACCOUNT_UID + ",,,\"CARD, CONTACTLESS\",1234,0");
+    }
+
+    // Test case for the day and account rows of a JSON Lines report
+    @Test
+    void write_JsonLinesTotals(@TempDir Path directory) throws IOException {
+        // Arrange
+        ReportSettings days = new ReportSettings(directory.resolve("days.jsonl"), ReportFormat.JSON_LINES,
+            ReportLevel.DAY);
+        ReportSettings accounts = new ReportSettings(directory.resolve("accounts.jsonl"), ReportFormat.JSON_LINES,
+            ReportLevel.ACCOUNT);
+        final int third = 3;
+        List<Transaction> transactions = List.of(
+            new Transaction(feedItem(1), "2024-01-16T09:00:00.000Z", AMOUNT, "FASTER_PAYMENTS_OUT"),
+            new Transaction(feedItem(2), "2024-01-15T10:20:30.000Z", AMOUNT, "FASTER_PAYMENTS_OUT"),
+            new Transaction(feedItem(third), "2024-01-16T18:00:00.000Z", AMOUNT, "FASTER_PAYMENTS_IN"));
+
+        // Act
+        try (RoundUpReport dayReport = RoundUpReport.open(days, calculator, 0);
+             RoundUpReport accountReport = RoundUpReport.open(accounts, calculator, 0)) {
+            dayReport.write(ACCOUNT, transactions);
+            accountReport.write(ACCOUNT, transactions);
+        }
+
+        // Assert
+        assertThat(Files.readAllLines(days.getFile())).containsExactly(
+            "{\"accountUid\":\"" + ACCOUNT_UID + "\",\"day\":\"2024-01-15\","
+                + "\"transactions\":1,\"minorUnits\":1234,\"roundUpMinorUnits\":66}",
+            "{\"accountUid\":\"" + ACCOUNT_UID + "\",\"day\":\"2024-01-16\","
+                + "\"transactions\":2,\"minorUnits\":2468,\"roundUpMinorUnits\":66}");
+        assertThat(Files.readAllLines(accounts.getFile())).containsExactly(
+            "{\"accountUid\":\"" + ACCOUNT_UID + "\",\"transactions\":3,\"minorUnits\":3702,\"roundUpMinorUnits\":132}");
+    }
+
+    private static UUID feedItem(int index) {
+        return UUID.fromString(FEED_ITEM_UID_PREFIX + String.format("%012d", index));
+    }
+
+    private static List<String> gunzipLines(byte[] gzipped) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.CurrencyUnit;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.server.RoundUpEndpoints;
+import com.starlingbank.server.RoundUpServer;
+import com.starlingbank.server.ServerSettings;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * This class is used to test the RoundUpServer class over HTTP.
+ * @author Cesar Goncalves
+ */
+class RoundUpServerTest {
+
+    private static final int HTTP_STATUS_OK = 200;
+    private static final int HTTP_STATUS_BAD_REQUEST = 400;
+    private static final int HTTP_STATUS_UNAUTHORIZED = 401;
+    private static final int HTTP_STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int HTTP_STATUS_BAD_GATEWAY = 502;
+    private static final long ROUND_UP = 116;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final LocalDate FROM = LocalDate.parse("2024-01-01");
+    private static final LocalDate TO = LocalDate.parse("2024-02-01");
+    private static final UUID ACCOUNT_UID = UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34");
+    private static final UUID CATEGORY_UID = UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10");
+    private static final UUID SAVINGS_GOAL_UID = UUID.fromString("4e6d2b8a-1c3f-4a9e-b7d5-6f0a2c8e1b93");
+    private static final UUID TRANSFER_UID = UUID.fromString("5a2e8c1d-7b3f-4e6a-9d0c-2f8b4a6e1c35");
+    private static final String TOKEN = "server-token";
+    private static final String RANGE = "?accountUid=" + ACCOUNT_UID + "&categoryUid=" + CATEGORY_UID
+        + "&from=2024-01-01&to=2024-02-01";
+    private static final List<Transaction> TRANSACTIONS = List.of(
+        new Transaction(UUID.randomUUID(), 1234, "FASTER_PAYMENTS_OUT"),
+        new Transaction(UUID.randomUUID(), 250, "FASTER_PAYMENTS_OUT"),
+        new Transaction(UUID.randomUUID(), 5000, "FASTER_PAYMENTS_IN"));
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final SavingsGoalService savingsGoalService = mock(SavingsGoalService.class);
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private RoundUpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new RoundUpServer(new ServerSettings("127.0.0.1", 0, REQUEST_TIMEOUT, TOKEN),
+            new RoundUpEndpoints(transactionService, savingsGoalService, new RoundUpCalculator()));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    // Test case for calculating the round-up of an account over a range
+    @Test
+    void roundUp_ReturnsTheRoundUpOfTheRange() throws Exception {
+        // Arrange
+        when(transactionService.getTransactions(argThat(RoundUpServerTest::isAccount), eq(FROM), eq(TO)))
+            .thenReturn(TRANSACTIONS);
+
+        // Act
+        HttpResponse<String> response = send("GET", RoundUpServer.ROUND_UP_PATH + RANGE);
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(HTTP_STATUS_OK);
+        assertThat(response.body()).isEqualTo("{\"accountUid\":\"" + ACCOUNT_UID
+            + "\",\"from\":\"2024-01-01\",\"to\":\"2024-02-01\",\"transactions\":3,\"roundUpMinorUnits\":116}");
+    }
+
+    // Test case for transferring the round-up of a range into a savings goal
+    @Test
+    void sweep_TransfersTheRoundUp() throws Exception {
+        // Arrange
+        when(transactionService.getTransactions(argThat(RoundUpServerTest::isAccount), eq(FROM), eq(TO)))
+            .thenReturn(TRANSACTIONS);
+
+        // Act
+        HttpResponse<String> response = send("POST", RoundUpServer.SWEEP_PATH + RANGE + "&savingsGoalUid=" + SAVINGS_GOAL_UID
+            + "&transferUid=" + TRANSFER_UID);
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(HTTP_STATUS_OK);
+        assertThat(response.body())
+            .isEqualTo("{\"accountUid\":\"" + ACCOUNT_UID + "\",\"savingsGoalUid\":\"" + SAVINGS_GOAL_UID
+                + "\",\"transferUid\":\"" + TRANSFER_UID + "\",\"transferredMinorUnits\":116}");
+        verify(savingsGoalService).addMoneyToSavingsGoal(ACCOUNT_UID, SAVINGS_GOAL_UID,
+            new Amount(ROUND_UP, CurrencyUnit.GBP), TRANSFER_UID);
+    }
+
+    // Test case for paying concurrent sweeps of the same feed items once, whatever transferUid each is given
+    @Test
+    void sweep_ConcurrentSweepsPaidOnce(@TempDir Path directory) throws Exception {
+        // Arrange
+        final int sweeps = 4;
+        when(transactionService.getTransactions(argThat(RoundUpServerTest::isAccount), eq(FROM), eq(TO)))
+            .thenReturn(TRANSACTIONS);
+        List<HttpResponse<String>> responses;
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(directory.resolve("processed.items"))) {
+            server.close();
+            server = new RoundUpServer(new ServerSettings("127.0.0.1", 0, REQUEST_TIMEOUT, TOKEN),
+                new RoundUpEndpoints(transactionService, savingsGoalService, new RoundUpCalculator(processedItems)));
+            server.start();
+
+            // Act
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+                for (int sweep = 0; sweep < sweeps; sweep++) {
+                    futures.add(executor.submit(() -> send("POST", RoundUpServer.SWEEP_PATH + RANGE + "&savingsGoalUid="
+                        + SAVINGS_GOAL_UID + "&transferUid=" + UUID.randomUUID())));
+                }
+                responses = new ArrayList<>();
+                for (Future<HttpResponse<String>> future : futures) {
+                    responses.add(future.get());
+                }
+            }
+        }
+
+        // Assert
+        assertThat(responses).extracting(HttpResponse::statusCode).containsOnly(HTTP_STATUS_OK);
+        assertThat(responses).filteredOn(response -> response.body().endsWith("\"transferredMinorUnits\":116}"))
+            .hasSize(1);
+        verify(savingsGoalService).addMoneyToSavingsGoal(eq(ACCOUNT_UID), eq(SAVINGS_GOAL_UID),
+            eq(new Amount(ROUND_UP, CurrencyUnit.GBP)), any(UUID.class));
+    }
+
+    // Test case for answering a sweep whose outcome cannot be recorded with an internal error
+    @Test
+    void sweep_NotRecorded_IsAnsweredWithInternalError() throws Exception {
+        // Arrange
+        final int internalServerError = 500;
+        when(transactionService.getTransactions(any(Account.class), any(LocalDate.class), any(LocalDate.class)))
+            .thenThrow(new UncheckedIOException(new IOException("Cannot grow the processed item set")));
+
+        // Act
+        HttpResponse<String> response = send("POST", RoundUpServer.SWEEP_PATH + RANGE + "&savingsGoalUid="
+            + SAVINGS_GOAL_UID + "&transferUid=" + TRANSFER_UID);
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(internalServerError);
+        assertThat(response.body()).startsWith("{\"error\":");
+    }
+
+    // Test case for rejecting invalid requests and reporting the failures of the API
+    @Test
+    void requests_InvalidOrFailing_AreAnsweredWithErrors() throws Exception {
+        // Arrange
+        when(transactionService.getTransactions(any(Account.class), any(LocalDate.class), any(LocalDate.class)))
+            .thenThrow(new ServiceException("Error occurred while communicating with the API"));
+
+        // Act
+        HttpResponse<String> missingSavingsGoal = send("POST", RoundUpServer.SWEEP_PATH + RANGE);
+        HttpResponse<String> missingTransferUid = send("POST", RoundUpServer.SWEEP_PATH + RANGE + "&savingsGoalUid="
+            + SAVINGS_GOAL_UID);
+        HttpResponse<String> unauthorized = send("GET", RoundUpServer.ROUND_UP_PATH + RANGE, "Bearer wrong-token");
+        HttpResponse<String> invalidDate = send("GET", RoundUpServer.ROUND_UP_PATH + RANGE.replace("2024-02-01", "Feb"));
+        HttpResponse<String> invalidUid = send("GET", RoundUpServer.ROUND_UP_PATH + RANGE.replace(ACCOUNT_UID.toString(), "a-1"));
+        HttpResponse<String> wrongMethod = send("POST", RoundUpServer.ROUND_UP_PATH + RANGE);
+        HttpResponse<String> failing = send("GET", RoundUpServer.ROUND_UP_PATH + RANGE);
+
+        // Assert
+        assertThat(missingSavingsGoal.statusCode()).isEqualTo(HTTP_STATUS_BAD_REQUEST);
+        assertThat(missingSavingsGoal.body()).isEqualTo("{\"error\":\"Missing query parameter savingsGoalUid\"}");
+        assertThat(missingTransferUid.body()).isEqualTo("{\"error\":\"Missing query parameter transferUid\"}");
+        assertThat(unauthorized.statusCode()).isEqualTo(HTTP_STATUS_UNAUTHORIZED);
+        assertThat(invalidDate.statusCode()).isEqualTo(HTTP_STATUS_BAD_REQUEST);
+        assertThat(invalidUid.statusCode()).isEqualTo(HTTP_STATUS_BAD_REQUEST);
+        assertThat(invalidUid.body()).isEqualTo("{\"error\":\"The query parameter accountUid is not a UUID\"}");
+        assertThat(wrongMethod.statusCode()).isEqualTo(HTTP_STATUS_METHOD_NOT_ALLOWED);
+        assertThat(failing.statusCode()).isEqualTo(HTTP_STATUS_BAD_GATEWAY);
+        assertThat(failing.body()).isEqualTo("{\"error\":\"Error occurred while communicating with the API\"}");
+    }
+
+    private static boolean isAccount(Account account) {
+        return ACCOUNT_UID.equals(account.getAccountUid()) && CATEGORY_UID.equals(account.getCategoryUid());
+    }
+
+    private HttpResponse<String> send(String method, String pathAndQuery) throws IOException, InterruptedException {
+        return send(method, pathAndQuery, "Bearer " + TOKEN);
+    }
+
+    private HttpResponse<String> send(String method, String pathAndQuery, String authorization)
+        throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + pathAndQuery))
+            .header("Authorization", authorization).method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,92 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.service.RoundUpService;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * This class tests the RoundUpService class.
+ * @author Cesar Goncalves
+ */
+@ExtendWith(MockitoExtension.class)
+class RoundUpServiceTest {
+
+    private static final int MAX_CONCURRENT_ACCOUNTS = 3;
+    private static final int AMOUNT = 435;
+    private static final long ROUND_UP = 65;
+    private static final long AWAIT_SECONDS = 5;
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 2, 1);
+
+    // Mocking the TransactionService fetching the feeds
+    @Mock
+    private TransactionService transactionService;
+
+    // Test for the feeds of the accounts being fetched at the same time
+    @Test
+    void calculateRoundUps_FetchesTheFeedsInParallel() {
+        // Arrange
+        List<Account> accounts = List.of(account(), account(), account());
+        // Every fetch waits for the others to start, so fetching them one at a time would time out
+        CountDownLatch fetching = new CountDownLatch(accounts.size());
+        when(transactionService.getTransactions(any(Account.class), eq(FROM), eq(TO))).thenAnswer(invocation -> {
+            fetching.countDown();
+            return fetching.await(AWAIT_SECONDS, TimeUnit.SECONDS)
+                ? List.of(new Transaction(AMOUNT, "FASTER_PAYMENTS_OUT")) : List.of();
+        });
+
+        // Act
+        Map<Account, PendingRoundUp> roundUps = new RoundUpService(transactionService, new RoundUpCalculator(),
+            MAX_CONCURRENT_ACCOUNTS).calculateRoundUps(accounts, FROM, TO);
+
+        // Assert
+        assertThat(roundUps.keySet()).containsExactlyElementsOf(accounts);
+        assertThat(roundUps.values()).extracting(PendingRoundUp::getMinorUnits).containsOnly(ROUND_UP);
+    }
+
+    // Test for an account whose feed cannot be fetched not preventing the round-up of the others
+    @Test
+    void calculateRoundUps_PerAccountFailure() {
+        // Arrange
+        Account failing = account();
+        Account succeeding = account();
+        when(transactionService.getTransactions(failing, FROM, TO))
+            .thenThrow(new ServiceException("Received an error response from the API"));
+        when(transactionService.getTransactions(succeeding, FROM, TO))
+            .thenReturn(List.of(new Transaction(AMOUNT, "FASTER_PAYMENTS_OUT")));
+
+        // Act
+        Map<Account, PendingRoundUp> roundUps = new RoundUpService(transactionService, new RoundUpCalculator(),
+            MAX_CONCURRENT_ACCOUNTS).calculateRoundUps(List.of(failing, succeeding), FROM, TO);
+
+        // Assert
+        assertThat(roundUps).containsOnlyKeys(succeeding);
+        assertThat(roundUps.get(succeeding).getMinorUnits()).isEqualTo(ROUND_UP);
+    }
+
+    // An account of its own, as the service keys the round-ups by account
+    private static Account account() {
+        return new Account(UUID.randomUUID(), UUID.randomUUID());
+    }
+}
@@ -0,0 +1,107 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.model.Transaction;
+import com.starlingbank.simulation.RoundUpSimulator;
+import com.starlingbank.simulation.RoundUpStrategy;
+import com.starlingbank.simulation.SimulationReport;
+import com.starlingbank.simulation.StrategyResult;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * This class is used to test the RoundUpSimulator class.
+ * @author Cesar Goncalves
+ */
+class RoundUpSimulatorTest {
+
+    private static final long SEED = 42;
+    private static final int MAX_MINOR_UNITS = 10_000;
+    private static final String[] SOURCES = {RoundUpStrategy.FASTER_PAYMENTS_OUT, RoundUpStrategy.MASTER_CARD,
+        RoundUpStrategy.DIRECT_DEBIT, "FASTER_PAYMENTS_IN"};
+
+    private final RoundUpCalculator calculator = new RoundUpCalculator();
+
+    // Test case for evaluating every strategy of the standard grid in a single pass over the transactions
+    @Test
+    void simulate_StandardGridInSinglePass() {
+        // Arrange
+        List<Transaction> transactions = randomTransactions();
+        AtomicInteger passes = new AtomicInteger();
+        Iterable<Transaction> countingPasses = () -> {
+            passes.incrementAndGet();
+            return transactions.iterator();
+        };
+        List<RoundUpStrategy> strategies = RoundUpStrategy.standardGrid();
+
+        // Act
+        SimulationReport report = new RoundUpSimulator(calculator, strategies).simulate(countingPasses);
+
+        // Assert
+        assertThat(passes).hasValue(1);
+        assertThat(report.getResults()).hasSameSizeAs(strategies);
+        for (StrategyResult result : report.getResults()) {
+            assertThat(result.getRoundUpMinorUnits()).isEqualTo(roundUpOneStrategy(result.getStrategy(), transactions));
+        }
+        // The baseline is the current policy
+        assertThat(report.getResults().get(0).getRoundUpMinorUnits())
+            .isEqualTo(calculator.calculateTotalRoundUp(transactions));
+    }
+
+    // Test case for writing the comparison table ranked by the amount saved
+    @Test
+    void writeTable_RankedBySavings() throws IOException {
+        // Arrange
+        final int amount = 1030;
+        final int fivePounds = 500;
+        List<Transaction> transactions = List.of(new Transaction(amount, RoundUpStrategy.FASTER_PAYMENTS_OUT),
+            new Transaction(amount, RoundUpStrategy.MASTER_CARD));
+        RoundUpStrategy nearestFivePounds = new RoundUpStrategy("nearest £5 x2 cards", fivePounds, 2,
+            Set.of(RoundUpStrategy.MASTER_CARD));
+        SimulationReport report = new RoundUpSimulator(calculator, List.of(RoundUpStrategy.current(), nearestFivePounds))
+            .simulate(transactions);
+        StringBuilder table = new StringBuilder();
+
+        // Act
+        report.writeTable(table);
+
+        // Assert
+        // 70p for the current policy, 2 x £4.70 for the nearest £5 doubled
+        final int headerAndTwoRows = 3;
+        String[] rows = table.toString().split(System.lineSeparator());
+        assertThat(rows).hasSize(headerAndTwoRows);
+        assertThat(rows[1]).startsWith("nearest £5 x2 cards").contains("£9.40", "+£8.70");
+        assertThat(rows[2]).startsWith("nearest £1 x1 FASTER_PAYMENTS_OUT").contains("£0.70", "£0.00");
+    }
+
+    // Rounds up the transactions with a single strategy, the way a pass per strategy would
+    private long roundUpOneStrategy(RoundUpStrategy strategy, List<Transaction> transactions) {
+        long total = 0;
+        for (Transaction transaction : transactions) {
+            if (strategy.getSources().contains(transaction.getSource())) {
+                total += (long) calculator.calculateRoundUp(transaction.getMinorUnits(), strategy.getRoundToMinorUnits())
+                    * strategy.getMultiplier();
+            }
+        }
+        return total;
+    }
+
+    private static List<Transaction> randomTransactions() {
+        final int count = 10_000;
+        Random random = new Random(SEED);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction(random.nextInt(MAX_MINOR_UNITS), SOURCES[random.nextInt(SOURCES.length)]));
+        }
+        return transactions;
+    }
+}
@@ -6,17 +6,21 @@ import static org.mockito.Mockito.*;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.starlingbank.api.StarlingClient;
 import com.starlingbank.exceptions.ApiException;
 import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.json.OrgJsonCodec;
 import com.starlingbank.model.Account;
 import com.starlingbank.model.Amount;
 import com.starlingbank.model.SavingGoal;
@@ -37,6 +41,10 @@ class SavingsGoalServiceTest {
     @Mock
     private StarlingClient starlingClient;
 
+    // Decoding the API responses with the org.json codec
+    @Spy
+    private JsonCodec jsonCodec = new OrgJsonCodec();
+
     // Injecting the mocks into the SavingsGoalService
     @InjectMocks
     private SavingsGoalService savingsGoalService;
@@ -50,16 +58,18 @@ class SavingsGoalServiceTest {
 
     @BeforeEach
     void setUp() {
-        mockAccount = new Account("account-uid", "defaultCategory");
+        mockAccount = new Account(UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34"),
+            UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10"));
         targetAmount = new Amount(TARGET_AMOUNT_VALUE, "GBP");
-        mockSavingGoal = new SavingGoal("sg-123", "Goal 1", targetAmount);
+        mockSavingGoal = new SavingGoal(UUID.fromString("4e6d2b8a-1c3f-4a9e-b7d5-6f0a2c8e1b93"), "Goal 1", targetAmount);
     }
 
     // Test for successful retrieval of savings goals
     @Test
     void getSavingsGoals_Success() throws Exception {
         // Arrange
-        String mockResponse = "{\"savingsGoalList\":[{\"savingsGoalUid\":\"sg-123\",\"name\":\"Goal 1\","
+        String mockResponse = "{\"savingsGoalList\":[{\"savingsGoalUid\":\"4e6d2b8a-1c3f-4a9e-b7d5-6f0a2c8e1b93\","
+            + "\"name\":\"Goal 1\","
             + "\"target\":{\"currency\":\"GBP\",\"minorUnits\":1000}}]}";
 
         when(starlingClient.getSavingsGoals(mockAccount.getAccountUid())).thenReturn(mockResponse);
@@ -91,7 +101,7 @@ class SavingsGoalServiceTest {
     @Test
     void createSavingsGoal_Success() throws IOException, ApiException {
         // Arrange
-        String mockResponse = "{\"savingsGoalUid\":\"sg-123\"}";
+        String mockResponse = "{\"savingsGoalUid\":\"4e6d2b8a-1c3f-4a9e-b7d5-6f0a2c8e1b93\"}";
 
         when(starlingClient.createSavingsGoal(mockAccount.getAccountUid(),
             mockSavingGoal.getName(), targetAmount.getCurrencyCode(), targetAmount.getMinorUnits()))
@@ -108,14 +118,16 @@ class SavingsGoalServiceTest {
     @Test
     void addMoneyToSavingsGoal_Success() throws IOException, ApiException {
         // Arrange
-        doNothing().when(starlingClient).addMoneyToSavingsGoal(mockAccount.getAccountUid(),
-            mockSavingGoal.getSavingsGoalUid(), targetAmount.getMinorUnits(), targetAmount.getCurrencyCode());
+        doNothing().when(starlingClient).addMoneyToSavingsGoal(eq(mockAccount.getAccountUid()),
+            eq(mockSavingGoal.getSavingsGoalUid()), any(UUID.class), eq(targetAmount.getMinorUnits()),
+            eq(targetAmount.getCurrencyCode()));
 
         // Act
         savingsGoalService.addMoneyToSavingsGoal(mockAccount, mockSavingGoal, targetAmount);
 
         // Assert
-        verify(starlingClient).addMoneyToSavingsGoal(mockAccount.getAccountUid(),
-            mockSavingGoal.getSavingsGoalUid(), targetAmount.getMinorUnits(), targetAmount.getCurrencyCode());
+        verify(starlingClient).addMoneyToSavingsGoal(eq(mockAccount.getAccountUid()),
+            eq(mockSavingGoal.getSavingsGoalUid()), any(UUID.class), eq(targetAmount.getMinorUnits()),
+            eq(targetAmount.getCurrencyCode()));
     }
 }
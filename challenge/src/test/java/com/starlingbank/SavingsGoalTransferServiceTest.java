@@ -0,0 +1,152 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Amount;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.model.TransferResult;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.SavingsGoalTransferService;
+import com.starlingbank.util.PendingRoundUp;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * This class tests the SavingsGoalTransferService class.
+ * @author Cesar Goncalves
+ */
+@ExtendWith(MockitoExtension.class)
+class SavingsGoalTransferServiceTest {
+
+    private static final int TARGET_AMOUNT_VALUE = 1000;
+    private static final int SHARE_VALUE = 50;
+    private static final int MAX_CONCURRENT_TRANSFERS = 2;
+
+    // Mocking the SavingsGoalService making the individual transfers
+    @Mock
+    private SavingsGoalService savingsGoalService;
+
+    // Test for a failing transfer not preventing the other transfers
+    @Test
+    void transfer_PerGoalFailure() {
+        // Arrange
+        Account account = new Account(UUID.randomUUID(), UUID.randomUUID());
+        SavingGoal goal1 = new SavingGoal(UUID.randomUUID(), "Goal 1", new Amount(TARGET_AMOUNT_VALUE, "GBP"));
+        SavingGoal goal2 = new SavingGoal(UUID.randomUUID(), "Goal 2", new Amount(TARGET_AMOUNT_VALUE, "GBP"));
+        Amount share = new Amount(SHARE_VALUE, "GBP");
+        Map<SavingGoal, Amount> allocations = new LinkedHashMap<>();
+        allocations.put(goal1, share);
+        allocations.put(goal2, share);
+        doNothing().when(savingsGoalService).addMoneyToSavingsGoal(account, goal1, share);
+        doThrow(new ServiceException("Error adding money to savings goal: Goal 2"))
+            .when(savingsGoalService).addMoneyToSavingsGoal(account, goal2, share);
+
+        // Act
+        List<TransferResult> results = new SavingsGoalTransferService(savingsGoalService, MAX_CONCURRENT_TRANSFERS)
+            .transfer(account, allocations);
+
+        // Assert
+        assertThat(results).extracting(TransferResult::getSavingGoal).containsExactly(goal1, goal2);
+        assertThat(results).extracting(TransferResult::isSuccessful).containsExactly(true, false);
+        verify(savingsGoalService).addMoneyToSavingsGoal(account, goal1, share);
+    }
+
+    // Test for the feed items of a round-up being recorded as processed only once every share is transferred
+    @Test
+    void transfer_FailedShare_FeedItemsNotProcessed(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Account account = new Account(UUID.randomUUID(), UUID.randomUUID());
+        SavingGoal goal = new SavingGoal(UUID.randomUUID(), "Goal", new Amount(TARGET_AMOUNT_VALUE, "GBP"));
+        Amount share = new Amount(SHARE_VALUE, "GBP");
+        Transaction transaction = new Transaction(UUID.randomUUID(), SHARE_VALUE, "FASTER_PAYMENTS_OUT");
+        doThrow(new ServiceException("Error adding money to savings goal: Goal"))
+            .doNothing()
+            .when(savingsGoalService).addMoneyToSavingsGoal(eq(account.getAccountUid()), eq(goal.getSavingsGoalUid()),
+                eq(share), any(UUID.class));
+        SavingsGoalTransferService service = new SavingsGoalTransferService(savingsGoalService,
+            MAX_CONCURRENT_TRANSFERS);
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(tempDir.resolve("processed-items"))) {
+            RoundUpCalculator calculator = new RoundUpCalculator(processedItems);
+
+            // Act
+            PendingRoundUp failedRun = calculator.calculatePendingRoundUp(List.of(transaction));
+            service.transfer(account, Map.of(goal, share), failedRun);
+            boolean processedAfterFailure = processedItems.contains(transaction.getFeedItemUid());
+            PendingRoundUp retriedRun = calculator.calculatePendingRoundUp(List.of(transaction));
+            service.transfer(account, Map.of(goal, share), retriedRun);
+
+            // Assert
+            assertThat(processedAfterFailure).isFalse();
+            assertThat(retriedRun.getMinorUnits()).isEqualTo(SHARE_VALUE);
+            assertThat(processedItems.contains(transaction.getFeedItemUid())).isTrue();
+        }
+    }
+
+    // Test for a round-up counted again after one of its shares failed paying only the failed share on the rerun,
+    // as the shares are transferred again under the same transferUids
+    @Test
+    void transfer_FailedShare_RerunPaysOnlyTheFailedGoal(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Account account = new Account(UUID.randomUUID(), UUID.randomUUID());
+        SavingGoal goal1 = new SavingGoal(UUID.randomUUID(), "Goal 1", new Amount(TARGET_AMOUNT_VALUE, "GBP"));
+        SavingGoal goal2 = new SavingGoal(UUID.randomUUID(), "Goal 2", new Amount(TARGET_AMOUNT_VALUE, "GBP"));
+        Amount share = new Amount(SHARE_VALUE, "GBP");
+        Map<SavingGoal, Amount> allocations = new LinkedHashMap<>();
+        allocations.put(goal1, share);
+        allocations.put(goal2, share);
+        Transaction transaction = new Transaction(UUID.randomUUID(), SHARE_VALUE * 2, "FASTER_PAYMENTS_OUT");
+        final int transferUidArgument = 3;
+        // The API pays a transferUid once, whatever the number of PUTs
+        Map<UUID, UUID> paidGoalByTransferUid = new ConcurrentHashMap<>();
+        AtomicBoolean goal2Down = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            UUID savingsGoalUid = invocation.getArgument(1);
+            if (savingsGoalUid.equals(goal2.getSavingsGoalUid()) && goal2Down.getAndSet(false)) {
+                throw new ServiceException("Error adding money to savings goal: " + savingsGoalUid);
+            }
+            UUID transferUid = invocation.getArgument(transferUidArgument);
+            paidGoalByTransferUid.putIfAbsent(transferUid, savingsGoalUid);
+            return null;
+        }).when(savingsGoalService).addMoneyToSavingsGoal(eq(account.getAccountUid()), any(UUID.class), eq(share),
+            any(UUID.class));
+        SavingsGoalTransferService service = new SavingsGoalTransferService(savingsGoalService,
+            MAX_CONCURRENT_TRANSFERS);
+        try (ProcessedItemSet processedItems = ProcessedItemSet.open(tempDir.resolve("processed-items"))) {
+            RoundUpCalculator calculator = new RoundUpCalculator(processedItems);
+
+            // Act
+            List<TransferResult> failedRun = service.transfer(account, allocations,
+                calculator.calculatePendingRoundUp(List.of(transaction)));
+            List<TransferResult> rerun = service.transfer(account, allocations,
+                calculator.calculatePendingRoundUp(List.of(transaction)));
+
+            // Assert
+            assertThat(failedRun).extracting(TransferResult::isSuccessful).containsExactly(true, false);
+            assertThat(rerun).extracting(TransferResult::isSuccessful).containsExactly(true, true);
+            assertThat(paidGoalByTransferUid.values())
+                .containsExactlyInAnyOrder(goal1.getSavingsGoalUid(), goal2.getSavingsGoalUid());
+            assertThat(processedItems.contains(transaction.getFeedItemUid())).isTrue();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.model.Account;
+import com.starlingbank.shard.ShardCoordinator;
+import com.starlingbank.shard.ShardLease;
+import com.starlingbank.shard.ShardQueue;
+import com.starlingbank.shard.ShardReport;
+import com.starlingbank.shard.ShardTask;
+import com.starlingbank.shard.ShardWorker;
+
+/**
+ * This class is used to test the ShardWorker class against a ShardQueue shared by several workers.
+ * @author Cesar Goncalves
+ */
+class ShardWorkerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 2, 1);
+    private static final int ACCOUNTS = 40;
+    private static final int SHARDS = 8;
+    private static final int WORKERS = 3;
+    private static final long ROUND_UP = 66;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    // The number of times each account was processed
+    private final Map<UUID, AtomicInteger> processed = new ConcurrentHashMap<>();
+    private final ShardTask task = (account, from, to) -> {
+        processed.computeIfAbsent(account.getAccountUid(), uid -> new AtomicInteger()).incrementAndGet();
+        return ShardReport.ofAccount(ROUND_UP, ROUND_UP);
+    };
+
+    // Test case for workers sharing a queue processing every account exactly once
+    @Test
+    void run_WorkersProcessEveryAccountOnce(@TempDir Path directory) throws Exception {
+        // Arrange
+        ShardQueue queue = ShardQueue.openOrCreate(directory, accounts(), SHARDS, FROM, TO);
+        List<Future<Integer>> workers = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < WORKERS; worker++) {
+                workers.add(executor.submit(() -> new ShardWorker(ShardQueue.open(directory), task, POLL_INTERVAL).run()));
+            }
+        }
+
+        // Assert
+        int completedShards = 0;
+        for (Future<Integer> worker : workers) {
+            completedShards += worker.get();
+        }
+        ShardReport report = ShardCoordinator.merge(queue);
+        assertThat(completedShards).isEqualTo(SHARDS);
+        assertThat(queue.pendingShards()).isEmpty();
+        assertThat(processed).hasSize(ACCOUNTS).allSatisfy((uid, count) -> assertThat(count).hasValue(1));
+        assertThat(report.getAccounts()).isEqualTo(ACCOUNTS);
+        assertThat(report.getTransferredMinorUnits()).isEqualTo(ACCOUNTS * ROUND_UP);
+    }
+
+    // Test case for reclaiming the shard of a worker that died, skipping the accounts it journaled
+    @Test
+    void run_ReclaimsShardOfDeadWorker(@TempDir Path directory) throws IOException, InterruptedException {
+        // Arrange
+        ShardQueue.openOrCreate(directory, accounts(), SHARDS, FROM, TO);
+        UUID journaled;
+        try (ShardLease lease = ShardQueue.open(directory).tryLease(0)) {
+            journaled = lease.accounts().get(0).getAccountUid();
+            lease.record(journaled, ShardReport.ofAccount(ROUND_UP, ROUND_UP));
+        } // Released without completing the shard, as when the worker's process dies
+        // Reopening the queue of the same range resumes it instead of partitioning the accounts again
+        ShardQueue queue = ShardQueue.openOrCreate(directory, accounts(), SHARDS, FROM, TO);
+
+        // Act
+        int completedShards = new ShardWorker(queue, task, POLL_INTERVAL).run();
+
+        // Assert
+        assertThat(completedShards).isEqualTo(SHARDS);
+        assertThat(processed).hasSize(ACCOUNTS - 1).doesNotContainKey(journaled);
+        assertThat(ShardCoordinator.merge(queue).getAccounts()).isEqualTo(ACCOUNTS);
+    }
+
+    private static List<Account> accounts() {
+        List<Account> accounts = new ArrayList<>();
+        for (int account = 0; account < ACCOUNTS; account++) {
+            accounts.add(new Account(new UUID(1, account), new UUID(2, account)));
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,196 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.starlingbank.api.Endpoint;
+import com.starlingbank.api.StarlingClient;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.transport.ApiResponse;
+import com.starlingbank.transport.Transport;
+
+/**
+ * This class is used to test the coalescing of the identical GETs in flight of a StarlingClient.
+ * @author Cesar Goncalves
+ */
+class SingleFlightTest {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    private static final int CALLERS = 16;
+    private static final int HTTP_STATUS_OK = 200;
+    private static final int HTTP_STATUS_SERVICE_UNAVAILABLE = 503;
+    private static final String ACCOUNTS = "{\"accounts\":[]}";
+    private static final Duration COALESCED_WITHIN = Duration.ofSeconds(5);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch releaseAgain = new CountDownLatch(1);
+
+    // Test case for sending a single request for the concurrent callers, and a new one once it completed
+    @Test
+    void get_ConcurrentCallers_ShareOneRequest() throws Exception {
+        // Arrange
+        StarlingClient client = client(HTTP_STATUS_OK);
+
+        // Act
+        List<String> responses = new ArrayList<>();
+        for (Future<String> response : callConcurrently(client)) {
+            responses.add(response.get());
+        }
+        String nextResponse = client.getAccountDetails();
+
+        // Assert
+        assertThat(responses).hasSize(CALLERS).containsOnly(ACCOUNTS);
+        assertThat(nextResponse).isEqualTo(ACCOUNTS);
+        assertThat(requests).hasValue(2);
+        assertThat(client.getMetrics().forEndpoint(Endpoint.ACCOUNTS).getCoalescedCalls()).isEqualTo(CALLERS - 1);
+        assertThat(client.getMetrics().getCoalescedCalls()).isEqualTo(CALLERS - 1);
+    }
+
+    // Test case for failing every concurrent caller with the failure of the request they shared
+    @Test
+    void get_FailingRequest_FailsEveryCaller() throws Exception {
+        // Arrange
+        StarlingClient client = client(HTTP_STATUS_SERVICE_UNAVAILABLE);
+
+        // Act
+        List<Future<String>> responses = callConcurrently(client);
+
+        // Assert
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<String> response : responses) {
+            assertThatThrownBy(response::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ApiException.class)
+                .satisfies(failure -> failures.add(failure.getCause()));
+        }
+        assertThat(failures).doesNotHaveDuplicates();
+        assertThat(requests).hasValue(1);
+    }
+
+    // Test case for the callers waiting for a request that timed out making the request again, rather than failing
+    @Test
+    void get_TimedOutRequest_MadeAgainByTheWaitingCallers() throws Exception {
+        // Arrange
+        StarlingClient client = client(HTTP_STATUS_OK, 1);
+
+        // Act
+        List<Future<String>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int caller = 0; caller < CALLERS; caller++) {
+                calls.add(executor.submit(client::getAccountDetails));
+            }
+            awaitCoalesced(client, CALLERS - 1);
+            release.countDown();
+            // Every caller but the one whose request timed out waits again, for the request made by one of them
+            awaitCoalesced(client, CALLERS - 1 + CALLERS - 2);
+            releaseAgain.countDown();
+        }
+        int failed = 0;
+        List<String> responses = new ArrayList<>();
+        for (Future<String> response : calls) {
+            try {
+                responses.add(response.get());
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+
+        // Assert
+        assertThat(failed).isEqualTo(1);
+        assertThat(responses).hasSize(CALLERS - 1).containsOnly(ACCOUNTS);
+        assertThat(requests).hasValue(2);
+    }
+
+    // Test case for failing the concurrent callers with an exception of the class of the failure of the shared request
+    @Test
+    void get_RequestFailingWithAnIoException_FailsEveryCallerWithItsClass() throws Exception {
+        // Arrange
+        StarlingClient client = client(request -> {
+            requests.incrementAndGet();
+            awaitRelease(release);
+            throw new ConnectException("Connection refused");
+        });
+
+        // Act
+        List<Future<String>> responses = callConcurrently(client);
+
+        // Assert
+        for (Future<String> response : responses) {
+            assertThatThrownBy(response::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ConnectException.class)
+                .hasRootCauseMessage("Connection refused");
+        }
+        assertThat(requests).hasValue(1);
+    }
+
+    private StarlingClient client(int statusCode) {
+        return client(statusCode, 0);
+    }
+
+    // The first timedOutRequests requests time out once released, the others answer with the status code once
+    // released again
+    private StarlingClient client(int statusCode, int timedOutRequests) {
+        return client(request -> {
+            int sent = requests.incrementAndGet();
+            awaitRelease(release);
+            if (sent <= timedOutRequests) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            if (timedOutRequests > 0) {
+                awaitRelease(releaseAgain);
+            }
+            return new ApiResponse(statusCode, Map.of(), ACCOUNTS.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private static StarlingClient client(Transport transport) {
+        return new StarlingClient(new TenantConfig("default", "token", "http://localhost", MAX_CONCURRENT_REQUESTS),
+            transport);
+    }
+
+    // Calls the accounts endpoint from every caller, releasing the request once all but one caller wait for it
+    private List<Future<String>> callConcurrently(StarlingClient client) throws InterruptedException {
+        List<Future<String>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int caller = 0; caller < CALLERS; caller++) {
+                responses.add(executor.submit(client::getAccountDetails));
+            }
+            awaitCoalesced(client, CALLERS - 1);
+            release.countDown();
+        }
+        return responses;
+    }
+
+    private static void awaitRelease(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitCoalesced(StarlingClient client, long coalescedCalls) throws InterruptedException {
+        long giveUpAt = System.nanoTime() + COALESCED_WITHIN.toNanos();
+        while (client.getMetrics().getCoalescedCalls() < coalescedCalls && System.nanoTime() < giveUpAt) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.starlingbank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.http.client.methods.HttpPut;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.starlingbank.api.StarlingClient;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.exceptions.ApiException;
+import com.starlingbank.transport.ApiResponse;
+import com.starlingbank.transport.RecordingTransport;
+import com.starlingbank.transport.ReplayTiming;
+import com.starlingbank.transport.ReplayTransport;
+import com.starlingbank.transport.TrafficRecorder;
+import com.starlingbank.transport.Transport;
+
+/**
+ * This class is used to test recording the API traffic and replaying it.
+ * @author Cesar Goncalves
+ */
+class TrafficRecordingTest {
+
+    private static final String ACCESS_TOKEN = "secret-access-token";
+    private static final String ACCOUNTS_BODY = "{\"accounts\":[]}";
+    private static final int HTTP_STATUS_OK = 200;
+    private static final int HTTP_STATUS_BAD_REQUEST = 400;
+
+    // Test case for replaying a recorded session without the network
+    @Test
+    void replay_RecordedSession(@TempDir Path directory) throws IOException, ApiException {
+        // Arrange
+        Path recording = directory.resolve("session.rec.gz");
+        Transport network = request -> new ApiResponse(HTTP_STATUS_OK, Collections.emptyMap(),
+            ACCOUNTS_BODY.getBytes(StandardCharsets.UTF_8));
+        AtomicLong clock = new AtomicLong();
+        try (TrafficRecorder recorder = new TrafficRecorder(recording)) {
+            Transport recordingTransport = new RecordingTransport(network, recorder, clock::incrementAndGet);
+            new StarlingClient(TenantConfig.ofAccessToken(ACCESS_TOKEN), recordingTransport).getAccountDetails();
+        }
+
+        // Act
+        ReplayTransport replay = ReplayTransport.load(recording, ReplayTiming.MAXIMUM_SPEED);
+        String accounts = new StarlingClient(TenantConfig.ofAccessToken(""), replay).getAccountDetails();
+
+        // Assert
+        assertThat(accounts).isEqualTo(ACCOUNTS_BODY);
+        assertThat(decompress(recording)).doesNotContain(ACCESS_TOKEN);
+    }
+
+    // Test case for replaying a request whose trailing identifier differs from the recorded one
+    @Test
+    void replay_TrailingUidIgnored(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path recording = directory.resolve("session.rec.gz");
+        Transport network = request -> new ApiResponse(HTTP_STATUS_BAD_REQUEST, Collections.emptyMap(),
+            new byte[0]);
+        try (TrafficRecorder recorder = new TrafficRecorder(recording)) {
+            new RecordingTransport(network, recorder, System::nanoTime)
+                .execute(new HttpPut("https://api/savings-goals/add-money/0f1e2d3c-9876-4b5a-9c8d-7e6f5a4b3c2d"));
+        }
+        ReplayTransport replay = ReplayTransport.load(recording, ReplayTiming.MAXIMUM_SPEED);
+
+        // Act
+        ApiResponse response = replay.execute(
+            new HttpPut("https://api/savings-goals/add-money/1b2c3d4e-5678-4a9b-8c7d-6e5f4a3b2c1d"));
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HTTP_STATUS_BAD_REQUEST);
+        assertThatThrownBy(() -> replay.execute(new HttpPut("https://api/savings-goals")))
+            .isInstanceOf(IOException.class);
+    }
+
+    private static String decompress(Path recording) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(recording))) {
+            return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+    }
+}
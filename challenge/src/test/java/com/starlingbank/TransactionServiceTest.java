@@ -5,16 +5,20 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.starlingbank.api.StarlingClient;
 import com.starlingbank.exceptions.ApiException;
 import com.starlingbank.exceptions.ServiceException;
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.json.OrgJsonCodec;
 import com.starlingbank.model.Transaction;
 import com.starlingbank.service.TransactionService;
 
@@ -27,8 +31,8 @@ class TransactionServiceTest {
 
     // Constants for testing
     private static final int API_ERROR_CODE = 500;
-    private static final String ACCOUNT_UID = "account-uid";
-    private static final String CATEGORY_UID = "category-uid";
+    private static final UUID ACCOUNT_UID = UUID.fromString("2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34");
+    private static final UUID CATEGORY_UID = UUID.fromString("8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10");
     private static final String MIN_TIMESTAMP = "2021-01-01T00:00:00Z";
     private static final String MAX_TIMESTAMP = "2021-01-31T23:59:59Z";
     private static final int EXPECTED_MINOR_UNITS = 123;
@@ -39,6 +43,10 @@ class TransactionServiceTest {
     @Mock
     private StarlingClient starlingClient;
 
+    // Decoding the API responses with the org.json codec
+    @Spy
+    private JsonCodec jsonCodec = new OrgJsonCodec();
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -69,7 +77,7 @@ class TransactionServiceTest {
             .hasMessageContaining("Input parameters cannot be null or empty");
 
         // Assert that an exception is thrown when empty parameters are passed
-        assertThatThrownBy(() -> transactionService.getTransactions(ACCOUNT_UID, "", MIN_TIMESTAMP, MAX_TIMESTAMP))
+        assertThatThrownBy(() -> transactionService.getTransactions(ACCOUNT_UID, CATEGORY_UID, "", MAX_TIMESTAMP))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Input parameters cannot be null or empty");
     }
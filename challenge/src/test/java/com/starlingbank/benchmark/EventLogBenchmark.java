@@ -0,0 +1,83 @@
+package com.starlingbank.benchmark;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.logging.EventLog;
+import com.starlingbank.logging.LogEvent;
+
+/**
+ * Compares the time the calling threads spend logging a progress event through java.util.logging, whose handler
+ * formats and writes under a lock on the caller's thread, with the EventLog, which hands the event to its ring.
+ * Both write to a discarding output; the EventLog's dropped count shows how many events it shed to keep up.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class EventLogBenchmark {
+    private static final UUID ACCOUNT_UID = UUID.fromString("9a8b7c6d-1234-4f5e-8a9b-0c1d2e3f4a5b");
+    private static final long AMOUNT = 1234;
+
+    private Logger logger;
+    private EventLog eventLog;
+
+    /**
+     * Creates a JUL logger and an EventLog writing to discarding outputs.
+     */
+    @Setup
+    public void setUp() {
+        logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+        eventLog = EventLog.start(Writer.nullWriter(), EventLog.DEFAULT_CAPACITY, Level.INFO);
+    }
+
+    /**
+     * Stops the EventLog's writer and reports the events it dropped.
+     */
+    @TearDown
+    public void tearDown() {
+        eventLog.close();
+        System.out.println("EventLog dropped " + eventLog.getDropped() + " events");
+    }
+
+    /**
+     * Logs through java.util.logging.
+     */
+    @Benchmark
+    public void julLogger() {
+        logger.log(Level.INFO, "Transferred {0} from account {1}", new Object[] {AMOUNT, ACCOUNT_UID});
+    }
+
+    /**
+     * Logs through the EventLog.
+     */
+    @Benchmark
+    public void eventLog() {
+        eventLog.log(LogEvent.of(Level.INFO, "transfer", "Transferred").account(ACCOUNT_UID).amount(AMOUNT));
+    }
+}
@@ -0,0 +1,90 @@
+package com.starlingbank.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.json.JsonCodec;
+import com.starlingbank.json.JsonCodecs;
+import com.starlingbank.model.SavingGoal;
+import com.starlingbank.model.Transaction;
+
+/**
+ * Compares the JsonCodecs decoding a transaction feed and a list of savings goals shaped like the
+ * Starling Bank responses. Run with the GC profiler to compare gc.alloc.rate.norm as well as the time.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+    private static final int FEED_ITEMS = 200;
+    private static final int SAVINGS_GOALS = 20;
+
+    // The name of the codec benchmarked, set by JMH
+    @SuppressWarnings("checkstyle:VisibilityModifier")
+    @Param({"org.json", "jackson"})
+    String codecName;
+
+    private JsonCodec codec;
+    private String feed;
+    private String savingsGoals;
+
+    /**
+     * Selects the codec and builds the payloads.
+     */
+    @Setup
+    public void setUp() {
+        codec = JsonCodecs.byName(codecName);
+        feed = payload("feedItems", FEED_ITEMS, "{\"feedItemUid\":\"%1$08d-0000-4000-8000-000000000000\","
+            + "\"categoryUid\":\"8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10\",\"amount\":{\"currency\":\"GBP\",\"minorUnits\":%1$d},"
+            + "\"sourceAmount\":{\"currency\":\"GBP\",\"minorUnits\":%1$d},\"direction\":\"OUT\","
+            + "\"updatedAt\":\"2024-01-01T10:00:00.000Z\",\"transactionTime\":\"2024-01-01T10:00:00.000Z\","
+            + "\"source\":\"FASTER_PAYMENTS_OUT\",\"status\":\"SETTLED\",\"counterPartyName\":\"Shop %1$d\","
+            + "\"reference\":\"Payment %1$d\",\"country\":\"GB\",\"spendingCategory\":\"SHOPPING\"}");
+        savingsGoals = payload("savingsGoalList", SAVINGS_GOALS, "{\"savingsGoalUid\":\"%1$08d-0000-4000-8000-000000000001\","
+            + "\"name\":\"Goal %1$d\","
+            + "\"target\":{\"currency\":\"GBP\",\"minorUnits\":100000},"
+            + "\"totalSaved\":{\"currency\":\"GBP\",\"minorUnits\":%1$d},\"savedPercentage\":1,\"state\":\"ACTIVE\"}");
+    }
+
+    /**
+     * Decodes a transaction feed.
+     * @return The transactions.
+     */
+    @Benchmark
+    public List<Transaction> decodeTransactions() {
+        return codec.decodeTransactions(feed);
+    }
+
+    /**
+     * Decodes a list of savings goals.
+     * @return The savings goals.
+     */
+    @Benchmark
+    public List<SavingGoal> decodeSavingsGoals() {
+        return codec.decodeSavingsGoals(savingsGoals);
+    }
+
+    private static String payload(String arrayName, int size, String itemFormat) {
+        StringBuilder json = new StringBuilder("{\"").append(arrayName).append("\":[");
+        for (int i = 0; i < size; i++) {
+            json.append(i == 0 ? "" : ",").append(String.format(itemFormat, i));
+        }
+        return json.append("]}").toString();
+    }
+}
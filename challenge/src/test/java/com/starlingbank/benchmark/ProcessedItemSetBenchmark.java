@@ -0,0 +1,93 @@
+package com.starlingbank.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.dedup.ProcessedItemSet;
+
+/**
+ * Measures the membership checks of a ProcessedItemSet holding millions of feed items, for items in the set
+ * and items not in it. The set lives in a temporary file mapped in memory, so the heap does not grow with it.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessedItemSetBenchmark {
+    // Seed of the UUIDs added, so the benchmarks can regenerate any of them without keeping them on the heap
+    private static final long SEED = 42;
+
+    @Param({"1000000", "10000000"})
+    private int items;
+
+    private Path directory;
+    private ProcessedItemSet processedItems;
+
+    /**
+     * Fills the set with the UUIDs derived from the seed.
+     * @throws IOException If the set cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void fill() throws IOException {
+        directory = Files.createTempDirectory("processed-items");
+        processedItems = ProcessedItemSet.open(directory.resolve("set"));
+        for (int item = 0; item < items; item++) {
+            processedItems.add(itemUid(item));
+        }
+    }
+
+    /**
+     * Closes and deletes the set.
+     * @throws IOException If the set cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        processedItems.close();
+        Files.delete(directory.resolve("set"));
+        Files.delete(directory);
+    }
+
+    /**
+     * Checks an item in the set.
+     * @return Whether the item is in the set.
+     */
+    @Benchmark
+    public boolean containsPresent() {
+        return processedItems.contains(itemUid(ThreadLocalRandom.current().nextInt(items)));
+    }
+
+    /**
+     * Checks an item not in the set.
+     * @return Whether the item is in the set.
+     */
+    @Benchmark
+    public boolean containsAbsent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return processedItems.contains(new UUID(random.nextLong(), random.nextLong()));
+    }
+
+    private static UUID itemUid(int item) {
+        return new UUID(SEED, item + 1L);
+    }
+}
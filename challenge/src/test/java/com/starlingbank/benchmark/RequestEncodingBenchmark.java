@@ -0,0 +1,93 @@
+package com.starlingbank.benchmark;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHeader;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.util.JsonBodyWriter;
+
+/**
+ * Compares the allocations of building an add-money request the old way (URL concatenated from the base URL,
+ * header objects created per request, body built as JSONObjects and serialised to a StringEntity) with the
+ * prebuilt URL prefix, shared headers and streaming JsonBodyWriter used by StarlingClient.
+ * Run with the GC profiler (see the benchmark profile in the pom) and compare gc.alloc.rate.norm.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestEncodingBenchmark {
+    private static final String BASE_URL = "https://api-sandbox.starlingbank.com";
+    private static final String ACCOUNT_UID = "9a8b7c6d-1234-4f5e-8a9b-0c1d2e3f4a5b";
+    private static final String SAVINGS_GOAL_UID = "1b2c3d4e-5678-4a9b-8c7d-6e5f4a3b2c1d";
+    private static final String TRANSFER_UID = "0f1e2d3c-9876-4b5a-9c8d-7e6f5a4b3c2d";
+    private static final String ACCESS_TOKEN = "eyJhbGciOiJQUzI1NiIsInppcCI6IkdaSVAifQ";
+    private static final int MINOR_UNITS = 1234;
+
+    private final String accountPrefix = BASE_URL + "/api/v2/account/";
+    private final Header authorization = new BasicHeader(HttpHeaders.AUTHORIZATION, "Bearer " + ACCESS_TOKEN);
+    private final Header acceptJson = new BasicHeader(HttpHeaders.ACCEPT, "application/json");
+    private final JsonBodyWriter writer = new JsonBodyWriter();
+
+    /**
+     * Builds the request with string concatenation, per-request headers and JSONObjects.
+     * @return The request.
+     * @throws UnsupportedEncodingException Never, the default charset is supported.
+     */
+    @Benchmark
+    public HttpPut jsonObjectBody() throws UnsupportedEncodingException {
+        String url = BASE_URL + "/api/v2/account/" + ACCOUNT_UID + "/savings-goals/" + SAVINGS_GOAL_UID
+            + "/add-money/" + TRANSFER_UID;
+        HttpPut request = new HttpPut(url);
+        JSONObject amountJson = new JSONObject();
+        amountJson.put("currency", "GBP");
+        amountJson.put("minorUnits", MINOR_UNITS);
+        JSONObject addMoneyRequest = new JSONObject();
+        addMoneyRequest.put("amount", amountJson);
+        request.setEntity(new StringEntity(addMoneyRequest.toString()));
+        request.setHeader("Content-Type", "application/json");
+        request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + ACCESS_TOKEN);
+        request.setHeader(HttpHeaders.ACCEPT, "application/json");
+        return request;
+    }
+
+    /**
+     * Builds the request with a prebuilt URL prefix, shared headers and a reused JsonBodyWriter.
+     * @return The request.
+     */
+    @Benchmark
+    public HttpPut streamingBody() {
+        HttpPut request = new HttpPut(accountPrefix + ACCOUNT_UID + "/savings-goals/" + SAVINGS_GOAL_UID
+            + "/add-money/" + TRANSFER_UID);
+        writer.reset().beginObject()
+            .name("amount").beginObject()
+                .name("currency").value("GBP")
+                .name("minorUnits").value(MINOR_UNITS)
+            .endObject()
+            .endObject();
+        request.setEntity(new ByteArrayEntity(writer.buffer(), 0, writer.size(), ContentType.APPLICATION_JSON));
+        request.setHeader(authorization);
+        request.setHeader(acceptJson);
+        return request;
+    }
+}
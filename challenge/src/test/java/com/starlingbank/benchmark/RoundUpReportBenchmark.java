@@ -0,0 +1,101 @@
+package com.starlingbank.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.model.Account;
+import com.starlingbank.model.Transaction;
+import com.starlingbank.report.ReportFormat;
+import com.starlingbank.report.ReportLevel;
+import com.starlingbank.report.ReportSettings;
+import com.starlingbank.report.RoundUpReport;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Measures exporting the transaction rows of a backfill of a million transactions, fed to the report in chunks of
+ * ten thousand as the backfill does, in each format, plain and gzipped. With the GC profiler, the allocation rate
+ * shows the rows are written without copies of the report on the heap.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundUpReportBenchmark {
+    private static final int CHUNKS = 100;
+    private static final int TRANSACTIONS_PER_CHUNK = 10_000;
+    private static final int MAX_MINOR_UNITS = 20_000;
+    private static final Account ACCOUNT = new Account(UUID.randomUUID(), UUID.randomUUID());
+
+    @Param({"CSV", "JSON_LINES"})
+    private ReportFormat format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private final RoundUpCalculator calculator = new RoundUpCalculator();
+    private List<Transaction> chunk;
+    private Path directory;
+    private ReportSettings settings;
+
+    /**
+     * Generates a chunk of transactions and the settings of the report.
+     * @throws IOException If the directory of the report cannot be created.
+     */
+    @Setup
+    public void generateChunk() throws IOException {
+        chunk = new ArrayList<>(TRANSACTIONS_PER_CHUNK);
+        for (int i = 0; i < TRANSACTIONS_PER_CHUNK; i++) {
+            chunk.add(new Transaction(UUID.randomUUID(), "2024-01-15T10:20:30.000Z",
+                i * MAX_MINOR_UNITS / TRANSACTIONS_PER_CHUNK, i % 2 == 0 ? "FASTER_PAYMENTS_OUT" : "MASTER_CARD"));
+        }
+        directory = Files.createTempDirectory("report");
+        settings = new ReportSettings(directory.resolve(gzip ? "report.gz" : "report"), format,
+            ReportLevel.TRANSACTION);
+    }
+
+    /**
+     * Deletes the report.
+     * @throws IOException If the report cannot be deleted.
+     */
+    @TearDown
+    public void delete() throws IOException {
+        Files.deleteIfExists(settings.getFile());
+        Files.delete(directory);
+    }
+
+    /**
+     * Exports a million transaction rows, replacing the previous report.
+     * @return The size of the report in bytes.
+     * @throws IOException If the report cannot be written.
+     */
+    @Benchmark
+    public long export() throws IOException {
+        try (RoundUpReport report = RoundUpReport.open(settings, calculator, 0)) {
+            for (int i = 0; i < CHUNKS; i++) {
+                report.write(ACCOUNT, chunk);
+            }
+        }
+        return Files.size(settings.getFile());
+    }
+}
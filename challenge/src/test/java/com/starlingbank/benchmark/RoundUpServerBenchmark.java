@@ -0,0 +1,110 @@
+package com.starlingbank.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.api.StarlingClient;
+import com.starlingbank.config.TenantConfig;
+import com.starlingbank.json.OrgJsonCodec;
+import com.starlingbank.server.RoundUpEndpoints;
+import com.starlingbank.server.RoundUpServer;
+import com.starlingbank.server.ServerSettings;
+import com.starlingbank.service.SavingsGoalService;
+import com.starlingbank.service.TransactionService;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Measures the throughput and latency of the round-up server under many concurrent callers, each request
+ * fetching a feed from the local StarlingApiStub through the shared StarlingClient. With a virtual thread per
+ * request, the requests waiting on the API hold no platform thread, so the throughput is bounded by the latency
+ * of the stub and the concurrency of the callers rather than by a pool of the server.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(RoundUpServerBenchmark.CALLERS)
+@Fork(1)
+public class RoundUpServerBenchmark {
+    static final int CALLERS = 64;
+    private static final int MAX_CONCURRENT_REQUESTS = 256;
+    private static final Duration LATENCY = Duration.ofMillis(20);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String TOKEN = "benchmark-token";
+    private static final String QUERY = "?accountUid=2c1f6b3e-8d4a-4f57-9c2e-5b7a1d0e9f34"
+        + "&categoryUid=8f3a9d27-4b6e-4c1a-a5d8-3e9b7f2c6a10&from=2024-01-01&to=2024-01-08";
+
+    private StarlingApiStub stub;
+    private CloseableHttpClient apacheClient;
+    private RoundUpServer server;
+    private HttpClient client;
+    private HttpRequest request;
+
+    /**
+     * Starts the stub and the server, and builds the request of the callers.
+     * @throws IOException If the stub or the server cannot be started.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        stub = new StarlingApiStub(LATENCY);
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(MAX_CONCURRENT_REQUESTS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONCURRENT_REQUESTS);
+        apacheClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+        StarlingClient starlingClient = new StarlingClient(
+            new TenantConfig("default", "token", stub.getBaseUrl(), MAX_CONCURRENT_REQUESTS), apacheClient);
+        OrgJsonCodec jsonCodec = new OrgJsonCodec();
+        server = new RoundUpServer(new ServerSettings("127.0.0.1", 0, REQUEST_TIMEOUT, TOKEN), new RoundUpEndpoints(
+            new TransactionService(starlingClient, jsonCodec), new SavingsGoalService(starlingClient, jsonCodec),
+            new RoundUpCalculator()));
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort()
+            + RoundUpServer.ROUND_UP_PATH + QUERY)).header("Authorization", "Bearer " + TOKEN).build();
+    }
+
+    /**
+     * Stops the server and the stub.
+     * @throws IOException If the client of the API cannot be closed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        apacheClient.close();
+        stub.close();
+    }
+
+    /**
+     * Calculates the round-up of an account over HTTP.
+     * @return The response.
+     * @throws IOException If the request fails.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    @Benchmark
+    public String roundUp() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
@@ -0,0 +1,67 @@
+package com.starlingbank.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.model.Transaction;
+import com.starlingbank.simulation.RoundUpSimulator;
+import com.starlingbank.simulation.RoundUpStrategy;
+import com.starlingbank.simulation.SimulationReport;
+import com.starlingbank.util.RoundUpCalculator;
+
+/**
+ * Measures the RoundUpSimulator evaluating the 36 strategies of the standard grid over a million transactions,
+ * about a year of transactions for a few thousand customers.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundUpSimulatorBenchmark {
+    private static final int TRANSACTIONS = 1_000_000;
+    private static final int MAX_MINOR_UNITS = 20_000;
+    private static final long SEED = 42;
+    private static final String[] SOURCES = {RoundUpStrategy.FASTER_PAYMENTS_OUT, RoundUpStrategy.MASTER_CARD,
+        RoundUpStrategy.DIRECT_DEBIT, "FASTER_PAYMENTS_IN"};
+
+    private final RoundUpSimulator simulator =
+        new RoundUpSimulator(new RoundUpCalculator(), RoundUpStrategy.standardGrid());
+    private List<Transaction> transactions;
+
+    /**
+     * Generates the transactions.
+     */
+    @Setup
+    public void generateTransactions() {
+        Random random = new Random(SEED);
+        transactions = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions.add(new Transaction(random.nextInt(MAX_MINOR_UNITS), SOURCES[random.nextInt(SOURCES.length)]));
+        }
+    }
+
+    /**
+     * Evaluates the standard grid over the transactions.
+     * @return The report.
+     */
+    @Benchmark
+    public SimulationReport standardGrid() {
+        return simulator.simulate(transactions);
+    }
+}
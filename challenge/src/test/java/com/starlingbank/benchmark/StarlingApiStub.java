@@ -0,0 +1,94 @@
+package com.starlingbank.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the Starling Bank API, answering every request with the same page of feed items after a
+ * fixed latency, and counting the connections its clients opened.
+ * The JDK's HttpServer speaks HTTP/1.1 only, so an HTTP/2 client talks HTTP/1.1 to it.
+ * @author Cesar Goncalves
+ */
+public final class StarlingApiStub implements AutoCloseable {
+    private static final int HTTP_STATUS_OK = 200;
+    private static final byte[] FEED_ITEMS = ("{\"feedItems\":["
+        + "{\"amount\":{\"currency\":\"GBP\",\"minorUnits\":1234},\"source\":\"MASTER_CARD\",\"direction\":\"OUT\"},"
+        + "{\"amount\":{\"currency\":\"GBP\",\"minorUnits\":250},\"source\":\"FASTER_PAYMENTS_OUT\",\"direction\":\"OUT\"}"
+        + "]}").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration latency;
+    // The client side address of every connection opened
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Starts the stub on a free port of the loopback interface.
+     * @param latency The time the stub takes to answer a request.
+     * @throws IOException If the stub cannot listen.
+     */
+    public StarlingApiStub(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::answer);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns the base URL of the stub.
+     * @return The base URL.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of connections the clients opened so far.
+     * @return The number of connections.
+     */
+    public int getConnections() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        connections.add(exchange.getRemoteAddress());
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            // The response to a warm-up has no body
+            exchange.sendResponseHeaders(HTTP_STATUS_OK, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(HTTP_STATUS_OK, FEED_ITEMS.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(FEED_ITEMS);
+        }
+    }
+}
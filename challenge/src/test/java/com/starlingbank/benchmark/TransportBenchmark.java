@@ -0,0 +1,110 @@
+package com.starlingbank.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.transport.HttpClientTransport;
+import com.starlingbank.transport.JdkHttpTransport;
+import com.starlingbank.transport.Transport;
+
+/**
+ * Compares the transports on bursts of concurrent feed requests to the local StarlingApiStub: the Apache client,
+ * pooling one HTTP/1.1 connection per concurrent request, and the JDK client negotiating HTTP/2.
+ * The stub speaks HTTP/1.1 only, so both transports open about one connection per concurrent request here and the
+ * benchmark compares their overhead; the connections opened are printed after each trial.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportBenchmark {
+    private static final int CONCURRENT_REQUESTS = 200;
+    private static final Duration LATENCY = Duration.ofMillis(20);
+    private static final String FEED_PATH = "/api/v2/feed/account/a-1/category/c-1/transactions-between";
+
+    @Param({"apache", "http2"})
+    private String transportName;
+
+    private StarlingApiStub stub;
+    private CloseableHttpClient apacheClient;
+    private Transport transport;
+    private ExecutorService callers;
+
+    /**
+     * Starts the stub and the transport.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        stub = new StarlingApiStub(LATENCY);
+        if ("http2".equals(transportName)) {
+            transport = JdkHttpTransport.http2();
+        } else {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(CONCURRENT_REQUESTS);
+            connectionManager.setDefaultMaxPerRoute(CONCURRENT_REQUESTS);
+            apacheClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+            transport = new HttpClientTransport(apacheClient);
+        }
+        callers = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Stops the stub and the transport, and prints the connections opened.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.println(transportName + " opened " + stub.getConnections() + " connections");
+        callers.shutdownNow();
+        if (apacheClient != null) {
+            apacheClient.close();
+        }
+        stub.close();
+    }
+
+    /**
+     * Sends a burst of concurrent GETs and waits for every response.
+     * @return The sum of the sizes of the responses.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_REQUESTS)
+    public int concurrentFeedRequests() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> responses = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int request = 0; request < CONCURRENT_REQUESTS; request++) {
+            responses.add(callers.submit(() -> transport.execute(new HttpGet(stub.getBaseUrl() + FEED_PATH))
+                .getBody().length));
+        }
+        int bytes = 0;
+        for (Future<Integer> response : responses) {
+            bytes += response.get();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,89 @@
+package com.starlingbank.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.starlingbank.webhook.RsaSignatureVerifier;
+
+/**
+ * Generates signed feed item webhook events, as Starling Bank would send them, for the benchmarks.
+ * Signing with RSA is far slower than verifying, so the events are generated before the measurement.
+ * @author Cesar Goncalves
+ */
+final class WebhookEventGenerator {
+    private static final int KEY_SIZE = 2048;
+    private static final int MAX_MINOR_UNITS = 20_000;
+    private static final String[] SOURCES = {"FASTER_PAYMENTS_OUT", "MASTER_CARD", "DIRECT_DEBIT"};
+
+    private final KeyPair keyPair;
+    private final Random random;
+
+    /**
+     * Constructor for WebhookEventGenerator, generating the key pair the events are signed with.
+     * @param seed The seed of the amounts, sources and accounts of the events.
+     * @throws GeneralSecurityException If RSA is not available.
+     */
+    WebhookEventGenerator(long seed) throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(KEY_SIZE);
+        this.keyPair = generator.generateKeyPair();
+        this.random = new Random(seed);
+    }
+
+    PublicKey getPublicKey() {
+        return keyPair.getPublic();
+    }
+
+    /**
+     * Generates signed events, each for a distinct feed item.
+     * @param count The number of events.
+     * @param accounts The number of accounts the events are spread over.
+     * @return The events.
+     * @throws GeneralSecurityException If an event cannot be signed.
+     */
+    List<SignedEvent> generate(int count, int accounts) throws GeneralSecurityException {
+        List<SignedEvent> events = new ArrayList<>(count);
+        Signature signer = Signature.getInstance(RsaSignatureVerifier.ALGORITHM);
+        for (int i = 0; i < count; i++) {
+            byte[] body = ("{\"webhookEventUid\":\"" + UUID.randomUUID() + "\",\"content\":{\"feedItemUid\":\""
+                + UUID.randomUUID() + "\",\"accountUid\":\"" + new UUID(0, random.nextInt(accounts))
+                + "\",\"amount\":{\"currency\":\"GBP\",\"minorUnits\":" + random.nextInt(MAX_MINOR_UNITS)
+                + "},\"direction\":\"OUT\",\"source\":\"" + SOURCES[random.nextInt(SOURCES.length)] + "\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+            signer.initSign(keyPair.getPrivate());
+            signer.update(body);
+            events.add(new SignedEvent(body, Base64.getEncoder().encodeToString(signer.sign())));
+        }
+        return events;
+    }
+
+    /**
+     * A webhook body and its X-Hook-Signature.
+     */
+    static final class SignedEvent {
+        private final byte[] body;
+        private final String signature;
+
+        SignedEvent(byte[] body, String signature) {
+            this.body = body;
+            this.signature = signature;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+
+        String getSignature() {
+            return signature;
+        }
+    }
+}
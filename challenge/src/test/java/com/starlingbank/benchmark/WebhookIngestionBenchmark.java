@@ -0,0 +1,157 @@
+package com.starlingbank.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.starlingbank.json.JacksonJsonCodec;
+import com.starlingbank.util.RoundUpCalculator;
+import com.starlingbank.webhook.FeedItemIngester;
+import com.starlingbank.webhook.RecentEventFilter;
+import com.starlingbank.webhook.RoundUpAccumulator;
+import com.starlingbank.webhook.RsaSignatureVerifier;
+import com.starlingbank.webhook.WebhookServer;
+
+/**
+ * Measures the events per second ingested by the webhook listener, driven by a local generator of signed events:
+ * in process (verification, decoding, deduplication and accumulation) and over HTTP from concurrent senders.
+ * Every invocation ingests a batch of distinct feed items into a fresh ingester, so none is filtered out as a
+ * duplicate.
+ * @author Cesar Goncalves
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookIngestionBenchmark {
+    private static final int EVENTS = 2048;
+    private static final int ACCOUNTS = 100;
+    private static final int SENDERS = 32;
+    private static final long SEED = 42;
+    private static final String SIGNATURE_HEADER = "X-Hook-Signature";
+
+    private List<WebhookEventGenerator.SignedEvent> events;
+    private RsaSignatureVerifier verifier;
+    private HttpClient client;
+    private ExecutorService senders;
+    private FeedItemIngester ingester;
+    private WebhookServer server;
+    private URI uri;
+
+    /**
+     * Generates the signed events and the HTTP client of the senders.
+     * @throws GeneralSecurityException If the events cannot be signed.
+     */
+    @Setup(Level.Trial)
+    public void generateEvents() throws GeneralSecurityException {
+        WebhookEventGenerator generator = new WebhookEventGenerator(SEED);
+        events = generator.generate(EVENTS, ACCOUNTS);
+        verifier = new RsaSignatureVerifier(generator.getPublicKey());
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        senders = Executors.newFixedThreadPool(SENDERS);
+    }
+
+    /**
+     * Starts a fresh ingester and listener, so the batch holds no duplicate.
+     * @throws IOException If the listener cannot be started.
+     */
+    @Setup(Level.Invocation)
+    public void startListener() throws IOException {
+        ingester = new FeedItemIngester(verifier, new JacksonJsonCodec(), new RecentEventFilter(EVENTS),
+            new RoundUpCalculator(), new RoundUpAccumulator());
+        server = new WebhookServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), ingester);
+        server.start();
+        uri = URI.create("http://localhost:" + server.getPort() + WebhookServer.FEED_ITEM_PATH);
+    }
+
+    /**
+     * Stops the listener.
+     */
+    @TearDown(Level.Invocation)
+    public void stopListener() {
+        server.close();
+    }
+
+    /**
+     * Stops the senders.
+     */
+    @TearDown(Level.Trial)
+    public void stopSenders() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Ingests the batch in process, without HTTP.
+     * @return The sum of the status codes.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int inProcess() {
+        int accepted = 0;
+        for (WebhookEventGenerator.SignedEvent event : events) {
+            accepted += ingester.ingest(event.getBody(), event.getSignature()).getStatusCode();
+        }
+        return accepted;
+    }
+
+    /**
+     * Sends the batch to the listener over HTTP, from concurrent senders on keep-alive connections.
+     * @return The sum of the status codes.
+     * @throws InterruptedException If interrupted while waiting for the senders.
+     * @throws ExecutionException If an event cannot be sent.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int overHttp() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> sent = new ArrayList<>(SENDERS);
+        for (int sender = 0; sender < SENDERS; sender++) {
+            int first = sender;
+            sent.add(senders.submit(() -> send(first)));
+        }
+        int statuses = 0;
+        for (Future<Integer> future : sent) {
+            statuses += future.get();
+        }
+        return statuses;
+    }
+
+    // Sends every SENDERS-th event, starting from the given one
+    private int send(int first) throws IOException, InterruptedException {
+        int statuses = 0;
+        for (int i = first; i < EVENTS; i += SENDERS) {
+            WebhookEventGenerator.SignedEvent event = events.get(i);
+            HttpRequest request = HttpRequest.newBuilder(uri).header(SIGNATURE_HEADER, event.getSignature())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(event.getBody())).build();
+            statuses += client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+        return statuses;
+    }
+}